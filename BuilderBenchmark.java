@@ -0,0 +1,62 @@
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.Vertex;
+
+import java.util.Random;
+
+/**
+ * Benchmark of batch construction: the same random graph is built with GraphBuilder and with a loop of addVertex and addEdge
+ * Prints the best time of each over a few rounds, the builder arrays being filled before the timer starts
+ * Usage: java BuilderBenchmark [vertices] [edges] [directed]
+ */
+public class BuilderBenchmark {
+	public static void main(String[] args) {
+		int vertexCount = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int edgeCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+		boolean directed = args.length > 2 ? Boolean.parseBoolean(args[2]) : true;
+		Integer data[] = new Integer[vertexCount];
+		for(int i = 0; i < vertexCount; i++)
+			data[i] = i;
+		int from[] = new int[edgeCount], to[] = new int[edgeCount];
+		double weights[] = new double[edgeCount];
+		Random random = new Random(1);
+		for(int e = 0; e < edgeCount; e++){
+			from[e] = random.nextInt(vertexCount);
+			to[e] = random.nextInt(vertexCount);
+			weights[e] = 1 + random.nextInt(100);
+		}
+		GraphBuilder<Integer,String> builder = new GraphBuilder<Integer,String>(directed, vertexCount, edgeCount);
+		builder.addVertices(data);
+		builder.addEdges(from, to, null, weights);
+		System.out.println(String.format("Vertices: %d, edges: %d, directed: %s", vertexCount, edgeCount, directed));
+
+		double bulk = Double.MAX_VALUE, loop = Double.MAX_VALUE;
+		long check = 0;
+		for(int round = 0; round < 5; round++){
+			long start = System.nanoTime();
+			Graph<Integer,String> built = builder.build();
+			bulk = Math.min(bulk, (System.nanoTime() - start) / 1e6);
+			check += built.vertices().next().getOutEdges().size();
+			built = null;
+
+			start = System.nanoTime();
+			Graph<Integer,String> graph = new Graph<Integer,String>(directed);
+			for(int i = 0; i < vertexCount; i++)
+				graph.addVertex(data[i]);
+			Vertex<Integer,String> vertices[] = graph.vertices_array();
+			for(int e = 0; e < edgeCount; e++)
+				graph.addEdge(vertices[from[e]], vertices[to[e]], null, weights[e]);
+			loop = Math.min(loop, (System.nanoTime() - start) / 1e6);
+			check += graph.vertices().next().getOutEdges().size();
+		}
+		System.out.println(String.format("GraphBuilder.build(): %.0f ms", bulk));
+		System.out.println(String.format("addVertex/addEdge loop: %.0f ms", loop));
+		System.out.println(String.format("Speedup: %.1fx (%d)", loop / bulk, check));
+	}
+}
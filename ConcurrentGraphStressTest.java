@@ -0,0 +1,121 @@
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+import graph.ConcurrentGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress test of ConcurrentGraph: writer threads add and remove random edges while reader threads poll snapshots, checking and querying one in 1024
+ * Prints the writes and snapshot reads per second, and the number of snapshots taken, for 1 to maxThreads writer/reader pairs, with a snapshot after every change and with the default epoch
+ * Usage: java ConcurrentGraphStressTest [seconds per run] [max threads] [vertices]
+ */
+public class ConcurrentGraphStressTest {
+	public static void main(String[] args) throws InterruptedException {
+		double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+		int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+		int n = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+		System.out.println("Processors: " + Runtime.getRuntime().availableProcessors() + ", vertices: " + n + ", " + seconds + " s per run");
+		System.out.println(String.format("%-10s %-8s %14s %14s %12s", "epoch ms", "threads", "writes/s", "reads/s", "snapshots"));
+		for(long epoch : new long[]{0, ConcurrentGraph.DEFAULT_EPOCH})
+			for(int threads = 1; threads <= maxThreads; threads *= 2)
+				run(epoch, threads, n, seconds);
+	}
+
+	/**
+	 * Run writers and readers for some time and print the rates
+	 * @param epoch
+	 * @param threads Number of writer/reader pairs
+	 * @param n Number of vertices
+	 * @param seconds
+	 */
+	private static void run(long epoch, int threads, final int n, double seconds) throws InterruptedException {
+		final ConcurrentGraph<Integer,Integer> graph = new ConcurrentGraph<Integer,Integer>(true, false, epoch);
+		final List<Vertex<Integer,Integer>> vertices = new ArrayList<Vertex<Integer,Integer>>();
+		graph.update(g -> {
+			for(int i = 0; i < n; i++)
+				vertices.add(g.addVertex(i));
+		});
+		final AtomicLong writes = new AtomicLong(), queries = new AtomicLong();
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final Map<Graph<Integer,Integer>,Boolean> snapshots = new IdentityHashMap<Graph<Integer,Integer>,Boolean>();
+		final long end = System.nanoTime() + (long) (seconds * 1e9);
+		List<Thread> workers = new ArrayList<Thread>();
+		for(int t = 0; t < threads; t++){
+			final Random random = new Random(t);
+			workers.add(new Thread(() -> {
+				try {
+					List<Edge<Integer,Integer>> added = new ArrayList<Edge<Integer,Integer>>();
+					long count = 0;
+					while(System.nanoTime() < end){
+						if(random.nextInt(10) < 3 && !added.isEmpty())
+							graph.removeEdge(added.remove(added.size() - 1));
+						else
+							added.add(graph.addEdge(vertices.get(random.nextInt(n)), vertices.get(random.nextInt(n)), null, random.nextInt(9) + 1)[0]);
+						count++;
+					}
+					writes.addAndGet(count);
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}));
+			final Random source = new Random(100 + t);
+			workers.add(new Thread(() -> {
+				try {
+					long count = 0;
+					while(System.nanoTime() < end){
+						Graph<Integer,Integer> snapshot = graph.snapshot();
+						synchronized (snapshots) {
+							snapshots.put(snapshot, true);
+						}
+						Vertex<Integer,Integer> vertex = snapshot.getVertex(vertices.get(source.nextInt(n)));
+						vertex.getOutEdges().size();
+						if(++count % 1024 == 0){
+							check(snapshot);
+							snapshot.BFS(vertex);
+							snapshot.dijkstra(vertex);
+						}
+					}
+					queries.addAndGet(count);
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}));
+		}
+		for(Thread worker : workers)
+			worker.start();
+		for(Thread worker : workers)
+			worker.join();
+		if(error.get() != null)
+			throw new IllegalStateException("Inconsistent snapshot", error.get());
+		System.out.println(String.format("%-10s %-8d %14.0f %14.0f %12d", epoch / 1e6, threads, writes.get() / seconds, queries.get() / seconds, snapshots.size()));
+	}
+
+	/**
+	 * Check that the degrees of a snapshot add up to its number of edges, and that its edges join its own vertices
+	 * @param snapshot
+	 */
+	private static void check(Graph<Integer,Integer> snapshot){
+		Edge<Integer,Integer> edges[] = snapshot.edges_array();
+		int degrees = 0;
+		for(Vertex<Integer,Integer> vertex : snapshot.vertices())
+			degrees += vertex.getOutEdges().size();
+		if(degrees != edges.length)
+			throw new IllegalStateException("Degrees " + degrees + " for " + edges.length + " edges");
+		for(Edge<Integer,Integer> edge : edges)
+			if(snapshot.getVertex(edge.getV1()) != edge.getV1() || snapshot.getVertex(edge.getV2()) != edge.getV2())
+				throw new IllegalStateException("Edge " + edge.getID() + " joins vertices of another snapshot");
+	}
+}
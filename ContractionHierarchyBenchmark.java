@@ -0,0 +1,85 @@
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+import graph.ContractionHierarchy;
+import graph.Edge;
+import graph.Graph;
+import graph.Vertex;
+
+import java.util.Random;
+
+/**
+ * Benchmark of the contraction hierarchy on an undirected grid with random weights
+ * Prints the build time and number of shortcuts, then the average time of a point to point query with the hierarchy and with dijkstra_bidirectional
+ * Usage: java ContractionHierarchyBenchmark [grid side] [queries]
+ */
+public class ContractionHierarchyBenchmark {
+	public static void main(String[] args) {
+		int side = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+		int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		Graph<String,String> graph = grid(side);
+		Vertex<String,String> vertices[] = graph.vertices_array();
+		System.out.println("Vertices: " + vertices.length + ", edges: " + graph.edges_array().length);
+
+		ContractionHierarchy<String,String> hierarchy = ContractionHierarchy.build(graph);
+		System.out.println(String.format("Build: %.1f s, shortcuts: %d", hierarchy.getBuildTime() / 1000, hierarchy.getShortcutCount()));
+
+		// The bidirectional search is much slower, a fraction of the queries is enough to time it
+		int searches = Math.max(1, queries / 50);
+		for(int round = 0; round < 3; round++){
+			Random random = new Random(3);
+			long start = System.nanoTime();
+			for(int i = 0; i < searches; i++){
+				Vertex<String,String> from = vertices[random.nextInt(vertices.length)], to = vertices[random.nextInt(vertices.length)];
+				double expected = length(graph.dijkstra_bidirectional(from, to));
+				if(expected != hierarchy.distance(from, to))
+					throw new IllegalStateException("Distances differ from " + from + " to " + to);
+			}
+			double bidirectional = (System.nanoTime() - start) / 1e6 / searches;
+			random = new Random(5);
+			start = System.nanoTime();
+			for(int i = 0; i < queries; i++)
+				hierarchy.shortestPath(vertices[random.nextInt(vertices.length)], vertices[random.nextInt(vertices.length)]);
+			double contracted = (System.nanoTime() - start) / 1e6 / queries;
+			System.out.println(String.format("dijkstra_bidirectional %.2f ms/query, hierarchy %.3f ms/query", bidirectional, contracted));
+		}
+	}
+
+	/**
+	 * Build an undirected grid, each vertex joined to its right and lower neighbors by an edge of random weight 1 to 100
+	 * @param side Number of vertices on a side
+	 * @return graph
+	 */
+	private static Graph<String,String> grid(int side) {
+		Graph<String,String> graph = new Graph<String,String>(false);
+		Random random = new Random(5);
+		for(int i = 0; i < side; i++)
+			for(int j = 0; j < side; j++)
+				graph.addVertex(i + "," + j);
+		Vertex<String,String> vertices[] = graph.vertices_array();
+		for(int i = 0; i < side; i++){
+			for(int j = 0; j < side; j++){
+				if(i + 1 < side)
+					graph.addEdge(vertices[i * side + j], vertices[(i + 1) * side + j], null, 1 + random.nextInt(100));
+				if(j + 1 < side)
+					graph.addEdge(vertices[i * side + j], vertices[i * side + j + 1], null, 1 + random.nextInt(100));
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Length of a path
+	 * @param path
+	 * @return sum of the weights, 0 for an empty path since every vertex of the grid can be reached
+	 */
+	private static double length(Edge<String,String> path[]) {
+		double length = 0;
+		for(Edge<String,String> edge : path)
+			length += edge.getWeight();
+		return length;
+	}
+}
@@ -0,0 +1,84 @@
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+import graph.Edge;
+import graph.FrozenGraph;
+import graph.Graph;
+import graph.ShortestPathTree;
+import graph.Vertex;
+
+import java.io.FileNotFoundException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark of the single source shortest paths on copies of Metro.txt joined by random edges
+ * Prints the best of three times of 10 runs of Graph.dijkstra, Graph.dijkstra_integer and FrozenGraph.dijkstra from random sources
+ * Usage: java DijkstraBenchmark [copies of Metro.txt]
+ */
+public class DijkstraBenchmark {
+	public static void main(String[] args) throws FileNotFoundException {
+		int copies = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+		Graph<String,String> graph = scaledMetro(copies);
+		FrozenGraph<String,String> frozen = graph.freeze();
+		Vertex<String,String> vertices[] = graph.vertices_array();
+		System.out.println("Vertices: " + vertices.length + ", edges: " + graph.edges_array().length);
+
+		int sources[] = new int[10];
+		Random random = new Random(3);
+		for(int i = 0; i < sources.length; i++)
+			sources[i] = random.nextInt(vertices.length);
+
+		double best[] = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+		double distances[] = new double[3];
+		for(int round = 0; round < 3; round++){
+			for(int method = 0; method < 3; method++){
+				long start = System.nanoTime();
+				double sum = 0;
+				for(int i = 0; i < sources.length; i++){
+					Vertex<String,String> source = vertices[sources[i]];
+					ShortestPathTree<String,String> tree = method == 0 ? graph.dijkstra(source) : method == 1 ? graph.dijkstra_integer(source) : frozen.dijkstra(source);
+					sum += tree.getDijkstra_value(vertices[i]);
+				}
+				best[method] = Math.min(best[method], (System.nanoTime() - start) / 1e6);
+				distances[method] = sum;
+			}
+		}
+		System.out.println(String.format("Graph.dijkstra(v)          %8.0f ms", best[0]));
+		System.out.println(String.format("Graph.dijkstra_integer(v)  %8.0f ms", best[1]));
+		System.out.println(String.format("FrozenGraph.dijkstra(v)    %8.0f ms", best[2]));
+		if(distances[0] != distances[1] || distances[0] != distances[2])
+			throw new IllegalStateException("Distances differ: " + distances[0] + " " + distances[1] + " " + distances[2]);
+	}
+
+	/**
+	 * Build an undirected graph of copies of Metro.txt with integer weights, joined by twice as many random edges as vertices
+	 * @param copies
+	 * @return graph
+	 * @throws FileNotFoundException
+	 */
+	protected static Graph<String,String> scaledMetro(int copies) throws FileNotFoundException {
+		Graph<String,String> metro = Graph.inParser("Metro.txt", false);
+		Vertex<String,String> metroVertices[] = metro.vertices_array();
+		Edge<String,String> metroEdges[] = metro.edges_array();
+		Graph<String,String> graph = new Graph<String,String>(false);
+		for(int copy = 0; copy < copies; copy++){
+			Map<Vertex<String,String>,Vertex<String,String>> map = new HashMap<Vertex<String,String>,Vertex<String,String>>();
+			for(Vertex<String,String> vertex : metroVertices)
+				map.put(vertex, graph.addVertex(vertex.getData() + copy));
+
+			// An undirected graph stores each edge in both directions, one of them is enough
+			for(int i = 0; i < metroEdges.length; i += 2)
+				graph.addEdge(map.get(metroEdges[i].getV1()), map.get(metroEdges[i].getV2()), null, Math.rint(metroEdges[i].getWeight()));
+		}
+		Vertex<String,String> vertices[] = graph.vertices_array();
+		Random random = new Random(1);
+		for(int i = 0; i < vertices.length * 2; i++)
+			graph.addEdge(vertices[random.nextInt(vertices.length)], vertices[random.nextInt(vertices.length)], null, 200 + random.nextInt(5000));
+		return graph;
+	}
+}
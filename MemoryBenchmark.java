@@ -0,0 +1,73 @@
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+import graph.Graph;
+import graph.Vertex;
+
+import java.util.Random;
+
+/**
+ * Benchmark of the storage of a graph: random directed edges are added to a graph, then traversed
+ * Prints the heap used per vertex and per edge, the time to add the edges, and the best BFS and Dijkstra times from a few sources
+ * The heap is measured after garbage collection, run with -XX:+UseSerialGC for stable numbers
+ * Usage: java -XX:+UseSerialGC MemoryBenchmark [vertices] [edges]
+ */
+public class MemoryBenchmark {
+	public static void main(String[] args) {
+		int vertexCount = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int edgeCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+		Integer data[] = new Integer[vertexCount];
+		for(int i = 0; i < vertexCount; i++)
+			data[i] = i;
+		Random random = new Random(1);
+
+		long base = usedMemory();
+		Graph<Integer,String> graph = new Graph<Integer,String>(true);
+		for(int i = 0; i < vertexCount; i++)
+			graph.addVertex(data[i]);
+		Vertex<Integer,String> vertices[] = graph.vertices_array();
+		long afterVertices = usedMemory();
+		long start = System.nanoTime();
+		for(int i = 0; i < edgeCount; i++)
+			graph.addEdge(vertices[random.nextInt(vertexCount)], vertices[random.nextInt(vertexCount)], null, 1 + random.nextInt(100));
+		double addTime = (System.nanoTime() - start) / 1e6;
+		long afterEdges = usedMemory();
+
+		// The array of vertices is counted with the vertices
+		System.out.println(String.format("Vertices: %d, edges: %d", vertexCount, edgeCount));
+		System.out.println(String.format("Per vertex: %.1f bytes, per edge: %.1f bytes", (afterVertices - base) / (double) vertexCount, (afterEdges - afterVertices) / (double) edgeCount));
+		System.out.println(String.format("addEdge: %.0f ms", addTime));
+
+		double bfs = Double.MAX_VALUE, dijkstra = Double.MAX_VALUE;
+		long visited = 0;
+		for(int i = 0; i < 12; i++){
+			start = System.nanoTime();
+			visited += graph.BFS(vertices[i]).length;
+			bfs = Math.min(bfs, (System.nanoTime() - start) / 1e6);
+			start = System.nanoTime();
+			visited += graph.dijkstra(vertices[i]).hasPathTo(vertices[vertexCount - 1]) ? 1 : 0;
+			dijkstra = Math.min(dijkstra, (System.nanoTime() - start) / 1e6);
+		}
+		System.out.println(String.format("BFS: %.1f ms, Dijkstra: %.1f ms (%d)", bfs, dijkstra, visited));
+	}
+
+	/**
+	 * Heap used after garbage collection
+	 * @return bytes
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 4; i++){
+			System.gc();
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
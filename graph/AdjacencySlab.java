@@ -0,0 +1,1461 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class AdjacencySlab <E,T> {
+
+	// No slot
+	protected static final int NONE = -1;
+
+	// Lists that can be iterated
+	private static final int VERTICES = 0;
+	private static final int EDGES = 1;
+	private static final int OUT_EDGES = 2;
+	private static final int IN_EDGES = 3;
+	private static final int INCIDENT_EDGES = 4;
+
+	// Slots are stored in blocks of 2^BLOCK_SHIFT, the first block starts with 16 slots and grows until it is full
+	private static final int BLOCK_SHIFT = 12;
+	private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+	// Locks of the blocks copied by the writers of a ConcurrentGraph, by block number
+	private static final Object COPY_LOCKS[] = new Object[64];
+	static {
+		for(int i = 0; i < COPY_LOCKS.length; i++)
+			COPY_LOCKS[i] = new Object();
+	}
+
+	// True if an undirected edge is stored once, in the out edges of v1 and the in edges of v2
+	// The incident edges of a vertex are then its out edges followed by its in edges, walked with positions where an in edge slot s is -2 - s
+	// A self loop is only in the out edges
+	private final boolean shared;
+
+	// A block belongs to this slab if its owner is this token, otherwise it is shared with copies of this slab and is copied before being written
+	// The writers of a ConcurrentGraph copy a block under one of the copy locks, and take it once per copy of the slab before reading the block
+	// The directories of blocks are shared with a copy until the first write of either slab
+	private Object token = new Object();
+	private boolean directoriesShared;
+
+	// Vertex slots, in insertion order through vertexNext/vertexPrevious. Free slots are chained through vertexNext and have the id NONE
+	private int vertexNext[][], vertexPrevious[][], vertexId[][];
+	private Object vertexData[][];
+	private Object vertexOwner[];
+	private int vertexBlocks, vertexCapacity;
+	private int vertexHead = NONE, vertexTail = NONE, vertexCount, vertexFree = NONE, vertexSlots;
+
+	// Out and in edges of each vertex slot, as lists of edge slots
+	private int outHead[][], outTail[][], outSize[][];
+	private int inHead[][], inTail[][], inSize[][];
+
+	// Edge slots, in insertion order through edgeNext/edgePrevious. Free slots are chained through edgeNext and have the id NONE
+	private int edgeNext[][], edgePrevious[][], edgeId[][], edgeFrom[][], edgeTo[][];
+	private double edgeWeight[][];
+	private Object edgeLabel[][];
+	private Object edgeOwner[];
+	private int edgeBlocks, edgeCapacity;
+	private int edgeHead = NONE, edgeTail = NONE, edgeCount, edgeFree = NONE, edgeSlots;
+
+	// Links of each edge slot in the out edges of its 'from' vertex and the in edges of its 'to' vertex
+	private int outNext[][], outPrevious[][];
+	private int inNext[][], inPrevious[][];
+
+	// Vertex and edge objects of each block. They are never shared: a copy creates the objects of a block from its slots the first time it is read
+	private ObjectBlock<Vertex<E,T>> vertices[];
+	private ObjectBlock<Edge<E,T>> edges[];
+
+	/**
+	 * Constructor
+	 * @param shared true if each undirected edge is stored once
+	 */
+	protected AdjacencySlab(boolean shared) {
+		this.shared = shared;
+		vertexNext = vertexPrevious = vertexId = outHead = outTail = outSize = inHead = inTail = inSize = new int[0][];
+		vertexData = new Object[0][];
+		vertexOwner = new Object[0];
+		edgeNext = edgePrevious = edgeId = edgeFrom = edgeTo = outNext = outPrevious = inNext = inPrevious = new int[0][];
+		edgeWeight = new double[0][];
+		edgeLabel = new Object[0][];
+		edgeOwner = new Object[0];
+		vertices = ObjectBlock.newArray(0);
+		edges = ObjectBlock.newArray(0);
+	}
+
+	/**
+	 * Copy constructor, the blocks are shared until they are written
+	 * @param slab
+	 */
+	private AdjacencySlab(AdjacencySlab<E,T> slab) {
+		shared = slab.shared;
+		directoriesShared = true;
+		vertexNext = slab.vertexNext;
+		vertexPrevious = slab.vertexPrevious;
+		vertexId = slab.vertexId;
+		vertexData = slab.vertexData;
+		vertexOwner = slab.vertexOwner;
+		vertexBlocks = slab.vertexBlocks;
+		vertexCapacity = slab.vertexCapacity;
+		vertexHead = slab.vertexHead;
+		vertexTail = slab.vertexTail;
+		vertexCount = slab.vertexCount;
+		vertexFree = slab.vertexFree;
+		vertexSlots = slab.vertexSlots;
+		outHead = slab.outHead;
+		outTail = slab.outTail;
+		outSize = slab.outSize;
+		inHead = slab.inHead;
+		inTail = slab.inTail;
+		inSize = slab.inSize;
+		edgeNext = slab.edgeNext;
+		edgePrevious = slab.edgePrevious;
+		edgeId = slab.edgeId;
+		edgeFrom = slab.edgeFrom;
+		edgeTo = slab.edgeTo;
+		edgeWeight = slab.edgeWeight;
+		edgeLabel = slab.edgeLabel;
+		edgeOwner = slab.edgeOwner;
+		edgeBlocks = slab.edgeBlocks;
+		edgeCapacity = slab.edgeCapacity;
+		edgeHead = slab.edgeHead;
+		edgeTail = slab.edgeTail;
+		edgeCount = slab.edgeCount;
+		edgeFree = slab.edgeFree;
+		edgeSlots = slab.edgeSlots;
+		outNext = slab.outNext;
+		outPrevious = slab.outPrevious;
+		inNext = slab.inNext;
+		inPrevious = slab.inPrevious;
+		vertices = ObjectBlock.newArray(0);
+		edges = ObjectBlock.newArray(0);
+	}
+
+	/**
+	 * Copy the slab in O(1). Both slabs share their blocks, and each copies a block the first time it writes to it
+	 * The copy has its own vertex and edge objects, with the same ids, reading the data, labels and weights of its own slots
+	 * @return copy
+	 */
+	protected AdjacencySlab<E,T> copy(){
+		AdjacencySlab<E,T> copy = new AdjacencySlab<E,T>(this);
+		token = new Object();
+		directoriesShared = true;
+		return copy;
+	}
+
+	/**
+	 * Store a vertex
+	 * @param vertex
+	 */
+	protected void addVertex(Vertex<E,T> vertex){
+		beforeWrite();
+		int slot = vertexFree;
+		if(slot != NONE){
+			vertexFree = get(vertexNext, slot);
+		}else{
+			ensureCapacity(vertexSlots + 1, 0);
+			slot = vertexSlots++;
+		}
+		putVertex(vertex, slot, null);
+		linkVertex(slot);
+	}
+
+	/**
+	 * Store a vertex in a free slot, without adding it to the list of vertices
+	 * Used by the writers of a ConcurrentGraph holding the lock of the slot, which link it later with linkVertex while the writers are stopped
+	 * @param vertex
+	 * @param slot
+	 * @param claims Blocks taken by the writer | null if the slab has a single writer
+	 */
+	protected void putVertex(Vertex<E,T> vertex, int slot, Claims claims){
+		ownVertex(slot, claims);
+		vertexBlock(slot).items[slot & BLOCK_MASK] = vertex;
+		setVertex(vertexId, slot, vertex.getID());
+		setVertex(vertexData, slot, vertex.getData());
+		vertex.attach(this, slot);
+		setVertex(outHead, slot, NONE);
+		setVertex(outTail, slot, NONE);
+		setVertex(inHead, slot, NONE);
+		setVertex(inTail, slot, NONE);
+		setVertex(outSize, slot, 0);
+		setVertex(inSize, slot, 0);
+	}
+
+	/**
+	 * Add a stored vertex at the end of the list of vertices
+	 * @param slot
+	 */
+	protected void linkVertex(int slot){
+		setVertex(vertexPrevious, slot, vertexTail);
+		setVertex(vertexNext, slot, NONE);
+		if(vertexTail == NONE)
+			vertexHead = slot;
+		else
+			setVertex(vertexNext, vertexTail, slot);
+		vertexTail = slot;
+		vertexCount++;
+	}
+
+	/**
+	 * Free the slot of a vertex having no edges left
+	 * @param vertex
+	 */
+	protected void removeVertex(Vertex<E,T> vertex){
+		beforeWrite();
+		int slot = vertex.getSlot();
+		vertex.detach();
+		int next = get(vertexNext, slot), previous = get(vertexPrevious, slot);
+		if(previous == NONE)
+			vertexHead = next;
+		else
+			setVertex(vertexNext, previous, next);
+		if(next == NONE)
+			vertexTail = previous;
+		else
+			setVertex(vertexPrevious, next, previous);
+		vertexBlock(slot).items[slot & BLOCK_MASK] = null;
+		setVertex(vertexId, slot, NONE);
+		setVertex(vertexData, slot, null);
+		setVertex(vertexNext, slot, vertexFree);
+		vertexFree = slot;
+		vertexCount--;
+	}
+
+	/**
+	 * Store an edge at the end of the edges, of the out edges of its 'from' vertex and of the in edges of its 'to' vertex
+	 * @param from
+	 * @param to
+	 * @param id Unique id of the edge
+	 * @param label
+	 * @param weight
+	 * @return edge
+	 */
+	protected Edge<E,T> addEdge(Vertex<E,T> from, Vertex<E,T> to, int id, T label, double weight){
+		beforeWrite();
+		int slot = edgeFree;
+		if(slot != NONE){
+			edgeFree = get(edgeNext, slot);
+		}else{
+			ensureCapacity(0, edgeSlots + 1);
+			slot = edgeSlots++;
+		}
+		Edge<E,T> edge = putEdge(slot, from, to, id, label, weight, null);
+		linkEdge(slot);
+		return edge;
+	}
+
+	/**
+	 * Store an edge in a free slot, at the end of the out edges of its 'from' vertex and of the in edges of its 'to' vertex but not in the list of edges
+	 * Used by the writers of a ConcurrentGraph holding the locks of both vertices, which link it later with linkEdge while the writers are stopped.
+	 * @param slot
+	 * @param from
+	 * @param to
+	 * @param id Unique id of the edge
+	 * @param label
+	 * @param weight
+	 * @param claims Blocks taken by the writer | null if the slab has a single writer
+	 * @return edge
+	 */
+	protected Edge<E,T> putEdge(int slot, Vertex<E,T> from, Vertex<E,T> to, int id, T label, double weight, Claims claims){
+		int v1 = from.getSlot(), v2 = to.getSlot();
+		ownEdge(slot, claims);
+		ownVertex(v1, claims);
+		ownVertex(v2, claims);
+		Edge<E,T> edge = new Edge<E,T>(this, slot);
+		edgeBlock(slot).items[slot & BLOCK_MASK] = edge;
+		setEdge(edgeId, slot, id);
+		setEdge(edgeFrom, slot, v1);
+		setEdge(edgeTo, slot, v2);
+		setEdge(edgeWeight, slot, weight);
+		setEdge(edgeLabel, slot, label);
+
+		// Out edges of v1
+		int tail = get(outTail, v1);
+		ownEdge(tail, claims);
+		setEdge(outPrevious, slot, tail);
+		setEdge(outNext, slot, NONE);
+		if(tail == NONE)
+			setVertex(outHead, v1, slot);
+		else
+			setEdge(outNext, tail, slot);
+		setVertex(outTail, v1, slot);
+		setVertex(outSize, v1, get(outSize, v1) + 1);
+
+		// In edges of v2, a shared self loop is only in the out edges
+		if(!shared || v1 != v2){
+			tail = get(inTail, v2);
+			ownEdge(tail, claims);
+			setEdge(inPrevious, slot, tail);
+			setEdge(inNext, slot, NONE);
+			if(tail == NONE)
+				setVertex(inHead, v2, slot);
+			else
+				setEdge(inNext, tail, slot);
+			setVertex(inTail, v2, slot);
+			setVertex(inSize, v2, get(inSize, v2) + 1);
+		}
+		return edge;
+	}
+
+	/**
+	 * Add a stored edge at the end of the list of edges
+	 * @param slot
+	 */
+	protected void linkEdge(int slot){
+		setEdge(edgePrevious, slot, edgeTail);
+		setEdge(edgeNext, slot, NONE);
+		if(edgeTail == NONE)
+			edgeHead = slot;
+		else
+			setEdge(edgeNext, edgeTail, slot);
+		edgeTail = slot;
+		edgeCount++;
+	}
+
+	/**
+	 * Store vertices in bulk, in slots following the last slot used
+	 * The blocks are filled directly from the data and the vertex objects are created when a block is first read, as for a copy
+	 * @param data Data of the vertices
+	 * @param count Number of vertices to store
+	 * @param firstID Unique id of the first vertex, the next ones follow
+	 * @return slot of the first vertex, the next ones follow
+	 */
+	protected int appendVertices(E data[], int count, int firstID){
+		beforeWrite();
+		int first = vertexSlots;
+		if(count == 0)
+			return first;
+		ensureCapacity(first + count, 0);
+		vertexSlots += count;
+		for(int slot = first; slot < first + count;){
+			int block = slot >>> BLOCK_SHIFT;
+			if(vertexOwner[block] != token)
+				copyVertexBlock(block, vertexId[block].length);
+			int start = slot & BLOCK_MASK, end = Math.min(vertexId[block].length, start + first + count - slot);
+			System.arraycopy(data, slot - first, vertexData[block], start, end - start);
+			Arrays.fill(outHead[block], start, end, NONE);
+			Arrays.fill(outTail[block], start, end, NONE);
+			Arrays.fill(inHead[block], start, end, NONE);
+			Arrays.fill(inTail[block], start, end, NONE);
+			Arrays.fill(outSize[block], start, end, 0);
+			Arrays.fill(inSize[block], start, end, 0);
+			int ids[] = vertexId[block], next[] = vertexNext[block], previous[] = vertexPrevious[block];
+			for(int i = start; i < end; i++, slot++){
+				ids[i] = firstID + slot - first;
+				previous[i] = slot - 1;
+				next[i] = slot + 1;
+			}
+
+			// Objects already created for the block get the new vertices too
+			if(block < vertices.length && vertices[block] != null){
+				for(int i = start; i < end; i++){
+					Vertex<E,T> vertex = new Vertex<E,T>(null, ids[i]);
+					vertex.attach(this, (block << BLOCK_SHIFT) + i);
+					vertices[block].items[i] = vertex;
+				}
+			}
+		}
+		int last = first + count - 1;
+		setVertex(vertexPrevious, first, vertexTail);
+		setVertex(vertexNext, last, NONE);
+		if(vertexTail == NONE)
+			vertexHead = first;
+		else
+			setVertex(vertexNext, vertexTail, first);
+		vertexTail = last;
+		vertexCount += count;
+		return first;
+	}
+
+	/**
+	 * Store edges in bulk, in slots following the last slot used, then link them to the out and in edges of their vertices in one pass
+	 * The blocks are filled directly from the arrays and the edge objects are created when a block is first read, as for a copy
+	 * @param slots Slot of the vertex at each index
+	 * @param from Index in slots[] of the 'from' vertex of each edge
+	 * @param to Index in slots[] of the 'to' vertex of each edge
+	 * @param labels Label of each edge, null if no edge has a label
+	 * @param weights Weight of each edge
+	 * @param count Number of edges to store
+	 * @param firstID Unique id of the first edge stored, the next ones follow
+	 * @param reverse true to store each edge followed by an edge in the opposite direction
+	 */
+	protected void appendEdges(int slots[], int from[], int to[], T labels[], double weights[], int count, int firstID, boolean reverse){
+		beforeWrite();
+		int total = reverse ? 2 * count : count;
+		if(total == 0)
+			return;
+		int first = edgeSlots;
+		ensureCapacity(0, first + total);
+		edgeSlots += total;
+		for(int slot = first; slot < first + total;){
+			int block = slot >>> BLOCK_SHIFT;
+			if(edgeOwner[block] != token)
+				copyEdgeBlock(block, edgeId[block].length);
+			int start = slot & BLOCK_MASK, end = Math.min(edgeId[block].length, start + first + total - slot);
+			int ids[] = edgeId[block], v1s[] = edgeFrom[block], v2s[] = edgeTo[block], next[] = edgeNext[block], previous[] = edgePrevious[block];
+			double blockWeights[] = edgeWeight[block];
+			Object blockLabels[] = edgeLabel[block];
+			for(int i = start; i < end; i++, slot++){
+				int k = slot - first, e = reverse ? k >> 1 : k;
+				boolean back = reverse && (k & 1) == 1;
+				ids[i] = firstID + k;
+				v1s[i] = slots[back ? to[e] : from[e]];
+				v2s[i] = slots[back ? from[e] : to[e]];
+				blockWeights[i] = weights[e];
+				blockLabels[i] = labels == null ? null : labels[e];
+				previous[i] = slot - 1;
+				next[i] = slot + 1;
+			}
+
+			// Objects already created for the block get the new edges too
+			if(block < edges.length && edges[block] != null)
+				for(int i = start; i < end; i++)
+					edges[block].items[i] = new Edge<E,T>(this, (block << BLOCK_SHIFT) + i);
+		}
+		int last = first + total - 1;
+		setEdge(edgePrevious, first, edgeTail);
+		setEdge(edgeNext, last, NONE);
+		if(edgeTail == NONE)
+			edgeHead = first;
+		else
+			setEdge(edgeNext, edgeTail, first);
+		edgeTail = last;
+		edgeCount += total;
+
+		// Out and in edges, in the order of the slots. Only the tails already stored before may be in shared blocks
+		for(int slot = first; slot <= last; slot++){
+			int v1 = get(edgeFrom, slot), v2 = get(edgeTo, slot);
+			int tail = get(outTail, v1);
+			edgeLinks(outPrevious, outNext, slot, tail);
+			if(tail == NONE)
+				setVertex(outHead, v1, slot);
+			else
+				setEdge(outNext, tail, slot);
+			setVertex(outTail, v1, slot);
+			setVertex(outSize, v1, get(outSize, v1) + 1);
+
+			// A shared self loop is only in the out edges
+			if(!shared || v1 != v2){
+				tail = get(inTail, v2);
+				edgeLinks(inPrevious, inNext, slot, tail);
+				if(tail == NONE)
+					setVertex(inHead, v2, slot);
+				else
+					setEdge(inNext, tail, slot);
+				setVertex(inTail, v2, slot);
+				setVertex(inSize, v2, get(inSize, v2) + 1);
+			}
+		}
+	}
+
+	/**
+	 * Set the links of an edge appended at the end of a list, its block is owned by this slab
+	 * @param previous
+	 * @param next
+	 * @param slot
+	 * @param tail Previous tail of the list | NONE
+	 */
+	private static void edgeLinks(int previous[][], int next[][], int slot, int tail){
+		previous[slot >>> BLOCK_SHIFT][slot & BLOCK_MASK] = tail;
+		next[slot >>> BLOCK_SHIFT][slot & BLOCK_MASK] = NONE;
+	}
+
+	/**
+	 * Unlink an edge from the three lists holding it and free its slot
+	 * @param edge
+	 */
+	protected void removeEdge(Edge<E,T> edge){
+		beforeWrite();
+		int slot = edge.getSlot();
+		dropEdge(edge, null);
+		unlinkEdge(slot);
+		setEdge(edgeNext, slot, edgeFree);
+		edgeFree = slot;
+	}
+
+	/**
+	 * Unlink an edge from the out edges of its 'from' vertex and the in edges of its 'to' vertex and clear its slot, leaving it in the list of edges
+	 * Used by the writers of a ConcurrentGraph holding the locks of both vertices, which unlink it later with unlinkEdge while the writers are stopped
+	 * @param edge
+	 * @param claims Blocks taken by the writer | null if the slab has a single writer
+	 */
+	protected void dropEdge(Edge<E,T> edge, Claims claims){
+		int slot = edge.getSlot();
+		ownEdge(slot, claims);
+		int v1 = get(edgeFrom, slot), v2 = get(edgeTo, slot);
+		ownVertex(v1, claims);
+		ownVertex(v2, claims);
+		edge.detach();
+
+		// Out edges of v1
+		int next = get(outNext, slot), previous = get(outPrevious, slot);
+		ownEdge(next, claims);
+		ownEdge(previous, claims);
+		if(previous == NONE)
+			setVertex(outHead, v1, next);
+		else
+			setEdge(outNext, previous, next);
+		if(next == NONE)
+			setVertex(outTail, v1, previous);
+		else
+			setEdge(outPrevious, next, previous);
+		setVertex(outSize, v1, get(outSize, v1) - 1);
+
+		// In edges of v2, a shared self loop is only in the out edges
+		if(!shared || v1 != v2){
+			next = get(inNext, slot);
+			previous = get(inPrevious, slot);
+			ownEdge(next, claims);
+			ownEdge(previous, claims);
+			if(previous == NONE)
+				setVertex(inHead, v2, next);
+			else
+				setEdge(inNext, previous, next);
+			if(next == NONE)
+				setVertex(inTail, v2, previous);
+			else
+				setEdge(inPrevious, next, previous);
+			setVertex(inSize, v2, get(inSize, v2) - 1);
+		}
+
+		edgeBlock(slot).items[slot & BLOCK_MASK] = null;
+		setEdge(edgeId, slot, NONE);
+		setEdge(edgeLabel, slot, null);
+	}
+
+	/**
+	 * Remove an edge from the list of edges
+	 * @param slot
+	 */
+	protected void unlinkEdge(int slot){
+		int next = get(edgeNext, slot), previous = get(edgePrevious, slot);
+		if(previous == NONE)
+			edgeHead = next;
+		else
+			setEdge(edgeNext, previous, next);
+		if(next == NONE)
+			edgeTail = previous;
+		else
+			setEdge(edgePrevious, next, previous);
+		edgeCount--;
+	}
+
+	/**
+	 * Checks if an edge object is stored in this slab, for a writer of a ConcurrentGraph holding the locks of its vertices
+	 * @param edge
+	 * @param claims Blocks taken by the writer
+	 * @return boolean
+	 */
+	protected boolean storesEdge(Edge<E,T> edge, Claims claims){
+		int slot = edge.getSlot();
+		if(slot < 0 || slot >= edgeSlots)
+			return false;
+		ownEdge(slot, claims);
+		return edgeBlock(slot).items[slot & BLOCK_MASK] == edge;
+	}
+
+	/**
+	 * Reserve consecutive unused vertex slots for a writer of a ConcurrentGraph, called while holding its reservation lock
+	 * @param count
+	 * @return first slot | NONE if the slabs must grow first
+	 */
+	protected int reserveVertexSlots(int count){
+		if(vertexSlots + count > vertexCapacity)
+			return NONE;
+		vertexSlots += count;
+		return vertexSlots - count;
+	}
+
+	/**
+	 * Reserve consecutive unused edge slots for a writer of a ConcurrentGraph, called while holding its reservation lock
+	 * @param count
+	 * @return first slot | NONE if the slabs must grow first
+	 */
+	protected int reserveEdgeSlots(int count){
+		if(edgeSlots + count > edgeCapacity)
+			return NONE;
+		edgeSlots += count;
+		return edgeSlots - count;
+	}
+
+	/**
+	 * Grow the slabs so a number of vertex and edge slots can be reserved, with an eighth of the slots used to spare
+	 * so the writers of a ConcurrentGraph, which are stopped while the slabs grow, are rarely stopped again
+	 * @param vertices
+	 * @param edges
+	 */
+	protected void reserveCapacity(int vertices, int edges){
+		ensureCapacity(vertices == 0 ? 0 : vertexSlots + vertices + (vertexSlots >> 3), edges == 0 ? 0 : edgeSlots + edges + (edgeSlots >> 3));
+	}
+
+	/**
+	 * Take a slot freed by removeVertex, so a writer of a ConcurrentGraph uses it again
+	 * @return slot | NONE if no slot is free
+	 */
+	protected int takeFreeVertex(){
+		int slot = vertexFree;
+		if(slot != NONE)
+			vertexFree = get(vertexNext, slot);
+		return slot;
+	}
+
+	/**
+	 * Take a slot freed by removeEdge, so a writer of a ConcurrentGraph uses it again
+	 * @return slot | NONE if no slot is free
+	 */
+	protected int takeFreeEdge(){
+		int slot = edgeFree;
+		if(slot != NONE)
+			edgeFree = get(edgeNext, slot);
+		return slot;
+	}
+
+	/**
+	 * Get the data of a vertex
+	 * @param vertex Slot of the vertex
+	 * @return data
+	 */
+	@SuppressWarnings("unchecked")
+	protected E getData(int vertex){
+		return (E) vertexData[vertex >>> BLOCK_SHIFT][vertex & BLOCK_MASK];
+	}
+
+	/**
+	 * Store the new data of a vertex, so the copies made before keep the old one
+	 * @param vertex Slot of the vertex
+	 * @param data
+	 */
+	protected void setData(int vertex, E data){
+		beforeWrite();
+		setVertex(vertexData, vertex, data);
+	}
+
+	/**
+	 * Get the unique id of an edge
+	 * @param edge Slot of the edge
+	 * @return id
+	 */
+	protected int getEdgeID(int edge){
+		return get(edgeId, edge);
+	}
+
+	/**
+	 * Get the slot of the 'from' vertex of an edge
+	 * @param edge Slot of the edge
+	 * @return vertex slot
+	 */
+	protected int getFrom(int edge){
+		return get(edgeFrom, edge);
+	}
+
+	/**
+	 * Get the slot of the 'to' vertex of an edge
+	 * @param edge Slot of the edge
+	 * @return vertex slot
+	 */
+	protected int getTo(int edge){
+		return get(edgeTo, edge);
+	}
+
+	/**
+	 * Get the slot of the vertex at the other end of an edge, used by the traversals to walk the edges without reading the edge objects
+	 * @param edge Slot or position of the edge
+	 * @param vertex Slot of one of its vertices
+	 * @return vertex slot
+	 */
+	protected int getOpposite(int edge, int vertex){
+		int slot = edge >= 0 ? edge : -2 - edge;
+		int from = get(edgeFrom, slot);
+		return from == vertex ? get(edgeTo, slot) : from;
+	}
+
+	/**
+	 * Get the label of an edge
+	 * @param edge Slot of the edge
+	 * @return label
+	 */
+	@SuppressWarnings("unchecked")
+	protected T getLabel(int edge){
+		return (T) edgeLabel[edge >>> BLOCK_SHIFT][edge & BLOCK_MASK];
+	}
+
+	/**
+	 * Get the weight of an edge
+	 * @param edge Slot or position of the edge
+	 * @return weight
+	 */
+	protected double getWeight(int edge){
+		int slot = edge >= 0 ? edge : -2 - edge;
+		return edgeWeight[slot >>> BLOCK_SHIFT][slot & BLOCK_MASK];
+	}
+
+	/**
+	 * Store the new label of an edge, so the copies made before keep the old one
+	 * @param edge Slot of the edge
+	 * @param label
+	 */
+	protected void setLabel(int edge, T label){
+		beforeWrite();
+		setEdge(edgeLabel, edge, label);
+	}
+
+	/**
+	 * Store the new weight of an edge, so the copies made before keep the old one
+	 * @param edge Slot of the edge
+	 * @param weight
+	 */
+	protected void setWeight(int edge, double weight){
+		beforeWrite();
+		setEdge(edgeWeight, edge, weight);
+	}
+
+	/**
+	 * Grow the slabs so they hold at least a number of vertex and edge slots
+	 * @param vertexCapacity
+	 * @param edgeCapacity
+	 */
+	protected void ensureCapacity(int vertexCapacity, int edgeCapacity){
+		beforeWrite();
+		while(vertexCapacity > this.vertexCapacity){
+			if(this.vertexCapacity < BLOCK_SIZE){
+				int length = Math.min(BLOCK_SIZE, Math.max(vertexCapacity, Math.max(16, this.vertexCapacity * 2)));
+				if(vertexBlocks == 0)
+					vertexBlocks++;
+				copyVertexBlock(0, length);
+				this.vertexCapacity = length;
+			}else{
+				copyVertexBlock(vertexBlocks++, BLOCK_SIZE);
+				this.vertexCapacity += BLOCK_SIZE;
+			}
+		}
+		while(edgeCapacity > this.edgeCapacity){
+			if(this.edgeCapacity < BLOCK_SIZE){
+				int length = Math.min(BLOCK_SIZE, Math.max(edgeCapacity, Math.max(16, this.edgeCapacity * 2)));
+				if(edgeBlocks == 0)
+					edgeBlocks++;
+				copyEdgeBlock(0, length);
+				this.edgeCapacity = length;
+			}else{
+				copyEdgeBlock(edgeBlocks++, BLOCK_SIZE);
+				this.edgeCapacity += BLOCK_SIZE;
+			}
+		}
+	}
+
+	/**
+	 * Number of vertices stored
+	 * @return size
+	 */
+	protected int vertexCount(){
+		return vertexCount;
+	}
+
+	/**
+	 * Number of edges stored
+	 * @return size
+	 */
+	protected int edgeCount(){
+		return edgeCount;
+	}
+
+	/**
+	 * Checks if a vertex id is stored in a slot
+	 * @param vertex Slot of the vertex
+	 * @param id
+	 * @return boolean
+	 */
+	protected boolean hasVertex(int vertex, int id){
+		return vertex >= 0 && vertex < vertexSlots && get(vertexId, vertex) == id;
+	}
+
+	/**
+	 * Checks if an edge id is stored in a slot
+	 * @param edge Slot of the edge
+	 * @param id
+	 * @return boolean
+	 */
+	protected boolean hasEdge(int edge, int id){
+		return edge >= 0 && edge < edgeSlots && get(edgeId, edge) == id;
+	}
+
+	/**
+	 * Checks if each undirected edge is stored once
+	 * @return boolean
+	 */
+	protected boolean isShared(){
+		return shared;
+	}
+
+	/**
+	 * Get the position of the first out edge of a vertex, its first incident edge if edges are shared
+	 * @param vertex Slot of the vertex
+	 * @return edge position | NONE
+	 */
+	protected int firstOutEdge(int vertex){
+		int first = get(outHead, vertex);
+		if(!shared || first != NONE)
+			return first;
+		return inPosition(get(inHead, vertex));
+	}
+
+	/**
+	 * Get the position of the first in edge of a vertex, its first incident edge if edges are shared
+	 * @param vertex Slot of the vertex
+	 * @return edge position | NONE
+	 */
+	protected int firstInEdge(int vertex){
+		return shared ? firstOutEdge(vertex) : get(inHead, vertex);
+	}
+
+	/**
+	 * Get the position of the out edge following an edge, the next incident edge if edges are shared
+	 * @param edge Position of the edge
+	 * @return edge position | NONE
+	 */
+	protected int nextOutEdge(int edge){
+		if(edge < NONE)
+			return inPosition(get(inNext, -2 - edge));
+		int next = get(outNext, edge);
+		if(!shared || next != NONE)
+			return next;
+
+		// Out edges are over, continue with the in edges of the same vertex
+		return inPosition(get(inHead, get(edgeFrom, edge)));
+	}
+
+	/**
+	 * Get the position of the in edge following an edge, the next incident edge if edges are shared
+	 * @param edge Position of the edge
+	 * @return edge position | NONE
+	 */
+	protected int nextInEdge(int edge){
+		return shared ? nextOutEdge(edge) : get(inNext, edge);
+	}
+
+	/**
+	 * Position of an in edge while walking the incident edges
+	 * @param slot Slot of the edge | NONE
+	 * @return position | NONE
+	 */
+	private int inPosition(int slot){
+		return slot == NONE ? NONE : -2 - slot;
+	}
+
+	/**
+	 * Get the edge stored at a position
+	 * @param edge Slot or position of the edge
+	 * @return edge
+	 */
+	protected Edge<E,T> getEdge(int edge){
+		int slot = edge >= 0 ? edge : -2 - edge;
+		return edgeBlock(slot).items[slot & BLOCK_MASK];
+	}
+
+	/**
+	 * Get the vertex stored in a slot
+	 * @param vertex Slot of the vertex
+	 * @return vertex
+	 */
+	protected Vertex<E,T> getVertex(int vertex){
+		return vertexBlock(vertex).items[vertex & BLOCK_MASK];
+	}
+
+	/**
+	 * Number of out edges of a vertex, incident edges if edges are shared
+	 * @param vertex Slot of the vertex
+	 * @return out degree
+	 */
+	protected int outDegree(int vertex){
+		return shared ? get(outSize, vertex) + get(inSize, vertex) : get(outSize, vertex);
+	}
+
+	/**
+	 * Number of in edges of a vertex, incident edges if edges are shared
+	 * @param vertex Slot of the vertex
+	 * @return in degree
+	 */
+	protected int inDegree(int vertex){
+		return shared ? get(outSize, vertex) + get(inSize, vertex) : get(inSize, vertex);
+	}
+
+	/**
+	 * Iterator on the vertices
+	 * @return iterator
+	 */
+	protected NodeIterator<Vertex<E,T>> vertices(){
+		return new Cursor<Vertex<E,T>>(VERTICES, vertexHead, vertexCount);
+	}
+
+	/**
+	 * Iterator on the edges
+	 * @return iterator
+	 */
+	protected NodeIterator<Edge<E,T>> edges(){
+		return new Cursor<Edge<E,T>>(EDGES, edgeHead, edgeCount);
+	}
+
+	/**
+	 * Iterator on the out edges of a vertex, its incident edges if edges are shared
+	 * @param vertex Slot of the vertex
+	 * @return iterator
+	 */
+	protected NodeIterator<Edge<E,T>> outEdges(int vertex){
+		if(shared)
+			return new Cursor<Edge<E,T>>(INCIDENT_EDGES, firstOutEdge(vertex), outDegree(vertex));
+		return new Cursor<Edge<E,T>>(OUT_EDGES, get(outHead, vertex), get(outSize, vertex));
+	}
+
+	/**
+	 * Iterator on the in edges of a vertex, its incident edges if edges are shared
+	 * @param vertex Slot of the vertex
+	 * @return iterator
+	 */
+	protected NodeIterator<Edge<E,T>> inEdges(int vertex){
+		if(shared)
+			return outEdges(vertex);
+		return new Cursor<Edge<E,T>>(IN_EDGES, get(inHead, vertex), get(inSize, vertex));
+	}
+
+	/**
+	 * Spliterator on the vertices in slot order, split by ranges of slots so the vertices can be visited in parallel
+	 * @return spliterator
+	 */
+	protected Spliterator<Vertex<E,T>> vertexSpliterator(){
+		return new SlotSpliterator<Vertex<E,T>>(VERTICES, 0, vertexSlots, vertexCount);
+	}
+
+	/**
+	 * Spliterator on the edges in slot order, split by ranges of slots so the edges can be visited in parallel
+	 * @return spliterator
+	 */
+	protected Spliterator<Edge<E,T>> edgeSpliterator(){
+		return new SlotSpliterator<Edge<E,T>>(EDGES, 0, edgeSlots, edgeCount);
+	}
+
+	/**
+	 * Empty iterator on edges, given for a removed vertex
+	 * @return iterator
+	 */
+	protected static <E,T> NodeIterator<Edge<E,T>> noEdges(){
+		return new AdjacencySlab<E,T>(false).edges();
+	}
+
+	/**
+	 * Read an int of a slot
+	 * @param field
+	 * @param slot
+	 * @return value
+	 */
+	private static int get(int field[][], int slot){
+		return field[slot >>> BLOCK_SHIFT][slot & BLOCK_MASK];
+	}
+
+	/**
+	 * Write an int of a vertex slot, copying its block first if it is shared
+	 * @param field
+	 * @param slot
+	 * @param value
+	 */
+	private void setVertex(int field[][], int slot, int value){
+		int block = slot >>> BLOCK_SHIFT;
+		if(vertexOwner[block] != token)
+			copyVertexBlock(block, vertexId[block].length);
+		field[block][slot & BLOCK_MASK] = value;
+	}
+
+	/**
+	 * Write an object of a vertex slot, copying its block first if it is shared
+	 * @param field
+	 * @param slot
+	 * @param value
+	 */
+	private void setVertex(Object field[][], int slot, Object value){
+		int block = slot >>> BLOCK_SHIFT;
+		if(vertexOwner[block] != token)
+			copyVertexBlock(block, vertexId[block].length);
+		field[block][slot & BLOCK_MASK] = value;
+	}
+
+	/**
+	 * Write an int of an edge slot, copying its block first if it is shared
+	 * @param field
+	 * @param slot
+	 * @param value
+	 */
+	private void setEdge(int field[][], int slot, int value){
+		int block = slot >>> BLOCK_SHIFT;
+		if(edgeOwner[block] != token)
+			copyEdgeBlock(block, edgeId[block].length);
+		field[block][slot & BLOCK_MASK] = value;
+	}
+
+	/**
+	 * Write a double of an edge slot, copying its block first if it is shared
+	 * @param field
+	 * @param slot
+	 * @param value
+	 */
+	private void setEdge(double field[][], int slot, double value){
+		int block = slot >>> BLOCK_SHIFT;
+		if(edgeOwner[block] != token)
+			copyEdgeBlock(block, edgeId[block].length);
+		field[block][slot & BLOCK_MASK] = value;
+	}
+
+	/**
+	 * Write an object of an edge slot, copying its block first if it is shared
+	 * @param field
+	 * @param slot
+	 * @param value
+	 */
+	private void setEdge(Object field[][], int slot, Object value){
+		int block = slot >>> BLOCK_SHIFT;
+		if(edgeOwner[block] != token)
+			copyEdgeBlock(block, edgeId[block].length);
+		field[block][slot & BLOCK_MASK] = value;
+	}
+
+	/**
+	 * Take the block of a vertex slot for a writer of a ConcurrentGraph before it reads or writes the slot, copying the block if it is shared
+	 * The copy lock of the block is only taken the first time after a copy of the slab, which orders the read after the copy of the block by another writer
+	 * @param slot Vertex slot | NONE
+	 * @param claims Blocks taken by the writer | null if the slab has a single writer
+	 */
+	protected void ownVertex(int slot, Claims claims){
+		if(claims == null || slot == NONE)
+			return;
+		int block = slot >>> BLOCK_SHIFT;
+		if(block >= claims.vertexBlocks.length)
+			claims.vertexBlocks = Arrays.copyOf(claims.vertexBlocks, Math.max(block + 1, claims.vertexBlocks.length * 2));
+		if(claims.vertexBlocks[block] == token)
+			return;
+		synchronized(COPY_LOCKS[block & (COPY_LOCKS.length - 1)]){
+			if(vertexOwner[block] != token)
+				copyVertexBlock(block, vertexId[block].length);
+		}
+		claims.vertexBlocks[block] = token;
+	}
+
+	/**
+	 * Take the block of an edge slot for a writer of a ConcurrentGraph before it reads or writes the slot, copying the block if it is shared
+	 * @param slot Edge slot | NONE
+	 * @param claims Blocks taken by the writer | null if the slab has a single writer
+	 */
+	protected void ownEdge(int slot, Claims claims){
+		if(claims == null || slot == NONE)
+			return;
+		int block = slot >>> BLOCK_SHIFT;
+		if(block >= claims.edgeBlocks.length)
+			claims.edgeBlocks = Arrays.copyOf(claims.edgeBlocks, Math.max(block + 1, claims.edgeBlocks.length * 2));
+		if(claims.edgeBlocks[block] == token)
+			return;
+		synchronized(COPY_LOCKS[block & (COPY_LOCKS.length - 1)]){
+			if(edgeOwner[block] != token)
+				copyEdgeBlock(block, edgeId[block].length);
+		}
+		claims.edgeBlocks[block] = token;
+	}
+
+	/**
+	 * Take own directories before the first write following a copy, the blocks themselves are copied when written
+	 * ConcurrentGraph calls it right after taking a snapshot, so its writers never take them concurrently
+	 */
+	protected void beforeWrite(){
+		if(!directoriesShared)
+			return;
+		vertexNext = vertexNext.clone();
+		vertexPrevious = vertexPrevious.clone();
+		vertexId = vertexId.clone();
+		vertexData = vertexData.clone();
+		vertexOwner = vertexOwner.clone();
+		outHead = outHead.clone();
+		outTail = outTail.clone();
+		outSize = outSize.clone();
+		inHead = inHead.clone();
+		inTail = inTail.clone();
+		inSize = inSize.clone();
+		edgeNext = edgeNext.clone();
+		edgePrevious = edgePrevious.clone();
+		edgeId = edgeId.clone();
+		edgeFrom = edgeFrom.clone();
+		edgeTo = edgeTo.clone();
+		edgeWeight = edgeWeight.clone();
+		edgeLabel = edgeLabel.clone();
+		edgeOwner = edgeOwner.clone();
+		outNext = outNext.clone();
+		outPrevious = outPrevious.clone();
+		inNext = inNext.clone();
+		inPrevious = inPrevious.clone();
+		directoriesShared = false;
+	}
+
+	/**
+	 * Give this slab its own copy of a block of vertex slots, or a new block if it does not exist yet
+	 * @param block
+	 * @param length Number of slots of the copy, at least the number of slots of the block
+	 */
+	private void copyVertexBlock(int block, int length){
+		if(block >= vertexOwner.length){
+			int blocks = Math.max(block + 1, vertexOwner.length * 2);
+			vertexNext = Arrays.copyOf(vertexNext, blocks);
+			vertexPrevious = Arrays.copyOf(vertexPrevious, blocks);
+			vertexId = Arrays.copyOf(vertexId, blocks);
+			vertexData = Arrays.copyOf(vertexData, blocks);
+			vertexOwner = Arrays.copyOf(vertexOwner, blocks);
+			outHead = Arrays.copyOf(outHead, blocks);
+			outTail = Arrays.copyOf(outTail, blocks);
+			outSize = Arrays.copyOf(outSize, blocks);
+			inHead = Arrays.copyOf(inHead, blocks);
+			inTail = Arrays.copyOf(inTail, blocks);
+			inSize = Arrays.copyOf(inSize, blocks);
+		}
+		int previousLength = vertexId[block] == null ? 0 : vertexId[block].length;
+		vertexNext[block] = copyOf(vertexNext[block], length);
+		vertexPrevious[block] = copyOf(vertexPrevious[block], length);
+		vertexId[block] = copyOf(vertexId[block], length);
+		Arrays.fill(vertexId[block], previousLength, length, NONE);
+		vertexData[block] = vertexData[block] == null ? new Object[length] : Arrays.copyOf(vertexData[block], length);
+		outHead[block] = copyOf(outHead[block], length);
+		outTail[block] = copyOf(outTail[block], length);
+		outSize[block] = copyOf(outSize[block], length);
+		inHead[block] = copyOf(inHead[block], length);
+		inTail[block] = copyOf(inTail[block], length);
+		inSize[block] = copyOf(inSize[block], length);
+		vertexOwner[block] = token;
+
+		// Grow the objects of the block if they were already created
+		if(block < vertices.length && vertices[block] != null && vertices[block].items.length < length)
+			vertices[block] = new ObjectBlock<Vertex<E,T>>(Arrays.copyOf(vertices[block].items, length));
+	}
+
+	/**
+	 * Give this slab its own copy of a block of edge slots, or a new block if it does not exist yet
+	 * @param block
+	 * @param length Number of slots of the copy, at least the number of slots of the block
+	 */
+	private void copyEdgeBlock(int block, int length){
+		if(block >= edgeOwner.length){
+			int blocks = Math.max(block + 1, edgeOwner.length * 2);
+			edgeNext = Arrays.copyOf(edgeNext, blocks);
+			edgePrevious = Arrays.copyOf(edgePrevious, blocks);
+			edgeId = Arrays.copyOf(edgeId, blocks);
+			edgeFrom = Arrays.copyOf(edgeFrom, blocks);
+			edgeTo = Arrays.copyOf(edgeTo, blocks);
+			edgeWeight = Arrays.copyOf(edgeWeight, blocks);
+			edgeLabel = Arrays.copyOf(edgeLabel, blocks);
+			edgeOwner = Arrays.copyOf(edgeOwner, blocks);
+			outNext = Arrays.copyOf(outNext, blocks);
+			outPrevious = Arrays.copyOf(outPrevious, blocks);
+			inNext = Arrays.copyOf(inNext, blocks);
+			inPrevious = Arrays.copyOf(inPrevious, blocks);
+		}
+		int previousLength = edgeId[block] == null ? 0 : edgeId[block].length;
+		edgeNext[block] = copyOf(edgeNext[block], length);
+		edgePrevious[block] = copyOf(edgePrevious[block], length);
+		edgeId[block] = copyOf(edgeId[block], length);
+		Arrays.fill(edgeId[block], previousLength, length, NONE);
+		edgeFrom[block] = copyOf(edgeFrom[block], length);
+		edgeTo[block] = copyOf(edgeTo[block], length);
+		edgeWeight[block] = edgeWeight[block] == null ? new double[length] : Arrays.copyOf(edgeWeight[block], length);
+		edgeLabel[block] = edgeLabel[block] == null ? new Object[length] : Arrays.copyOf(edgeLabel[block], length);
+		outNext[block] = copyOf(outNext[block], length);
+		outPrevious[block] = copyOf(outPrevious[block], length);
+		inNext[block] = copyOf(inNext[block], length);
+		inPrevious[block] = copyOf(inPrevious[block], length);
+		edgeOwner[block] = token;
+
+		// Grow the objects of the block if they were already created
+		if(block < edges.length && edges[block] != null && edges[block].items.length < length)
+			edges[block] = new ObjectBlock<Edge<E,T>>(Arrays.copyOf(edges[block].items, length));
+	}
+
+	/**
+	 * Copy a block of ints, or create it
+	 * @param block | null
+	 * @param length
+	 * @return copy
+	 */
+	private static int[] copyOf(int block[], int length){
+		return block == null ? new int[length] : Arrays.copyOf(block, length);
+	}
+
+	/**
+	 * Get the vertex objects of the block holding a slot, creating them if this slab is a copy that has not read the block yet
+	 * @param slot
+	 * @return objects
+	 */
+	private ObjectBlock<Vertex<E,T>> vertexBlock(int slot){
+		int block = slot >>> BLOCK_SHIFT;
+		ObjectBlock<Vertex<E,T>> objects[] = vertices;
+		if(block < objects.length && objects[block] != null)
+			return objects[block];
+		return createVertices(block);
+	}
+
+	/**
+	 * Get the edge objects of the block holding a slot, creating them if this slab is a copy that has not read the block yet
+	 * @param slot
+	 * @return objects
+	 */
+	private ObjectBlock<Edge<E,T>> edgeBlock(int slot){
+		int block = slot >>> BLOCK_SHIFT;
+		ObjectBlock<Edge<E,T>> objects[] = edges;
+		if(block < objects.length && objects[block] != null)
+			return objects[block];
+		return createEdges(block);
+	}
+
+	/**
+	 * Create the vertex objects of a block from its slots
+	 * Synchronized so concurrent read queries on a copy create each vertex once
+	 * @param block
+	 * @return objects
+	 */
+	private synchronized ObjectBlock<Vertex<E,T>> createVertices(int block){
+		if(block >= vertices.length)
+			vertices = Arrays.copyOf(vertices, Math.max(block + 1, vertices.length * 2));
+		if(vertices[block] == null){
+			int ids[] = vertexId[block];
+			Vertex<E,T> items[] = Vertex.newArray(ids.length);
+			for(int i = 0; i < ids.length; i++){
+				if(ids[i] != NONE){
+					items[i] = new Vertex<E,T>(null, ids[i]);
+					items[i].attach(this, (block << BLOCK_SHIFT) + i);
+				}
+			}
+			vertices[block] = new ObjectBlock<Vertex<E,T>>(items);
+		}
+		return vertices[block];
+	}
+
+	/**
+	 * Create the edge objects of a block from its slots
+	 * Synchronized so concurrent read queries on a copy create each edge once
+	 * @param block
+	 * @return objects
+	 */
+	private synchronized ObjectBlock<Edge<E,T>> createEdges(int block){
+		if(block >= edges.length)
+			edges = Arrays.copyOf(edges, Math.max(block + 1, edges.length * 2));
+		if(edges[block] == null){
+			int ids[] = edgeId[block];
+			Edge<E,T> items[] = Edge.newArray(ids.length);
+			for(int i = 0; i < ids.length; i++)
+				if(ids[i] != NONE)
+					items[i] = new Edge<E,T>(this, (block << BLOCK_SHIFT) + i);
+			edges[block] = new ObjectBlock<Edge<E,T>>(items);
+		}
+		return edges[block];
+	}
+
+	/**
+	 * Vertex or edge objects of a block
+	 * The array is final, so a thread reading a block created by another thread sees its objects fully built
+	 */
+	private static final class ObjectBlock <X> {
+
+		private final X items[];
+
+		/**
+		 * Constructor
+		 * @param items
+		 */
+		private ObjectBlock(X[] items) {
+			this.items = items;
+		}
+
+		/**
+		 * Create an array of blocks
+		 * @param length
+		 * @return array of null blocks
+		 */
+		@SuppressWarnings("unchecked")
+		private static <X> ObjectBlock<X>[] newArray(int length){
+			return (ObjectBlock<X>[]) new ObjectBlock<?>[length];
+		}
+	}
+
+	/**
+	 * Blocks taken by a writer of a ConcurrentGraph, holding for each block the token of the slab when it was taken
+	 */
+	protected static final class Claims {
+
+		private Object vertexBlocks[] = new Object[0], edgeBlocks[] = new Object[0];
+	}
+
+	/**
+	 * Spliterator on a range of vertex or edge slots, skipping the free slots
+	 * Nothing is allocated per item, and the items of a copy are created block by block as they are reached
+	 */
+	private class SlotSpliterator <X> implements Spliterator<X> {
+
+		// Ranges smaller than this are not split
+		private static final int MIN_SPLIT = 1024;
+
+		private final int list;
+		private int slot;
+		private final int end;
+
+		// Number of items left, -1 once split because the free slots of each part are unknown
+		private int size;
+
+		/**
+		 * Constructor
+		 * @param list VERTICES or EDGES
+		 * @param slot First slot
+		 * @param end Slot after the last one
+		 * @param size Number of items in the range, -1 if unknown
+		 */
+		private SlotSpliterator(int list, int slot, int end, int size) {
+			this.list = list;
+			this.slot = slot;
+			this.end = end;
+			this.size = size;
+		}
+
+		/**
+		 * Give the next item to an action
+		 * The items are vertices if X is a vertex, and edges otherwise
+		 * @param action
+		 * @return false if there are no more items
+		 */
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super X> action){
+			int ids[][] = list == VERTICES ? vertexId : edgeId;
+			while(slot < end){
+				int current = slot++;
+				if(get(ids, current) != NONE){
+					if(size > 0)
+						size--;
+					action.accept(list == VERTICES ? (X) getVertex(current) : (X) getEdge(current));
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Split off the first half of the slots, cut at a block boundary when the range covers several blocks
+		 * @return spliterator on the first half | null if the range is too small
+		 */
+		public Spliterator<X> trySplit(){
+			if(end - slot < MIN_SPLIT)
+				return null;
+			int middle = (slot + end) >>> 1;
+			if((middle & ~BLOCK_MASK) > slot)
+				middle &= ~BLOCK_MASK;
+			SlotSpliterator<X> first = new SlotSpliterator<X>(list, slot, middle, -1);
+			slot = middle;
+			size = -1;
+			return first;
+		}
+
+		/**
+		 * Number of items left, or of slots left once split
+		 * @return size
+		 */
+		public long estimateSize(){
+			return size >= 0 ? size : end - slot;
+		}
+
+		/**
+		 * The items are distinct and not null, and their number is exact until the spliterator is split
+		 * @return characteristics
+		 */
+		public int characteristics(){
+			return size >= 0 ? SIZED | NONNULL | DISTINCT : NONNULL | DISTINCT;
+		}
+	}
+
+	/**
+	 * Iterator following the links of one list. Only the slot of the next item is kept, so nothing is allocated per item
+	 * The slabs are read through the outer class, so items added while iterating are seen
+	 */
+	private class Cursor <X> implements NodeIterator<X> {
+
+		private final int list, size;
+		private int position;
+
+		// Iterator to continue with once this list is over, null if none
+		private NodeIterator<X> then;
+
+		/**
+		 * Constructor
+		 * @param list
+		 * @param position First slot
+		 * @param size
+		 */
+		private Cursor(int list, int position, int size) {
+			this.list = list;
+			this.position = position;
+			this.size = size;
+		}
+
+		/**
+		 * Get next element in the list
+		 * The list is a list of vertices if X is a vertex, and a list of edges otherwise
+		 */
+		@SuppressWarnings("unchecked")
+		public X next(){
+			if(position == NONE){
+				if(then == null)
+					throw new NoSuchElementException();
+				return then.next();
+			}
+			int slot = position;
+			switch(list){
+			case VERTICES:
+				position = get(vertexNext, slot);
+				return (X) getVertex(slot);
+			case EDGES:
+				position = get(edgeNext, slot);
+				break;
+			case OUT_EDGES:
+				position = get(outNext, slot);
+				break;
+			case IN_EDGES:
+				position = get(inNext, slot);
+				break;
+			default:
+				position = nextOutEdge(slot);
+			}
+			return (X) getEdge(slot);
+		}
+
+		/**
+		 * Checks if there's a next element
+		 */
+		public boolean hasNext(){
+			return position != NONE || (then != null && then.hasNext());
+		}
+
+		/**
+		 * Continue with the elements of another iterator once this one is over, nothing is copied
+		 * @param secondIter
+		 * @return this iterator
+		 */
+		public NodeIterator<X> concatenate(NodeIterator<X> secondIter){
+			if(then == null)
+				then = secondIter;
+			else
+				then = then.concatenate(secondIter);
+			return this;
+		}
+
+		/**
+		 * Get size of iterator
+		 */
+		public int size(){
+			return then == null ? size : size + then.size();
+		}
+	}
+}
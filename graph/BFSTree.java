@@ -0,0 +1,65 @@
+package graph;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class BFSTree <E,T> {
+
+	// Vertices level by level. The order inside a level may change from one run to another
+	private final Vertex<E,T> order[];
+
+	// BFS options, indexed by vertex unique id
+	private final int level[];
+	private final Edge<E,T> parent_edge[];
+
+	/**
+	 * Constructor
+	 * @param order Vertices level by level
+	 * @param level Level of each vertex unique id, -1 if the vertex was not reached
+	 * @param parent_edge Edge that discovered each vertex unique id
+	 */
+	protected BFSTree(Vertex<E,T>[] order, int[] level, Edge<E,T>[] parent_edge) {
+		this.order = order;
+		this.level = level;
+		this.parent_edge = parent_edge;
+	}
+
+	/**
+	 * Get the vertices traversed by BFS, level by level
+	 * @return Array of vertices
+	 */
+	public Vertex<E,T>[] getOrder(){
+		return order.clone();
+	}
+
+	/**
+	 * Get the number of edges between a vertex and the root of its tree
+	 * @param v
+	 * @return level, -1 if the vertex was not reached
+	 */
+	public int getLevel(Vertex<E,T> v){
+		return v.getID() < level.length ? level[v.getID()] : -1;
+	}
+
+	/**
+	 * Get the edge that discovered a vertex
+	 * @param v
+	 * @return edge | null if the vertex is a root or was not reached
+	 */
+	public Edge<E,T> getParent_edge(Vertex<E,T> v){
+		return v.getID() < parent_edge.length ? parent_edge[v.getID()] : null;
+	}
+
+	/**
+	 * Get the vertex that discovered a vertex
+	 * @param v
+	 * @return vertex | null if the vertex is a root or was not reached
+	 */
+	public Vertex<E,T> getParent(Vertex<E,T> v){
+		Edge<E,T> edge = getParent_edge(v);
+		return edge == null ? null : edge.getOpposite(v);
+	}
+}
@@ -0,0 +1,169 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class BucketQueue {
+
+	// Circular array of buckets, each bucket is a doubly linked list of items threaded through next[] and previous[]
+	private int buckets[];
+	private int mask;
+
+	// Per item content
+	private long keys[];
+	private int next[], previous[];
+	private boolean queued[];
+	private int size;
+
+	// Every key in the queue is in [cursor, cursor + buckets.length)
+	private long cursor;
+
+	/**
+	 * Constructor
+	 * @param capacity Items must be in [0, capacity)
+	 */
+	protected BucketQueue(int capacity) {
+		buckets = new int[16];
+		Arrays.fill(buckets, -1);
+		mask = buckets.length - 1;
+		capacity = Math.max(capacity, 1);
+		keys = new long[capacity];
+		next = new int[capacity];
+		previous = new int[capacity];
+		queued = new boolean[capacity];
+	}
+
+	/**
+	 * Allow items in [0, capacity)
+	 * @param capacity
+	 */
+	protected void ensureCapacity(int capacity){
+		if(capacity > keys.length){
+			capacity = Math.max(capacity, keys.length * 2);
+			keys = Arrays.copyOf(keys, capacity);
+			next = Arrays.copyOf(next, capacity);
+			previous = Arrays.copyOf(previous, capacity);
+			queued = Arrays.copyOf(queued, capacity);
+		}
+	}
+
+	/**
+	 * Checks if the queue is empty
+	 * @return boolean
+	 */
+	protected boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Insert an item, or decrease its key if it is already queued with a larger key
+	 * Keys must never be smaller than the key of the last polled item (monotone queue)
+	 * @param item
+	 * @param key
+	 */
+	protected void offer(int item, long key){
+		if(queued[item]){
+			if(keys[item] <= key) return;
+			unlink(item);
+		}
+		if(size == 0 && key < cursor)
+			cursor = key;
+
+		// The ring must cover all the keys, grow it if a key is too far ahead
+		if(key - cursor >= buckets.length)
+			grow(key - cursor + 1);
+		keys[item] = key;
+		link(item);
+	}
+
+	/**
+	 * Get the minimum key, advancing to the first non empty bucket
+	 * @return key
+	 */
+	protected long peekKey(){
+		while(buckets[(int) (cursor & mask)] == -1)
+			cursor++;
+		return cursor;
+	}
+
+	/**
+	 * Remove an item with the minimum key
+	 * @return item
+	 */
+	protected int poll(){
+		int item = buckets[(int) (peekKey() & mask)];
+		unlink(item);
+		return item;
+	}
+
+	/**
+	 * Remove all the items
+	 */
+	protected void clear(){
+		for(int i = 0; i < buckets.length && size > 0; i++)
+			while(buckets[i] != -1)
+				unlink(buckets[i]);
+		cursor = 0;
+	}
+
+	/**
+	 * Add an item at the head of the bucket of its key
+	 * @param item
+	 */
+	private void link(int item){
+		int bucket = (int) (keys[item] & mask);
+		next[item] = buckets[bucket];
+		previous[item] = -1;
+		if(buckets[bucket] != -1)
+			previous[buckets[bucket]] = item;
+		buckets[bucket] = item;
+		queued[item] = true;
+		size++;
+	}
+
+	/**
+	 * Remove an item from its bucket
+	 * @param item
+	 */
+	private void unlink(int item){
+		if(previous[item] != -1)
+			next[previous[item]] = next[item];
+		else
+			buckets[(int) (keys[item] & mask)] = next[item];
+		if(next[item] != -1)
+			previous[next[item]] = previous[item];
+		queued[item] = false;
+		size--;
+	}
+
+	/**
+	 * Resize the ring to a power of two of at least span buckets and redistribute the items
+	 * @param span
+	 */
+	private void grow(long span){
+		if(span > 1 << 30)
+			throw new IllegalArgumentException("Key range " + span + " is too large for a bucket queue");
+		int old[] = buckets;
+		int length = old.length;
+		while(length < span)
+			length *= 2;
+		buckets = new int[length];
+		Arrays.fill(buckets, -1);
+		mask = length - 1;
+		int count = size;
+		size = 0;
+		for(int i = 0; i < old.length && size < count; i++){
+			int item = old[i];
+			while(item != -1){
+				int following = next[item];
+				link(item);
+				item = following;
+			}
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public interface Codec <X> {
+
+	// UTF-8 strings
+	public static final Codec<String> STRING = new Codec<String>() {
+		public byte[] encode(String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+
+		public String decode(ByteBuffer buffer) {
+			byte bytes[] = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * Convert a value to bytes
+	 * @param value Never null
+	 * @return bytes
+	 */
+	public byte[] encode(X value);
+
+	/**
+	 * Convert bytes back to a value
+	 * @param buffer Holds exactly the bytes given by encode
+	 * @return value
+	 */
+	public X decode(ByteBuffer buffer);
+}
@@ -0,0 +1,646 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class ConcurrentGraph <E,T> {
+
+	// Default length of a snapshot epoch in nanoseconds
+	public static final long DEFAULT_EPOCH = 1000000L;
+
+	// Slots and ids are reserved by chunks of this size, so each writer fills slots of its own
+	private static final int CHUNK = 256;
+
+	// A writer stops the others to link its changes once it has this many, if no snapshot linked them before
+	private static final int PENDING = 1 << 16;
+
+	// Graph changed by the writers. They store vertices and edges directly in its slab, each in its own slots, and only lock the vertices
+	// whose out and in edges they change. The lists of all the vertices and edges are linked while the writers are stopped, before a snapshot
+	private final Graph<E,T> graph;
+	private final AdjacencySlab<E,T> slab;
+	private final boolean directed, sharedEdges;
+
+	// Locks of the vertices by slot, taken in order. The writers are stopped by taking all of them, then the reservation lock
+	private final ReentrantLock locks[];
+	private final ReentrantLock reservations = new ReentrantLock();
+
+	// Each thread writing to the graph, registered while holding the reservation lock
+	private final List<Writer> writers = new ArrayList<Writer>();
+	private final ThreadLocal<Writer> writer = ThreadLocal.withInitial(this::register);
+
+	// Number of changes made while the writers were stopped, the writers count their own
+	private long version;
+
+	// Snapshot given to the readers during the current epoch, null until the first one is taken
+	private volatile Epoch<E,T> current;
+	private final long epoch;
+
+	/**
+	 * Constructor
+	 * @param directed true if the graph is directed, false if undirected
+	 */
+	public ConcurrentGraph(boolean directed) {
+		this(directed, false);
+	}
+
+	/**
+	 * Constructor
+	 * @param directed true if the graph is directed, false if undirected
+	 * @param sharedEdges true to store each undirected edge once, ignored if the graph is directed
+	 */
+	public ConcurrentGraph(boolean directed, boolean sharedEdges) {
+		this(directed, sharedEdges, DEFAULT_EPOCH);
+	}
+
+	/**
+	 * Constructor
+	 * @param directed true if the graph is directed, false if undirected
+	 * @param sharedEdges true to store each undirected edge once, ignored if the graph is directed
+	 * @param epoch Nanoseconds a snapshot is given to the readers before a newer one is taken, 0 to take one after every change
+	 */
+	public ConcurrentGraph(boolean directed, boolean sharedEdges, long epoch) {
+		if(epoch < 0)
+			throw new IllegalArgumentException("Negative epoch: " + epoch);
+		graph = new Graph<E,T>(directed, sharedEdges);
+		slab = graph.getSlab();
+		this.directed = directed;
+		this.sharedEdges = sharedEdges;
+		this.epoch = epoch;
+		int stripes = 16;
+		while(stripes < 4 * Runtime.getRuntime().availableProcessors())
+			stripes *= 2;
+		locks = new ReentrantLock[stripes];
+		for(int i = 0; i < stripes; i++)
+			locks[i] = new ReentrantLock();
+	}
+
+	/**
+	 * Add vertex to the graph
+	 * @param data
+	 * @return Added vertex
+	 */
+	public Vertex<E,T> addVertex(E data){
+		Writer writer = prepare(1, 0);
+		Vertex<E,T> vertex = new Vertex<E,T>(data, writer.vertexID++);
+		int slot = writer.freeVertices.size > 0 ? writer.freeVertices.pop() : writer.vertexSlot++;
+		lock(slot, slot);
+		try {
+			slab.putVertex(vertex, slot, writer.claims);
+			writer.addedVertices.add(slot);
+			writer.changes++;
+		} finally {
+			unlock(slot, slot);
+		}
+		return vertex;
+	}
+
+	/**
+	 * Add Edge between two vertices
+	 * @param v1
+	 * @param v2
+	 * @param label
+	 * @param weight
+	 * @return Array of 2 edges if the graph is undirected, array of 1 edge if the graph is directed or has shared edges
+	 * @throws IllegalArgumentException if a vertex is not in the graph
+	 */
+	public Edge<E,T>[] addEdge(Vertex<E,T> v1, Vertex<E,T> v2, T label, double weight){
+		int count = directed || sharedEdges ? 1 : 2;
+		Writer writer = prepare(0, count);
+		int slot1 = v1.getSlot(), slot2 = v2.getSlot();
+		lock(slot1, slot2);
+		try {
+			if(!graph.isIndexed()){
+				check(v1);
+				check(v2);
+				Edge<E,T> edges[] = Edge.newArray(count);
+				edges[0] = putEdge(writer, v1, v2, label, weight);
+				if(count == 2)
+					edges[1] = putEdge(writer, v2, v1, label, weight);
+				writer.changes++;
+				return edges;
+			}
+		} finally {
+			unlock(slot1, slot2);
+		}
+		return stopped(graph -> graph.addEdge(v1, v2, label, weight));
+	}
+
+	/**
+	 * Add Edge between two vertices
+	 * @param v1
+	 * @param v2
+	 * @return Array of 2 edges if the graph is undirected, array of 1 edge if the graph is directed or has shared edges
+	 * @throws IllegalArgumentException if a vertex is not in the graph
+	 */
+	public Edge<E,T>[] addEdge(Vertex<E,T> v1, Vertex<E,T> v2){
+		return addEdge(v1, v2, null, 0.0);
+	}
+
+	/**
+	 * Remove vertex, with the other writers stopped
+	 * @param vertex
+	 * @throws IllegalArgumentException if the vertex is not in the graph
+	 */
+	public void removeVertex(Vertex<E,T> vertex){
+		stopped(graph -> {
+			check(vertex);
+			graph.removeVertex(vertex);
+			return null;
+		});
+	}
+
+	/**
+	 * Remove edge
+	 * @param edge
+	 * @throws IllegalArgumentException if the edge is not in the graph
+	 */
+	public void removeEdge(Edge<E,T> edge){
+		Writer writer = prepare(0, 0);
+		lockEdge(writer, edge);
+		int slot = edge.getSlot(), from = writer.from, to = writer.to;
+		try {
+			if(!graph.isIndexed()){
+				slab.dropEdge(edge, writer.claims);
+				writer.removedEdges.add(slot);
+				writer.changes++;
+				return;
+			}
+		} finally {
+			unlock(from, to);
+		}
+		stopped(graph -> {
+			graph.removeEdge(edge);
+			return null;
+		});
+	}
+
+	/**
+	 * Set the data of a vertex, the vertices of this graph must not be changed directly
+	 * @param vertex
+	 * @param data
+	 * @throws IllegalArgumentException if the vertex is not in the graph
+	 */
+	public void setData(Vertex<E,T> vertex, E data){
+		Writer writer = this.writer.get();
+		int slot = vertex.getSlot();
+		lock(slot, slot);
+		try {
+			check(vertex);
+			slab.ownVertex(slot, writer.claims);
+			vertex.setData(data);
+			writer.changes++;
+		} finally {
+			unlock(slot, slot);
+		}
+	}
+
+	/**
+	 * Set the label of an edge, the edges of this graph must not be changed directly
+	 * @param edge
+	 * @param label
+	 * @throws IllegalArgumentException if the edge is not in the graph
+	 */
+	public void setLabel(Edge<E,T> edge, T label){
+		Writer writer = this.writer.get();
+		lockEdge(writer, edge);
+		try {
+			edge.setLabel(label);
+			writer.changes++;
+		} finally {
+			unlock(writer.from, writer.to);
+		}
+	}
+
+	/**
+	 * Set the weight of an edge, the edges of this graph must not be changed directly
+	 * @param edge
+	 * @param weight
+	 * @throws IllegalArgumentException if the edge is not in the graph
+	 */
+	public void setWeight(Edge<E,T> edge, double weight){
+		Writer writer = this.writer.get();
+		lockEdge(writer, edge);
+		try {
+			edge.setWeight(weight);
+			writer.changes++;
+		} finally {
+			unlock(writer.from, writer.to);
+		}
+	}
+
+	/**
+	 * Run several changes on the graph as one write, with the other writers stopped
+	 * The graph given to the changes must not be kept or used by other threads after they return
+	 * @param changes
+	 */
+	public void update(Consumer<Graph<E,T>> changes){
+		stopped(graph -> {
+			changes.accept(graph);
+			return null;
+		});
+	}
+
+	/**
+	 * Get a consistent read only view of the graph, on which any query can run without blocking the writers
+	 * The snapshot is an O(1) clone shared by all the readers for one epoch, so it misses the changes made during the last epoch at most.
+	 * A new one is taken only after the epoch is over and the graph changed, so the writes of an epoch copy each block they change once
+	 * whatever the number of readers polling. It must not be changed, clone() it to get a graph to change.
+	 * Use snapshot.getVertex(vertex) to find in it a vertex returned by addVertex. A reader running several queries should run them on the same snapshot
+	 * The writers are stopped while a snapshot is taken, and the vertices and edges added by different writers since the last one are listed writer by writer
+	 * @return snapshot
+	 */
+	public Graph<E,T> snapshot(){
+		Epoch<E,T> epoch = current;
+		if(epoch != null && System.nanoTime() - epoch.start < this.epoch)
+			return epoch.graph;
+		return take(false);
+	}
+
+	/**
+	 * Get a read only view of the graph having all the changes made before the call, taking a new snapshot if the current one misses some
+	 * Used when a reader must see its own writes, snapshot() is cheaper for readers polling the graph
+	 * @return snapshot
+	 */
+	public Graph<E,T> latestSnapshot(){
+		return take(true);
+	}
+
+	/**
+	 * Start a new epoch if the current one is over, stopping the writers
+	 * @param latest true to take a new snapshot whenever the graph changed, even if the epoch is not over
+	 * @return snapshot of the current epoch
+	 */
+	private Graph<E,T> take(boolean latest){
+		stopWriters();
+		try {
+			Epoch<E,T> epoch = current;
+			long now = System.nanoTime();
+			if(epoch != null && !latest && now - epoch.start < this.epoch)
+				return epoch.graph;
+			long version = link();
+			if(epoch == null || epoch.version != version){
+				epoch = new Epoch<E,T>(graph.clone(), version, now);
+
+				// The writers must not take the directories of the slab concurrently after it is copied
+				slab.beforeWrite();
+			}else{
+				epoch = new Epoch<E,T>(epoch.graph, version, now);
+			}
+			current = epoch;
+			return epoch.graph;
+		} finally {
+			resumeWriters();
+		}
+	}
+
+	/**
+	 * Checks if the graph is directed
+	 * @return boolean
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * Get the writer of the current thread with enough slots and ids reserved for a change, called before taking any lock
+	 * @param vertices Number of vertices the change adds
+	 * @param edges Number of edges the change adds
+	 * @return writer
+	 */
+	private Writer prepare(int vertices, int edges){
+		Writer writer = this.writer.get();
+		if(writer.lacks(vertices, edges))
+			refill(writer, vertices, edges);
+		return writer;
+	}
+
+	/**
+	 * Link the changes of the writers if the writer has too many pending, and reserve the slots and ids it lacks
+	 * @param writer
+	 * @param vertices Number of vertices the change adds
+	 * @param edges Number of edges the change adds
+	 */
+	private void refill(Writer writer, int vertices, int edges){
+		if(writer.pending() >= PENDING){
+			stopWriters();
+			try {
+				link();
+			} finally {
+				resumeWriters();
+			}
+		}
+		if(writer.freeVertices.size + writer.vertexSlotEnd - writer.vertexSlot < vertices){
+			writer.vertexSlot = reserve(true);
+			writer.vertexSlotEnd = writer.vertexSlot + CHUNK;
+		}
+		if(writer.vertexIDEnd - writer.vertexID < vertices){
+			reservations.lock();
+			try {
+				writer.vertexID = graph.reserveVertexIDs(CHUNK);
+			} finally {
+				reservations.unlock();
+			}
+			writer.vertexIDEnd = writer.vertexID + CHUNK;
+		}
+
+		// The edges freed are only read here, they are given back to the writer while the writers are stopped
+		if(writer.freeEdges.size + writer.edgeSlotEnd - writer.edgeSlot < edges){
+			writer.edgeSlot = reserve(false);
+			writer.edgeSlotEnd = writer.edgeSlot + CHUNK;
+		}
+		if(writer.edgeIDEnd - writer.edgeID < edges){
+			reservations.lock();
+			try {
+				writer.edgeID = graph.reserveEdgeIDs(CHUNK);
+			} finally {
+				reservations.unlock();
+			}
+			writer.edgeIDEnd = writer.edgeID + CHUNK;
+		}
+	}
+
+	/**
+	 * Reserve a chunk of unused slots, growing the slab with the writers stopped if it is full
+	 * @param vertices true for vertex slots, false for edge slots
+	 * @return first slot
+	 */
+	private int reserve(boolean vertices){
+		while(true){
+			reservations.lock();
+			try {
+				int first = vertices ? slab.reserveVertexSlots(CHUNK) : slab.reserveEdgeSlots(CHUNK);
+				if(first != AdjacencySlab.NONE)
+					return first;
+			} finally {
+				reservations.unlock();
+			}
+			stopWriters();
+			try {
+				slab.reserveCapacity(vertices ? CHUNK : 0, vertices ? 0 : CHUNK);
+			} finally {
+				resumeWriters();
+			}
+		}
+	}
+
+	/**
+	 * Store an edge in a slot of a writer holding the locks of its vertices
+	 * @param writer
+	 * @param v1
+	 * @param v2
+	 * @param label
+	 * @param weight
+	 * @return edge
+	 */
+	private Edge<E,T> putEdge(Writer writer, Vertex<E,T> v1, Vertex<E,T> v2, T label, double weight){
+		int slot = writer.freeEdges.size > 0 ? writer.freeEdges.pop() : writer.edgeSlot++;
+		Edge<E,T> edge = slab.putEdge(slot, v1, v2, writer.edgeID++, label, weight, writer.claims);
+		writer.addedEdges.add(slot);
+		return edge;
+	}
+
+	/**
+	 * Run changes on the graph itself with the writers stopped, once their changes are linked
+	 * The slots freed by the graph are given to the writer of the current thread
+	 * @param changes
+	 * @return result of the changes
+	 */
+	private <X> X stopped(Function<Graph<E,T>,X> changes){
+		Writer writer = this.writer.get();
+		stopWriters();
+		try {
+			link();
+			version++;
+			X result = changes.apply(graph);
+			for(int slot = slab.takeFreeVertex(); slot != AdjacencySlab.NONE; slot = slab.takeFreeVertex())
+				writer.freeVertices.add(slot);
+			for(int slot = slab.takeFreeEdge(); slot != AdjacencySlab.NONE; slot = slab.takeFreeEdge())
+				writer.freeEdges.add(slot);
+			return result;
+		} finally {
+			resumeWriters();
+		}
+	}
+
+	/**
+	 * Link the vertices and edges added by the writers to the lists of the graph and unlink the edges removed, called with the writers stopped
+	 * The edges removed are unlinked once all the edges are linked, since a writer may remove an edge added by another one.
+	 * Their slots are then given back to the writers that freed them
+	 * @return number of changes made to the graph so far
+	 */
+	private long link(){
+		long changes = version;
+		for(Writer writer : writers){
+			Slots vertices = writer.addedVertices, edges = writer.addedEdges;
+			for(int i = 0; i < vertices.size; i++)
+				slab.linkVertex(vertices.items[i]);
+			for(int i = 0; i < edges.size; i++)
+				slab.linkEdge(edges.items[i]);
+			vertices.size = edges.size = 0;
+			changes += writer.changes;
+		}
+		for(Writer writer : writers){
+			Slots removed = writer.removedEdges;
+			for(int i = 0; i < removed.size; i++){
+				slab.unlinkEdge(removed.items[i]);
+				writer.freeEdges.add(removed.items[i]);
+			}
+			removed.size = 0;
+		}
+		return changes;
+	}
+
+	/**
+	 * Lock the vertices of an edge. They are read before being locked and checked after, in case the slot of the edge was used again meanwhile
+	 * @param writer Gets the slots of the vertices locked
+	 * @param edge
+	 * @throws IllegalArgumentException if the edge is not in the graph
+	 */
+	private void lockEdge(Writer writer, Edge<E,T> edge){
+		while(true){
+			int slot = edge.getSlot();
+			if(slot == AdjacencySlab.NONE)
+				throw new IllegalArgumentException("Edge is not in the graph");
+			int from = slab.getFrom(slot), to = slab.getTo(slot);
+			lock(from, to);
+			boolean stored = slab.storesEdge(edge, writer.claims);
+			if(stored && slab.getFrom(slot) == from && slab.getTo(slot) == to){
+				writer.from = from;
+				writer.to = to;
+				return;
+			}
+			unlock(from, to);
+			if(!stored)
+				throw new IllegalArgumentException("Edge " + edge.getID() + " is not in the graph");
+		}
+	}
+
+	/**
+	 * Check that a vertex is in the graph, called while holding its lock
+	 * @param vertex
+	 * @throws IllegalArgumentException if it is not
+	 */
+	private void check(Vertex<E,T> vertex){
+		if(vertex.getSlab() != slab)
+			throw new IllegalArgumentException("Vertex " + vertex.getID() + " is not in the graph");
+	}
+
+	/**
+	 * Take the locks of two vertex slots, in order
+	 * @param slot1
+	 * @param slot2
+	 */
+	private void lock(int slot1, int slot2){
+		int first = slot1 & (locks.length - 1), second = slot2 & (locks.length - 1);
+		locks[Math.min(first, second)].lock();
+		if(first != second)
+			locks[Math.max(first, second)].lock();
+	}
+
+	/**
+	 * Release the locks of two vertex slots
+	 * @param slot1
+	 * @param slot2
+	 */
+	private void unlock(int slot1, int slot2){
+		int first = slot1 & (locks.length - 1), second = slot2 & (locks.length - 1);
+		if(first != second)
+			locks[Math.max(first, second)].unlock();
+		locks[Math.min(first, second)].unlock();
+	}
+
+	/**
+	 * Stop the writers by taking all the locks of the vertices in order, then the reservation lock
+	 */
+	private void stopWriters(){
+		for(ReentrantLock lock : locks)
+			lock.lock();
+		reservations.lock();
+	}
+
+	/**
+	 * Let the writers go on
+	 */
+	private void resumeWriters(){
+		reservations.unlock();
+		for(int i = locks.length - 1; i >= 0; i--)
+			locks[i].unlock();
+	}
+
+	/**
+	 * Register the writer of a thread writing to the graph for the first time
+	 * @return writer
+	 */
+	private Writer register(){
+		Writer writer = new Writer();
+		reservations.lock();
+		try {
+			writers.add(writer);
+		} finally {
+			reservations.unlock();
+		}
+		return writer;
+	}
+
+	/**
+	 * Snapshot of an epoch, the number of changes it has and the time it started at
+	 */
+	private static final class Epoch <E,T> {
+		private final Graph<E,T> graph;
+		private final long version, start;
+
+		/**
+		 * Constructor
+		 * @param graph
+		 * @param version
+		 * @param start
+		 */
+		private Epoch(Graph<E,T> graph, long version, long start) {
+			this.graph = graph;
+			this.version = version;
+			this.start = start;
+		}
+	}
+
+	/**
+	 * Slots and ids reserved by a thread writing to the graph, and its changes not linked yet
+	 * Only its thread uses it, under the locks of the vertices it changes, except while the writers are stopped
+	 */
+	private static final class Writer {
+
+		// Next slot and id of the chunks reserved, and their ends
+		private int vertexSlot, vertexSlotEnd, vertexID, vertexIDEnd;
+		private int edgeSlot, edgeSlotEnd, edgeID, edgeIDEnd;
+
+		// Freed slots, used before the reserved ones
+		private final Slots freeVertices = new Slots(), freeEdges = new Slots();
+
+		// Slots to link to the lists of vertices and edges, or to unlink from the list of edges
+		private final Slots addedVertices = new Slots(), addedEdges = new Slots(), removedEdges = new Slots();
+
+		// Blocks of the slab taken since the last snapshot
+		private final AdjacencySlab.Claims claims = new AdjacencySlab.Claims();
+
+		// Vertex slots locked by lockEdge
+		private int from, to;
+
+		// Number of changes made
+		private long changes;
+
+		/**
+		 * Number of changes not linked yet
+		 * @return count
+		 */
+		private int pending(){
+			return addedVertices.size + addedEdges.size + removedEdges.size;
+		}
+
+		/**
+		 * Checks if the writer has too many changes pending, or too few slots or ids left for a change
+		 * @param vertices Number of vertices the change adds
+		 * @param edges Number of edges the change adds
+		 * @return boolean
+		 */
+		private boolean lacks(int vertices, int edges){
+			return pending() >= PENDING
+					|| freeVertices.size + vertexSlotEnd - vertexSlot < vertices || vertexIDEnd - vertexID < vertices
+					|| freeEdges.size + edgeSlotEnd - edgeSlot < edges || edgeIDEnd - edgeID < edges;
+		}
+	}
+
+	/**
+	 * Stack of slots
+	 */
+	private static final class Slots {
+		private int items[] = new int[16];
+		private int size;
+
+		/**
+		 * Push a slot
+		 * @param slot
+		 */
+		private void add(int slot){
+			if(size == items.length)
+				items = Arrays.copyOf(items, 2 * size);
+			items[size++] = slot;
+		}
+
+		/**
+		 * Pop the last slot
+		 * @return slot
+		 */
+		private int pop(){
+			return items[--size];
+		}
+	}
+}
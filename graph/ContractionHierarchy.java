@@ -0,0 +1,782 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class ContractionHierarchy <E,T> {
+
+	// Maximum number of vertices settled by a witness search before giving up and adding the shortcut
+	// Estimating the importance of a vertex uses a smaller search than contracting it
+	private static final int WITNESS_SETTLED_LIMIT = 500;
+	private static final int SIMULATION_SETTLED_LIMIT = 50;
+
+	// Vertices of the graph, indexed like the arrays below
+	private final Vertex<E,T> vertices[];
+	private final int indexOfID[];
+
+	// Arcs are the edges of the graph followed by the shortcuts
+	// A shortcut from u to w replaces the arcs child1 (u to v) and child2 (v to w), edge is null
+	private int arcFrom[], arcTo[], arcChild1[], arcChild2[];
+	private double arcWeight[];
+	private Edge<E,T> arcEdge[];
+	private int arcCount;
+	private final int edgeCount;
+
+	// Position of each vertex in the contraction order
+	private final int rank[];
+
+	// Upward search graph: forward arcs lead to a higher rank, backward arcs come from a higher rank
+	private int forwardOffsets[], forwardTargets[], forwardArcs[];
+	private double forwardWeights[];
+	private int backwardOffsets[], backwardTargets[], backwardArcs[];
+	private double backwardWeights[];
+
+	// Statistics
+	private final long buildTime;
+	private final AtomicLong queryCount = new AtomicLong();
+	private final AtomicLong queryTime = new AtomicLong();
+
+	// Query state reused between queries
+	private final ConcurrentLinkedQueue<Query> queries = new ConcurrentLinkedQueue<Query>();
+
+	/**
+	 * Constructor
+	 * @param vertices
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 */
+	private ContractionHierarchy(Vertex<E,T>[] vertices, int vertexCapacity) {
+		long start = System.nanoTime();
+		this.vertices = vertices;
+		indexOfID = new int[vertexCapacity];
+		Arrays.fill(indexOfID, -1);
+		for(int i = 0; i < vertices.length; i++)
+			indexOfID[vertices[i].getID()] = i;
+
+		// Copy the edges as the first arcs
+		int size = 0;
+		for(Vertex<E,T> v : vertices)
+			size += v.getOutEdges().size();
+		arcFrom = new int[size];
+		arcTo = new int[size];
+		arcChild1 = new int[size];
+		arcChild2 = new int[size];
+		arcWeight = new double[size];
+		arcEdge = Edge.newArray(size);
+		for(Vertex<E,T> v : vertices){
+			NodeIterator<Edge<E,T>> iterOutE = v.getOutEdges();
+			while(iterOutE.hasNext()){
+				Edge<E,T> edge = iterOutE.next();
+				if(edge.getWeight() < 0)
+					throw new IllegalArgumentException("Edge " + edge + " has a negative weight");
+				addArc(indexOfID[v.getID()], indexOfID[edge.getOpposite(v).getID()], edge.getWeight(), edge, -1, -1);
+			}
+		}
+		edgeCount = arcCount;
+
+		rank = new int[vertices.length];
+		contract();
+		buildSearchGraph();
+		buildTime = System.nanoTime() - start;
+	}
+
+	/**
+	 * Preprocess a graph whose edges and weights will not change
+	 * The hierarchy is a snapshot: edges added or weights changed afterwards are not seen by the queries
+	 * @param graph
+	 * @return contraction hierarchy of the graph
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+	public static <E,T> ContractionHierarchy<E,T> build(Graph<E,T> graph){
+		return new ContractionHierarchy<E,T>(graph.vertices_array(), graph.vertexCapacity());
+	}
+
+	/**
+	 * Add an arc
+	 * @param from
+	 * @param to
+	 * @param weight
+	 * @param edge Original edge or null for a shortcut
+	 * @param child1 First arc replaced by a shortcut
+	 * @param child2 Second arc replaced by a shortcut
+	 * @return arc
+	 */
+	private int addArc(int from, int to, double weight, Edge<E,T> edge, int child1, int child2){
+		if(arcCount == arcFrom.length){
+			int capacity = Math.max(16, arcCount * 2);
+			arcFrom = Arrays.copyOf(arcFrom, capacity);
+			arcTo = Arrays.copyOf(arcTo, capacity);
+			arcChild1 = Arrays.copyOf(arcChild1, capacity);
+			arcChild2 = Arrays.copyOf(arcChild2, capacity);
+			arcWeight = Arrays.copyOf(arcWeight, capacity);
+			arcEdge = Arrays.copyOf(arcEdge, capacity);
+		}
+		arcFrom[arcCount] = from;
+		arcTo[arcCount] = to;
+		arcWeight[arcCount] = weight;
+		arcEdge[arcCount] = edge;
+		arcChild1[arcCount] = child1;
+		arcChild2[arcCount] = child2;
+		return arcCount++;
+	}
+
+	/**
+	 * Contract the vertices one by one in order of importance, adding a shortcut when a shortest path goes through the contracted vertex
+	 * The importance is the edge difference plus the number of contracted neighbors, updated lazily when a vertex is removed from the queue
+	 */
+	private void contract(){
+		int n = vertices.length;
+		Contraction state = new Contraction(n);
+		for(int a = 0; a < arcCount; a++){
+			state.add(state.outArcs, state.outSize, arcFrom[a], a);
+			state.add(state.inArcs, state.inSize, arcTo[a], a);
+		}
+
+		// Order the vertices by importance
+		IndexedHeap order = new IndexedHeap(n);
+		for(int v = 0; v < n; v++)
+			order.offer(v, importance(v, state));
+		int position = 0;
+		int neighbors[] = new int[16];
+		int neighborMark[] = new int[n];
+		while(!order.isEmpty()){
+			int v = order.poll();
+
+			// The importance may have grown since the vertex was queued, queue it again if it is not the least important anymore
+			double importance = importance(v, state);
+			if(!order.isEmpty() && importance > order.peekKey()){
+				order.offer(v, importance);
+				continue;
+			}
+
+			// Contract the vertex
+			shortcuts(v, state, true);
+			state.contracted[v] = true;
+			rank[v] = position++;
+
+			// Its neighbors lost arcs and may have gained shortcuts, update their importance once each
+			int size = 0;
+			for(int i = 0; i < state.outSize[v] + state.inSize[v]; i++){
+				int w = i < state.outSize[v] ? arcTo[state.outArcs[v][i]] : arcFrom[state.inArcs[v][i - state.outSize[v]]];
+				if(state.contracted[w] || neighborMark[w] == position) continue;
+				neighborMark[w] = position;
+				if(size == neighbors.length)
+					neighbors = Arrays.copyOf(neighbors, size * 2);
+				neighbors[size++] = w;
+			}
+			for(int i = 0; i < size; i++){
+				state.contractedNeighbors[neighbors[i]]++;
+				order.update(neighbors[i], importance(neighbors[i], state));
+			}
+		}
+	}
+
+	/**
+	 * Remove the arcs from u to w of the remaining graph, before adding a shorter shortcut
+	 * @param u
+	 * @param w
+	 * @param state
+	 */
+	private void removeArc(int u, int w, Contraction state){
+		for(int i = 0; i < state.outSize[u]; i++){
+			int arc = state.outArcs[u][i];
+			if(arcTo[arc] == w){
+				state.outArcs[u][i--] = state.outArcs[u][--state.outSize[u]];
+				for(int j = 0; j < state.inSize[w]; j++)
+					if(state.inArcs[w][j] == arc){
+						state.inArcs[w][j] = state.inArcs[w][--state.inSize[w]];
+						break;
+					}
+			}
+		}
+	}
+
+	/**
+	 * Remove the arcs of a vertex that lead to or come from contracted vertices
+	 * @param v
+	 * @param state
+	 */
+	private void prune(int v, Contraction state){
+		int size = 0;
+		for(int i = 0; i < state.outSize[v]; i++)
+			if(!state.contracted[arcTo[state.outArcs[v][i]]])
+				state.outArcs[v][size++] = state.outArcs[v][i];
+		state.outSize[v] = size;
+		size = 0;
+		for(int i = 0; i < state.inSize[v]; i++)
+			if(!state.contracted[arcFrom[state.inArcs[v][i]]])
+				state.inArcs[v][size++] = state.inArcs[v][i];
+		state.inSize[v] = size;
+	}
+
+	/**
+	 * Importance of a vertex: twice the shortcuts added minus the arcs removed by its contraction, plus its contracted neighbors
+	 * @param v
+	 * @param state
+	 * @return importance
+	 */
+	private double importance(int v, Contraction state){
+		prune(v, state);
+		int removed = state.outSize[v] + state.inSize[v];
+		return 2 * (shortcuts(v, state, false) - removed) + state.contractedNeighbors[v];
+	}
+
+	/**
+	 * Find the shortcuts needed to contract a vertex: for each in arc (u, v) and out arc (v, w) a shortcut (u, w) is needed
+	 * unless a witness search finds a path from u to w that avoids v and is not longer
+	 * @param v
+	 * @param state
+	 * @param add true to add the shortcuts, false to only count them
+	 * @return number of shortcuts
+	 */
+	private int shortcuts(int v, Contraction state, boolean add){
+		int count = 0;
+		int outSize = state.outSize[v];
+		int outArcs[] = state.outArcs[v];
+		for(int i = 0; i < state.inSize[v]; i++){
+			int in = state.inArcs[v][i];
+			int u = arcFrom[in];
+			if(u == v || state.contracted[u]) continue;
+
+			// Longest path through v that a witness has to beat, and vertices a witness has to reach
+			state.reset();
+			double limit = -1;
+			int targets = 0;
+			for(int j = 0; j < outSize; j++){
+				int w = arcTo[outArcs[j]];
+				if(w != u && w != v && !state.contracted[w]){
+					limit = Math.max(limit, arcWeight[in] + arcWeight[outArcs[j]]);
+					if(state.setTarget(w)) targets++;
+				}
+			}
+			if(targets == 0) continue;
+			witnessSearch(u, v, limit, targets, add ? WITNESS_SETTLED_LIMIT : SIMULATION_SETTLED_LIMIT, state);
+
+			for(int j = 0; j < outSize; j++){
+				int out = outArcs[j];
+				int w = arcTo[out];
+				if(w == u || w == v || state.contracted[w]) continue;
+				double through = arcWeight[in] + arcWeight[out];
+				if(state.distance(w) > through){
+					count++;
+					if(add){
+						removeArc(u, w, state);
+						int shortcut = addArc(u, w, through, null, in, out);
+						state.add(state.outArcs, state.outSize, u, shortcut);
+						state.add(state.inArcs, state.inSize, w, shortcut);
+
+						// The new shortcut is a path from u to w for the next out arcs
+						state.setDistance(w, through);
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Dijkstra from u among the vertices not contracted yet, avoiding the vertex being contracted
+	 * Stops at the limit distance, once all the targets are settled or after settling a maximum number of vertices
+	 * @param u
+	 * @param avoid
+	 * @param limit
+	 * @param targets Number of targets
+	 * @param settledLimit
+	 * @param state
+	 */
+	private void witnessSearch(int u, int avoid, double limit, int targets, int settledLimit, Contraction state){
+		IndexedHeap heap = state.heap;
+		state.setDistance(u, 0);
+		heap.offer(u, 0);
+		int settled = 0;
+		while(!heap.isEmpty() && heap.peekKey() <= limit && settled++ < settledLimit){
+			double value = heap.peekKey();
+			int polled = heap.poll();
+			if(state.isTarget(polled) && --targets == 0)
+				break;
+			for(int i = 0; i < state.outSize[polled]; i++){
+				int arc = state.outArcs[polled][i];
+				int opposite = arcTo[arc];
+				if(opposite == avoid || state.contracted[opposite]) continue;
+				double pathCost = value + arcWeight[arc];
+				if(pathCost < state.distance(opposite)){
+					state.setDistance(opposite, pathCost);
+					heap.offer(opposite, pathCost);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Split the arcs in the upward forward and backward search graphs
+	 */
+	private void buildSearchGraph(){
+		int n = vertices.length;
+		forwardOffsets = new int[n + 1];
+		backwardOffsets = new int[n + 1];
+		for(int a = 0; a < arcCount; a++){
+			if(rank[arcTo[a]] > rank[arcFrom[a]])
+				forwardOffsets[arcFrom[a] + 1]++;
+			else if(rank[arcFrom[a]] > rank[arcTo[a]])
+				backwardOffsets[arcTo[a] + 1]++;
+		}
+		for(int i = 0; i < n; i++){
+			forwardOffsets[i + 1] += forwardOffsets[i];
+			backwardOffsets[i + 1] += backwardOffsets[i];
+		}
+		forwardTargets = new int[forwardOffsets[n]];
+		forwardArcs = new int[forwardOffsets[n]];
+		forwardWeights = new double[forwardOffsets[n]];
+		backwardTargets = new int[backwardOffsets[n]];
+		backwardArcs = new int[backwardOffsets[n]];
+		backwardWeights = new double[backwardOffsets[n]];
+		int forwardSlot[] = Arrays.copyOf(forwardOffsets, n);
+		int backwardSlot[] = Arrays.copyOf(backwardOffsets, n);
+		for(int a = 0; a < arcCount; a++){
+			if(rank[arcTo[a]] > rank[arcFrom[a]]){
+				int slot = forwardSlot[arcFrom[a]]++;
+				forwardTargets[slot] = arcTo[a];
+				forwardArcs[slot] = a;
+				forwardWeights[slot] = arcWeight[a];
+			}else if(rank[arcFrom[a]] > rank[arcTo[a]]){
+				int slot = backwardSlot[arcTo[a]]++;
+				backwardTargets[slot] = arcFrom[a];
+				backwardArcs[slot] = a;
+				backwardWeights[slot] = arcWeight[a];
+			}
+		}
+	}
+
+	/**
+	 * Get the shortest path from one vertex to another
+	 * Both searches only go up the hierarchy and meet at the highest ranked vertex of the path, the shortcuts are unpacked to the original edges
+	 * @param vFrom
+	 * @param vTo
+	 * @return Array of shortest edges to go from vFrom to vTo, empty if vTo cannot be reached
+	 * @throws IllegalArgumentException if a vertex was added to the graph after the hierarchy was built
+	 */
+	public Edge<E,T>[] shortestPath(Vertex<E,T> vFrom, Vertex<E,T> vTo){
+		long start = System.nanoTime();
+		Query query = acquireQuery();
+		try{
+			int meeting = search(indexOf(vFrom), indexOf(vTo), query);
+			if(meeting == -1)
+				return Edge.newArray(0);
+
+			// Arcs of the path from vFrom to the meeting vertex, then from the meeting vertex to vTo
+			ArrayList<Integer> arcs = new ArrayList<Integer>();
+			for(int v = meeting; query.forwardParent[v] != -1; v = arcFrom[query.forwardParent[v]])
+				arcs.add(query.forwardParent[v]);
+			Collections.reverse(arcs);
+			for(int v = meeting; query.backwardParent[v] != -1; v = arcTo[query.backwardParent[v]])
+				arcs.add(query.backwardParent[v]);
+
+			// Unpack the shortcuts with an explicit stack
+			ArrayList<Edge<E,T>> path = new ArrayList<Edge<E,T>>();
+			int stack[] = new int[16];
+			for(int arc : arcs){
+				int size = 0;
+				stack[size++] = arc;
+				while(size > 0){
+					int top = stack[--size];
+					if(arcEdge[top] != null){
+						path.add(arcEdge[top]);
+					}else{
+						if(size + 2 > stack.length)
+							stack = Arrays.copyOf(stack, stack.length * 2);
+						stack[size++] = arcChild2[top];
+						stack[size++] = arcChild1[top];
+					}
+				}
+			}
+			return path.toArray(Edge.<E,T>newArray(path.size()));
+		}finally{
+			releaseQuery(query);
+			queryCount.incrementAndGet();
+			queryTime.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Get the length of the shortest path from one vertex to another
+	 * @param vFrom
+	 * @param vTo
+	 * @return length or Double.MAX_VALUE if vTo cannot be reached
+	 * @throws IllegalArgumentException if a vertex was added to the graph after the hierarchy was built
+	 */
+	public double distance(Vertex<E,T> vFrom, Vertex<E,T> vTo){
+		long start = System.nanoTime();
+		Query query = acquireQuery();
+		try{
+			int meeting = search(indexOf(vFrom), indexOf(vTo), query);
+			return meeting == -1 ? Double.MAX_VALUE : query.forwardDistance(meeting) + query.backwardDistance(meeting);
+		}finally{
+			releaseQuery(query);
+			queryCount.incrementAndGet();
+			queryTime.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Bidirectional upward search
+	 * @param from
+	 * @param to
+	 * @param query
+	 * @return meeting vertex on the shortest path or -1 if there is no path
+	 */
+	private int search(int from, int to, Query query){
+		query.reset();
+		IndexedHeap forwardHeap = query.forwardHeap;
+		IndexedHeap backwardHeap = query.backwardHeap;
+		query.setForward(from, 0, -1);
+		forwardHeap.offer(from, 0);
+		query.setBackward(to, 0, -1);
+		backwardHeap.offer(to, 0);
+		double shortest = Double.MAX_VALUE;
+		int meeting = -1;
+
+		// A search is over once its minimum is not shorter than the best path, the upward searches cannot stop at the first meeting
+		while(true){
+			boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.peekKey() < shortest;
+			boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.peekKey() < shortest;
+			if(!forwardOpen && !backwardOpen)
+				break;
+			boolean isForward = forwardOpen && (!backwardOpen || forwardHeap.peekKey() <= backwardHeap.peekKey());
+			if(isForward){
+				double value = forwardHeap.peekKey();
+				int polled = forwardHeap.poll();
+				double other = query.backwardDistance(polled);
+				if(other != Double.MAX_VALUE && value + other < shortest){
+					shortest = value + other;
+					meeting = polled;
+				}
+				if(isStalled(polled, value, backwardOffsets, backwardTargets, backwardWeights, query, true))
+					continue;
+				for(int slot = forwardOffsets[polled]; slot < forwardOffsets[polled + 1]; slot++){
+					int opposite = forwardTargets[slot];
+					double pathCost = value + forwardWeights[slot];
+					if(pathCost < query.forwardDistance(opposite)){
+						query.setForward(opposite, pathCost, forwardArcs[slot]);
+						forwardHeap.offer(opposite, pathCost);
+					}
+				}
+			}else{
+				double value = backwardHeap.peekKey();
+				int polled = backwardHeap.poll();
+				double other = query.forwardDistance(polled);
+				if(other != Double.MAX_VALUE && value + other < shortest){
+					shortest = value + other;
+					meeting = polled;
+				}
+				if(isStalled(polled, value, forwardOffsets, forwardTargets, forwardWeights, query, false))
+					continue;
+				for(int slot = backwardOffsets[polled]; slot < backwardOffsets[polled + 1]; slot++){
+					int opposite = backwardTargets[slot];
+					double pathCost = value + backwardWeights[slot];
+					if(pathCost < query.backwardDistance(opposite)){
+						query.setBackward(opposite, pathCost, backwardArcs[slot]);
+						backwardHeap.offer(opposite, pathCost);
+					}
+				}
+			}
+		}
+		return meeting;
+	}
+
+	/**
+	 * Stall on demand: a vertex does not need to be expanded if a higher ranked vertex already reached by the same search gives it a shorter distance
+	 * The vertex cannot be on the shortest path, its upward arcs would only lead to suboptimal distances
+	 * @param v
+	 * @param value Distance of v
+	 * @param offsets Arcs between v and the higher ranked vertices, in the opposite direction of the search
+	 * @param targets
+	 * @param weights
+	 * @param query
+	 * @param isForward
+	 * @return boolean
+	 */
+	private boolean isStalled(int v, double value, int offsets[], int targets[], double weights[], Query query, boolean isForward){
+		for(int slot = offsets[v]; slot < offsets[v + 1]; slot++){
+			double distance = isForward ? query.forwardDistance(targets[slot]) : query.backwardDistance(targets[slot]);
+			if(distance != Double.MAX_VALUE && distance + weights[slot] < value)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Get the index of a vertex in the hierarchy
+	 * @param v
+	 * @return index
+	 * @throws IllegalArgumentException if the vertex is not part of the hierarchy
+	 */
+	private int indexOf(Vertex<E,T> v){
+		int id = v.getID();
+		if(id >= indexOfID.length || indexOfID[id] == -1 || vertices[indexOfID[id]] != v)
+			throw new IllegalArgumentException("Vertex " + v + " is not part of this contraction hierarchy");
+		return indexOfID[id];
+	}
+
+	/**
+	 * Get a query state from the pool, or create one
+	 * @return query
+	 */
+	private Query acquireQuery(){
+		Query query = queries.poll();
+		return query == null ? new Query(vertices.length) : query;
+	}
+
+	/**
+	 * Give a query state back to the pool
+	 * @param query
+	 */
+	private void releaseQuery(Query query){
+		queries.offer(query);
+	}
+
+	/**
+	 * Get the time spent building the hierarchy
+	 * @return time in milliseconds
+	 */
+	public double getBuildTime(){
+		return buildTime / 1e6;
+	}
+
+	/**
+	 * Get the number of shortcuts added by the contraction
+	 * @return number of shortcuts
+	 */
+	public int getShortcutCount(){
+		return arcCount - edgeCount;
+	}
+
+	/**
+	 * Get the number of queries answered so far
+	 * @return number of queries
+	 */
+	public long getQueryCount(){
+		return queryCount.get();
+	}
+
+	/**
+	 * Get the average latency of the queries answered so far
+	 * @return time in microseconds, 0 if there was no query
+	 */
+	public double getAverageQueryTime(){
+		long count = queryCount.get();
+		return count == 0 ? 0 : queryTime.get() / 1e3 / count;
+	}
+
+	/**
+	 * Get the rank of a vertex in the contraction order
+	 * @param v
+	 * @return rank, 0 for the first contracted vertex
+	 */
+	public int getRank(Vertex<E,T> v){
+		return rank[indexOf(v)];
+	}
+
+	/**
+	 * Get a summary of the hierarchy
+	 * @return string
+	 */
+	public String toString(){
+		return String.format("Contraction hierarchy: %d vertices, %d edges, %d shortcuts, built in %.1f ms, %d queries averaging %.1f us",
+				vertices.length, edgeCount, getShortcutCount(), getBuildTime(), getQueryCount(), getAverageQueryTime());
+	}
+
+	/**
+	 * State of the contraction: arcs of each vertex and witness search distances
+	 */
+	private static class Contraction {
+
+		// Arcs leaving and entering each vertex, including the arcs to contracted vertices
+		protected int outArcs[][], inArcs[][];
+		protected int outSize[], inSize[];
+		protected boolean contracted[];
+		protected int contractedNeighbors[];
+
+		// Witness search distances and targets, valid if their mark equals the current generation
+		protected final IndexedHeap heap;
+		private double distance[];
+		private int mark[];
+		private int targetMark[];
+		private int generation;
+
+		/**
+		 * Constructor
+		 * @param n Number of vertices
+		 */
+		protected Contraction(int n) {
+			outArcs = new int[n][];
+			inArcs = new int[n][];
+			outSize = new int[n];
+			inSize = new int[n];
+			contracted = new boolean[n];
+			contractedNeighbors = new int[n];
+			heap = new IndexedHeap(n);
+			distance = new double[n];
+			mark = new int[n];
+			targetMark = new int[n];
+		}
+
+		/**
+		 * Append an arc to the arcs of a vertex
+		 * @param arcs
+		 * @param sizes
+		 * @param v
+		 * @param arc
+		 */
+		protected void add(int arcs[][], int sizes[], int v, int arc){
+			if(arcs[v] == null)
+				arcs[v] = new int[4];
+			else if(sizes[v] == arcs[v].length)
+				arcs[v] = Arrays.copyOf(arcs[v], sizes[v] * 2);
+			arcs[v][sizes[v]++] = arc;
+		}
+
+		/**
+		 * Start a new witness search
+		 */
+		protected void reset(){
+			heap.clear();
+			if(++generation == 0){
+				Arrays.fill(mark, 0);
+				Arrays.fill(targetMark, 0);
+				generation = 1;
+			}
+		}
+
+		/**
+		 * Get the witness search distance of a vertex
+		 * @param v
+		 * @return distance or Double.MAX_VALUE if not reached
+		 */
+		protected double distance(int v){
+			return mark[v] == generation ? distance[v] : Double.MAX_VALUE;
+		}
+
+		/**
+		 * Make a vertex a target of the witness search
+		 * @param v
+		 * @return true if the vertex was not a target yet
+		 */
+		protected boolean setTarget(int v){
+			if(targetMark[v] == generation)
+				return false;
+			targetMark[v] = generation;
+			return true;
+		}
+
+		/**
+		 * Checks if a vertex is a target of the witness search
+		 * @param v
+		 * @return boolean
+		 */
+		protected boolean isTarget(int v){
+			return targetMark[v] == generation;
+		}
+
+		/**
+		 * Set the witness search distance of a vertex
+		 * @param v
+		 * @param value
+		 */
+		protected void setDistance(int v, double value){
+			mark[v] = generation;
+			distance[v] = value;
+		}
+	}
+
+	/**
+	 * State of a query: distances and parent arcs of both searches
+	 */
+	private static class Query {
+
+		protected final IndexedHeap forwardHeap, backwardHeap;
+		private double forwardDistance[], backwardDistance[];
+		protected int forwardParent[], backwardParent[];
+		private int forwardMark[], backwardMark[];
+		private int generation;
+
+		/**
+		 * Constructor
+		 * @param n Number of vertices
+		 */
+		protected Query(int n) {
+			forwardHeap = new IndexedHeap(n);
+			backwardHeap = new IndexedHeap(n);
+			forwardDistance = new double[n];
+			backwardDistance = new double[n];
+			forwardParent = new int[n];
+			backwardParent = new int[n];
+			forwardMark = new int[n];
+			backwardMark = new int[n];
+		}
+
+		/**
+		 * Start a new query
+		 */
+		protected void reset(){
+			forwardHeap.clear();
+			backwardHeap.clear();
+			if(++generation == 0){
+				Arrays.fill(forwardMark, 0);
+				Arrays.fill(backwardMark, 0);
+				generation = 1;
+			}
+		}
+
+		/**
+		 * Get the forward search distance of a vertex
+		 * @param v
+		 * @return distance or Double.MAX_VALUE if not reached
+		 */
+		protected double forwardDistance(int v){
+			return forwardMark[v] == generation ? forwardDistance[v] : Double.MAX_VALUE;
+		}
+
+		/**
+		 * Get the backward search distance of a vertex
+		 * @param v
+		 * @return distance or Double.MAX_VALUE if not reached
+		 */
+		protected double backwardDistance(int v){
+			return backwardMark[v] == generation ? backwardDistance[v] : Double.MAX_VALUE;
+		}
+
+		/**
+		 * Set the forward search distance and parent arc of a vertex
+		 * @param v
+		 * @param value
+		 * @param arc
+		 */
+		protected void setForward(int v, double value, int arc){
+			forwardMark[v] = generation;
+			forwardDistance[v] = value;
+			forwardParent[v] = arc;
+		}
+
+		/**
+		 * Set the backward search distance and parent arc of a vertex
+		 * @param v
+		 * @param value
+		 * @param arc
+		 */
+		protected void setBackward(int v, double value, int arc){
+			backwardMark[v] = generation;
+			backwardDistance[v] = value;
+			backwardParent[v] = arc;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class DFSForest <E,T> {
+
+	// Vertices in the order they were discovered and finished
+	private final Vertex<E,T> preOrder[];
+	private final Vertex<E,T> postOrder[];
+
+	// Graph options found by the search
+	private final boolean isCyclic;
+	private final int trees;
+
+	// Vertex colors and edge status kept by the query that created this forest
+	private final TraversalContext<E,T> context;
+
+	/**
+	 * Constructor
+	 * @param context Context of the finished query, must not be reused by another query
+	 */
+	protected DFSForest(TraversalContext<E,T> context) {
+		this.preOrder = Arrays.copyOf(context.preOrder, context.preOrderSize);
+		this.postOrder = Arrays.copyOf(context.postOrder, context.postOrderSize);
+		this.isCyclic = context.isCyclic;
+		this.trees = context.connectedComponents;
+		this.context = context;
+	}
+
+	/**
+	 * Get the vertices in the order they were discovered
+	 * @return Array of vertices
+	 */
+	public Vertex<E,T>[] getPreOrder() {
+		return preOrder.clone();
+	}
+
+	/**
+	 * Get the vertices in the order they were finished
+	 * @return Array of vertices
+	 */
+	public Vertex<E,T>[] getPostOrder() {
+		return postOrder.clone();
+	}
+
+	/**
+	 * Checks if the search found a cycle
+	 * @return boolean
+	 */
+	public boolean isCyclic() {
+		return isCyclic;
+	}
+
+	/**
+	 * Number of DFS trees in the forest, which is the number of connected components of an undirected graph
+	 * @return trees
+	 */
+	public int getTrees() {
+		return trees;
+	}
+
+	/**
+	 * Get the DFS tree of a vertex. Trees are numbered from 1
+	 * @param v
+	 * @return color of the vertex, Vertex.UNCOLORED if the vertex was not reached
+	 */
+	public int getColor(Vertex<E,T> v) {
+		return context.getColor(v);
+	}
+
+	/**
+	 * Get the status of an edge: Edge.DISCOVERED for tree edges, Edge.BACK, Edge.FORWARD or Edge.CROSS otherwise
+	 * In an undirected graph, both directions of a tree edge are DISCOVERED and every other edge is BACK
+	 * @param e
+	 * @return status
+	 */
+	public int getStatus(Edge<E,T> e) {
+		return context.getStatus(e);
+	}
+
+	/**
+	 * Get the status of an edge as a string
+	 * @param e
+	 * @return edge string status
+	 */
+	public String getStatusString(Edge<E,T> e) {
+		String statusString[] = {"Undiscovered","Discovered", "Back", "Forward","Cross"};
+		return statusString[getStatus(e)];
+	}
+}
@@ -0,0 +1,263 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class DeltaStepping <E,T> {
+
+	// Number of vertices processed by one task
+	private static final int CHUNK = 256;
+
+	// Number of locks protecting the distance and parent edge updates, a power of two
+	private static final int LOCKS = 1024;
+
+	private final ForkJoinPool pool;
+	private final double delta;
+
+	// Distance of each vertex unique id as the bits of a non-negative double, which are ordered like the doubles
+	private final AtomicLongArray dijkstra_value;
+	private final Edge<E,T> dijkstra_edge[];
+	private final Object locks[];
+
+	// Buckets of vertices by distance / delta, and the bucket each vertex was last added to
+	private final ArrayList<int[]> buckets = new ArrayList<int[]>();
+	private final ArrayList<Integer> bucketSizes = new ArrayList<Integer>();
+	private final long queuedIn[];
+
+	// Vertices of the graph by unique id
+	private final Vertex<E,T> vertex[];
+
+	// Vertices improved by the tasks of the current step
+	private final ConcurrentLinkedQueue<int[]> improved = new ConcurrentLinkedQueue<int[]>();
+
+	/**
+	 * Constructor
+	 * @param vertices Vertices of the graph
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 * @param delta Width of a bucket
+	 * @param pool
+	 */
+	protected DeltaStepping(Vertex<E,T>[] vertices, int vertexCapacity, double delta, ForkJoinPool pool) {
+		if(!(delta > 0))
+			throw new IllegalArgumentException("Delta must be positive: " + delta);
+		this.pool = pool;
+		this.delta = delta;
+		dijkstra_value = new AtomicLongArray(vertexCapacity);
+		long infinity = Double.doubleToLongBits(Double.MAX_VALUE);
+		for(int i = 0; i < vertexCapacity; i++)
+			dijkstra_value.set(i, infinity);
+		dijkstra_edge = Edge.newArray(vertexCapacity);
+		locks = new Object[LOCKS];
+		for(int i = 0; i < LOCKS; i++)
+			locks[i] = new Object();
+		queuedIn = new long[vertexCapacity];
+		Arrays.fill(queuedIn, -1);
+		vertex = Vertex.newArray(vertexCapacity);
+		for(Vertex<E,T> v : vertices)
+			vertex[v.getID()] = v;
+	}
+
+	/**
+	 * Choose the bucket width from the edge weights: twice the mean weight over the mean out degree,
+	 * which is the maximum weight over the degree for uniform weights but ignores a few very heavy edges.
+	 * The width is never smaller than the lightest positive weight
+	 * @param vertices
+	 * @return delta
+	 */
+	protected static <E,T> double tuneDelta(Vertex<E,T>[] vertices){
+		double sum = 0, lightest = Double.MAX_VALUE;
+		long edges = 0;
+		for(Vertex<E,T> v : vertices){
+			NodeIterator<Edge<E,T>> iterOutE = v.getOutEdges();
+			while(iterOutE.hasNext()){
+				double weight = iterOutE.next().getWeight();
+				sum += weight;
+				if(weight > 0)
+					lightest = Math.min(lightest, weight);
+				edges++;
+			}
+		}
+		if(sum <= 0)
+			return 1;
+		double meanDegree = (double) edges / vertices.length;
+		return Math.max(2 * (sum / edges) / Math.max(meanDegree, 1), lightest);
+	}
+
+	/**
+	 * Shortest paths from a source
+	 * @param source
+	 * @return Shortest path tree rooted at the source
+	 */
+	protected ShortestPathTree<E,T> run(Vertex<E,T> source){
+		relax(source.getID(), 0, null);
+		add(source.getID());
+		for(int i = 0; i < buckets.size(); i++){
+
+			// Vertices settled by this bucket, for the heavy edges
+			int settled[] = new int[0];
+			int settledSize = 0;
+
+			// Light edges can put vertices back in the current bucket, repeat until it stays empty
+			while(bucketSizes.get(i) > 0){
+				int frontier[] = buckets.get(i);
+				int count = bucketSizes.get(i);
+				buckets.set(i, null);
+				bucketSizes.set(i, 0);
+
+				// Skip the vertices that moved to a lower bucket since they were added
+				int size = 0;
+				for(int j = 0; j < count; j++){
+					if(queuedIn[frontier[j]] == i){
+						queuedIn[frontier[j]] = -1;
+						frontier[size++] = frontier[j];
+					}
+				}
+				pool.invoke(new Relax(frontier, 0, size, true));
+				merge();
+				if(settledSize + size > settled.length)
+					settled = Arrays.copyOf(settled, Math.max(settledSize + size, settled.length * 2));
+				System.arraycopy(frontier, 0, settled, settledSize, size);
+				settledSize += size;
+			}
+
+			// Heavy edges always lead to a later bucket
+			if(settledSize > 0){
+				pool.invoke(new Relax(settled, 0, settledSize, false));
+				merge();
+			}
+		}
+
+		double values[] = new double[dijkstra_value.length()];
+		for(int i = 0; i < values.length; i++)
+			values[i] = Double.longBitsToDouble(dijkstra_value.get(i));
+		return new ShortestPathTree<E,T>(source, values, dijkstra_edge, null);
+	}
+
+	/**
+	 * Lower the distance of a vertex
+	 * @param id
+	 * @param value
+	 * @param edge Edge giving the new distance
+	 * @return true if the distance was lowered
+	 */
+	private boolean relax(int id, double value, Edge<E,T> edge){
+		long bits = Double.doubleToLongBits(value);
+		if(bits >= dijkstra_value.get(id))
+			return false;
+
+		// The distance and the parent edge must change together
+		synchronized(locks[id & (LOCKS - 1)]){
+			if(bits >= dijkstra_value.get(id))
+				return false;
+			dijkstra_value.set(id, bits);
+			dijkstra_edge[id] = edge;
+		}
+		return true;
+	}
+
+	/**
+	 * Move the vertices improved by the last step to the buckets of their new distance
+	 */
+	private void merge(){
+		int ids[];
+		while((ids = improved.poll()) != null)
+			for(int id : ids)
+				add(id);
+	}
+
+	/**
+	 * Add a vertex to the bucket of its distance, once
+	 * @param id
+	 */
+	private void add(int id){
+		long bucket = (long) (Double.longBitsToDouble(dijkstra_value.get(id)) / delta);
+		if(queuedIn[id] == bucket)
+			return;
+		if(bucket >= Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Delta " + delta + " is too small for the distances of the graph");
+		queuedIn[id] = bucket;
+		int index = (int) bucket;
+		while(buckets.size() <= index){
+			buckets.add(null);
+			bucketSizes.add(0);
+		}
+		int content[] = buckets.get(index);
+		int size = bucketSizes.get(index);
+		if(content == null)
+			content = new int[4];
+		else if(size == content.length)
+			content = Arrays.copyOf(content, size * 2);
+		content[size] = id;
+		buckets.set(index, content);
+		bucketSizes.set(index, size + 1);
+	}
+
+	/**
+	 * Relax the light (weight <= delta) or heavy edges of a range of vertices
+	 */
+	private class Relax extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int ids[];
+		private final int from, to;
+		private final boolean light;
+
+		/**
+		 * Constructor
+		 * @param ids
+		 * @param from
+		 * @param to Exclusive
+		 * @param light
+		 */
+		protected Relax(int[] ids, int from, int to, boolean light) {
+			this.ids = ids;
+			this.from = from;
+			this.to = to;
+			this.light = light;
+		}
+
+		/**
+		 * Process the range, splitting it between tasks
+		 */
+		protected void compute(){
+			if(to - from > CHUNK){
+				int middle = (from + to) >>> 1;
+				invokeAll(new Relax(ids, from, middle, light), new Relax(ids, middle, to, light));
+				return;
+			}
+			int lowered[] = new int[16];
+			int size = 0;
+			for(int i = from; i < to; i++){
+				Vertex<E,T> polled = vertex[ids[i]];
+				double value = Double.longBitsToDouble(dijkstra_value.get(ids[i]));
+				NodeIterator<Edge<E,T>> iterOutE = polled.getOutEdges();
+				while(iterOutE.hasNext()){
+					Edge<E,T> edge = iterOutE.next();
+					double weight = edge.getWeight();
+					if(weight < 0)
+						throw new IllegalArgumentException("Edge " + edge + " has a negative weight");
+					if((weight <= delta) != light) continue;
+					int opposite = edge.getOpposite(polled).getID();
+					if(relax(opposite, value + weight, edge)){
+						if(size == lowered.length)
+							lowered = Arrays.copyOf(lowered, size * 2);
+						lowered[size++] = opposite;
+					}
+				}
+			}
+			if(size > 0)
+				improved.offer(Arrays.copyOf(lowered, size));
+		}
+	}
+}
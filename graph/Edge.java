@@ -1,7 +1,5 @@
 package graph;
 
-import graph.doublyLinkedList.DLLNode;
-
 /**
 * Graph ADT 
 * Coded by Amir El Bawab
@@ -9,50 +7,78 @@ import graph.doublyLinkedList.DLLNode;
 * License: MIT License ~ Please read License.txt for more information about the usage of this software
 * */
 public class Edge <E,T> {
-	// Attributes
-	private Vertex<E,T> v1, v2;
-	private DLLNode<Edge<E,T>> incidentPositionV1, incidentPositionV2;
-	private T label;
-	private double weight;
-	private DLLNode<Edge<E,T>> position;
-	private int status;
-	
+
+	// Slab storing the edge and its slot in it, the vertices, id, label and weight of a stored edge are only kept by the slab
+	private AdjacencySlab<E,T> slab;
+	private int slot = AdjacencySlab.NONE;
+
+	// Vertices, id, label and weight of an edge that is not stored in a slab, null while it is stored
+	private Detached<E,T> detached;
+
 	// Status of an edge
 	public static final int UNDISCOVERED = 0;
 	public static final int DISCOVERED = 1;
 	public static final int BACK = 2;
 	public static final int FORWARD = 3;
 	public static final int CROSS = 4;
-	
+
+	/**
+	 * Constructor of an edge stored in a slab
+	 * @param slab
+	 * @param slot
+	 */
+	protected Edge(AdjacencySlab<E,T> slab, int slot){
+		this.slab = slab;
+		this.slot = slot;
+	}
+
 	/**
-	 * Constructor
+	 * Constructor of an edge that is not stored in a slab
 	 * @param v1 From vertex
 	 * @param v2 To vertex
+	 * @param id Unique id of the edge in its graph
+	 * @param label
+	 * @param weight
+	 */
+	protected Edge(Vertex<E,T> v1, Vertex<E,T> v2, int id, T label, double weight){
+		detached = new Detached<E,T>(v1, v2, id, label, weight);
+	}
+
+	/**
+	 * Create an array of edges, the only unchecked cast needed to store edges in an array
+	 * @param length
+	 * @return array of null edges
 	 */
-	protected Edge(Vertex<E,T> v1, Vertex<E,T> v2){
-		this.v1 = v1;
-		this.v2 = v2;
-		this.incidentPositionV1 = this.v1.addOutEdge(this);
-		this.incidentPositionV2 = this.v2.addInEdge(this);
+	@SuppressWarnings("unchecked")
+	protected static <E,T> Edge<E,T>[] newArray(int length){
+		return (Edge<E,T>[]) new Edge<?,?>[length];
 	}
-	
+
 	/**
 	 * Get the opposite side of a vertex
 	 * @param v
 	 * @return Opposite vertex | null
 	 */
 	public Vertex<E,T> getOpposite(Vertex<E,T> v){
-		if(v != v1 && v != v2)
+		if(detached != null){
+			if(v != detached.v1 && v != detached.v2)
+				return null;
+			return detached.v1 == v ? detached.v2 : detached.v1;
+		}
+
+		// A slot of the slab holds a single vertex, so the slots are compared instead of the vertex objects
+		int from = slab.getFrom(slot), to = slab.getTo(slot);
+		if(v.getSlab() != slab || (v.getSlot() != from && v.getSlot() != to))
 			return null;
-		return v1 == v ? v2 : v1;
+		return slab.getVertex(v.getSlot() == from ? to : from);
 	}
-	
+
 	/**
 	 * Get 'from' vertex
 	 * @return v1
 	 */
 	public Vertex<E,T> getV1() {
-		return v1;
+		return detached == null ? slab.getVertex(slab.getFrom(slot)) : detached.v1;
 	}
 
 	/**
@@ -60,7 +86,7 @@ public class Edge <E,T> {
 	 * @return v2
 	 */
 	public Vertex<E,T> getV2() {
-		return v2;
+		return detached == null ? slab.getVertex(slab.getTo(slot)) : detached.v2;
 	}
 
 	/**
@@ -68,14 +94,17 @@ public class Edge <E,T> {
 	 * @return label of the edge
 	 */
 	public T getLabel() {
-		return label;
+		return detached == null ? slab.getLabel(slot) : detached.label;
 	}
 
 	/**
 	 * Set the edge label
 	 */
 	public void setLabel(T label) {
-		this.label = label;
+		if(detached == null)
+			slab.setLabel(slot, label);
+		else
+			detached.label = label;
 	}
 
 	/**
@@ -83,7 +112,7 @@ public class Edge <E,T> {
 	 * @return weight
 	 */
 	public double getWeight() {
-		return weight;
+		return detached == null ? slab.getWeight(slot) : detached.weight;
 	}
 
 	/**
@@ -91,70 +120,68 @@ public class Edge <E,T> {
 	 * @param weight
 	 */
 	public void setWeight(double weight) {
-		this.weight = weight;
-	}
-	
-	/**
-	 * Get position where the edge is stored
-	 * @return reference of the node storing this edge
-	 */
-	protected DLLNode<Edge<E,T>> getPosition() {
-		return position;
+		if(detached == null)
+			slab.setWeight(slot, weight);
+		else
+			detached.weight = weight;
 	}
 
 	/**
-	 * Set position where the edge is stored
-	 * @param node position
+	 * Get the slot storing the edge in the slab
+	 * @return slot | AdjacencySlab.NONE if the edge is not stored
 	 */
-	protected void setPosition(DLLNode<Edge<E,T>> position) {
-		this.position = position;
+	protected int getSlot() {
+		return slot;
 	}
 
 	/**
-	 * Get status of the edge
-	 * @return edge status
+	 * Keep the vertices, id, label and weight of the edge before the slab frees its slot
 	 */
-	public int getStatus() {
-		return status;
-	}
-	
-	/**
-	 * Get status of the edge as a string
-	 * @return edge string status
-	 */
-	public String getStatusString() {
-		String statusString[] = {"Undiscovered","Discovered", "Back", "Forward","Cross"};
-		return statusString[status];
-	}
-	
-	/**
-	 * Set status of the edg0e
-	 * @param status Edge status
-	 */
-	protected void setStatus(int status) {
-		this.status = status;
+	protected void detach() {
+		detached = new Detached<E,T>(getV1(), getV2(), getID(), getLabel(), getWeight());
+		slab = null;
+		slot = AdjacencySlab.NONE;
 	}
 
 	/**
-	 * Get position of this incident edge in v1
-	 * @return node storing the edge in the out Edge of a vertex
+	 * Get the edge unique id
+	 * @return id
 	 */
-	protected DLLNode<Edge<E,T>> getIncidentPositionV1() {
-		return incidentPositionV1;
+	public int getID(){
+		return detached == null ? slab.getEdgeID(slot) : detached.id;
 	}
 
 	/**
-	 * Get position of this inEdge in v2
-	 * @return node storing the edge in the in Edge of a vertex
+	 * Print data to String
 	 */
-	protected DLLNode<Edge<E,T>> getIncidentPositionV2() {
-		return incidentPositionV2;
+	public String toString(){
+		T label = getLabel();
+		return label == null ? String.format("(%s, %s)", getV1().toString(), getV2().toString()) : String.format("(%s)", label);
 	}
 
 	/**
-	 * Print data to String
+	 * Values of an edge that is not stored in a slab
 	 */
-	public String toString(){
-		return label == null ? String.format("(%s, %s)", v1.toString(),v2.toString()) : String.format("(%s)", label);
+	private static final class Detached <E,T> {
+		private final Vertex<E,T> v1, v2;
+		private final int id;
+		private T label;
+		private double weight;
+
+		/**
+		 * Constructor
+		 * @param v1
+		 * @param v2
+		 * @param id
+		 * @param label
+		 * @param weight
+		 */
+		private Detached(Vertex<E,T> v1, Vertex<E,T> v2, int id, T label, double weight) {
+			this.v1 = v1;
+			this.v2 = v2;
+			this.id = id;
+			this.label = label;
+			this.weight = weight;
+		}
 	}
 }
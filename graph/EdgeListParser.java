@@ -0,0 +1,285 @@
+package graph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class EdgeListParser {
+
+	// Supported formats
+	protected static final int SNAP = 0;
+	protected static final int DIMACS = 1;
+	protected static final int MATRIX_MARKET = 2;
+
+	private final int format;
+	private Graph<Integer,String> graph;
+
+	// SNAP: vertices by id in the file, in order of first appearance
+	private IDMap ids;
+
+	// DIMACS and Matrix Market: vertices by id in the file, created when the size is read
+	private Vertex<Integer,String> vertices[];
+
+	// Matrix Market: true once the banner is read, true if the entries have no value
+	private boolean banner, pattern;
+
+	/**
+	 * Constructor
+	 * @param format
+	 * @param directed Used by SNAP, the other formats tell if the graph is directed
+	 */
+	private EdgeListParser(int format, boolean directed) {
+		this.format = format;
+		if(format == SNAP){
+			graph = new Graph<Integer,String>(directed);
+			ids = new IDMap();
+		}
+	}
+
+	/**
+	 * Read an edge list file in one pass
+	 * The data of each vertex is its id in the file
+	 * @param file
+	 * @param format SNAP, DIMACS or MATRIX_MARKET
+	 * @param directed Used by SNAP, the other formats tell if the graph is directed
+	 * @return Graph created
+	 * @throws IOException
+	 * @throws GraphFormatException if the file does not follow the format
+	 */
+	protected static Graph<Integer,String> parse(File file, int format, boolean directed) throws IOException{
+		FileInputStream input = new FileInputStream(file);
+		try{
+			return new EdgeListParser(format, directed).parse(input.getChannel());
+		}finally{
+			input.close();
+		}
+	}
+
+	/**
+	 * Parse the lines chunk by chunk
+	 * @param channel
+	 * @return Graph created
+	 * @throws IOException
+	 */
+	private Graph<Integer,String> parse(FileChannel channel) throws IOException{
+		long size = channel.size();
+		int chunks = Lines.chunks(size), line = 0;
+		for(int chunk = 0; chunk < chunks; chunk++){
+			Lines lines = Lines.read(channel, size, chunk);
+			try{
+				while(lines.next())
+					parseLine(lines);
+			}catch(GraphFormatException e){
+				throw e.shift(line);
+			}
+			line += lines.getLine();
+		}
+		if(format == DIMACS && vertices == null)
+			throw new GraphFormatException("Missing problem line 'p sp n m'", line + 1, 1);
+		if(format == MATRIX_MARKET && graph == null)
+			throw new GraphFormatException("Missing %%MatrixMarket banner", line + 1, 1);
+		if(format == MATRIX_MARKET && vertices == null)
+			throw new GraphFormatException("Missing size line 'rows columns entries'", line + 1, 1);
+		return graph;
+	}
+
+	/**
+	 * Parse a line of the file
+	 * @param lines
+	 */
+	private void parseLine(Lines lines){
+		switch(format){
+		case SNAP:
+			parseSNAP(lines);
+			break;
+		case DIMACS:
+			parseDIMACS(lines);
+			break;
+		default:
+			parseMatrixMarket(lines);
+		}
+	}
+
+	/**
+	 * SNAP line: FROM TO [WEIGHT], comments start with # or %
+	 * @param lines
+	 */
+	private void parseSNAP(Lines lines){
+		if(lines.atEnd() || lines.accept("#") || lines.accept("%"))
+			return;
+		Vertex<Integer,String> v1 = ids.get(lines.integer("a vertex id"));
+		Vertex<Integer,String> v2 = ids.get(lines.integer("a vertex id"));
+		double weight = lines.atEnd() ? 0.0 : lines.number("a weight");
+		lines.expectEnd();
+		graph.addEdge(v1, v2, null, weight);
+	}
+
+	/**
+	 * DIMACS shortest path line: 'c' comment, 'p sp n m' problem, 'a FROM TO WEIGHT' arc
+	 * Vertex ids start from 1
+	 * @param lines
+	 */
+	private void parseDIMACS(Lines lines){
+		if(lines.atEnd() || lines.accept("c"))
+			return;
+		lines.skipSpaces();
+		int column = lines.column();
+		if(lines.accept("p")){
+			if(vertices != null)
+				throw lines.error("Duplicate problem line", column);
+			if(!lines.word("the problem type").equals("sp"))
+				throw lines.error("Only 'sp' problems are supported", column);
+			graph = new Graph<Integer,String>(true);
+			vertices = createVertices(lines.integer("the number of vertices"));
+			lines.integer("the number of arcs");
+			lines.expectEnd();
+		}else if(lines.accept("a")){
+			if(vertices == null)
+				throw lines.error("Arc before the problem line", column);
+			Vertex<Integer,String> v1 = vertex(lines);
+			Vertex<Integer,String> v2 = vertex(lines);
+			double weight = lines.number("a weight");
+			lines.expectEnd();
+			graph.addEdge(v1, v2, null, weight);
+		}else{
+			throw lines.expected("'c', 'p' or 'a'");
+		}
+	}
+
+	/**
+	 * Matrix Market coordinate line: banner, '%' comments, 'rows columns entries' size, then 'ROW COLUMN [VALUE]' entries
+	 * Row and column ids start from 1 and both refer to the same vertices. Symmetric matrices give undirected graphs
+	 * @param lines
+	 */
+	private void parseMatrixMarket(Lines lines){
+		if(!banner){
+			if(!lines.accept("%%MatrixMarket"))
+				throw lines.expected("'%%MatrixMarket'");
+			if(!lines.word("the object").equalsIgnoreCase("matrix"))
+				throw lines.error("Only matrices are supported", 1);
+			if(!lines.word("the format").equalsIgnoreCase("coordinate"))
+				throw lines.error("Only the coordinate format is supported", 1);
+			String field = lines.word("the field").toLowerCase();
+			if(!field.equals("real") && !field.equals("double") && !field.equals("integer") && !field.equals("pattern"))
+				throw lines.error("Unsupported field " + field, 1);
+			String symmetry = lines.word("the symmetry").toLowerCase();
+			if(!symmetry.equals("general") && !symmetry.equals("symmetric") && !symmetry.equals("skew-symmetric"))
+				throw lines.error("Unsupported symmetry " + symmetry, 1);
+			lines.expectEnd();
+			banner = true;
+			pattern = field.equals("pattern");
+			graph = new Graph<Integer,String>(symmetry.equals("general"));
+			return;
+		}
+		if(lines.atEnd() || lines.accept("%"))
+			return;
+		if(vertices == null){
+			int rows = lines.integer("the number of rows");
+			int columns = lines.integer("the number of columns");
+			lines.integer("the number of entries");
+			lines.expectEnd();
+			vertices = createVertices(Math.max(rows, columns));
+			return;
+		}
+		Vertex<Integer,String> v1 = vertex(lines);
+		Vertex<Integer,String> v2 = vertex(lines);
+		double weight = pattern ? 0.0 : lines.number("a value");
+		lines.expectEnd();
+		graph.addEdge(v1, v2, null, weight);
+	}
+
+	/**
+	 * Create the vertices 1 to n
+	 * @param n
+	 * @return vertices by id, index 0 is not used
+	 */
+	private Vertex<Integer,String>[] createVertices(int n){
+		Vertex<Integer,String> vertices[] = Vertex.newArray(n + 1);
+		for(int id = 1; id <= n; id++)
+			vertices[id] = graph.addVertex(id);
+		return vertices;
+	}
+
+	/**
+	 * Parse a vertex id between 1 and n
+	 * @param lines
+	 * @return vertex
+	 */
+	private Vertex<Integer,String> vertex(Lines lines){
+		lines.skipSpaces();
+		int column = lines.column();
+		int id = lines.integer("a vertex id");
+		if(id < 1 || id >= vertices.length)
+			throw lines.error("Vertex id " + id + " is not between 1 and " + (vertices.length - 1), column);
+		return vertices[id];
+	}
+
+	/**
+	 * Open addressing map from a vertex id in the file to its vertex, adding the vertex on first use
+	 */
+	private class IDMap {
+
+		// keys[i] is the id plus one, 0 if the slot is empty
+		private int keys[] = new int[1024];
+		private Vertex<Integer,String> values[] = Vertex.newArray(1024);
+		private int size;
+
+		/**
+		 * Get the vertex of an id
+		 * @param id Non-negative id
+		 * @return vertex
+		 */
+		protected Vertex<Integer,String> get(int id){
+			int key = id + 1, mask = keys.length - 1;
+			int i = slot(key, mask);
+			while(keys[i] != 0){
+				if(keys[i] == key)
+					return values[i];
+				i = (i + 1) & mask;
+			}
+			Vertex<Integer,String> vertex = graph.addVertex(id);
+			keys[i] = key;
+			values[i] = vertex;
+			if(++size * 2 > keys.length)
+				resize();
+			return vertex;
+		}
+
+		/**
+		 * First slot to probe for a key
+		 * @param key
+		 * @param mask
+		 * @return slot
+		 */
+		private int slot(int key, int mask){
+			int hash = key * 0x9E3779B9;
+			return (hash ^ (hash >>> 16)) & mask;
+		}
+
+		/**
+		 * Rehash in a table twice as large
+		 */
+		private void resize(){
+			int oldKeys[] = keys;
+			Vertex<Integer,String> oldValues[] = values;
+			keys = new int[oldKeys.length * 2];
+			values = Vertex.newArray(oldKeys.length * 2);
+			int mask = keys.length - 1;
+			for(int j = 0; j < oldKeys.length; j++){
+				if(oldKeys[j] == 0) continue;
+				int i = slot(oldKeys[j], mask);
+				while(keys[i] != 0)
+					i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+}
@@ -0,0 +1,445 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class FrozenGraph <E,T> {
+
+	// Snapshot content, vertices are referred to by their index in the snapshot
+	private final Vertex<E,T> vertices[];
+	private final boolean directed;
+
+	// Out edges stored in compressed sparse row: edges of vertex i are in slots [offsets[i], offsets[i+1])
+	private final int offsets[];
+	private final int targets[];
+	private final double weights[];
+	private final T labels[];
+	private final Edge<E,T> edges[];
+
+	// In edges stored the same way. Undirected graphs share the out edges arrays
+	private final int inOffsets[];
+	private final int sources[];
+
+	// Maps a vertex unique id to its index in the snapshot, -1 if the vertex is not part of the snapshot
+	private final int indexOfID[];
+
+	/**
+	 * Constructor
+	 * @param vertices Vertices of the graph in iteration order
+	 * @param directed true if the graph is directed, false if undirected
+	 */
+	protected FrozenGraph(Vertex<E,T>[] vertices, boolean directed) {
+		this.vertices = vertices;
+		this.directed = directed;
+
+		// Map unique ids to indices
+		int maxID = -1;
+		for(Vertex<E,T> v : vertices)
+			maxID = Math.max(maxID, v.getID());
+		indexOfID = new int[maxID + 1];
+		Arrays.fill(indexOfID, -1);
+		for(int i = 0; i < vertices.length; i++)
+			indexOfID[vertices[i].getID()] = i;
+
+		// Compute the offsets from the out degrees
+		offsets = new int[vertices.length + 1];
+		for(int i = 0; i < vertices.length; i++)
+			offsets[i + 1] = offsets[i] + vertices[i].getOutEdges().size();
+
+		// Copy out edges, keeping the order of the incidence lists
+		int size = offsets[vertices.length];
+		targets = new int[size];
+		weights = new double[size];
+		@SuppressWarnings("unchecked")
+		T labelArray[] = (T[]) new Object[size];
+		labels = labelArray;
+		edges = Edge.newArray(size);
+		int slot = 0;
+		for(int i = 0; i < vertices.length; i++){
+			NodeIterator<Edge<E,T>> iterOutE = vertices[i].getOutEdges();
+			while(iterOutE.hasNext()){
+				Edge<E,T> edge = iterOutE.next();
+				targets[slot] = indexOfID[edge.getOpposite(vertices[i]).getID()];
+				weights[slot] = edge.getWeight();
+				labels[slot] = edge.getLabel();
+				edges[slot++] = edge;
+			}
+		}
+
+		// Copy in edges if the graph is directed
+		if(directed){
+			inOffsets = new int[vertices.length + 1];
+			for(int i = 0; i < vertices.length; i++)
+				inOffsets[i + 1] = inOffsets[i] + vertices[i].getInEdges().size();
+			sources = new int[inOffsets[vertices.length]];
+			slot = 0;
+			for(int i = 0; i < vertices.length; i++){
+				NodeIterator<Edge<E,T>> iterInE = vertices[i].getInEdges();
+				while(iterInE.hasNext())
+					sources[slot++] = indexOfID[iterInE.next().getOpposite(vertices[i]).getID()];
+			}
+		}else{
+			inOffsets = offsets;
+			sources = targets;
+		}
+	}
+
+	/**
+	 * Breadth-First-Search starting from a specific vertex
+	 * @param vertex
+	 * @return Array of vertices traversed by BFS
+	 */
+	public Vertex<E,T>[] BFS(Vertex<E,T> vertex){
+		int queue[] = new int[vertices.length];
+		boolean visited[] = new boolean[vertices.length];
+		int size = BFS(indexOf(vertex), queue, 0, visited);
+		return toVertices(queue, size);
+	}
+
+	/**
+	 * Breadth-First-Search
+	 * @return Array of vertices traversed by BFS
+	 */
+	public Vertex<E,T>[] BFS(){
+		int queue[] = new int[vertices.length];
+		boolean visited[] = new boolean[vertices.length];
+		int size = 0;
+		for(int i = 0; i < vertices.length; i++)
+			if(!visited[i])
+				size = BFS(i, queue, size, visited);
+		return toVertices(queue, size);
+	}
+
+	/**
+	 * BFS on the out edges that appends to queue[]
+	 * The queue doubles as the traversal order because each vertex is enqueued once
+	 * @param start
+	 * @param queue
+	 * @param tail Number of vertices already in the queue
+	 * @param visited
+	 * @return new tail of the queue
+	 */
+	private int BFS(int start, int[] queue, int tail, boolean[] visited){
+		int head = tail;
+		queue[tail++] = start;
+		visited[start] = true;
+		while(head < tail){
+			int polled = queue[head++];
+			for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+				int opposite = targets[slot];
+				if(!visited[opposite]){
+					visited[opposite] = true;
+					queue[tail++] = opposite;
+				}
+			}
+		}
+		return tail;
+	}
+
+	/**
+	 * Depth-First-Search from a specific vertex
+	 * @param vertex
+	 * @return Array of vertices traversed by DFS
+	 */
+	public Vertex<E,T>[] DFS(Vertex<E,T> vertex){
+		int order[] = new int[vertices.length];
+		boolean visited[] = new boolean[vertices.length];
+		int size = DFS(indexOf(vertex), order, 0, visited, new int[vertices.length], new int[vertices.length]);
+		return toVertices(order, size);
+	}
+
+	/**
+	 * Depth-First-Search
+	 * @return Array of vertices traversed by DFS
+	 */
+	public Vertex<E,T>[] DFS(){
+		int order[] = new int[vertices.length];
+		boolean visited[] = new boolean[vertices.length];
+		int stack[] = new int[vertices.length];
+		int cursor[] = new int[vertices.length];
+		int size = 0;
+		for(int i = 0; i < vertices.length; i++)
+			if(!visited[i])
+				size = DFS(i, order, size, visited, stack, cursor);
+		return toVertices(order, size);
+	}
+
+	/**
+	 * DFS with an explicit stack that appends the pre-order to order[]
+	 * @param start
+	 * @param order
+	 * @param size Number of vertices already in order[]
+	 * @param visited
+	 * @param stack Vertices on the current path
+	 * @param cursor Next out edge slot to explore for each vertex on the stack
+	 * @return new size of order[]
+	 */
+	private int DFS(int start, int[] order, int size, boolean[] visited, int[] stack, int[] cursor){
+		int top = 0;
+		stack[top] = start;
+		cursor[top++] = offsets[start];
+		visited[start] = true;
+		order[size++] = start;
+		while(top > 0){
+			int v = stack[top - 1];
+
+			// Pop the vertex if all its neighbors have been explored
+			if(cursor[top - 1] == offsets[v + 1]){
+				top--;
+				continue;
+			}
+
+			// Push the next neighbor if not visited
+			int opposite = targets[cursor[top - 1]++];
+			if(!visited[opposite]){
+				visited[opposite] = true;
+				order[size++] = opposite;
+				stack[top] = opposite;
+				cursor[top++] = offsets[opposite];
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gives the number of connected components
+	 * Directed graphs are considered undirected by following both out and in edges
+	 * @return connected components
+	 */
+	public int connectedComponents(){
+		int queue[] = new int[vertices.length];
+		boolean visited[] = new boolean[vertices.length];
+		int components = 0;
+		for(int i = 0; i < vertices.length; i++){
+			if(visited[i]) continue;
+			components++;
+
+			// BFS on out and in edges
+			int head = 0, tail = 0;
+			queue[tail++] = i;
+			visited[i] = true;
+			while(head < tail){
+				int polled = queue[head++];
+				for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+					if(!visited[targets[slot]]){
+						visited[targets[slot]] = true;
+						queue[tail++] = targets[slot];
+					}
+				}
+				for(int slot = inOffsets[polled]; slot < inOffsets[polled + 1]; slot++){
+					if(!visited[sources[slot]]){
+						visited[sources[slot]] = true;
+						queue[tail++] = sources[slot];
+					}
+				}
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Checks if the graph is connected
+	 * @return boolean
+	 */
+	public boolean isConnected(){
+		return connectedComponents() == 1;
+	}
+
+	/**
+	 * Create the shortest path from a vertex to all other vertices
+	 * @param v Starting vertex
+	 * @return Shortest path tree rooted at v
+	 */
+	public ShortestPathTree<E,T> dijkstra(Vertex<E,T> v){
+		return dijkstra(v, -1);
+	}
+
+	/**
+	 * Dijkstra that stops once the target has its final Dijkstra value
+	 * @param v Starting vertex
+	 * @param target Index of the target, -1 to reach all the vertices
+	 * @return Shortest path tree rooted at v
+	 */
+	private ShortestPathTree<E,T> dijkstra(Vertex<E,T> v, int target){
+		double dijkstra_value[] = new double[vertices.length];
+		Edge<E,T> dijkstra_edge[] = Edge.newArray(vertices.length);
+		boolean visited[] = new boolean[vertices.length];
+		Arrays.fill(dijkstra_value, Double.MAX_VALUE);
+
+		// Start from the starting vertex by putting it in the heap
+		int start = indexOf(v);
+		dijkstra_value[start] = 0;
+		IndexedHeap heap = new IndexedHeap(vertices.length);
+		heap.offer(start, 0);
+		while(!heap.isEmpty()){
+
+			// Remove the vertex with minimum Dijkstra value, its value is now final
+			int polled = heap.poll();
+			visited[polled] = true;
+			if(polled == target)
+				break;
+
+			// Relax the out edges of the removed vertex
+			for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+				int opposite = targets[slot];
+				double pathCost = dijkstra_value[polled] + weights[slot];
+				if(!visited[opposite] && pathCost < dijkstra_value[opposite]){
+					dijkstra_value[opposite] = pathCost;
+					dijkstra_edge[opposite] = edges[slot];
+					heap.offer(opposite, pathCost);
+				}
+			}
+		}
+		return new ShortestPathTree<E,T>(v, dijkstra_value, dijkstra_edge, indexOfID);
+	}
+
+	/**
+	 * Create the shortest path from a vertex to all other vertices when all edge weights are non-negative integers
+	 * Uses a bucket queue (Dial's algorithm) instead of a heap
+	 * @param v Starting vertex
+	 * @return Shortest path tree rooted at v
+	 * @throws IllegalArgumentException if a reached edge has a weight that is not a non-negative integer
+	 */
+	public ShortestPathTree<E,T> dijkstra_integer(Vertex<E,T> v){
+		double dijkstra_value[] = new double[vertices.length];
+		Edge<E,T> dijkstra_edge[] = Edge.newArray(vertices.length);
+		boolean visited[] = new boolean[vertices.length];
+		Arrays.fill(dijkstra_value, Double.MAX_VALUE);
+
+		// Start from the starting vertex by putting it in the queue
+		int start = indexOf(v);
+		dijkstra_value[start] = 0;
+		BucketQueue queue = new BucketQueue(vertices.length);
+		queue.offer(start, 0);
+		while(!queue.isEmpty()){
+
+			// Remove a vertex with minimum Dijkstra value, its value is now final
+			long value = queue.peekKey();
+			int polled = queue.poll();
+			visited[polled] = true;
+
+			// Relax the out edges of the removed vertex
+			for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+				int opposite = targets[slot];
+				long pathCost = value + Graph.integerWeight(edges[slot]);
+				if(!visited[opposite] && pathCost < dijkstra_value[opposite]){
+					dijkstra_value[opposite] = pathCost;
+					dijkstra_edge[opposite] = edges[slot];
+					queue.offer(opposite, pathCost);
+				}
+			}
+		}
+		return new ShortestPathTree<E,T>(v, dijkstra_value, dijkstra_edge, indexOfID);
+	}
+
+	/**
+	 * Get the shortest path from one vertex to another
+	 * @param vFrom
+	 * @param vTo
+	 * The search stops as soon as vTo is reached with its final Dijkstra value
+	 * @return Array of shortest edges to go from vFrom to vTo
+	 */
+	public Edge<E,T>[] dijkstra(Vertex<E,T> vFrom, Vertex<E,T> vTo){
+		return dijkstra(vFrom, indexOf(vTo)).getPath(vTo);
+	}
+
+	/**
+	 * Get the index of a vertex in this snapshot
+	 * @param v
+	 * @return index
+	 * @throws IllegalArgumentException if the vertex is not part of the snapshot
+	 */
+	public int indexOf(Vertex<E,T> v){
+		int id = v.getID();
+		if(id >= indexOfID.length || indexOfID[id] == -1 || vertices[indexOfID[id]] != v)
+			throw new IllegalArgumentException("Vertex " + v + " is not part of this snapshot");
+		return indexOfID[id];
+	}
+
+	/**
+	 * Get a vertex by its index in this snapshot
+	 * @param index
+	 * @return vertex
+	 */
+	public Vertex<E,T> getVertex(int index){
+		return vertices[index];
+	}
+
+	/**
+	 * Get the label of the edge stored in a slot
+	 * @param slot
+	 * @return label
+	 */
+	public T getLabel(int slot){
+		return labels[slot];
+	}
+
+	/**
+	 * Get the edge stored in a slot
+	 * @param slot
+	 * @return edge
+	 */
+	public Edge<E,T> getEdge(int slot){
+		return edges[slot];
+	}
+
+	/**
+	 * Number of vertices in the snapshot
+	 * @return size
+	 */
+	public int vertexCount(){
+		return vertices.length;
+	}
+
+	/**
+	 * Number of edges in the snapshot
+	 * @return size
+	 */
+	public int edgeCount(){
+		return edges.length;
+	}
+
+	/**
+	 * Checks if the graph is directed or not
+	 * @return boolean
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * Get an array of the vertices of the snapshot
+	 * @return Array of vertices
+	 */
+	public Vertex<E,T>[] vertices_array(){
+		return vertices.clone();
+	}
+
+	/**
+	 * Get an array of the edges of the snapshot
+	 * @return Array of edges
+	 */
+	public Edge<E,T>[] edges_array(){
+		return edges.clone();
+	}
+
+	/**
+	 * Map vertex indices back to the vertices
+	 * @param indices
+	 * @param size
+	 * @return Array of vertices
+	 */
+	private Vertex<E,T>[] toVertices(int[] indices, int size){
+		Vertex<E,T> tmp[] = Vertex.newArray(size);
+		for(int i = 0; i < size; i++)
+			tmp[i] = vertices[indices[i]];
+		return tmp;
+	}
+}
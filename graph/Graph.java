@@ -6,43 +6,69 @@ package graph;
 * Date: 22 December 2014
 * License: MIT License ~ Please read License.txt for more information about the usage of this software
 * */
-import graph.doublyLinkedList.DLLNode;
-import graph.doublyLinkedList.DoublyLinkedList;
 import graph.doublyLinkedList.NodeIterator;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.InputMismatchException;
-import java.util.LinkedList;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.Scanner;
-import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Graph <E,T> {
 	
-	// Graph content
-	private DoublyLinkedList<Vertex <E,T>> vertexList;
-	private DoublyLinkedList<Edge<E,T>> edgeList;
+	// Graph content, vertices and edges are linked by slots in primitive arrays
+	private AdjacencySlab<E,T> slab;
 	
 	// Graph options
 	private boolean directed;
-	private boolean isCyclic;
-	private boolean isConnected;
-	private int connectedComponents;
+	
+	// An undirected edge is stored once and is an incident edge of both of its vertices, instead of two edges in opposite directions
+	private final boolean sharedEdges;
 	
 	// Unique id for each vertex in a graph. In a cloned graph, cloned vertices will have the same id
 	private int unique_id = 0;
 	
+	// Unique id for each edge in a graph, used to index per query edge state
+	private int edge_unique_id = 0;
+	
+	// Vertices with at least this number of out edges keep a hash index of their neighbors, -1 if no vertex is indexed
+	private int adjacency_threshold = -1;
+	
+	// Connected components kept up to date by the changes to the graph, null if they are not tracked
+	private UnionFind components;
+	
+	// Spanning forest keeping the connected components up to date when edges are removed, null if it is not kept
+	private SpanningForest<E,T> forest;
+	
+	// Topological order kept up to date by addEdge, which refuses the edges creating a cycle. null if it is not kept
+	private TopologicalOrder<E,T> topological;
+	
+	// Per query state is kept in pooled contexts, so read queries never write to the vertices and edges
+	private final ConcurrentLinkedQueue<TraversalContext<E,T>> contexts = new ConcurrentLinkedQueue<TraversalContext<E,T>>();
+	
 	/**
 	 * Constructor
 	 * @param directed true if the graph is directed, false if undirected
 	 */
 	public Graph(boolean directed) {
-		vertexList = new DoublyLinkedList<Vertex<E,T>>();
-		edgeList = new DoublyLinkedList<Edge<E,T>>();
+		this(directed, false);
+	}
+	
+	/**
+	 * Constructor
+	 * With shared edges, an undirected edge is a single edge in the out and in edges of both its vertices: edges() gives it once
+	 * and changing its weight or label changes both directions. Traversals reach the other vertex with getOpposite
+	 * @param directed true if the graph is directed, false if undirected
+	 * @param sharedEdges true to store each undirected edge once, ignored if the graph is directed
+	 */
+	public Graph(boolean directed, boolean sharedEdges) {
+		this.sharedEdges = sharedEdges && !directed;
+		slab = new AdjacencySlab<E,T>(this.sharedEdges);
 		this.directed = directed;
 	}
 	
@@ -52,7 +78,14 @@ public class Graph <E,T> {
 	 * @return Added vertex
 	 */
 	public Vertex<E,T> addVertex(E data){
-		return addVertex(data, unique_id++);
+		Vertex<E,T> vertex = addVertex(data, unique_id++);
+		if(components != null && !components.isStale())
+			components.add(vertex.getID());
+		if(forest != null)
+			forest.addVertex(vertex);
+		if(topological != null)
+			topological.addVertex(vertex);
+		return vertex;
 	}
 	
 	/**
@@ -61,29 +94,132 @@ public class Graph <E,T> {
 	 * @param v2
 	 * @param label
 	 * @param weight
-	 * @return Array of 2 edges if the graph is undirected, array of 1 edge if the graph is directed
+	 * @return Array of 2 edges if the graph is undirected, array of 1 edge if the graph is directed or has shared edges
 	 */
 	public Edge<E,T>[] addEdge(Vertex<E,T> v1, Vertex<E,T> v2, T label, double weight){
-		Edge<E,T> edges[] = new Edge[directed ? 1 : 2];
+		Edge<E,T> edges[] = Edge.newArray(directed || sharedEdges ? 1 : 2);
 		
-		// Create the first edge from v1 to v2 and set its configuration
-		edges[0] = new Edge<E,T>(v1, v2);
-		edges[0].setLabel(label);
-		edges[0].setWeight(weight);
-		edges[0].setPosition(edgeList.add(edges[0]));
+		// Create the first edge from v1 to v2
+		edges[0] = createEdge(v1, v2, label, weight);
 		
 		// If graph is undirected, create an edge in the opposite direction
 		if(!directed){
-			
-			// Create the second edge from v2 to v1 and set its configuration
-			edges[1] = new Edge<E,T>(v2, v1);
-			edges[1].setLabel(label);
-			edges[1].setWeight(weight);
-			edges[1].setPosition(edgeList.add(edges[1]));
+			if(!sharedEdges)
+				edges[1] = createEdge(v2, v1, label, weight);
+			indexNeighbors(v2);
 		}
+		indexNeighbors(v1);
 		return edges;
 	}
 	
+	/**
+	 * Create one edge and set its configuration
+	 * @param v1
+	 * @param v2
+	 * @param label
+	 * @param weight
+	 * @return edge
+	 * @throws IllegalArgumentException if the topological order is kept and the edge would create a cycle
+	 */
+	private Edge<E,T> createEdge(Vertex<E,T> v1, Vertex<E,T> v2, T label, double weight){
+		if(topological != null && !updateTopological().addEdge(v1, v2))
+			throw new IllegalArgumentException("Edge from " + v1 + " to " + v2 + " would create a cycle");
+		Edge<E,T> edge = slab.addEdge(v1, v2, edge_unique_id++, label, weight);
+		v1.addOutEdge(edge);
+		if(sharedEdges && v1 != v2)
+			v2.addOutEdge(edge);
+		if(components != null && !components.isStale())
+			components.union(v1.getID(), v2.getID());
+		if(forest != null)
+			forest.addEdge(edge);
+		return edge;
+	}
+	
+	/**
+	 * Add vertices and edges in bulk, used by GraphBuilder
+	 * The slab stores them in consecutive slots filled from the arrays, and no vertex or edge object is created until it is read.
+	 * A graph keeping its components, spanning forest or topological order adds them one at a time to keep these up to date
+	 * @param data Data of the vertices to add
+	 * @param vertexCount Number of vertices to add
+	 * @param from Index in data[] of the 'from' vertex of each edge
+	 * @param to Index in data[] of the 'to' vertex of each edge
+	 * @param labels Label of each edge, null if no edge has a label
+	 * @param weights Weight of each edge
+	 * @param edgeCount Number of edges to add
+	 */
+	protected void addAll(E data[], int vertexCount, int from[], int to[], T labels[], double weights[], int edgeCount){
+		if(isTracked()){
+			Vertex<E,T> vertices[] = Vertex.newArray(vertexCount);
+			for(int i = 0; i < vertexCount; i++)
+				vertices[i] = addVertex(data[i]);
+			addEdges(vertices, from, to, labels, weights, edgeCount);
+			return;
+		}
+		int first = slab.appendVertices(data, vertexCount, unique_id);
+		unique_id += vertexCount;
+		int slots[] = new int[vertexCount];
+		for(int i = 0; i < vertexCount; i++)
+			slots[i] = first + i;
+		appendEdges(slots, from, to, labels, weights, edgeCount);
+	}
+	
+	/**
+	 * Add edges in bulk between existing vertices, used by GraphBuilder and the parsers
+	 * No array of edges is returned and the neighbor indexes are built once at the end
+	 * @param vertices
+	 * @param from Index in vertices[] of the 'from' vertex of each edge
+	 * @param to Index in vertices[] of the 'to' vertex of each edge
+	 * @param labels Label of each edge, null if no edge has a label
+	 * @param weights Weight of each edge
+	 * @param edgeCount Number of edges to add
+	 */
+	protected void addEdges(Vertex<E,T> vertices[], int from[], int to[], T labels[], double weights[], int edgeCount){
+		if(isTracked()){
+			for(int e = 0; e < edgeCount; e++){
+				T label = labels == null ? null : labels[e];
+				createEdge(vertices[from[e]], vertices[to[e]], label, weights[e]);
+				if(!directed && !sharedEdges)
+					createEdge(vertices[to[e]], vertices[from[e]], label, weights[e]);
+			}
+			if(adjacency_threshold >= 0)
+				setAdjacencyIndex(adjacency_threshold);
+			return;
+		}
+		int slots[] = new int[vertices.length];
+		for(int i = 0; i < vertices.length; i++)
+			slots[i] = vertices[i] == null ? AdjacencySlab.NONE : vertices[i].getSlot();
+		appendEdges(slots, from, to, labels, weights, edgeCount);
+	}
+	
+	/**
+	 * Store edges in bulk in the slab, an undirected edge followed by its opposite edge unless edges are shared
+	 * The neighbor indexes are dropped before and built again after, since the slab does not update them
+	 * @param slots Slot of the vertex at each index
+	 * @param from Index in slots[] of the 'from' vertex of each edge
+	 * @param to Index in slots[] of the 'to' vertex of each edge
+	 * @param labels Label of each edge, null if no edge has a label
+	 * @param weights Weight of each edge
+	 * @param edgeCount Number of edges to add
+	 */
+	private void appendEdges(int slots[], int from[], int to[], T labels[], double weights[], int edgeCount){
+		int threshold = adjacency_threshold;
+		if(threshold >= 0)
+			setAdjacencyIndex(-1);
+		boolean reverse = !directed && !sharedEdges;
+		slab.appendEdges(slots, from, to, labels, weights, edgeCount, edge_unique_id, reverse);
+		edge_unique_id += reverse ? 2 * edgeCount : edgeCount;
+		if(threshold >= 0)
+			setAdjacencyIndex(threshold);
+	}
+	
+	/**
+	 * Checks if the graph keeps its components, spanning forest or topological order up to date, which needs the edges added one at a time
+	 * @return boolean
+	 */
+	private boolean isTracked(){
+		return components != null || forest != null || topological != null;
+	}
+	
 	/**
 	 * Add Edge between two vertices
 	 * @param v1
@@ -100,34 +236,29 @@ public class Graph <E,T> {
 	 */
 	public void removeVertex(Vertex<E,T> vertex){
 		
-		// Remove outgoing edges & trigger
+		// An isolated vertex is a component of its own, and a vertex with one neighbor cannot split its component
+		int neighbors = components != null && !components.isStale() ? countNeighbors(vertex, 2) : -1;
+		
+		// Remove outgoing edges, the iterator is already on the next edge when an edge is removed
 		NodeIterator<Edge<E,T>> iterOutEdges = vertex.getOutEdges();
-		while(iterOutEdges.hasNext()){
-			Edge<E,T> currentE = iterOutEdges.next();
-			Vertex<E,T> vTo = currentE.getV2();
-			
-			// Remove edge from inEdge of V2
-			vTo.removeInEdge(currentE.getIncidentPositionV2());
-			
-			// Remove edge from the graph content
-			edgeList.remove(currentE.getPosition());
-		}
+		while(iterOutEdges.hasNext())
+			unlinkEdge(iterOutEdges.next());
 		
-		// Remove ingoing edges & trigger
+		// Remove ingoing edges
 		NodeIterator<Edge<E,T>> iterInEdges = vertex.getInEdges();
-		while(iterInEdges.hasNext()){
-			Edge<E,T> currentE = iterInEdges.next();
-			Vertex<E,T> vFrom = currentE.getV1();
-			
-			// Remove edge from outEdge of V1
-			vFrom.removeOutEdge(currentE.getIncidentPositionV1());
-			
-			// Remove edge from the graph content
-			edgeList.remove(currentE.getPosition());
-		}
+		while(iterInEdges.hasNext())
+			unlinkEdge(iterInEdges.next());
 		
 		// Remove vertex
-		vertexList.remove(vertex.getPosition());
+		slab.removeVertex(vertex);
+		if(forest != null)
+			forest.removeVertex(vertex);
+		if(topological != null)
+			topological.removeVertex(vertex);
+		if(neighbors == 0)
+			components.remove();
+		else if(neighbors > 1)
+			components.setStale();
 	}
 	
 	/**
@@ -135,71 +266,62 @@ public class Graph <E,T> {
 	 * @param edge
 	 */
 	public void removeEdge(Edge<E,T> edge){
-		edge.getV1().removeOutEdge(edge.getIncidentPositionV1());
-		edge.getV2().removeInEdge(edge.getIncidentPositionV2());
-		edgeList.remove(edge.getPosition());
+		unlinkEdge(edge);
+		
+		// The component may be split unless the vertices are still joined by another edge
+		Vertex<E,T> v1 = edge.getV1(), v2 = edge.getV2();
+		if(components != null && !components.isStale() && v1 != v2 && getEdge(v1, v2) == null && getEdge(v2, v1) == null)
+			components.setStale();
+	}
+	
+	/**
+	 * Remove an edge from its vertices, from the graph and from the spanning forest
+	 * @param edge
+	 */
+	private void unlinkEdge(Edge<E,T> edge){
+		edge.getV1().removeOutEdge(edge);
+		if(sharedEdges && edge.getV1() != edge.getV2())
+			edge.getV2().removeOutEdge(edge);
+		slab.removeEdge(edge);
+		if(forest != null)
+			forest.removeEdge(edge);
+	}
+	
+	/**
+	 * Count the distinct neighbors of a vertex through its out and in edges, ignoring the vertex itself
+	 * @param vertex
+	 * @param limit Stop counting at this number
+	 * @return number of neighbors, at most limit
+	 */
+	private int countNeighbors(Vertex<E,T> vertex, int limit){
+		int count = 0;
+		Vertex<E,T> first = null;
+		NodeIterator<Edge<E,T>> inOutEdges = vertex.getOutEdges().concatenate(vertex.getInEdges());
+		while(inOutEdges.hasNext() && count < limit){
+			Vertex<E,T> opposite = inOutEdges.next().getOpposite(vertex);
+			if(opposite != vertex && opposite != first){
+				if(first == null)
+					first = opposite;
+				count++;
+			}
+		}
+		return count;
 	}
 	
 	/**
 	 * Breadth-First-Search starting from a specific vertex
+	 * Only the vertices reachable from the starting vertex are touched
 	 * @return Array of vertices traversed by BFS
 	 */
 	public Vertex<E,T>[] BFS(Vertex<E,T> vertex){
-		
-		// Mark all vertices as unvisited
-		NodeIterator<Vertex<E,T>> iterV = vertices();
-		while(iterV.hasNext())
-			iterV.next().setStatus(Vertex.UNVISITED);
-		
-		// Mark all edges as undiscovered
-		NodeIterator<Edge<E,T>> iterE = edges();
-		while(iterE.hasNext())
-			iterE.next().setStatus(Edge.UNDISCOVERED);
-		
-		// Create the list to store the vertices
-		DoublyLinkedList<Vertex<E,T>> BFS_list = new DoublyLinkedList<>();
-		
-		// Add the starting vertex and mark it as visiting
-		Queue<Vertex<E,T>> q = new LinkedList<Vertex<E,T>>();
-		q.add(vertex);
-		vertex.setStatus(Vertex.VISITING);
-		while(!q.isEmpty()){
-			
-			// Remove a vertex from the queue and mark it as visited
-			Vertex<E,T> polled = q.poll();
-			BFS_list.add(polled);
-			polled.setStatus(Vertex.VISITED);
-			
-			// Iterator on all neighbors of the removed vertex and add them to the queue
-			NodeIterator<Edge<E,T>> incidentEdges = polled.getOutEdges();
-			while(incidentEdges.hasNext()){
-				Edge<E,T> edge = incidentEdges.next();
-				Vertex<E,T> oppositeVertex = edge.getV2();
-				
-				// If neighbor is not already visited, put it in the queue
-				if(oppositeVertex.getStatus() == Vertex.UNVISITED){
-					
-					// Mark edge between the removed vertex and the current neighbor as discovered
-					edge.setStatus(Edge.DISCOVERED);
-					oppositeVertex.setStatus(Vertex.VISITING);
-					q.offer(oppositeVertex);
-				
-				// If neighbor has already been visited, don't put it in the queue
-				}else{
-					
-					// Mark edge as cross if undiscovered
-					if(edge.getStatus() == Edge.UNDISCOVERED)
-						edge.setStatus(Edge.CROSS);
-				}
-			}
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			ArrayList<Vertex<E,T>> BFS_list = new ArrayList<Vertex<E,T>>();
+			BFS(vertex, context, BFS_list);
+			return BFS_list.toArray(Vertex.<E,T>newArray(BFS_list.size()));
+		}finally{
+			releaseContext(context);
 		}
-		
-		NodeIterator<Vertex<E,T>> BFS_iter = BFS_list.iterator();
-		Vertex<E,T> BFS[] = new Vertex[BFS_iter.size()];
-		int index = 0;
-		while(BFS_iter.hasNext())
-			BFS[index++] = BFS_iter.next();
-		return BFS;
 	}
 	
 	/**
@@ -207,212 +329,206 @@ public class Graph <E,T> {
 	 * @return Array of vertices traversed by BFS
 	 */
 	public Vertex<E,T>[] BFS(){
-		Vertex<E,T>[] BFS = new Vertex[vertexList.size()];
-		int index = 0;
-		
-		// Mark all vertices as unvisited
-		NodeIterator<Vertex<E,T>> iterV = vertices();
-		while(iterV.hasNext())
-			iterV.next().setStatus(Vertex.UNVISITED);
-		
-		// Mark all edges as undiscovered
-		NodeIterator<Edge<E,T>> iterE = edges();
-		while(iterE.hasNext())
-			iterE.next().setStatus(Edge.UNDISCOVERED);
-		
-		// Start BFS
-		iterV = vertices();
-		while(iterV.hasNext()){
-			Vertex<E,T> current = iterV.next();
-			if(current.getStatus() == Vertex.UNVISITED){
-				
-				// Add the starting vertex and mark it as visiting
-				Queue<Vertex<E,T>> q = new LinkedList<Vertex<E,T>>();
-				q.add(current);
-				current.setStatus(Vertex.VISITING);
-				while(!q.isEmpty()){
-					
-					// Remove a vertex from the queue and mark it as visited
-					Vertex<E,T> polled = q.poll();
-					BFS[index++] = polled;
-					polled.setStatus(Vertex.VISITED);
-					
-					// Iterator on all neighbors of the removed vertex and add them to the queue
-					NodeIterator<Edge<E,T>> incidentEdges = polled.getOutEdges();
-					while(incidentEdges.hasNext()){
-						Edge<E,T> edge = incidentEdges.next();
-						Vertex<E,T> oppositeVertex = edge.getV2();
-						
-						// If neighbor is not already visited, put it in the queue
-						if(oppositeVertex.getStatus() == Vertex.UNVISITED){
-							
-							// Mark edge between the removed vertex and the current neighbor as discovered
-							edge.setStatus(Edge.DISCOVERED);
-							oppositeVertex.setStatus(Vertex.VISITING);
-							q.offer(oppositeVertex);
-						
-						// If neighbor has already been visited, don't put it in the queue
-						}else{
-							
-							// Mark edge as cross if undiscovered
-							if(edge.getStatus() == Edge.UNDISCOVERED)
-								edge.setStatus(Edge.CROSS);
-						}
-					}
-				}
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			ArrayList<Vertex<E,T>> BFS_list = new ArrayList<Vertex<E,T>>(slab.vertexCount());
+			
+			// Start BFS
+			NodeIterator<Vertex<E,T>> iterV = vertices();
+			while(iterV.hasNext()){
+				Vertex<E,T> current = iterV.next();
+				if(context.getStatus(current) == Vertex.UNVISITED)
+					BFS(current, context, BFS_list);
 			}
+			return BFS_list.toArray(Vertex.<E,T>newArray(BFS_list.size()));
+		}finally{
+			releaseContext(context);
 		}
-		return BFS;
 	}
 	
 	/**
-	 * Depth-First-Search
-	 * @return Array of vertices traversed by DFS
+	 * Parallel Breadth-First-Search starting from a specific vertex
+	 * Each level is explored by the fork-join pool, top-down from the out edges of the frontier
+	 * or bottom-up from the in edges of the unvisited vertices, whichever has less edges to check
+	 * The levels are the same on every run, the order inside a level and the parent edges can change
+	 * @param vertex Starting vertex
+	 * @return BFS tree of the vertices reachable from the starting vertex
 	 */
-	public Vertex<E,T>[] DFS(){
-		Vertex<E,T>[] DFS = new Vertex[vertexList.size()];
-		int index[] = {0};
-		
-		// Configure Graph options
-		this.connectedComponents = 0;
-		this.isCyclic = false;
-		
-		// Mark all vertices as unvisited and uncolored
-		NodeIterator<Vertex<E,T>> iterV = vertices();
-		while(iterV.hasNext()){
-			Vertex<E,T> currentV = iterV.next();
-			currentV.setStatus(Vertex.UNVISITED);
-			currentV.setColor(Vertex.UNCOLORED);
-		}
-		
-		// Mark all edges as undiscovered
-		NodeIterator<Edge<E,T>> iterE = edges();
-		while(iterE.hasNext())
-			iterE.next().setStatus(Edge.UNDISCOVERED);
-		
-		// Start DFS
-		iterV = vertices();
-		while(iterV.hasNext()){
-			Vertex<E,T> current = iterV.next();
-			if(current.getStatus() == Vertex.UNVISITED){
-				
-				// +1 disconnected graph, trigger connection detection
-				this.connectedComponents++;
-				this.isConnected = this.connectedComponents == 1;
-				DFS(current, DFS, index);
-			}
-		}
-		return DFS;
+	public BFSTree<E,T> BFS_parallel(Vertex<E,T> vertex){
+		ParallelBFS<E,T> bfs = new ParallelBFS<E,T>(vertices_array(), unique_id, ForkJoinPool.commonPool());
+		bfs.run(vertex);
+		return bfs.toTree();
 	}
 	
 	/**
-	 * Recursive DFS that generates the content of DFS[]
-	 * @param v
-	 * @param DFS
-	 * @param index
+	 * Parallel Breadth-First-Search of all the vertices
+	 * A new tree is started from each vertex not reached yet, in the order of the vertices
+	 * @return BFS forest
 	 */
-	private void DFS(Vertex<E,T> v, Vertex<E,T>[] DFS, int[] index){
-		// Color all vertices with the same color for each vertex start ((v0-> v1) <- v2) [for DiGraph]
-		v.setColor(connectedComponents);
-		v.setStatus(Vertex.VISITING);
-		DFS[index[0]++] = v;
+	public BFSTree<E,T> BFS_parallel(){
+		Vertex<E,T> vertices[] = vertices_array();
+		ParallelBFS<E,T> bfs = new ParallelBFS<E,T>(vertices, unique_id, ForkJoinPool.commonPool());
+		for(Vertex<E,T> current : vertices)
+			if(!bfs.isReached(current))
+				bfs.run(current);
+		return bfs.toTree();
+	}
+	
+	/**
+	 * BFS that appends the traversed vertices to BFS_list
+	 * The list is also used as the queue because each vertex is added once
+	 * @param vertex Starting vertex
+	 * @param context
+	 * @param BFS_list
+	 */
+	private void BFS(Vertex<E,T> vertex, TraversalContext<E,T> context, ArrayList<Vertex<E,T>> BFS_list){
 		
-		// Iterate on all neighbors of the current vertex
-		NodeIterator<Edge<E,T>> incidentEdges = v.getOutEdges();
-		while(incidentEdges.hasNext()){
-			Edge<E,T> edge = incidentEdges.next();
-			Vertex<E,T> oppositeVertex = edge.getV2();
+		// Add the starting vertex and mark it as visiting
+		int head = BFS_list.size();
+		BFS_list.add(vertex);
+		context.setStatus(vertex, Vertex.VISITING);
+		while(head < BFS_list.size()){
 			
-			// Recur on neighbor if not visited
-			if(oppositeVertex.getStatus() == Vertex.UNVISITED){
-				edge.setStatus(Edge.DISCOVERED);
-				oppositeVertex.setStatus(Vertex.VISITING);
-				DFS(oppositeVertex, DFS,index);
-			}else{
-				
-				// Checks if the undirected/directed graph is cyclic
-				if(
-						(!directed && oppositeVertex.getStatus() == Vertex.VISITED) ||
-						(directed && oppositeVertex.getStatus() == Vertex.VISITING && v.getColor() == oppositeVertex.getColor()) // Third condition is for DiGraph (Check earlier this method...)
-				){
-					isCyclic = true;
+			// Remove a vertex from the queue and mark it as visited
+			Vertex<E,T> polled = BFS_list.get(head++);
+			context.setStatus(polled, Vertex.VISITED);
+			
+			// Walk the out edges of the removed vertex by position and add its neighbors to the queue if not already visited
+			int slot = polled.getSlot();
+			for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e)){
+				Vertex<E,T> oppositeVertex = slab.getVertex(slab.getOpposite(e, slot));
+				if(context.getStatus(oppositeVertex) == Vertex.UNVISITED){
+					context.setStatus(oppositeVertex, Vertex.VISITING);
+					BFS_list.add(oppositeVertex);
 				}
-				
-				/// Mark edge as cross if the undiscovered
-				if(edge.getStatus() == Edge.UNDISCOVERED)
-					edge.setStatus(Edge.CROSS);
 			}
 		}
-		
-		// Mark vertex as visited if more neighbors needs to be visited
-		v.setStatus(Vertex.VISITED);
+	}
+	
+	/**
+	 * Depth-First-Search
+	 * @return Array of vertices traversed by DFS
+	 */
+	public Vertex<E,T>[] DFS(){
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			DFS(context);
+			return Arrays.copyOf(context.preOrder, context.preOrderSize);
+		}finally{
+			releaseContext(context);
+		}
 	}
 	
 	/**
 	 * Depth-First-Search from a specific vertex
+	 * Only the vertices reachable from the starting vertex are touched
 	 * @return Array of vertices traversed by DFS
 	 */
 	public Vertex<E,T>[] DFS(Vertex<E,T> vertex){
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			DFS(vertex, context);
+			return Arrays.copyOf(context.preOrder, context.preOrderSize);
+		}finally{
+			releaseContext(context);
+		}
+	}
+	
+	/**
+	 * Depth-First-Search forest giving the pre-order, post-order, edge classification and cycle detection
+	 * @return DFS forest
+	 */
+	public DFSForest<E,T> DFS_forest(){
 		
-		// Mark all vertices as unvisited and uncolored
+		// The context is kept by the returned forest, so it does not come from the pool
+		TraversalContext<E,T> context = new TraversalContext<E,T>(unique_id);
+		context.reset(unique_id, edge_unique_id);
+		DFS(context);
+		return new DFSForest<E,T>(context);
+	}
+	
+	/**
+	 * Depth-First-Search tree from a specific vertex
+	 * @param vertex
+	 * @return DFS forest made of a single tree
+	 */
+	public DFSForest<E,T> DFS_forest(Vertex<E,T> vertex){
+		TraversalContext<E,T> context = new TraversalContext<E,T>(unique_id);
+		context.reset(unique_id, edge_unique_id);
+		DFS(vertex, context);
+		return new DFSForest<E,T>(context);
+	}
+	
+	/**
+	 * Depth-First-Search on all vertices, counting the DFS trees as connected components
+	 * @param context
+	 */
+	private void DFS(TraversalContext<E,T> context){
 		NodeIterator<Vertex<E,T>> iterV = vertices();
 		while(iterV.hasNext()){
-			Vertex<E,T> currentV = iterV.next();
-			currentV.setStatus(Vertex.UNVISITED);
-			currentV.setColor(Vertex.UNCOLORED);
+			Vertex<E,T> current = iterV.next();
+			if(context.getStatus(current) == Vertex.UNVISITED)
+				DFS(current, context);
 		}
-		
-		// Mark all edges as undiscovered
-		NodeIterator<Edge<E,T>> iterE = edges();
-		while(iterE.hasNext())
-			iterE.next().setStatus(Edge.UNDISCOVERED);
-		
-		// Create the list to store the vertices
-		DoublyLinkedList<Vertex<E,T>> DFS_list = new DoublyLinkedList<>();
-		
-		// Populate the list
-		DFS(vertex, DFS_list);
-		
-		// Create the return array
-		NodeIterator<Vertex<E,T>> iter_DFS = DFS_list.iterator();
-		Vertex<E,T> DFS[] = new Vertex[iter_DFS.size()];
-		int index = 0;
-		while(iter_DFS.hasNext())
-			DFS[index++] = iter_DFS.next();
-		
-		return DFS;
 	}
 	
 	/**
-	 * Recursive DFS that generates the content of DFS_list
+	 * Iterative DFS from a vertex, fills the pre-order and post-order of the context, classifies the edges and detects cycles
+	 * The stack is kept in the context instead of the thread stack, so long paths cannot overflow it
 	 * @param vertex
-	 * @param DFS_list
+	 * @param context
 	 */
-	private void DFS(Vertex<E,T> vertex, DoublyLinkedList<Vertex<E,T>> DFS_list){
-		vertex.setStatus(Vertex.VISITING);
-		DFS_list.add(vertex);
+	private void DFS(Vertex<E,T> vertex, TraversalContext<E,T> context){
 		
-		// Iterate on all neighbors of the current vertex
-		NodeIterator<Edge<E,T>> incidentEdges = vertex.getOutEdges();
-		while(incidentEdges.hasNext()){
-			Edge<E,T> edge = incidentEdges.next();
-			Vertex<E,T> oppositeVertex = edge.getV2();
+		// Color all vertices with the same color for each vertex start ((v0-> v1) <- v2) [for DiGraph]
+		context.discover(vertex, ++context.connectedComponents);
+		while(context.stackSize > 0){
+			int top = context.stackSize - 1;
+			Vertex<E,T> v = context.stackVertex[top];
+			int slot = context.stackCursor[top];
 			
-			// Recur on neighbor if not visited
-			if(oppositeVertex.getStatus() == Vertex.UNVISITED){
-				edge.setStatus(Edge.DISCOVERED);
-				oppositeVertex.setStatus(Vertex.VISITING);
-				DFS(oppositeVertex, DFS_list);
+			// Mark vertex as visited if no more neighbors needs to be visited
+			if(slot == AdjacencySlab.NONE){
+				context.finish();
+				continue;
+			}
+			context.stackCursor[top] = slab.nextOutEdge(slot);
+			Edge<E,T> edge = slab.getEdge(slot);
+			Vertex<E,T> oppositeVertex = slab.getVertex(slab.getOpposite(slot, v.getSlot()));
+			int status = context.getStatus(oppositeVertex);
+			
+			// Go deeper on neighbor if not visited
+			if(status == Vertex.UNVISITED){
+				context.setStatus(edge, Edge.DISCOVERED);
+				context.discover(oppositeVertex, context.connectedComponents);
+			
+			// Neighbor is on the stack
+			}else if(status == Vertex.VISITING){
+				
+				// In an undirected graph, the first edge going back to the parent is the opposite direction of the tree edge
+				if(!directed && top > 0 && oppositeVertex == context.stackVertex[top - 1] && !context.stackParentSeen[top]){
+					context.stackParentSeen[top] = true;
+					context.setStatus(edge, Edge.DISCOVERED);
+				}else{
+					context.setStatus(edge, Edge.BACK);
+					if(directed)
+						context.isCyclic = true;
+				}
+			
+			// Neighbor is finished
 			}else{
 				
-				/// Mark edge as cross if the undiscovered
-				if(edge.getStatus() == Edge.UNDISCOVERED)
-					edge.setStatus(Edge.CROSS);
+				// In an undirected graph, this is the opposite direction of a back edge
+				if(!directed){
+					context.setStatus(edge, Edge.BACK);
+					context.isCyclic = true;
+				}else if(context.getPreOrder(v) < context.getPreOrder(oppositeVertex)){
+					context.setStatus(edge, Edge.FORWARD);
+				}else{
+					context.setStatus(edge, Edge.CROSS);
+				}
 			}
 		}
-		
-		// Mark vertex as visited if more neighbors needs to be visited
-		vertex.setStatus(Vertex.VISITED);
 	}
 	
 	/**
@@ -420,7 +536,7 @@ public class Graph <E,T> {
 	 * @return NodeIterator of vertices
 	 */
 	public NodeIterator<Vertex<E,T>> vertices() {
-		return vertexList.iterator();
+		return slab.vertices();
 	}
 
 	/**
@@ -428,7 +544,25 @@ public class Graph <E,T> {
 	 * @return NodeIterator of edges
 	 */
 	public NodeIterator<Edge<E,T>> edges() {
-		return edgeList.iterator();
+		return slab.edges();
+	}
+	
+	/**
+	 * Get a stream of the vertices, call parallel() on it to visit them in parallel without creating vertices_array()
+	 * The vertices are given in the order of their slots, which is the order of vertices() unless vertices were removed
+	 * @return Stream of vertices
+	 */
+	public Stream<Vertex<E,T>> vertexStream() {
+		return StreamSupport.stream(slab.vertexSpliterator(), false);
+	}
+	
+	/**
+	 * Get a stream of the edges, call parallel() on it to visit them in parallel without creating edges_array()
+	 * The edges are given in the order of their slots, which is the order of edges() unless edges were removed
+	 * @return Stream of edges
+	 */
+	public Stream<Edge<E,T>> edgeStream() {
+		return StreamSupport.stream(slab.edgeSpliterator(), false);
 	}
 	
 	/**
@@ -436,7 +570,7 @@ public class Graph <E,T> {
 	 * @return Array of vertices
 	 */
 	public Vertex<E,T>[] vertices_array(){
-		Vertex<E,T>[] tmp = new Vertex[vertexList.size()];
+		Vertex<E,T>[] tmp = Vertex.newArray(slab.vertexCount());
 		NodeIterator<Vertex<E,T>> iter = vertices();
 		int index = 0;
 		while(iter.hasNext())
@@ -449,7 +583,7 @@ public class Graph <E,T> {
 	 * @return Array of vertices
 	 */
 	public Edge<E,T>[] edges_array(){
-		Edge<E,T>[] tmp = new Edge[edgeList.size()];
+		Edge<E,T>[] tmp = Edge.newArray(slab.edgeCount());
 		NodeIterator<Edge<E,T>> iter = edges();
 		int index = 0;
 		while(iter.hasNext())
@@ -465,13 +599,30 @@ public class Graph <E,T> {
 		return directed;
 	}
 	
+	/**
+	 * Checks if each undirected edge is stored once
+	 * @return boolean
+	 */
+	public boolean hasSharedEdges() {
+		return sharedEdges;
+	}
+	
 	/**
 	 * Checks if the graph contains a cycle
 	 * @return boolean
 	 */
 	public boolean isCyclic(){
-		DFS();
-		return isCyclic;
+		
+		// A graph keeping its topological order refuses the edges creating a cycle
+		if(topological != null)
+			return false;
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			DFS(context);
+			return context.isCyclic;
+		}finally{
+			releaseContext(context);
+		}
 	}
 	
 	/**
@@ -479,11 +630,7 @@ public class Graph <E,T> {
 	 * @return boolean
 	 */
 	public boolean isConnected(){
-		if(directed)
-			BFS_DiGraph_helper();
-		else
-			DFS();
-		return isConnected;
+		return connectedComponents() == 1;
 	}
 	
 	/**
@@ -491,103 +638,449 @@ public class Graph <E,T> {
 	 * @return connected components
 	 */
 	public int connectedComponents(){
-		if(directed)
-			BFS_DiGraph_helper();
-		else
-			DFS();
-		return connectedComponents;
+		if(forest != null)
+			return updateForest().count();
+		if(components != null){
+			synchronized (components) {
+				return updateComponents(components).count();
+			}
+		}
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			if(directed)
+				BFS_DiGraph_helper(context);
+			else
+				DFS(context);
+			return context.connectedComponents;
+		}finally{
+			releaseContext(context);
+		}
+	}
+	
+	/**
+	 * Checks if two vertices are in the same connected component, following the edges in both directions if the graph is directed
+	 * Near O(1) if connectivity is tracked, otherwise O(|V| + |E|)
+	 * @param v1
+	 * @param v2
+	 * @return boolean
+	 */
+	public boolean sameComponent(Vertex<E,T> v1, Vertex<E,T> v2){
+		if(forest != null)
+			return updateForest().sameComponent(v1, v2);
+		if(components != null){
+			synchronized (components) {
+				updateComponents(components);
+				return components.find(v1.getID()) == components.find(v2.getID());
+			}
+		}
+		UnionFind sets = new UnionFind(unique_id);
+		sets.setStale();
+		updateComponents(sets);
+		return sets.find(v1.getID()) == sets.find(v2.getID());
+	}
+	
+	/**
+	 * Keep the connected components up to date while the graph changes, so connectedComponents, isConnected and sameComponent are near O(1)
+	 * addVertex and addEdge update them in near O(1). removeEdge and removeVertex mark them to be rebuilt in O(|V| + |E|) by the next query
+	 * when the component could be split, that is unless another edge still joins the vertices, or the removed vertex had at most one neighbor
+	 * Replaces setDynamicConnectivity
+	 * @param enabled true to track the connected components, false to compute them on each query
+	 */
+	public void setConnectivityTracking(boolean enabled){
+		if(!enabled){
+			components = null;
+		}else if(components == null){
+			components = new UnionFind(unique_id);
+			components.setStale();
+			forest = null;
+		}
+	}
+	
+	/**
+	 * Keep a spanning forest of the graph, so connectedComponents, isConnected and sameComponent are O(1) on graphs where edges are often removed
+	 * Adding or removing an edge outside of the forest is O(1). Adding an edge joining two components relabels the smaller one, and removing an edge
+	 * of the forest searches both of its sides through the forest in turn: the search stops when the smaller side is done, either on an edge replacing
+	 * the removed one or by splitting the component. Both cost O(number of vertices and edges of the smaller side)
+	 * The forest is built in O(|V| + |E|) by the first query. Replaces setConnectivityTracking
+	 * @param enabled true to keep the spanning forest, false to drop it
+	 */
+	public void setDynamicConnectivity(boolean enabled){
+		if(!enabled){
+			forest = null;
+		}else if(forest == null){
+			forest = new SpanningForest<E,T>(slab);
+			components = null;
+		}
+	}
+	
+	/**
+	 * Keep a topological order of a directed graph while edges are added, so addEdge refuses the edges that would create a cycle
+	 * and topologicalOrder() and isCyclic() need no traversal. Adding an edge from a vertex that is already before the other is O(1),
+	 * otherwise only the vertices between both in the order that are reachable from one or reach the other are searched and moved (Pearce-Kelly)
+	 * Removing edges and vertices keeps the order valid
+	 * @param enabled true to keep the topological order, false to drop it
+	 * @throws IllegalStateException if the graph is undirected or cyclic
+	 */
+	public void setTopologicalOrdering(boolean enabled){
+		if(!enabled){
+			topological = null;
+		}else if(topological == null){
+			if(!directed)
+				throw new IllegalStateException("Only a directed graph has a topological order");
+			TopologicalOrder<E,T> order = new TopologicalOrder<E,T>(slab);
+			order.build(unique_id);
+			topological = order;
+		}
+	}
+	
+	/**
+	 * Get the vertices so that each edge goes from a vertex to a vertex after it
+	 * O(|V|) if the topological order is kept, otherwise O(|V| + |E|)
+	 * @return Array of vertices
+	 * @throws IllegalStateException if the graph is undirected or cyclic
+	 */
+	public Vertex<E,T>[] topologicalOrder(){
+		if(topological != null)
+			return updateTopological().toArray();
+		if(!directed)
+			throw new IllegalStateException("Only a directed graph has a topological order");
+		TopologicalOrder<E,T> order = new TopologicalOrder<E,T>(slab);
+		order.build(unique_id);
+		return order.toArray();
+	}
+	
+	/**
+	 * Build the topological order if it is stale
+	 * Synchronized so concurrent read queries build it once
+	 * @return topological order
+	 */
+	private TopologicalOrder<E,T> updateTopological(){
+		synchronized (topological) {
+			if(topological.isStale())
+				topological.build(unique_id);
+			return topological;
+		}
+	}
+	
+	/**
+	 * Build the spanning forest if it is stale
+	 * Synchronized so concurrent read queries build it once
+	 * @return forest
+	 */
+	private SpanningForest<E,T> updateForest(){
+		synchronized (forest) {
+			if(forest.isStale())
+				forest.build(unique_id);
+			return forest;
+		}
+	}
+	
+	/**
+	 * Rebuild sets of vertices if they are stale, by adding each vertex and merging the sets of the vertices of each edge
+	 * @param sets
+	 * @return sets
+	 */
+	private UnionFind updateComponents(UnionFind sets){
+		if(sets.isStale()){
+			sets.clear();
+			NodeIterator<Vertex<E,T>> iterV = vertices();
+			while(iterV.hasNext())
+				sets.add(iterV.next().getID());
+			NodeIterator<Edge<E,T>> iterE = edges();
+			while(iterE.hasNext()){
+				Edge<E,T> edge = iterE.next();
+				sets.union(edge.getV1().getID(), edge.getV2().getID());
+			}
+		}
+		return sets;
 	}
 	
 	/**
 	 * Create the shortest path from a vertex to all other vertices
 	 * @param v Starting vertex
+	 * @return Shortest path tree giving the Dijkstra value, parent and path of each vertex
 	 */
-	public void dijkstra(Vertex<E,T> v){
+	public ShortestPathTree<E,T> dijkstra(Vertex<E,T> v){
 		
-		// Mark all vertices as unvisited and reset Dijkstra options
-		NodeIterator<Vertex<E,T>> iterV = vertices();
-		while(iterV.hasNext()){
-			Vertex<E,T> currentV = iterV.next();
-			currentV.setStatus(Vertex.UNVISITED);
-			currentV.setDijkstra_value(Double.MAX_VALUE);
-			currentV.setDijkstra_parent(null);
-		}
-		
-		// Mark all edges as undiscovered
-		NodeIterator<Edge<E,T>> iterE = edges();
-		while(iterE.hasNext())
-			iterE.next().setStatus(Edge.UNDISCOVERED);
-		
-		// Mark the starting vertex
-		v.setDijkstra_value(0);
+		// The context is kept by the returned tree, so it does not come from the pool
+		TraversalContext<E,T> context = new TraversalContext<E,T>(unique_id);
+		context.reset(unique_id, edge_unique_id);
+		dijkstra(v, null, false, context);
+		return new ShortestPathTree<E,T>(v, context);
+	}
+	
+	/**
+	 * Create the shortest path from all other vertices to a vertex by following the in edges
+	 * @param v Target vertex
+	 * @return Shortest path tree where the Dijkstra value of a vertex is its distance to v
+	 */
+	protected ShortestPathTree<E,T> dijkstra_backward(Vertex<E,T> v){
+		TraversalContext<E,T> context = new TraversalContext<E,T>(unique_id);
+		context.reset(unique_id, edge_unique_id);
+		dijkstra(v, null, true, context);
+		return new ShortestPathTree<E,T>(v, context);
+	}
+	
+	/**
+	 * Dijkstra that stores the Dijkstra value, parent and status of each vertex in the context
+	 * Uses an indexed heap keyed by vertex unique id, so each vertex is in the heap at most once and its key is decreased in place
+	 * @param v Starting vertex
+	 * @param target Vertex at which the search stops once its value is final, null to reach all the vertices
+	 * @param backward true to follow the in edges, computing distances to v instead of from v
+	 * @param context
+	 */
+	private void dijkstra(Vertex<E,T> v, Vertex<E,T> target, boolean backward, TraversalContext<E,T> context){
+		IndexedHeap heap = context.getHeap();
 		
-		// Create the Priority Queue (Using a heap)
-		PriorityQueue<Vertex<E,T>> pq = new PriorityQueue<>();
+		// Start from the starting vertex by putting it in the heap
+		context.setDijkstra_value(v, 0);
+		context.setStatus(v, Vertex.VISITING);
+		heap.offer(v.getID(), 0);
+		while(!heap.isEmpty()){
+			
+			// Remove the vertex with minimum Dijkstra value, its value is now final
+			double value = heap.peekKey();
+			Vertex<E,T> polled = context.getVertex(heap.poll());
+			context.setStatus(polled, Vertex.VISITED);
+			if(polled == target)
+				break;
+			
+			// Adjust the Dijkstra value and parent of the neighbors if the cost can be reduced, the edges are walked by position in the slab
+			int slot = polled.getSlot();
+			for(int e = backward ? slab.firstInEdge(slot) : slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = backward ? slab.nextInEdge(e) : slab.nextOutEdge(e)){
+				Vertex<E,T> oppositeVertex = slab.getVertex(slab.getOpposite(e, slot));
+				double pathCost = value + slab.getWeight(e);
+				if(context.getStatus(oppositeVertex) != Vertex.VISITED && pathCost < context.getDijkstra_value(oppositeVertex)){
+					context.setDijkstra_value(oppositeVertex, pathCost);
+					context.setDijkstra_edge(oppositeVertex, slab.getEdge(e));
+					context.setStatus(oppositeVertex, Vertex.VISITING);
+					heap.offer(oppositeVertex.getID(), pathCost);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Create the shortest path from a vertex to all other vertices when all edge weights are non-negative integers
+	 * Uses a bucket queue (Dial's algorithm) instead of a heap, which is faster when the weights are small
+	 * @param v Starting vertex
+	 * @return Shortest path tree giving the Dijkstra value, parent and path of each vertex
+	 * @throws IllegalArgumentException if a reached edge has a weight that is not a non-negative integer
+	 */
+	public ShortestPathTree<E,T> dijkstra_integer(Vertex<E,T> v){
+		TraversalContext<E,T> context = new TraversalContext<E,T>(unique_id);
+		context.reset(unique_id, edge_unique_id);
+		BucketQueue queue = context.getBucketQueue();
 		
-		// Start from the starting vertex by putting it in the Priority queue
-		pq.offer(v);
-		v.setStatus(Vertex.VISITING);
-		v.setDijkstra_parent(v);
-		while(!pq.isEmpty()){
+		// Start from the starting vertex by putting it in the queue
+		context.setDijkstra_value(v, 0);
+		context.setStatus(v, Vertex.VISITING);
+		queue.offer(v.getID(), 0);
+		while(!queue.isEmpty()){
 			
-			// Remove the vertex with minimum Dijkstra value
-			Vertex<E,T> polled = pq.poll();
-			v.setStatus(Vertex.VISITED);
-			NodeIterator<Edge<E,T>> incidentEdges = polled.getOutEdges();
+			// Remove a vertex with minimum Dijkstra value, its value is now final
+			long value = queue.peekKey();
+			Vertex<E,T> polled = context.getVertex(queue.poll());
+			context.setStatus(polled, Vertex.VISITED);
 			
-			// Put all the neighbors of the removed vertex in the Priority queue and adjust their Dijkstra value and parent
-			while(incidentEdges.hasNext()){
-				Edge<E,T> edge = incidentEdges.next();
-				Vertex<E,T> oppositeVertex = edge.getV2();
-				double pathCost = edge.getWeight() + polled.getDijkstra_value();
+			// Adjust the Dijkstra value and parent of the neighbors if the cost can be reduced
+			int slot = polled.getSlot();
+			for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e)){
+				Edge<E,T> edge = slab.getEdge(e);
+				Vertex<E,T> oppositeVertex = slab.getVertex(slab.getOpposite(e, slot));
+				long pathCost = value + integerWeight(edge);
+				if(context.getStatus(oppositeVertex) != Vertex.VISITED && pathCost < context.getDijkstra_value(oppositeVertex)){
+					context.setDijkstra_value(oppositeVertex, pathCost);
+					context.setDijkstra_edge(oppositeVertex, edge);
+					context.setStatus(oppositeVertex, Vertex.VISITING);
+					queue.offer(oppositeVertex.getID(), pathCost);
+				}
+			}
+		}
+		return new ShortestPathTree<E,T>(v, context);
+	}
+	
+	/**
+	 * Create the shortest path from a vertex to all other vertices with parallel delta-stepping
+	 * Vertices are kept in buckets of width delta. The light edges (weight <= delta) of a bucket and then its heavy edges are relaxed in parallel by the fork-join pool
+	 * The bucket width is chosen from the edge weights
+	 * @param v Starting vertex
+	 * @return Shortest path tree giving the Dijkstra value, parent and path of each vertex
+	 * @throws IllegalArgumentException if a reached edge has a negative weight
+	 */
+	public ShortestPathTree<E,T> dijkstra_delta(Vertex<E,T> v){
+		Vertex<E,T> vertices[] = vertices_array();
+		return new DeltaStepping<E,T>(vertices, unique_id, DeltaStepping.tuneDelta(vertices), ForkJoinPool.commonPool()).run(v);
+	}
+	
+	/**
+	 * Create the shortest path from a vertex to all other vertices with parallel delta-stepping and a given bucket width
+	 * @param v Starting vertex
+	 * @param delta Bucket width. A small width does more phases, a large one relaxes the same edges more often
+	 * @return Shortest path tree giving the Dijkstra value, parent and path of each vertex
+	 * @throws IllegalArgumentException if delta is not positive or a reached edge has a negative weight
+	 */
+	public ShortestPathTree<E,T> dijkstra_delta(Vertex<E,T> v, double delta){
+		return new DeltaStepping<E,T>(vertices_array(), unique_id, delta, ForkJoinPool.commonPool()).run(v);
+	}
+	
+	/**
+	 * Get the shortest path from one vertex to another
+	 * The search stops as soon as vTo is reached with its final Dijkstra value
+	 * @param vFrom
+	 * @param vTo
+	 * @return Array of shortest edges to go from vFrom to vTo
+	 */
+	public Edge<E,T>[] dijkstra(Vertex<E,T> vFrom, Vertex<E,T> vTo){
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			dijkstra(vFrom, vTo, false, context);
+			return new ShortestPathTree<E,T>(vFrom, context).getPath(vTo);
+		}finally{
+			releaseContext(context);
+		}
+	}
+	
+	/**
+	 * Get the shortest path from one vertex to another with a bidirectional Dijkstra
+	 * A forward search on the out edges of vFrom and a backward search on the in edges of vTo are run in turns until they meet
+	 * @param vFrom
+	 * @param vTo
+	 * @return Array of shortest edges to go from vFrom to vTo
+	 */
+	public Edge<E,T>[] dijkstra_bidirectional(Vertex<E,T> vFrom, Vertex<E,T> vTo){
+		TraversalContext<E,T> forward = acquireContext();
+		TraversalContext<E,T> backward = acquireContext();
+		try{
+			IndexedHeap forwardHeap = forward.getHeap();
+			IndexedHeap backwardHeap = backward.getHeap();
+			
+			// Start both searches
+			forward.setDijkstra_value(vFrom, 0);
+			forwardHeap.offer(vFrom.getID(), 0);
+			backward.setDijkstra_value(vTo, 0);
+			backwardHeap.offer(vTo.getID(), 0);
+			
+			// Best path found so far goes through the meeting vertex
+			double shortest = vFrom == vTo ? 0 : Double.MAX_VALUE;
+			Vertex<E,T> meeting = vFrom == vTo ? vFrom : null;
+			
+			// Stop when no path shorter than the best one can be found
+			while(!forwardHeap.isEmpty() && !backwardHeap.isEmpty() && forwardHeap.peekKey() + backwardHeap.peekKey() < shortest){
 				
-				// If the neighbor has not been visited, mark it visiting and adjust its configuration
-				if(oppositeVertex.getStatus() == Vertex.UNVISITED){
-					oppositeVertex.setDijkstra_value(pathCost);
-					oppositeVertex.setDijkstra_edge(edge);
-					edge.setStatus(Edge.DISCOVERED);
-					oppositeVertex.setStatus(Vertex.VISITING);
-					oppositeVertex.setDijkstra_parent(polled);
-					pq.offer(oppositeVertex);
+				// Expand the search with the smaller frontier
+				boolean isForward = forwardHeap.size() <= backwardHeap.size();
+				TraversalContext<E,T> context = isForward ? forward : backward;
+				TraversalContext<E,T> other = isForward ? backward : forward;
+				IndexedHeap heap = isForward ? forwardHeap : backwardHeap;
 				
-				// If the neighbor is still in the priority queue, check for minimum path cost, adjust if the cost can be reduced
-				}else if(oppositeVertex.getStatus() == Vertex.VISITING){
-					
-					if(oppositeVertex.getDijkstra_value() > pathCost){
-						oppositeVertex.setDijkstra_value(pathCost);
-						edge.setStatus(Edge.DISCOVERED);
-						oppositeVertex.setDijkstra_parent(polled);
-						oppositeVertex.getDijkstra_edge().setStatus(Edge.FORWARD); // Mark previous edge as FORWARD
-						oppositeVertex.setDijkstra_edge(edge); // Update edge that makes it shortest path
+				double value = heap.peekKey();
+				Vertex<E,T> polled = context.getVertex(heap.poll());
+				context.setStatus(polled, Vertex.VISITED);
+				
+				// Forward search follows out edges, backward search follows in edges
+				int slot = polled.getSlot();
+				for(int e = isForward ? slab.firstOutEdge(slot) : slab.firstInEdge(slot); e != AdjacencySlab.NONE; e = isForward ? slab.nextOutEdge(e) : slab.nextInEdge(e)){
+					Vertex<E,T> oppositeVertex = slab.getVertex(slab.getOpposite(e, slot));
+					double pathCost = value + slab.getWeight(e);
+					if(context.getStatus(oppositeVertex) != Vertex.VISITED && pathCost < context.getDijkstra_value(oppositeVertex)){
+						context.setDijkstra_value(oppositeVertex, pathCost);
+						context.setDijkstra_edge(oppositeVertex, slab.getEdge(e));
+						context.setStatus(oppositeVertex, Vertex.VISITING);
+						heap.offer(oppositeVertex.getID(), pathCost);
+						
+						// Check if the searches meet at the neighbor with a shorter path
+						double otherValue = other.getDijkstra_value(oppositeVertex);
+						if(otherValue != Double.MAX_VALUE && pathCost + otherValue < shortest){
+							shortest = pathCost + otherValue;
+							meeting = oppositeVertex;
+						}
 					}
 				}
 			}
+			
+			// No path
+			if(meeting == null)
+				return Edge.newArray(0);
+			
+			// Join the path from vFrom to the meeting vertex and the path from the meeting vertex to vTo
+			Edge<E,T> head[] = new ShortestPathTree<E,T>(vFrom, forward).getPath(meeting);
+			Edge<E,T> tail[] = new ShortestPathTree<E,T>(vTo, backward).getPath(meeting);
+			Edge<E,T> edges[] = Arrays.copyOf(head, head.length + tail.length);
+			for(int i = 0; i < tail.length; i++)
+				edges[head.length + i] = tail[tail.length - 1 - i];
+			return edges;
+		}finally{
+			releaseContext(forward);
+			releaseContext(backward);
 		}
+	}	
+	/**
+	 * Get the shortest path from one vertex to another with A*
+	 * The heuristic guides the search towards vTo so fewer vertices are explored than with Dijkstra
+	 * @param vFrom
+	 * @param vTo
+	 * @param heuristic Estimate of the distance between the data of two vertices, must never overestimate
+	 * @return Array of shortest edges to go from vFrom to vTo
+	 */
+	public Edge<E,T>[] aStar(Vertex<E,T> vFrom, Vertex<E,T> vTo, Heuristic<E> heuristic){
+		return aStar(vFrom, vTo, heuristic, null);
 	}
 	
 	/**
-	 * Get the shortest path from one vertex to another
+	 * Get the shortest path from one vertex to another with A* using landmark distances (ALT)
 	 * @param vFrom
 	 * @param vTo
+	 * @param landmarks Landmarks built on this graph
 	 * @return Array of shortest edges to go from vFrom to vTo
 	 */
-	public Edge<E,T>[] dijkstra(Vertex<E,T> vFrom, Vertex<E,T> vTo){
-		this.dijkstra(vFrom);
-		Stack<Edge<E,T>> path = new Stack<>();
-		Vertex<E,T> current = vTo;
-		
-		// Push the path in the stack in backward direction
-		while(current.getDijkstra_edge() != null){
-			path.push(current.getDijkstra_edge());
-			current = current.getDijkstra_parent();
+	public Edge<E,T>[] aStar(Vertex<E,T> vFrom, Vertex<E,T> vTo, Landmarks<E,T> landmarks){
+		return aStar(vFrom, vTo, null, landmarks);
+	}
+	
+	/**
+	 * A* using either a heuristic on the vertex data or landmark distances
+	 * A vertex is reopened if a shorter path to it is found, so an admissible heuristic is enough to find the shortest path
+	 * @param vFrom
+	 * @param vTo
+	 * @param heuristic
+	 * @param landmarks
+	 * @return Array of shortest edges to go from vFrom to vTo
+	 */
+	private Edge<E,T>[] aStar(Vertex<E,T> vFrom, Vertex<E,T> vTo, Heuristic<E> heuristic, Landmarks<E,T> landmarks){
+		TraversalContext<E,T> context = acquireContext();
+		try{
+			IndexedHeap heap = context.getHeap();
+			
+			// Start from the starting vertex by putting it in the heap, keyed by Dijkstra value plus estimate
+			context.setDijkstra_value(vFrom, 0);
+			context.setStatus(vFrom, Vertex.VISITING);
+			heap.offer(vFrom.getID(), 0);
+			while(!heap.isEmpty()){
+				Vertex<E,T> polled = context.getVertex(heap.poll());
+				context.setStatus(polled, Vertex.VISITED);
+				if(polled == vTo)
+					break;
+				
+				// Adjust the Dijkstra value and parent of the neighbors if the cost can be reduced
+				double value = context.getDijkstra_value(polled);
+				int slot = polled.getSlot();
+				for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e)){
+					Vertex<E,T> oppositeVertex = slab.getVertex(slab.getOpposite(e, slot));
+					double pathCost = value + slab.getWeight(e);
+					if(pathCost < context.getDijkstra_value(oppositeVertex)){
+						context.setDijkstra_value(oppositeVertex, pathCost);
+						context.setDijkstra_edge(oppositeVertex, slab.getEdge(e));
+						context.setStatus(oppositeVertex, Vertex.VISITING);
+						double estimate = heuristic != null ? heuristic.estimate(oppositeVertex.getData(), vTo.getData()) : landmarks.estimate(oppositeVertex, vTo);
+						heap.offer(oppositeVertex.getID(), pathCost + estimate);
+					}
+				}
+			}
+			return new ShortestPathTree<E,T>(vFrom, context).getPath(vTo);
+		}finally{
+			releaseContext(context);
 		}
-		
-		// Store path, in the correct direction, in an array
-		Edge<E,T>[] edges = new Edge[path.size()];
-		int index =  0;
-		while(!path.isEmpty())
-			edges[index++] = path.pop();
-		return edges;
 	}
 
 	/**
@@ -597,81 +1090,139 @@ public class Graph <E,T> {
 	 * @return boolean
 	 */
 	public boolean areAdjacent(Vertex<E,T> v1, Vertex<E,T> v2){
-		
-		// If directed graph or size of v1 out edges < size of v2 out edges
-		Vertex<E,T> v = directed || (v1.getOutEdges().size() < v2.getOutEdges().size()) ? v1 : v2;
-		
-		NodeIterator<Edge<E,T>> iterOutE = v.getOutEdges();
-		while(iterOutE.hasNext())
-			if( (v == v1 && iterOutE.next().getV2() == v2) || (v == v2 && iterOutE.next().getV2() == v1) )
-				return true;
-		return false;
+		return getEdge(v1, v2) != null;
 	}
 	
 	/**
-	 * Transitive Closure by Floyd–Warshall
-	 * Idea: if (i->k->j) then create (i->j) if doesn't already exist
+	 * Get an edge from a vertex to another
+	 * O(1) if v1 has a neighbor index, otherwise O(min(v1 out degree, v2 in degree))
+	 * @param v1 From
+	 * @param v2 To
+	 * @return edge | null if the vertices are not adjacent
 	 */
-	public void transitiveClosure(){
-		Vertex<E,T> vertices[] = this.vertices_array();
-		for(int k = 0; k < vertices.length; k++){
-			for(int i = 0; i < vertices.length; i++){
-				// If i = k, then skip
-				if(i == k) continue;
-				
-				// If i and k are adjacent, check for k and j
-				if(areAdjacent(vertices[i], vertices[k])){
-					for(int j = 0; j < vertices.length; j++){
-						// If j = i or j = k, then skip
-						if(j == i || j == k) continue;
-						
-						// If k and j are adjacent AND i and j are not adjacent, create an edge between i and j
-						if(areAdjacent(vertices[k], vertices[j]) && !areAdjacent(vertices[i], vertices[j]))
-							this.addEdge(vertices[i],vertices[j], null, 0.0);
-					}
-				}
-			}
-		}
+	public Edge<E,T> getEdge(Vertex<E,T> v1, Vertex<E,T> v2){
+		return v1.getOutEdge(v2);
 	}
 	
 	/**
-	 * Clone vertices and edges, but does not clone the data of the vertex
-	 * @return cloned graph
+	 * Keep a hash index of the neighbors of the vertices having at least threshold out edges, so areAdjacent and getEdge are O(1) on them
+	 * The index of a vertex is built when it reaches the threshold and is updated by addEdge, removeEdge and removeVertex
+	 * @param threshold 0 to index all the vertices, a large value to only index the hubs, -1 to drop all the indexes
 	 */
-	public Graph<E,T> clone(){
-		
-		// Create new graph, (To avoid edge duplication the graph is marked directed, but adjusted at the end)
-		Graph<E,T> graph = new Graph<E,T>(true);
-		
-		// Clone Vertices
-		NodeIterator<Vertex<E,T>> iterV = vertexList.iterator();
+	public void setAdjacencyIndex(int threshold){
+		adjacency_threshold = threshold;
+		NodeIterator<Vertex<E,T>> iterV = vertices();
 		while(iterV.hasNext()){
 			Vertex<E,T> vertex = iterV.next();
-			graph.addVertex(vertex.getData(), vertex.getID());
+			vertex.setOutIndex(threshold >= 0 && vertex.outDegree() >= threshold);
 		}
+	}
+	
+	/**
+	 * Build the neighbor index of a vertex if it reached the threshold
+	 * @param vertex
+	 */
+	private void indexNeighbors(Vertex<E,T> vertex){
+		if(adjacency_threshold >= 0 && !vertex.hasOutIndex() && vertex.outDegree() >= adjacency_threshold)
+			vertex.setOutIndex(true);
+	}
+	
+	/**
+	 * Compute which vertices can reach which
+	 * Strongly connected components are condensed, then the reachable components of each component are stored in a bit row
+	 * computed as the OR of the rows of its successors, in parallel for the components of the same level
+	 * Changes made to the graph after this call are not reflected
+	 * @return reachability matrix
+	 */
+	public Reachability<E,T> reachability(){
+		return new Reachability<E,T>(vertices_array(), unique_id, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Transitive Closure
+	 * Idea: if (i->...->j) then create (i->j) if doesn't already exist
+	 * The reachability matrix gives the paths, the missing edges are then added in bulk
+	 */
+	public void transitiveClosure(){
+		Reachability<E,T> reachability = reachability();
+		Vertex<E,T> vertices[] = reachability.vertices_array();
 		
-		// Store vertices in an array so we can clone using unique id and indices
-		Vertex<E,T> vertices[] = graph.vertices_array();
+		// Index of each vertex, and the last vertex index having an edge to each vertex
+		int index[] = new int[unique_id];
+		int adjacentTo[] = new int[unique_id];
+		Arrays.fill(adjacentTo, -1);
+		for(int i = 0; i < vertices.length; i++)
+			index[vertices[i].getID()] = i;
 		
-		// Clone Edges
-		NodeIterator<Edge<E,T>> iterE = edgeList.iterator();
-		while(iterE.hasNext()){
-			Edge<E,T> currentE = iterE.next();
+		for(int i = 0; i < vertices.length; i++){
+			NodeIterator<Edge<E,T>> iterOutE = vertices[i].getOutEdges();
+			while(iterOutE.hasNext())
+				adjacentTo[iterOutE.next().getOpposite(vertices[i]).getID()] = i;
 			
-			// Binary search is used because the ID are sorted in ascending order
-			// Note: Searching for vertices is required because any vertex can be removed, and gaps in IDs will be formed
-			Vertex<E,T> v1 = vertices[getIndexOfVertexByID(vertices, currentE.getV1().getID())];
-			Vertex<E,T> v2 = vertices[getIndexOfVertexByID(vertices, currentE.getV2().getID())];
-			graph.addEdge(v1, v2, currentE.getLabel(), currentE.getWeight());
+			// If j is reachable from i AND i and j are not adjacent, create an edge between i and j
+			// An undirected edge is created once, from the vertex with the smaller index
+			for(Vertex<E,T> vertex : reachability.getReachable(vertices[i])){
+				int j = index[vertex.getID()];
+				if(j == i || adjacentTo[vertex.getID()] == i || (!directed && j < i)) continue;
+				this.addEdge(vertices[i], vertex, null, 0.0);
+			}
 		}
-		
-		// Adjust the directed/undirected graph option and unique id counter
-		graph.directed = directed;
+	}
+	
+	/**
+	 * Create an immutable compressed sparse row snapshot of the graph for fast read-only queries
+	 * Changes made to the graph after this call are not reflected in the snapshot
+	 * @return snapshot
+	 */
+	public FrozenGraph<E,T> freeze(){
+		return new FrozenGraph<E,T>(vertices_array(), directed);
+	}
+	
+	/**
+	 * Clone vertices and edges in O(1), but does not clone the data of the vertex
+	 * Both graphs share the blocks of slots storing the vertices and edges, and a graph copies a block of 4096 slots the first time it changes it,
+	 * so a clone only costs the blocks changed afterwards. The vertices and edges of the clone keep their ids and are created the first time they are read
+	 * Neighbor indexes are not cloned: a vertex of the clone is indexed when it gets an edge, or by setAdjacencyIndex
+	 * Tracked connected components, spanning forests and topological orders are not cloned either, the clone rebuilds them when they are first used
+	 * @return cloned graph
+	 */
+	public Graph<E,T> clone(){
+		Graph<E,T> graph = new Graph<E,T>(directed, sharedEdges);
+		graph.slab = slab.copy();
+		graph.adjacency_threshold = adjacency_threshold;
 		graph.unique_id = unique_id;
-		
+		graph.edge_unique_id = edge_unique_id;
+		if(components != null){
+			graph.components = new UnionFind(0);
+			graph.components.setStale();
+		}
+		if(forest != null)
+			graph.forest = new SpanningForest<E,T>(graph.slab);
+		if(topological != null)
+			graph.topological = new TopologicalOrder<E,T>(graph.slab);
 		return graph;
 	}
 
+	/**
+	 * Get the vertex of this graph matching a vertex of the graph it was cloned from, or of one of its clones
+	 * @param vertex
+	 * @return vertex of this graph | null if it is not in this graph
+	 */
+	public Vertex<E,T> getVertex(Vertex<E,T> vertex){
+		int slot = vertex.getSlot();
+		return slab.hasVertex(slot, vertex.getID()) ? slab.getVertex(slot) : null;
+	}
+	
+	/**
+	 * Get the edge of this graph matching an edge of the graph it was cloned from, or of one of its clones
+	 * @param edge
+	 * @return edge of this graph | null if it is not in this graph
+	 */
+	public Edge<E,T> getEdge(Edge<E,T> edge){
+		int slot = edge.getSlot();
+		return slab.hasEdge(slot, edge.getID()) ? slab.getEdge(slot) : null;
+	}
+
 	/**
 	 * Gives all the vertices and edges that form this graph
 	 * @return String
@@ -693,57 +1244,105 @@ public class Graph <E,T> {
 	
 	/**
 	 * Read graph from input
+	 * The size=X header is optional, empty lines are ignored and the edges are parsed in parallel
 	 * @param fileName
 	 * @param directed
 	 * @return Graph created
 	 * @throws FileNotFoundException
+	 * @throws GraphFormatException with the line and column of the error if the file does not follow the format
+	 * @throws UncheckedIOException if the file cannot be read
 	 */
 	public static Graph<String,String> inParser (String fileName, boolean directed) throws FileNotFoundException{
-		Graph<String,String> graph = new Graph<String,String>(directed);
-		
-		Scanner scan = new Scanner(new File(fileName));
-		String readLine;
-		Pattern pattern;
-		Matcher matcher;
-		
-		readLine = scan.nextLine();
-		pattern = Pattern.compile("size\\s*=\\s*(\\d+)");
-		matcher = pattern.matcher(readLine);
-		matcher.find();
-		Vertex<String,String> vertices[] = new Vertex[Integer.parseInt(matcher.group(1))];
-		
-		while(!(readLine = scan.nextLine()).equals(";") ){
-			pattern = Pattern.compile("([^0-9]*)\\s*(\\d+)\\s*=\\s*(.*)");
-			matcher = pattern.matcher(readLine);
-			matcher.find();
-			if(matcher.group(1) == null || matcher.group(1).isEmpty()){
-				vertices[Integer.parseInt(matcher.group(2))] = graph.addVertex(matcher.group(3));
-			}else if(matcher.group(1).trim().equals("//") || matcher.group(1).trim().equals("#")){
-				continue;
-			}else{
-				throw new InputMismatchException();
-			}
+		try{
+			return GraphParser.parse(new File(fileName), directed, ForkJoinPool.commonPool());
+		}catch(FileNotFoundException e){
+			throw e;
+		}catch(IOException e){
+			throw new UncheckedIOException(e);
 		}
-		
-		while(!(readLine = scan.nextLine()).equals(";") ){
-			pattern = Pattern.compile("(.*)\\s*\\(\\s*(\\d+)\\s*,\\s*(\\d+)\\s*(,\\s*(\\d+|\\d+\\.\\d+)\\s*)?\\)(\\s*=\\s*(.*))?");
-			matcher = pattern.matcher(readLine);
-			matcher.find();
-			if(matcher.group(1) == null || matcher.group(1).isEmpty()){
-				double weight = 0.0;
-				int v1Index = Integer.parseInt(matcher.group(2));
-				int v2Index = Integer.parseInt(matcher.group(3));
-				if(matcher.group(5) != null)
-					weight = Double.parseDouble(matcher.group(5));
-				String label = matcher.group(7);
-				
-				graph.addEdge(vertices[v1Index], vertices[v2Index], label, weight);
-			}else if(matcher.group(1).trim().equals("//") || matcher.group(1).trim().equals("#")){
-				continue;
-			}else{
-				throw new InputMismatchException();
-			}
+	}
+	
+	/**
+	 * Read a SNAP edge list: one 'FROM TO' or 'FROM TO WEIGHT' line per edge, lines starting with # or % are comments
+	 * Vertices are created when their id first appears, with the id as data. Ids do not need to be contiguous
+	 * @param fileName
+	 * @param directed
+	 * @return Graph created
+	 * @throws IOException
+	 * @throws GraphFormatException with the line and column of the error if the file does not follow the format
+	 */
+	public static Graph<Integer,String> inSNAP(String fileName, boolean directed) throws IOException{
+		return EdgeListParser.parse(new File(fileName), EdgeListParser.SNAP, directed);
+	}
+	
+	/**
+	 * Read a DIMACS shortest path file (.gr): a 'p sp n m' problem line, then one 'a FROM TO WEIGHT' line per arc
+	 * The graph is directed and has the vertices 1 to n, with their id as data
+	 * @param fileName
+	 * @return Graph created
+	 * @throws IOException
+	 * @throws GraphFormatException with the line and column of the error if the file does not follow the format
+	 */
+	public static Graph<Integer,String> inDIMACS(String fileName) throws IOException{
+		return EdgeListParser.parse(new File(fileName), EdgeListParser.DIMACS, true);
+	}
+	
+	/**
+	 * Read a Matrix Market coordinate matrix: each entry (row, column, value) is an edge from row to column weighted by value
+	 * The graph has the vertices 1 to max(rows, columns), with their id as data. It is undirected if the matrix is symmetric
+	 * @param fileName
+	 * @return Graph created
+	 * @throws IOException
+	 * @throws GraphFormatException with the line and column of the error if the file does not follow the format
+	 */
+	public static Graph<Integer,String> inMatrixMarket(String fileName) throws IOException{
+		return EdgeListParser.parse(new File(fileName), EdgeListParser.MATRIX_MARKET, false);
+	}
+	
+	/**
+	 * Write the graph to a binary snapshot file, to be opened with GraphSnapshot.open
+	 * @param file
+	 * @param vertexCodec Codec of the vertex data, Codec.STRING for a graph of strings
+	 * @param edgeCodec Codec of the edge labels, Codec.STRING for a graph of strings
+	 * @throws IOException
+	 */
+	public void write(File file, Codec<E> vertexCodec, Codec<T> edgeCodec) throws IOException{
+		GraphSnapshot.write(vertices_array(), sharedEdges ? bothDirections() : edges_array(), unique_id, directed, file, vertexCodec, edgeCodec);
+	}
+	
+	/**
+	 * Get the edges of a graph with shared edges as the edges of an undirected graph without them, each edge followed by an edge in the opposite direction
+	 * The opposite edges are not added to the graph
+	 * @return Array of edges
+	 */
+	private Edge<E,T>[] bothDirections(){
+		Edge<E,T> edges[] = Edge.newArray(slab.edgeCount() * 2);
+		NodeIterator<Edge<E,T>> iterE = edges();
+		int index = 0;
+		while(iterE.hasNext()){
+			Edge<E,T> edge = iterE.next();
+			edges[index++] = edge;
+			edges[index++] = new Edge<E,T>(edge.getV2(), edge.getV1(), edge.getID(), edge.getLabel(), edge.getWeight());
 		}
+		return edges;
+	}
+	
+	/**
+	 * Rebuild a graph from a snapshot
+	 * Edges are added in the order of the edge list of the written graph, which also restores the order of the in and out edges
+	 * @param snapshot
+	 * @return graph
+	 */
+	protected static <E,T> Graph<E,T> fromSnapshot(GraphSnapshot<E,T> snapshot){
+		
+		// Like clone, the graph is marked directed while both directions of the undirected edges are added
+		Graph<E,T> graph = new Graph<E,T>(true);
+		Vertex<E,T> vertices[] = Vertex.newArray(snapshot.vertexCount());
+		for(int i = 0; i < vertices.length; i++)
+			vertices[i] = graph.addVertex(snapshot.getData(i));
+		for(int e = 0; e < snapshot.edgeCount(); e++)
+			graph.addEdge(vertices[snapshot.getFrom(e)], vertices[snapshot.getTo(e)], snapshot.getLabel(e), snapshot.getWeight(e));
+		graph.directed = snapshot.isDirected();
 		return graph;
 	}
 	
@@ -752,61 +1351,134 @@ public class Graph <E,T> {
 	/**
 	 * BFS for detecting connected components and is connected in DiGraphs
 	 * Idea is to consider the DiGraph as UnDiGraph by concatenating the in and out edges
+	 * @param context
 	 */
-	private Vertex<E,T>[] BFS_DiGraph_helper() {
-		Vertex<E,T>[] BFS = new Vertex[vertexList.size()];
+	private Vertex<E,T>[] BFS_DiGraph_helper(TraversalContext<E,T> context) {
+		Vertex<E,T>[] BFS = Vertex.newArray(slab.vertexCount());
 		int index = 0;
-		
-		// Configure DiGraph options
-		this.connectedComponents = 0;
-		
-		// Mark all vertices as unvisited
-		NodeIterator<Vertex<E,T>> iterV = vertices();
-		while (iterV.hasNext())
-			iterV.next().setStatus(Vertex.UNVISITED);
-
-		// Mark all edges as undiscovered
-		NodeIterator<Edge<E,T>> iterE = edges();
-		while (iterE.hasNext())
-			iterE.next().setStatus(Edge.UNDISCOVERED);
 
 		// Start BFS
-		iterV = vertices();
+		NodeIterator<Vertex<E,T>> iterV = vertices();
 		while (iterV.hasNext()) {
 			Vertex<E,T> current = iterV.next();
-			if (current.getStatus() == Vertex.UNVISITED) {
+			if (context.getStatus(current) == Vertex.UNVISITED) {
 				
-				// +1 disconnected graph, trigger connection detection
-				this.connectedComponents++;
-				this.isConnected = this.connectedComponents == 1;
+				// +1 disconnected graph
+				context.connectedComponents++;
 				
-				Queue<Vertex<E,T>> q = new LinkedList<Vertex<E,T>>();
-				q.add(current);
-				current.setStatus(Vertex.VISITING);
-				while (!q.isEmpty()) {
-					Vertex<E,T> polled = q.poll();
-					BFS[index++] = polled;
-					polled.setStatus(Vertex.VISITED);
+				// BFS[] is also used as the queue because each vertex is added once
+				int head = index;
+				BFS[index++] = current;
+				context.setStatus(current, Vertex.VISITING);
+				while (head < index) {
+					Vertex<E,T> polled = BFS[head++];
+					context.setStatus(polled, Vertex.VISITED);
 
-					NodeIterator<Edge<E,T>> inOutEdges = polled.getOutEdges().concatenate(polled.getInEdges());
-					while (inOutEdges.hasNext()) {
-						Edge<E,T> edge = inOutEdges.next();
-						Vertex<E,T> oppositeVertex = edge.getOpposite(polled);
-						if (oppositeVertex.getStatus() == Vertex.UNVISITED) {
-							edge.setStatus(Edge.DISCOVERED);
-							oppositeVertex.setStatus(Vertex.VISITING);
-							q.offer(oppositeVertex);
-						} else {
-							if (edge.getStatus() == Edge.UNDISCOVERED)
-								edge.setStatus(Edge.CROSS);
-						}
-					}
+					// Out edges then in edges, walked by position so nothing is allocated
+					int slot = polled.getSlot();
+					for (int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e))
+						index = enqueue(slab.getVertex(slab.getOpposite(e, slot)), BFS, index, context);
+					for (int e = slab.firstInEdge(slot); e != AdjacencySlab.NONE; e = slab.nextInEdge(e))
+						index = enqueue(slab.getVertex(slab.getOpposite(e, slot)), BFS, index, context);
 				}
 			}
 		}
 		return BFS;
 	}
 	
+	/**
+	 * Add a vertex to a BFS queue if it has not been visited
+	 * @param vertex
+	 * @param queue
+	 * @param tail Number of vertices in the queue
+	 * @param context
+	 * @return new number of vertices in the queue
+	 */
+	private int enqueue(Vertex<E,T> vertex, Vertex<E,T>[] queue, int tail, TraversalContext<E,T> context){
+		if (context.getStatus(vertex) == Vertex.UNVISITED) {
+			context.setStatus(vertex, Vertex.VISITING);
+			queue[tail++] = vertex;
+		}
+		return tail;
+	}
+	
+	/**
+	 * Get the weight of an edge as an integer for the bucket queue
+	 * @param edge
+	 * @return weight
+	 * @throws IllegalArgumentException if the weight is not a non-negative integer
+	 */
+	protected static long integerWeight(Edge<?,?> edge){
+		double weight = edge.getWeight();
+		if(weight < 0 || weight != Math.rint(weight) || weight > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Edge " + edge + " has weight " + weight + " which is not a non-negative integer");
+		return (long) weight;
+	}
+	
+	/**
+	 * Number of vertex unique ids given so far, every vertex id is smaller than this value
+	 * @return capacity
+	 */
+	protected int vertexCapacity(){
+		return unique_id;
+	}
+	
+	/**
+	 * Reserve consecutive vertex unique ids, for the vertices ConcurrentGraph stores directly in the slab
+	 * @param count
+	 * @return first id
+	 */
+	protected int reserveVertexIDs(int count){
+		unique_id += count;
+		return unique_id - count;
+	}
+	
+	/**
+	 * Reserve consecutive edge unique ids, for the edges ConcurrentGraph stores directly in the slab
+	 * @param count
+	 * @return first id
+	 */
+	protected int reserveEdgeIDs(int count){
+		edge_unique_id += count;
+		return edge_unique_id - count;
+	}
+	
+	/**
+	 * Get the slab storing the vertices and edges, written directly by the writers of ConcurrentGraph
+	 * @return slab
+	 */
+	protected AdjacencySlab<E,T> getSlab(){
+		return slab;
+	}
+	
+	/**
+	 * Checks if the graph keeps neighbor indexes, components, a spanning forest or a topological order, which only its own methods update
+	 * @return boolean
+	 */
+	protected boolean isIndexed(){
+		return adjacency_threshold >= 0 || isTracked();
+	}
+	
+	/**
+	 * Get a traversal context from the pool, or create one, ready for a new query
+	 * @return context
+	 */
+	private TraversalContext<E,T> acquireContext(){
+		TraversalContext<E,T> context = contexts.poll();
+		if(context == null)
+			context = new TraversalContext<E,T>(unique_id);
+		context.reset(unique_id, edge_unique_id);
+		return context;
+	}
+	
+	/**
+	 * Give a traversal context back to the pool once the query is over
+	 * @param context
+	 */
+	private void releaseContext(TraversalContext<E,T> context){
+		contexts.offer(context);
+	}
+	
 	/**
 	 * Binary search for finding the index of a vertex in an array of vertices using the vertex unique id
 	 * @param array
@@ -837,8 +1509,7 @@ public class Graph <E,T> {
 	 */
 	private Vertex<E,T> addVertex(E data, int id){
 		Vertex<E,T> vertex = new Vertex<E,T>(data, id);
-		DLLNode<Vertex<E,T>> node = vertexList.add(vertex);
-		vertex.setPosition(node);
+		slab.addVertex(vertex);
 		return vertex;
 	}
 }
@@ -0,0 +1,213 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class GraphBuilder <E,T> {
+
+	private final boolean directed;
+
+	// Vertices are referred to by their index, in the order they were added
+	private E data[];
+	private int vertexCount;
+
+	// Edges as primitive arrays, labels stay null until the first labeled edge
+	private int from[], to[];
+	private double weights[];
+	private T labels[];
+	private int edgeCount;
+
+	/**
+	 * Constructor
+	 * @param directed true if the graph is directed, false if undirected
+	 */
+	public GraphBuilder(boolean directed) {
+		this(directed, 16, 16);
+	}
+
+	/**
+	 * Constructor with the expected size of the graph, so the storage is allocated once
+	 * @param directed true if the graph is directed, false if undirected
+	 * @param expectedVertices
+	 * @param expectedEdges Number of calls to addEdge, an undirected edge counts once
+	 */
+	public GraphBuilder(boolean directed, int expectedVertices, int expectedEdges) {
+		this.directed = directed;
+		data = newArray(Math.max(1, expectedVertices));
+		from = new int[Math.max(1, expectedEdges)];
+		to = new int[from.length];
+		weights = new double[from.length];
+	}
+
+	/**
+	 * Add a vertex
+	 * @param data
+	 * @return Index of the vertex
+	 */
+	public int addVertex(E data){
+		ensureVertexCapacity(vertexCount + 1);
+		this.data[vertexCount] = data;
+		return vertexCount++;
+	}
+
+	/**
+	 * Add a batch of vertices
+	 * @param data
+	 * @return Index of the first vertex, the others follow
+	 */
+	public int addVertices(E[] data){
+		ensureVertexCapacity(vertexCount + data.length);
+		System.arraycopy(data, 0, this.data, vertexCount, data.length);
+		int first = vertexCount;
+		vertexCount += data.length;
+		return first;
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * @param v1 Index of the 'from' vertex
+	 * @param v2 Index of the 'to' vertex
+	 * @param label
+	 * @param weight
+	 */
+	public void addEdge(int v1, int v2, T label, double weight){
+		checkVertex(v1);
+		checkVertex(v2);
+		ensureEdgeCapacity(edgeCount + 1);
+		from[edgeCount] = v1;
+		to[edgeCount] = v2;
+		weights[edgeCount] = weight;
+		if(label != null){
+			if(labels == null)
+				labels = newArray(from.length);
+			labels[edgeCount] = label;
+		}
+		edgeCount++;
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * @param v1 Index of the 'from' vertex
+	 * @param v2 Index of the 'to' vertex
+	 */
+	public void addEdge(int v1, int v2){
+		addEdge(v1, v2, null, 0.0);
+	}
+
+	/**
+	 * Add a batch of edges, edge i goes from v1[i] to v2[i]
+	 * @param v1 Indices of the 'from' vertices
+	 * @param v2 Indices of the 'to' vertices
+	 * @param labels Labels of the edges, or null
+	 * @param weights Weights of the edges, or null for 0.0
+	 */
+	public void addEdges(int[] v1, int[] v2, T[] labels, double[] weights){
+		int count = v1.length;
+		if(v2.length != count || (labels != null && labels.length != count) || (weights != null && weights.length != count))
+			throw new IllegalArgumentException("Edge arrays have different lengths");
+		for(int i = 0; i < count; i++){
+			checkVertex(v1[i]);
+			checkVertex(v2[i]);
+		}
+		ensureEdgeCapacity(edgeCount + count);
+		System.arraycopy(v1, 0, from, edgeCount, count);
+		System.arraycopy(v2, 0, to, edgeCount, count);
+		if(weights != null)
+			System.arraycopy(weights, 0, this.weights, edgeCount, count);
+		else
+			Arrays.fill(this.weights, edgeCount, edgeCount + count, 0.0);
+		if(labels != null){
+			if(this.labels == null)
+				this.labels = newArray(from.length);
+			System.arraycopy(labels, 0, this.labels, edgeCount, count);
+		}else if(this.labels != null){
+			Arrays.fill(this.labels, edgeCount, edgeCount + count, null);
+		}
+		edgeCount += count;
+	}
+
+	/**
+	 * Add a batch of edges without labels and weights, edge i goes from v1[i] to v2[i]
+	 * @param v1 Indices of the 'from' vertices
+	 * @param v2 Indices of the 'to' vertices
+	 */
+	public void addEdges(int[] v1, int[] v2){
+		addEdges(v1, v2, null, null);
+	}
+
+	/**
+	 * Create the graph
+	 * Vertices and edges are added in the order they were given to the builder. The builder can keep being used afterwards
+	 * @return graph
+	 */
+	public Graph<E,T> build(){
+		Graph<E,T> graph = new Graph<E,T>(directed);
+		graph.addAll(data, vertexCount, from, to, labels, weights, edgeCount);
+		return graph;
+	}
+
+	/**
+	 * Number of vertices added
+	 * @return size
+	 */
+	public int vertexCount(){
+		return vertexCount;
+	}
+
+	/**
+	 * Number of edges added, an undirected edge counts once
+	 * @return size
+	 */
+	public int edgeCount(){
+		return edgeCount;
+	}
+
+	/**
+	 * Checks that a vertex index was returned by addVertex or addVertices
+	 * @param v
+	 * @throws IllegalArgumentException if the vertex does not exist
+	 */
+	private void checkVertex(int v){
+		if(v < 0 || v >= vertexCount)
+			throw new IllegalArgumentException("Vertex " + v + " has not been added to the builder");
+	}
+
+	/**
+	 * Grow the vertex storage
+	 * @param capacity
+	 */
+	private void ensureVertexCapacity(int capacity){
+		if(capacity > data.length)
+			data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+	}
+
+	/**
+	 * Grow the edge storage
+	 * @param capacity
+	 */
+	private void ensureEdgeCapacity(int capacity){
+		if(capacity <= from.length)
+			return;
+		int length = Math.max(capacity, from.length * 2);
+		from = Arrays.copyOf(from, length);
+		to = Arrays.copyOf(to, length);
+		weights = Arrays.copyOf(weights, length);
+		if(labels != null)
+			labels = Arrays.copyOf(labels, length);
+	}
+
+	/**
+	 * Create an array of vertex data or edge labels, only ever read back as the same type
+	 * @param length
+	 * @return array of nulls
+	 */
+	@SuppressWarnings("unchecked")
+	private static <X> X[] newArray(int length){
+		return (X[]) new Object[length];
+	}
+}
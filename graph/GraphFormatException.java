@@ -0,0 +1,57 @@
+package graph;
+
+import java.util.InputMismatchException;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class GraphFormatException extends InputMismatchException {
+
+	private static final long serialVersionUID = 1L;
+
+	// Position of the error in the input file, both starting from 1
+	private final int line, column;
+	private final String reason;
+
+	/**
+	 * Constructor
+	 * @param reason
+	 * @param line
+	 * @param column
+	 */
+	public GraphFormatException(String reason, int line, int column) {
+		super(String.format("Line %d, column %d: %s", line, column, reason));
+		this.reason = reason;
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Get the line of the error
+	 * @return line
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Get the column of the error, in bytes from the beginning of the line
+	 * @return column
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+	/**
+	 * Same error, lines further in the file
+	 * Used when a part of the file was parsed before knowing on which line it starts
+	 * @param lines Number of lines before the part
+	 * @return exception
+	 */
+	protected GraphFormatException shift(int lines) {
+		return new GraphFormatException(reason, line + lines, column);
+	}
+}
@@ -0,0 +1,331 @@
+package graph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class GraphParser {
+
+	// The file is parsed by chunks of Lines.CHUNK_BYTES
+	private final FileChannel channel;
+	private final long size;
+	private final int chunks;
+
+	// Vertices by their id in the file
+	private Vertex<String,String> vertices[];
+
+	/**
+	 * Constructor
+	 * @param channel
+	 * @throws IOException
+	 */
+	private GraphParser(FileChannel channel) throws IOException {
+		this.channel = channel;
+		size = channel.size();
+		chunks = Lines.chunks(size);
+	}
+
+	/**
+	 * Read a graph file
+	 * The vertices are read in order, then the edges are parsed in parallel chunks and added in the order of the file
+	 * @param file
+	 * @param directed
+	 * @param pool
+	 * @return Graph created
+	 * @throws IOException
+	 * @throws GraphFormatException if the file does not follow the format
+	 */
+	protected static Graph<String,String> parse(File file, boolean directed, ForkJoinPool pool) throws IOException{
+		FileInputStream input = new FileInputStream(file);
+		try{
+			return new GraphParser(input.getChannel()).parse(directed, pool);
+		}finally{
+			input.close();
+		}
+	}
+
+	/**
+	 * Read the vertices, then the edges
+	 * @param directed
+	 * @param pool
+	 * @return Graph created
+	 * @throws IOException
+	 */
+	private Graph<String,String> parse(boolean directed, ForkJoinPool pool) throws IOException{
+		Graph<String,String> graph = new Graph<String,String>(directed);
+
+		// Vertices, until the first ';'
+		int line = 0, chunk = 0;
+		Lines lines = null;
+		boolean header = true, sized = false, done = false;
+		while(!done && chunk < chunks){
+			lines = read(chunk++);
+			try{
+				while(!done && lines.next()){
+					if(isComment(lines))
+						continue;
+					int declared = header ? header(lines) : -1;
+					if(declared != -1){
+						vertices = Vertex.newArray(declared);
+						sized = true;
+					}else if(isTerminator(lines)){
+						done = true;
+					}else{
+						if(vertices == null)
+							vertices = Vertex.newArray(16);
+						vertex(lines, graph, sized);
+					}
+					header = false;
+				}
+			}catch(GraphFormatException e){
+				throw e.shift(line);
+			}
+			line += lines.getLine();
+		}
+		if(!done)
+			throw new GraphFormatException("Missing ';' after the vertices", line + 1, 1);
+		if(vertices == null)
+			vertices = Vertex.newArray(0);
+
+		// Edges, until the second ';'. The rest of the current chunk is parsed with the next chunks
+		lines.resetLine();
+		Edges parts[] = new Edges[chunks - chunk + 1];
+		parts[0] = new Edges(chunk - 1);
+		parts[0].lines = lines;
+		for(int i = 1; i < parts.length; i++)
+			parts[i] = new Edges(chunk + i - 1);
+		pool.invoke(new Parse(parts, 0, parts.length));
+
+		// Bulk insertion in the order of the file
+		for(Edges part : parts){
+			if(part.ioException != null)
+				throw part.ioException;
+			if(part.formatException != null)
+				throw part.formatException.shift(line);
+			graph.addEdges(vertices, part.from, part.to, part.labels, part.weights, part.size);
+			if(part.terminated)
+				return graph;
+			line += part.lines.getLine();
+		}
+		throw new GraphFormatException("Missing ';' after the edges", line + 1, 1);
+	}
+
+	/**
+	 * Parse the edge chunks of a range, splitting it between tasks
+	 */
+	private class Parse extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Edges parts[];
+		private final int from, to;
+
+		/**
+		 * Constructor
+		 * @param parts
+		 * @param from
+		 * @param to Exclusive
+		 */
+		protected Parse(Edges[] parts, int from, int to) {
+			this.parts = parts;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Parse the range
+		 */
+		protected void compute(){
+			if(to - from > 1){
+				int middle = (from + to) >>> 1;
+				invokeAll(new Parse(parts, from, middle), new Parse(parts, middle, to));
+				return;
+			}
+			try{
+				parts[from].parse();
+			}catch(IOException e){
+				parts[from].ioException = e;
+			}catch(GraphFormatException e){
+				parts[from].formatException = e;
+			}
+		}
+	}
+
+	/**
+	 * Edges of a chunk
+	 */
+	private class Edges {
+		private final int chunk;
+		private Lines lines;
+		private int size;
+		private int from[], to[];
+		private double weights[];
+		private String labels[];
+
+		// true if the chunk has the ';' ending the edges
+		private boolean terminated;
+
+		// Error found in the chunk, the line of a format error is counted from the beginning of the chunk
+		private IOException ioException;
+		private GraphFormatException formatException;
+
+		/**
+		 * Constructor
+		 * @param chunk
+		 */
+		protected Edges(int chunk) {
+			this.chunk = chunk;
+		}
+
+		/**
+		 * Parse the lines of the chunk until the end of the chunk or the ';' ending the edges
+		 * @throws IOException
+		 */
+		protected void parse() throws IOException{
+			if(lines == null)
+				lines = read(chunk);
+			int capacity = Math.max(16, lines.remaining() / 8);
+			from = new int[capacity];
+			to = new int[capacity];
+			weights = new double[capacity];
+			while(lines.next()){
+				if(isComment(lines))
+					continue;
+				if(isTerminator(lines)){
+					terminated = true;
+					break;
+				}
+				if(size == from.length){
+					capacity = size * 2;
+					from = Arrays.copyOf(from, capacity);
+					to = Arrays.copyOf(to, capacity);
+					weights = Arrays.copyOf(weights, capacity);
+					if(labels != null)
+						labels = Arrays.copyOf(labels, capacity);
+				}
+				edge(lines, this);
+				size++;
+			}
+		}
+
+		/**
+		 * Set the label of the edge being parsed
+		 * @param label
+		 */
+		protected void setLabel(String label){
+			if(labels == null)
+				labels = new String[from.length];
+			labels[size] = label;
+		}
+	}
+
+	/**
+	 * Read the lines starting in a chunk
+	 * @param chunk
+	 * @return lines
+	 * @throws IOException
+	 */
+	private Lines read(int chunk) throws IOException{
+		return Lines.read(channel, size, chunk);
+	}
+
+	/**
+	 * Checks if the line is empty or a comment starting with // or #
+	 * @param lines
+	 * @return boolean
+	 */
+	private static boolean isComment(Lines lines){
+		return lines.atEnd() || lines.accept("#") || lines.accept("//");
+	}
+
+	/**
+	 * Checks if the line is a ';'
+	 * @param lines
+	 * @return boolean
+	 */
+	private static boolean isTerminator(Lines lines){
+		if(!lines.accept(";"))
+			return false;
+		if(!lines.atEnd())
+			throw lines.expected("the end of the line after ';'");
+		return true;
+	}
+
+	/**
+	 * Parse the size=X header if it is the current line
+	 * @param lines
+	 * @return X, -1 if the line is not the header
+	 */
+	private static int header(Lines lines){
+		if(!lines.accept("size"))
+			return -1;
+		lines.expect('=');
+		int size = lines.integer("the number of vertices");
+		lines.expectEnd();
+		return size;
+	}
+
+	/**
+	 * Parse a vertex line ID = NAME and add the vertex to the graph
+	 * @param lines
+	 * @param graph
+	 * @param sized true if the number of vertices was given by the header
+	 */
+	private void vertex(Lines lines, Graph<String,String> graph, boolean sized){
+		lines.skipSpaces();
+		int column = lines.column();
+		int id = lines.integer("a vertex id");
+		if(id >= vertices.length){
+			if(sized)
+				throw lines.error("Vertex id " + id + " is not less than the size " + vertices.length, column);
+			vertices = Arrays.copyOf(vertices, Math.max(vertices.length * 2, id + 1));
+		}
+		if(vertices[id] != null)
+			throw lines.error("Vertex id " + id + " is declared twice", column);
+		lines.expect('=');
+		vertices[id] = graph.addVertex(lines.rest());
+	}
+
+	/**
+	 * Parse an edge line (FROM, TO, WEIGHT) = LABEL where WEIGHT and LABEL are optional
+	 * @param lines
+	 * @param edges
+	 */
+	private void edge(Lines lines, Edges edges){
+		lines.expect('(');
+		edges.from[edges.size] = vertexReference(lines);
+		lines.expect(',');
+		edges.to[edges.size] = vertexReference(lines);
+		double weight = 0.0;
+		if(lines.accept(","))
+			weight = lines.number("a weight");
+		edges.weights[edges.size] = weight;
+		lines.expect(')');
+		if(lines.accept("="))
+			edges.setLabel(lines.rest());
+		else
+			lines.expectEnd();
+	}
+
+	/**
+	 * Parse the id of a declared vertex
+	 * @param lines
+	 * @return id
+	 */
+	private int vertexReference(Lines lines){
+		lines.skipSpaces();
+		int column = lines.column();
+		int id = lines.integer("a vertex id");
+		if(id >= vertices.length || vertices[id] == null)
+			throw lines.error("Vertex id " + id + " is not declared", column);
+		return id;
+	}
+}
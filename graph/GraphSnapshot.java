@@ -0,0 +1,680 @@
+package graph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class GraphSnapshot <E,T> {
+
+	// File header: magic, version, flags, vertex count, edge count, data count, label count, 0,
+	// data bytes, label bytes, checksum of everything after the header, 0
+	private static final int MAGIC = 0x47414454; // "GADT"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 64;
+	private static final int DIRECTED = 1;
+
+	// Bytes checksummed at once when verifying, and bytes buffered when writing
+	private static final int WINDOW_BYTES = 1 << 26;
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	private final boolean directed;
+	private final int vertexCount, edgeCount;
+
+	// File the snapshot was mapped from, and checksum of its sections read from the header
+	private final File file;
+	private final long checksum;
+
+	// Edges in the order of the edge list of the written graph, labels are indices in the label table
+	private final IntBuffer from, to, labels;
+	private final DoubleBuffer weights;
+
+	// Out and in edges of each vertex: the edges of vertex i are in slots [offsets[i], offsets[i+1])
+	private final IntBuffer outOffsets, outEdges, inOffsets, inEdges;
+
+	// Data of each vertex as an index in the data table
+	private final IntBuffer vertexData;
+	private final Table<E> dataTable;
+	private final Table<T> labelTable;
+
+	/**
+	 * Constructor
+	 * Maps the sections of the file after checking the header, and the checksum if requested
+	 * @param file
+	 * @param channel
+	 * @param vertexCodec
+	 * @param edgeCodec
+	 * @param verify
+	 * @throws IOException if the file is not a valid snapshot
+	 */
+	private GraphSnapshot(File file, FileChannel channel, Codec<E> vertexCodec, Codec<T> edgeCodec, boolean verify) throws IOException {
+		long size = channel.size();
+		if(size < HEADER_BYTES)
+			throw new IOException(file + " is not a graph snapshot");
+		ByteBuffer header = map(channel, 0, HEADER_BYTES);
+		if(header.getInt(0) != MAGIC)
+			throw new IOException(file + " is not a graph snapshot");
+		int version = header.getInt(4);
+		if(version != VERSION)
+			throw new IOException("Unsupported graph snapshot version " + version);
+		directed = (header.getInt(8) & DIRECTED) != 0;
+		vertexCount = header.getInt(12);
+		edgeCount = header.getInt(16);
+		int dataCount = header.getInt(20);
+		int labelCount = header.getInt(24);
+		long dataBytes = header.getLong(32);
+		long labelBytes = header.getLong(40);
+		if(vertexCount < 0 || edgeCount < 0 || dataCount < 0 || labelCount < 0 || dataBytes < 0 || labelBytes < 0
+				|| size != length(vertexCount, edgeCount, dataCount, labelCount, dataBytes, labelBytes))
+			throw new IOException(file + " is truncated or corrupted");
+		this.file = file;
+		checksum = header.getLong(48);
+		if(verify)
+			verify(channel);
+
+		// Sections, in the order they are written
+		long position = HEADER_BYTES;
+		weights = map(channel, position, 8L * edgeCount).asDoubleBuffer();
+		position += 8L * edgeCount;
+		LongBuffer dataOffsets = map(channel, position, 8L * (dataCount + 1)).asLongBuffer();
+		position += 8L * (dataCount + 1);
+		LongBuffer labelOffsets = map(channel, position, 8L * (labelCount + 1)).asLongBuffer();
+		position += 8L * (labelCount + 1);
+		vertexData = map(channel, position, 4L * vertexCount).asIntBuffer();
+		position += 4L * vertexCount;
+		from = map(channel, position, 4L * edgeCount).asIntBuffer();
+		position += 4L * edgeCount;
+		to = map(channel, position, 4L * edgeCount).asIntBuffer();
+		position += 4L * edgeCount;
+		labels = map(channel, position, 4L * edgeCount).asIntBuffer();
+		position += 4L * edgeCount;
+		outOffsets = map(channel, position, 4L * (vertexCount + 1)).asIntBuffer();
+		position += 4L * (vertexCount + 1);
+		outEdges = map(channel, position, 4L * edgeCount).asIntBuffer();
+		position += 4L * edgeCount;
+		inOffsets = map(channel, position, 4L * (vertexCount + 1)).asIntBuffer();
+		position += 4L * (vertexCount + 1);
+		inEdges = map(channel, position, 4L * edgeCount).asIntBuffer();
+		position += 4L * edgeCount;
+		position = (position + 7) & ~7L;
+		dataTable = new Table<E>(dataOffsets, map(channel, position, dataBytes), vertexCodec);
+		position += dataBytes;
+		labelTable = new Table<T>(labelOffsets, map(channel, position, labelBytes), edgeCodec);
+	}
+
+	/**
+	 * Open a snapshot written by Graph.write, after checking its checksum
+	 * The file is memory mapped: the vertex data and the edge labels are only decoded when requested
+	 * @param file
+	 * @param vertexCodec Codec used to write the vertex data
+	 * @param edgeCodec Codec used to write the edge labels
+	 * @return snapshot
+	 * @throws IOException if the file cannot be read, is not a snapshot or does not match its checksum
+	 */
+	public static <E,T> GraphSnapshot<E,T> open(File file, Codec<E> vertexCodec, Codec<T> edgeCodec) throws IOException{
+		return open(file, vertexCodec, edgeCodec, true);
+	}
+
+	/**
+	 * Open a snapshot written by Graph.write
+	 * Without the checksum, only the header and the size of the file are checked and opening does not read the sections: use verify() later if needed
+	 * @param file
+	 * @param vertexCodec Codec used to write the vertex data
+	 * @param edgeCodec Codec used to write the edge labels
+	 * @param verify True to check the checksum of the whole file before returning
+	 * @return snapshot
+	 * @throws IOException if the file cannot be read, is not a snapshot or does not match its checksum
+	 */
+	public static <E,T> GraphSnapshot<E,T> open(File file, Codec<E> vertexCodec, Codec<T> edgeCodec, boolean verify) throws IOException{
+		FileInputStream input = new FileInputStream(file);
+		try{
+			return new GraphSnapshot<E,T>(file, input.getChannel(), vertexCodec, edgeCodec, verify);
+		}finally{
+
+			// Mapped sections remain valid after the channel is closed
+			input.close();
+		}
+	}
+
+	/**
+	 * Open a snapshot of a graph of strings, such as a graph read by Graph.inParser
+	 * @param file
+	 * @return snapshot
+	 * @throws IOException if the file cannot be read, is not a snapshot or does not match its checksum
+	 */
+	public static GraphSnapshot<String,String> open(File file) throws IOException{
+		return open(file, Codec.STRING, Codec.STRING);
+	}
+
+	/**
+	 * Check the sections of the file against the checksum of its header
+	 * O(file size)
+	 * @throws IOException if the file cannot be read or does not match its checksum
+	 */
+	public void verify() throws IOException{
+		FileInputStream input = new FileInputStream(file);
+		try{
+			verify(input.getChannel());
+		}finally{
+			input.close();
+		}
+	}
+
+	/**
+	 * Check the sections of a file against the checksum of the header
+	 * @param channel
+	 * @throws IOException if the file does not match its checksum
+	 */
+	private void verify(FileChannel channel) throws IOException{
+		long size = channel.size();
+		CRC32 crc = new CRC32();
+		for(long position = HEADER_BYTES; position < size; position += WINDOW_BYTES)
+			crc.update(map(channel, position, Math.min(WINDOW_BYTES, size - position)));
+		if(crc.getValue() != checksum)
+			throw new IOException(file + " does not match its checksum");
+	}
+
+	/**
+	 * Write a graph to a file
+	 * @param vertices Vertices of the graph in iteration order
+	 * @param edges Edges of the graph in iteration order
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 * @param directed
+	 * @param file
+	 * @param vertexCodec
+	 * @param edgeCodec
+	 * @throws IOException
+	 */
+	protected static <E,T> void write(Vertex<E,T>[] vertices, Edge<E,T>[] edges, int vertexCapacity, boolean directed,
+			File file, Codec<E> vertexCodec, Codec<T> edgeCodec) throws IOException{
+		int n = vertices.length, m = edges.length;
+		int indexOfID[] = new int[vertexCapacity];
+		for(int i = 0; i < n; i++)
+			indexOfID[vertices[i].getID()] = i;
+
+		// Vertex data and edge labels are stored once per distinct value
+		TableBuilder<E> dataTable = new TableBuilder<E>(vertexCodec);
+		TableBuilder<T> labelTable = new TableBuilder<T>(edgeCodec);
+		int vertexData[] = new int[n];
+		for(int i = 0; i < n; i++)
+			vertexData[i] = dataTable.add(vertices[i].getData());
+		int from[] = new int[m], to[] = new int[m], labels[] = new int[m];
+		for(int e = 0; e < m; e++){
+			from[e] = indexOfID[edges[e].getV1().getID()];
+			to[e] = indexOfID[edges[e].getV2().getID()];
+			labels[e] = labelTable.add(edges[e].getLabel());
+		}
+
+		// Incidence lists keep the order of the edge list
+		int outOffsets[] = new int[n + 1], inOffsets[] = new int[n + 1];
+		int outEdges[] = incidence(from, outOffsets);
+		int inEdges[] = incidence(to, inOffsets);
+
+		RandomAccessFile output = new RandomAccessFile(file, "rw");
+		try{
+			output.setLength(0);
+			Output out = new Output(output.getChannel());
+			for(Edge<E,T> edge : edges)
+				out.putDouble(edge.getWeight());
+			dataTable.putOffsets(out);
+			labelTable.putOffsets(out);
+			out.putInts(vertexData);
+			out.putInts(from);
+			out.putInts(to);
+			out.putInts(labels);
+			out.putInts(outOffsets);
+			out.putInts(outEdges);
+			out.putInts(inOffsets);
+			out.putInts(inEdges);
+			// Pad the 3n + 5m + 2 ints to a multiple of 8 bytes
+			if((n + m) % 2 != 0)
+				out.putInt(0);
+			dataTable.putBytes(out);
+			labelTable.putBytes(out);
+			out.flush();
+
+			// Header last, with the checksum of the sections
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putInt(directed ? DIRECTED : 0).putInt(n).putInt(m)
+				.putInt(dataTable.size()).putInt(labelTable.size()).putInt(0)
+				.putLong(dataTable.bytes).putLong(labelTable.bytes).putLong(out.crc.getValue()).putLong(0);
+			header.flip();
+			while(header.hasRemaining())
+				output.getChannel().write(header, header.position());
+		}finally{
+			output.close();
+		}
+	}
+
+	/**
+	 * Size of a snapshot file
+	 * @param n Number of vertices
+	 * @param m Number of edges
+	 * @param dataCount
+	 * @param labelCount
+	 * @param dataBytes
+	 * @param labelBytes
+	 * @return bytes
+	 */
+	private static long length(long n, long m, long dataCount, long labelCount, long dataBytes, long labelBytes){
+		long ints = n + 3 * m + (n + 1) + m + (n + 1) + m;
+		return HEADER_BYTES + 8 * m + 8 * (dataCount + 1) + 8 * (labelCount + 1) + ((4 * ints + 7) & ~7L) + dataBytes + labelBytes;
+	}
+
+	/**
+	 * Group the edges by vertex with a stable counting sort
+	 * @param vertexOf Vertex of each edge
+	 * @param offsets Filled with the offsets of the vertices
+	 * @return edges grouped by vertex
+	 */
+	private static int[] incidence(int vertexOf[], int offsets[]){
+		for(int v : vertexOf)
+			offsets[v + 1]++;
+		for(int i = 1; i < offsets.length; i++)
+			offsets[i] += offsets[i - 1];
+		int position[] = Arrays.copyOf(offsets, offsets.length - 1);
+		int incidence[] = new int[vertexOf.length];
+		for(int e = 0; e < vertexOf.length; e++)
+			incidence[position[vertexOf[e]]++] = e;
+		return incidence;
+	}
+
+	/**
+	 * Map a section of a file
+	 * @param channel
+	 * @param position
+	 * @param length
+	 * @return little endian buffer
+	 * @throws IOException if the section is too large to be mapped
+	 */
+	private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException{
+		if(length > Integer.MAX_VALUE)
+			throw new IOException("Snapshot section of " + length + " bytes is too large to be mapped");
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Values of a mapped table, decoded on first use
+	 */
+	private static class Table <X> {
+		private final LongBuffer offsets;
+		private final ByteBuffer bytes;
+		private final Codec<X> codec;
+		private final Object decoded[];
+
+		/**
+		 * Constructor
+		 * @param offsets
+		 * @param bytes
+		 * @param codec
+		 */
+		protected Table(LongBuffer offsets, ByteBuffer bytes, Codec<X> codec) {
+			this.offsets = offsets;
+			this.bytes = bytes;
+			this.codec = codec;
+			decoded = new Object[offsets.capacity() - 1];
+		}
+
+		/**
+		 * Get a value
+		 * Threads decoding the same value at the same time get equal values
+		 * @param index
+		 * @return value, null if the index is -1
+		 */
+		@SuppressWarnings("unchecked")
+		protected X get(int index){
+			if(index == -1)
+				return null;
+			Object value = decoded[index];
+			if(value == null){
+				ByteBuffer slice = bytes.duplicate();
+				slice.limit((int) offsets.get(index + 1));
+				slice.position((int) offsets.get(index));
+				value = codec.decode(slice.slice());
+				decoded[index] = value;
+			}
+			// Only the codec of the table decodes its values
+			return (X) value;
+		}
+	}
+
+	/**
+	 * Distinct values of a table being written
+	 */
+	private static class TableBuilder <X> {
+		private final Codec<X> codec;
+		private final HashMap<X,Integer> indexOf = new HashMap<X,Integer>();
+		private final ArrayList<byte[]> encoded = new ArrayList<byte[]>();
+		private long bytes;
+
+		/**
+		 * Constructor
+		 * @param codec
+		 */
+		protected TableBuilder(Codec<X> codec) {
+			this.codec = codec;
+		}
+
+		/**
+		 * Add a value if it is not already in the table
+		 * @param value
+		 * @return index of the value, -1 for null
+		 */
+		protected int add(X value){
+			if(value == null)
+				return -1;
+			Integer index = indexOf.get(value);
+			if(index == null){
+				index = encoded.size();
+				byte valueBytes[] = codec.encode(value);
+				encoded.add(valueBytes);
+				bytes += valueBytes.length;
+				indexOf.put(value, index);
+			}
+			return index;
+		}
+
+		/**
+		 * Number of distinct values
+		 * @return size
+		 */
+		protected int size(){
+			return encoded.size();
+		}
+
+		/**
+		 * Write the offsets of the values
+		 * @param out
+		 * @throws IOException
+		 */
+		protected void putOffsets(Output out) throws IOException{
+			long offset = 0;
+			out.putLong(offset);
+			for(byte value[] : encoded){
+				offset += value.length;
+				out.putLong(offset);
+			}
+		}
+
+		/**
+		 * Write the bytes of the values
+		 * @param out
+		 * @throws IOException
+		 */
+		protected void putBytes(Output out) throws IOException{
+			for(byte value[] : encoded)
+				out.putBytes(value);
+		}
+	}
+
+	/**
+	 * Buffered little endian writer of the sections, computing their checksum
+	 */
+	private static class Output {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		private final CRC32 crc = new CRC32();
+		private long position = HEADER_BYTES;
+
+		/**
+		 * Constructor
+		 * @param channel
+		 */
+		protected Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Write an int
+		 * @param value
+		 * @throws IOException
+		 */
+		protected void putInt(int value) throws IOException{
+			if(buffer.remaining() < 4)
+				flush();
+			buffer.putInt(value);
+		}
+
+		/**
+		 * Write an array of ints
+		 * @param values
+		 * @throws IOException
+		 */
+		protected void putInts(int values[]) throws IOException{
+			for(int value : values)
+				putInt(value);
+		}
+
+		/**
+		 * Write a long
+		 * @param value
+		 * @throws IOException
+		 */
+		protected void putLong(long value) throws IOException{
+			if(buffer.remaining() < 8)
+				flush();
+			buffer.putLong(value);
+		}
+
+		/**
+		 * Write a double
+		 * @param value
+		 * @throws IOException
+		 */
+		protected void putDouble(double value) throws IOException{
+			if(buffer.remaining() < 8)
+				flush();
+			buffer.putDouble(value);
+		}
+
+		/**
+		 * Write an array of bytes
+		 * @param values
+		 * @throws IOException
+		 */
+		protected void putBytes(byte values[]) throws IOException{
+			for(int i = 0; i < values.length; ){
+				if(!buffer.hasRemaining())
+					flush();
+				int length = Math.min(buffer.remaining(), values.length - i);
+				buffer.put(values, i, length);
+				i += length;
+			}
+		}
+
+		/**
+		 * Write the buffered bytes
+		 * @throws IOException
+		 */
+		protected void flush() throws IOException{
+			buffer.flip();
+			crc.update(buffer.duplicate());
+			while(buffer.hasRemaining())
+				position += channel.write(buffer, position);
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Rebuild a mutable graph from the snapshot
+	 * @return graph
+	 */
+	public Graph<E,T> toGraph(){
+		return Graph.fromSnapshot(this);
+	}
+
+	/**
+	 * Breadth-First-Search starting from a specific vertex
+	 * @param vertex Index of the vertex
+	 * @return Indices of the vertices traversed by BFS
+	 */
+	public int[] BFS(int vertex){
+		int queue[] = new int[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		int head = 0, tail = 0;
+		queue[tail++] = vertex;
+		visited[vertex] = true;
+		while(head < tail){
+			int polled = queue[head++];
+			for(int slot = outOffsets.get(polled); slot < outOffsets.get(polled + 1); slot++){
+				int opposite = to.get(outEdges.get(slot));
+				if(!visited[opposite]){
+					visited[opposite] = true;
+					queue[tail++] = opposite;
+				}
+			}
+		}
+		return Arrays.copyOf(queue, tail);
+	}
+
+	/**
+	 * Dijkstra from a vertex to all other vertices
+	 * @param vertex Index of the vertex
+	 * @return Dijkstra value of each vertex index, Double.MAX_VALUE if it is not reachable
+	 */
+	public double[] dijkstra(int vertex){
+		double dijkstra_value[] = new double[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		Arrays.fill(dijkstra_value, Double.MAX_VALUE);
+		dijkstra_value[vertex] = 0;
+		IndexedHeap heap = new IndexedHeap(vertexCount);
+		heap.offer(vertex, 0);
+		while(!heap.isEmpty()){
+			int polled = heap.poll();
+			visited[polled] = true;
+			for(int slot = outOffsets.get(polled); slot < outOffsets.get(polled + 1); slot++){
+				int edge = outEdges.get(slot);
+				int opposite = to.get(edge);
+				double pathCost = dijkstra_value[polled] + weights.get(edge);
+				if(!visited[opposite] && pathCost < dijkstra_value[opposite]){
+					dijkstra_value[opposite] = pathCost;
+					heap.offer(opposite, pathCost);
+				}
+			}
+		}
+		return dijkstra_value;
+	}
+
+	/**
+	 * Get the data of a vertex
+	 * @param vertex Index of the vertex
+	 * @return data
+	 */
+	public E getData(int vertex){
+		return dataTable.get(vertexData.get(vertex));
+	}
+
+	/**
+	 * Get the number of out edges of a vertex
+	 * @param vertex Index of the vertex
+	 * @return degree
+	 */
+	public int outDegree(int vertex){
+		return outOffsets.get(vertex + 1) - outOffsets.get(vertex);
+	}
+
+	/**
+	 * Get an out edge of a vertex
+	 * @param vertex Index of the vertex
+	 * @param k Position of the edge in the out edges of the vertex
+	 * @return Index of the edge
+	 */
+	public int getOutEdge(int vertex, int k){
+		return outEdges.get(outOffsets.get(vertex) + k);
+	}
+
+	/**
+	 * Get the number of in edges of a vertex
+	 * @param vertex Index of the vertex
+	 * @return degree
+	 */
+	public int inDegree(int vertex){
+		return inOffsets.get(vertex + 1) - inOffsets.get(vertex);
+	}
+
+	/**
+	 * Get an in edge of a vertex
+	 * @param vertex Index of the vertex
+	 * @param k Position of the edge in the in edges of the vertex
+	 * @return Index of the edge
+	 */
+	public int getInEdge(int vertex, int k){
+		return inEdges.get(inOffsets.get(vertex) + k);
+	}
+
+	/**
+	 * Get the 'from' vertex of an edge
+	 * @param edge Index of the edge
+	 * @return Index of the vertex
+	 */
+	public int getFrom(int edge){
+		return from.get(edge);
+	}
+
+	/**
+	 * Get the 'to' vertex of an edge
+	 * @param edge Index of the edge
+	 * @return Index of the vertex
+	 */
+	public int getTo(int edge){
+		return to.get(edge);
+	}
+
+	/**
+	 * Get the weight of an edge
+	 * @param edge Index of the edge
+	 * @return weight
+	 */
+	public double getWeight(int edge){
+		return weights.get(edge);
+	}
+
+	/**
+	 * Get the label of an edge
+	 * @param edge Index of the edge
+	 * @return label
+	 */
+	public T getLabel(int edge){
+		return labelTable.get(labels.get(edge));
+	}
+
+	/**
+	 * Number of vertices in the snapshot
+	 * @return size
+	 */
+	public int vertexCount(){
+		return vertexCount;
+	}
+
+	/**
+	 * Number of edges in the snapshot
+	 * @return size
+	 */
+	public int edgeCount(){
+		return edgeCount;
+	}
+
+	/**
+	 * Checks if the graph is directed or not
+	 * @return boolean
+	 */
+	public boolean isDirected(){
+		return directed;
+	}
+}
@@ -0,0 +1,19 @@
+package graph;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public interface Heuristic <E> {
+
+	/**
+	 * Estimate the length of the shortest path between two vertices using their data
+	 * The estimate must never be larger than the real length for A* to find the shortest path
+	 * @param from Data of the current vertex
+	 * @param to Data of the target vertex
+	 * @return estimated length
+	 */
+	public double estimate(E from, E to);
+}
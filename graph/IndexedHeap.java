@@ -0,0 +1,193 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class IndexedHeap {
+
+	// Number of children of each node, 4 keeps the heap shallow and the children in one cache line
+	private static final int ARITY = 4;
+
+	// Heap content, items[i] has key keys[i]
+	private int items[];
+	private double keys[];
+	private int size;
+
+	// Position of each item in the heap plus one, 0 if the item is not in the heap
+	private int position[];
+
+	/**
+	 * Constructor
+	 * @param capacity Items must be in [0, capacity)
+	 */
+	protected IndexedHeap(int capacity) {
+		items = new int[Math.max(capacity, 1)];
+		keys = new double[items.length];
+		position = new int[items.length];
+	}
+
+	/**
+	 * Allow items in [0, capacity)
+	 * @param capacity
+	 */
+	protected void ensureCapacity(int capacity){
+		if(capacity > position.length){
+			capacity = Math.max(capacity, position.length * 2);
+			items = Arrays.copyOf(items, capacity);
+			keys = Arrays.copyOf(keys, capacity);
+			position = Arrays.copyOf(position, capacity);
+		}
+	}
+
+	/**
+	 * Checks if the heap is empty
+	 * @return boolean
+	 */
+	protected boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Number of items in the heap
+	 * @return size
+	 */
+	protected int size(){
+		return size;
+	}
+
+	/**
+	 * Checks if an item is in the heap
+	 * @param item
+	 * @return boolean
+	 */
+	protected boolean contains(int item){
+		return position[item] != 0;
+	}
+
+	/**
+	 * Insert an item, or decrease its key if it is already in the heap with a larger key
+	 * @param item
+	 * @param key
+	 */
+	protected void offer(int item, double key){
+		int i = position[item] - 1;
+		if(i == -1){
+			i = size++;
+		}else if(keys[i] <= key){
+			return;
+		}
+		siftUp(i, item, key);
+	}
+
+	/**
+	 * Insert an item, or change its key if it is already in the heap
+	 * @param item
+	 * @param key
+	 */
+	protected void update(int item, double key){
+		int i = position[item] - 1;
+		if(i == -1)
+			siftUp(size++, item, key);
+		else if(key < keys[i])
+			siftUp(i, item, key);
+		else
+			siftDown(i, item, key);
+	}
+
+	/**
+	 * Get the minimum key
+	 * @return key
+	 */
+	protected double peekKey(){
+		return keys[0];
+	}
+
+	/**
+	 * Remove the item with the minimum key
+	 * @return item
+	 */
+	protected int poll(){
+		int min = items[0];
+		position[min] = 0;
+		if(--size > 0)
+			siftDown(0, items[size], keys[size]);
+		return min;
+	}
+
+	/**
+	 * Remove all the items in O(size)
+	 */
+	protected void clear(){
+		for(int i = 0; i < size; i++)
+			position[items[i]] = 0;
+		size = 0;
+	}
+
+	/**
+	 * Move an item up from a hole until its parent has a smaller key
+	 * @param i Hole
+	 * @param item
+	 * @param key
+	 */
+	private void siftUp(int i, int item, double key){
+		while(i > 0){
+			int parent = (i - 1) / ARITY;
+			if(keys[parent] <= key) break;
+			move(parent, i);
+			i = parent;
+		}
+		place(i, item, key);
+	}
+
+	/**
+	 * Move an item down from a hole until its children have larger keys
+	 * @param i Hole
+	 * @param item
+	 * @param key
+	 */
+	private void siftDown(int i, int item, double key){
+		while(true){
+			int first = i * ARITY + 1;
+			if(first >= size) break;
+
+			// Find the child with the minimum key
+			int min = first;
+			int last = Math.min(first + ARITY, size);
+			for(int child = first + 1; child < last; child++)
+				if(keys[child] < keys[min])
+					min = child;
+			if(key <= keys[min]) break;
+			move(min, i);
+			i = min;
+		}
+		place(i, item, key);
+	}
+
+	/**
+	 * Move the content of a heap slot to another
+	 * @param from
+	 * @param to
+	 */
+	private void move(int from, int to){
+		items[to] = items[from];
+		keys[to] = keys[from];
+		position[items[to]] = to + 1;
+	}
+
+	/**
+	 * Store an item in a heap slot
+	 * @param i
+	 * @param item
+	 * @param key
+	 */
+	private void place(int i, int item, double key){
+		items[i] = item;
+		keys[i] = key;
+		position[item] = i + 1;
+	}
+}
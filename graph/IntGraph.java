@@ -0,0 +1,727 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class IntGraph {
+
+	// Label of an edge added without one
+	public static final int NO_LABEL = -1;
+
+	private final boolean directed;
+
+	// Vertices are the indices 0 to vertexCount - 1, in the order they were added
+	private int vertexCount;
+
+	// Edges in the order they were added, labels stay null until the first labeled edge
+	private int from[], to[];
+	private double weights[];
+	private int labels[];
+	private int edgeCount;
+
+	// Out edges in compressed sparse row: edges of vertex i are in slots [offsets[i], offsets[i+1])
+	// Built by the first query after a change. An undirected edge is in the slots of both of its vertices
+	private int offsets[];
+	private int targets[];
+	private int slotEdges[];
+	private double slotWeights[];
+	private boolean indexed;
+
+	/**
+	 * Constructor
+	 * @param directed true if the graph is directed, false if undirected
+	 */
+	public IntGraph(boolean directed) {
+		this(directed, 16, 16);
+	}
+
+	/**
+	 * Constructor with the expected size of the graph, so the storage is allocated once
+	 * @param directed true if the graph is directed, false if undirected
+	 * @param expectedVertices
+	 * @param expectedEdges Number of calls to addEdge, an undirected edge counts once
+	 */
+	public IntGraph(boolean directed, int expectedVertices, int expectedEdges) {
+		this.directed = directed;
+		from = new int[Math.max(1, expectedEdges)];
+		to = new int[from.length];
+		weights = new double[from.length];
+		offsets = new int[Math.max(1, expectedVertices) + 1];
+	}
+
+	/**
+	 * Add a vertex
+	 * @return Index of the vertex
+	 */
+	public int addVertex(){
+		indexed = false;
+		return vertexCount++;
+	}
+
+	/**
+	 * Add vertices
+	 * @param count
+	 * @return Index of the first vertex, the others follow
+	 */
+	public int addVertices(int count){
+		if(count < 0)
+			throw new IllegalArgumentException("Cannot add " + count + " vertices");
+		indexed = false;
+		int first = vertexCount;
+		vertexCount += count;
+		return first;
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * An undirected edge is stored once and is an out edge of both of its vertices
+	 * @param v1 'from' vertex
+	 * @param v2 'to' vertex
+	 * @param weight
+	 * @param label Non-negative label, or NO_LABEL
+	 * @return Index of the edge
+	 */
+	public int addEdge(int v1, int v2, double weight, int label){
+		checkVertex(v1);
+		checkVertex(v2);
+		if(edgeCount == from.length){
+			int length = from.length * 2;
+			from = Arrays.copyOf(from, length);
+			to = Arrays.copyOf(to, length);
+			weights = Arrays.copyOf(weights, length);
+			if(labels != null)
+				labels = Arrays.copyOf(labels, length);
+		}
+		from[edgeCount] = v1;
+		to[edgeCount] = v2;
+		weights[edgeCount] = weight;
+		if(label != NO_LABEL && labels == null){
+			labels = new int[from.length];
+			Arrays.fill(labels, NO_LABEL);
+		}
+		if(labels != null)
+			labels[edgeCount] = label;
+		indexed = false;
+		return edgeCount++;
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * @param v1 'from' vertex
+	 * @param v2 'to' vertex
+	 * @param weight
+	 * @return Index of the edge
+	 */
+	public int addEdge(int v1, int v2, double weight){
+		return addEdge(v1, v2, weight, NO_LABEL);
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * @param v1 'from' vertex
+	 * @param v2 'to' vertex
+	 * @return Index of the edge
+	 */
+	public int addEdge(int v1, int v2){
+		return addEdge(v1, v2, 0.0, NO_LABEL);
+	}
+
+	/**
+	 * Breadth-First-Search starting from a specific vertex
+	 * @param vertex
+	 * @return Vertices traversed by BFS
+	 */
+	public int[] BFS(int vertex){
+		checkVertex(vertex);
+		index();
+		int queue[] = new int[vertexCount];
+		int size = BFS(vertex, queue, 0, new boolean[vertexCount]);
+		return Arrays.copyOf(queue, size);
+	}
+
+	/**
+	 * Breadth-First-Search
+	 * @return Vertices traversed by BFS
+	 */
+	public int[] BFS(){
+		index();
+		int queue[] = new int[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		int size = 0;
+		for(int i = 0; i < vertexCount; i++)
+			if(!visited[i])
+				size = BFS(i, queue, size, visited);
+		return queue;
+	}
+
+	/**
+	 * BFS on the out edges that appends to queue[]
+	 * The queue doubles as the traversal order because each vertex is enqueued once
+	 * @param start
+	 * @param queue
+	 * @param tail Number of vertices already in the queue
+	 * @param visited
+	 * @return new tail of the queue
+	 */
+	private int BFS(int start, int[] queue, int tail, boolean[] visited){
+		int head = tail;
+		queue[tail++] = start;
+		visited[start] = true;
+		while(head < tail){
+			int polled = queue[head++];
+			for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+				int opposite = targets[slot];
+				if(!visited[opposite]){
+					visited[opposite] = true;
+					queue[tail++] = opposite;
+				}
+			}
+		}
+		return tail;
+	}
+
+	/**
+	 * Depth-First-Search from a specific vertex
+	 * @param vertex
+	 * @return Vertices traversed by DFS
+	 */
+	public int[] DFS(int vertex){
+		checkVertex(vertex);
+		index();
+		int order[] = new int[vertexCount];
+		int size = DFS(vertex, order, 0, new boolean[vertexCount], new int[vertexCount], new int[vertexCount]);
+		return Arrays.copyOf(order, size);
+	}
+
+	/**
+	 * Depth-First-Search
+	 * @return Vertices traversed by DFS
+	 */
+	public int[] DFS(){
+		index();
+		int order[] = new int[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		int stack[] = new int[vertexCount];
+		int cursor[] = new int[vertexCount];
+		int size = 0;
+		for(int i = 0; i < vertexCount; i++)
+			if(!visited[i])
+				size = DFS(i, order, size, visited, stack, cursor);
+		return order;
+	}
+
+	/**
+	 * DFS with an explicit stack that appends the pre-order to order[]
+	 * @param start
+	 * @param order
+	 * @param size Number of vertices already in order[]
+	 * @param visited
+	 * @param stack Vertices on the current path
+	 * @param cursor Next out edge slot to explore for each vertex on the stack
+	 * @return new size of order[]
+	 */
+	private int DFS(int start, int[] order, int size, boolean[] visited, int[] stack, int[] cursor){
+		int top = 0;
+		stack[top] = start;
+		cursor[top++] = offsets[start];
+		visited[start] = true;
+		order[size++] = start;
+		while(top > 0){
+			int v = stack[top - 1];
+
+			// Pop the vertex if all its neighbors have been explored
+			if(cursor[top - 1] == offsets[v + 1]){
+				top--;
+				continue;
+			}
+
+			// Push the next neighbor if not visited
+			int opposite = targets[cursor[top - 1]++];
+			if(!visited[opposite]){
+				visited[opposite] = true;
+				order[size++] = opposite;
+				stack[top] = opposite;
+				cursor[top++] = offsets[opposite];
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gives the number of connected components
+	 * Directed graphs are considered undirected
+	 * @return connected components
+	 */
+	public int connectedComponents(){
+		int parent[] = new int[vertexCount];
+		for(int i = 0; i < vertexCount; i++)
+			parent[i] = i;
+		int components = vertexCount;
+		for(int e = 0; e < edgeCount; e++)
+			if(union(parent, from[e], to[e]))
+				components--;
+		return components;
+	}
+
+	/**
+	 * Checks if the graph is connected
+	 * @return boolean
+	 */
+	public boolean isConnected(){
+		return connectedComponents() == 1;
+	}
+
+	/**
+	 * Checks if the graph contains a cycle, a self loop is a cycle only in a directed graph, as in Graph
+	 * A directed graph is cyclic if some vertices are left once the vertices without in edges are removed one by one,
+	 * an undirected graph is cyclic if an edge joins two different vertices that were already connected
+	 * @return boolean
+	 */
+	public boolean isCyclic(){
+		if(!directed){
+			int parent[] = new int[vertexCount];
+			for(int i = 0; i < vertexCount; i++)
+				parent[i] = i;
+			for(int e = 0; e < edgeCount; e++)
+				if(from[e] != to[e] && !union(parent, from[e], to[e]))
+					return true;
+			return false;
+		}
+		index();
+		int inDegree[] = new int[vertexCount];
+		for(int e = 0; e < edgeCount; e++)
+			inDegree[to[e]]++;
+		int queue[] = new int[vertexCount];
+		int head = 0, tail = 0;
+		for(int i = 0; i < vertexCount; i++)
+			if(inDegree[i] == 0)
+				queue[tail++] = i;
+		while(head < tail){
+			int polled = queue[head++];
+			for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++)
+				if(--inDegree[targets[slot]] == 0)
+					queue[tail++] = targets[slot];
+		}
+		return tail < vertexCount;
+	}
+
+	/**
+	 * Dijkstra from a vertex to all other vertices
+	 * @param vertex
+	 * @return Dijkstra value of each vertex, Double.MAX_VALUE if it is not reachable
+	 */
+	public double[] dijkstra(int vertex){
+		return dijkstra(vertex, -1, new int[vertexCount]);
+	}
+
+	/**
+	 * Get the shortest path from one vertex to another, stopping as soon as vTo is reached
+	 * @param vFrom
+	 * @param vTo
+	 * @return Indices of the edges to go from vFrom to vTo, empty if there is no path
+	 */
+	public int[] dijkstra(int vFrom, int vTo){
+		checkVertex(vTo);
+		int parent_edge[] = new int[vertexCount];
+		double dijkstra_value[] = dijkstra(vFrom, vTo, parent_edge);
+		if(dijkstra_value[vTo] == Double.MAX_VALUE)
+			return new int[0];
+
+		// Walk the parent edges back from vTo
+		int length = 0;
+		for(int v = vTo; v != vFrom; v = getOpposite(parent_edge[v], v))
+			length++;
+		int path[] = new int[length];
+		for(int v = vTo; v != vFrom; v = getOpposite(parent_edge[v], v))
+			path[--length] = parent_edge[v];
+		return path;
+	}
+
+	/**
+	 * Dijkstra on the primitive arrays with the indexed heap
+	 * @param vertex
+	 * @param target Vertex stopping the search once reached, -1 to reach all the vertices
+	 * @param parent_edge Filled with the edge reaching each vertex, -1 for the start and the unreachable vertices
+	 * @return Dijkstra value of each vertex, Double.MAX_VALUE if it is not reachable
+	 */
+	private double[] dijkstra(int vertex, int target, int[] parent_edge){
+		checkVertex(vertex);
+		index();
+		double dijkstra_value[] = new double[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		Arrays.fill(dijkstra_value, Double.MAX_VALUE);
+		Arrays.fill(parent_edge, -1);
+		dijkstra_value[vertex] = 0;
+		IndexedHeap heap = new IndexedHeap(vertexCount);
+		heap.offer(vertex, 0);
+		while(!heap.isEmpty()){
+			double value = heap.peekKey();
+			int polled = heap.poll();
+			visited[polled] = true;
+			if(polled == target)
+				break;
+			for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+				int opposite = targets[slot];
+				double pathCost = value + slotWeights[slot];
+				if(!visited[opposite] && pathCost < dijkstra_value[opposite]){
+					dijkstra_value[opposite] = pathCost;
+					parent_edge[opposite] = slotEdges[slot];
+					heap.offer(opposite, pathCost);
+				}
+			}
+		}
+		return dijkstra_value;
+	}
+
+	/**
+	 * Transitive closure. If there is a path from i to j then i -> j if i & j are not already connected
+	 * The new edges have weight 0 and no label
+	 * O(|V| (|V| + |E|)): a BFS from each vertex
+	 */
+	public void transitiveClosure(){
+		index();
+		int queue[] = new int[vertexCount];
+		int reachedBy[] = new int[vertexCount];
+		int adjacentTo[] = new int[vertexCount];
+		Arrays.fill(reachedBy, -1);
+		Arrays.fill(adjacentTo, -1);
+
+		// Collect the new edges first, the adjacency cannot change during the searches
+		int newFrom[] = new int[16], newTo[] = new int[16];
+		int size = 0;
+		for(int i = 0; i < vertexCount; i++){
+			for(int slot = offsets[i]; slot < offsets[i + 1]; slot++)
+				adjacentTo[targets[slot]] = i;
+			int head = 0, tail = 0;
+			queue[tail++] = i;
+			reachedBy[i] = i;
+			while(head < tail){
+				int polled = queue[head++];
+				for(int slot = offsets[polled]; slot < offsets[polled + 1]; slot++){
+					int opposite = targets[slot];
+					if(reachedBy[opposite] != i){
+						reachedBy[opposite] = i;
+						queue[tail++] = opposite;
+					}
+				}
+			}
+
+			// An undirected edge is created once, from the vertex with the smaller index
+			for(int k = 1; k < tail; k++){
+				int j = queue[k];
+				if(adjacentTo[j] == i || (!directed && j < i)) continue;
+				if(size == newFrom.length){
+					newFrom = Arrays.copyOf(newFrom, size * 2);
+					newTo = Arrays.copyOf(newTo, size * 2);
+				}
+				newFrom[size] = i;
+				newTo[size++] = j;
+			}
+		}
+		for(int e = 0; e < size; e++)
+			addEdge(newFrom[e], newTo[e]);
+	}
+
+	/**
+	 * Number of vertices
+	 * @return size
+	 */
+	public int vertexCount(){
+		return vertexCount;
+	}
+
+	/**
+	 * Number of edges, an undirected edge counts once
+	 * @return size
+	 */
+	public int edgeCount(){
+		return edgeCount;
+	}
+
+	/**
+	 * Checks if the graph is directed or not
+	 * @return boolean
+	 */
+	public boolean isDirected(){
+		return directed;
+	}
+
+	/**
+	 * Get the 'from' vertex of an edge
+	 * @param edge
+	 * @return vertex
+	 */
+	public int getFrom(int edge){
+		checkEdge(edge);
+		return from[edge];
+	}
+
+	/**
+	 * Get the 'to' vertex of an edge
+	 * @param edge
+	 * @return vertex
+	 */
+	public int getTo(int edge){
+		checkEdge(edge);
+		return to[edge];
+	}
+
+	/**
+	 * Get the opposite side of a vertex on an edge
+	 * @param edge
+	 * @param vertex
+	 * @return Opposite vertex | -1 if the vertex is not on the edge
+	 */
+	public int getOpposite(int edge, int vertex){
+		checkEdge(edge);
+		if(vertex != from[edge] && vertex != to[edge])
+			return -1;
+		return from[edge] == vertex ? to[edge] : from[edge];
+	}
+
+	/**
+	 * Get the weight of an edge
+	 * @param edge
+	 * @return weight
+	 */
+	public double getWeight(int edge){
+		checkEdge(edge);
+		return weights[edge];
+	}
+
+	/**
+	 * Get the label of an edge
+	 * @param edge
+	 * @return label | NO_LABEL
+	 */
+	public int getLabel(int edge){
+		checkEdge(edge);
+		return labels == null ? NO_LABEL : labels[edge];
+	}
+
+	/**
+	 * Number of out edges of a vertex, all its edges if the graph is undirected
+	 * @param vertex
+	 * @return out degree
+	 */
+	public int outDegree(int vertex){
+		checkVertex(vertex);
+		index();
+		return offsets[vertex + 1] - offsets[vertex];
+	}
+
+	/**
+	 * Get an out edge of a vertex, in the order the edges were added
+	 * @param vertex
+	 * @param k Position of the edge in the out edges of the vertex
+	 * @return Index of the edge
+	 */
+	public int getOutEdge(int vertex, int k){
+		if(k < 0 || k >= outDegree(vertex))
+			throw new IllegalArgumentException("Vertex " + vertex + " has no out edge " + k);
+		return slotEdges[offsets[vertex] + k];
+	}
+
+	/**
+	 * Create a graph of the same vertices and edges
+	 * The data of vertex i is i, the label of an edge is its label or null if it has none
+	 * @return graph
+	 */
+	public Graph<Integer,Integer> toGraph(){
+		GraphBuilder<Integer,Integer> builder = new GraphBuilder<Integer,Integer>(directed, vertexCount, edgeCount);
+		for(int i = 0; i < vertexCount; i++)
+			builder.addVertex(i);
+		for(int e = 0; e < edgeCount; e++){
+			int label = getLabel(e);
+			builder.addEdge(from[e], to[e], label == NO_LABEL ? null : label, weights[e]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Create an integer graph from a graph
+	 * Vertex i is the vertex at index i of graph.vertices_array(). Integer labels are kept, other labels are dropped
+	 * The two edges of an undirected edge become one edge, from the vertex with the smaller index. Each edge is paired with an edge in the
+	 * opposite direction having the same weight and kept label, so an edge whose reverse was removed or changed is not lost
+	 * @param graph
+	 * @return integer graph
+	 * @throws IllegalArgumentException if the graph is undirected and an edge has no reverse edge to pair it with
+	 */
+	public static <E,T> IntGraph fromGraph(Graph<E,T> graph){
+		Vertex<E,T> vertices[] = graph.vertices_array();
+		Edge<E,T> edges[] = graph.edges_array();
+		boolean paired = !graph.isDirected() && !graph.hasSharedEdges();
+		IntGraph intGraph = new IntGraph(graph.isDirected(), vertices.length, paired ? edges.length / 2 : edges.length);
+		intGraph.addVertices(vertices.length);
+		int indexOfID[] = new int[graph.vertexCapacity()];
+		for(int i = 0; i < vertices.length; i++)
+			indexOfID[vertices[i].getID()] = i;
+
+		// Edges waiting for their reverse: positive counts are edges from the smaller index, negative ones from the larger index
+		HashMap<Pair,Integer> unpaired = paired ? new HashMap<Pair,Integer>() : null;
+		for(Edge<E,T> edge : edges){
+			int v1 = indexOfID[edge.getV1().getID()], v2 = indexOfID[edge.getV2().getID()];
+			T label = edge.getLabel();
+			int intLabel = label instanceof Integer ? (Integer) label : NO_LABEL;
+			if(paired){
+				Pair pair = new Pair(Math.min(v1, v2), Math.max(v1, v2), edge.getWeight(), intLabel);
+				Integer count = unpaired.get(pair);
+				int waiting = count == null ? 0 : count;
+
+				// Both edges of an undirected self loop have the same direction, each one is the reverse of the other
+				int direction = v1 <= v2 ? 1 : -1;
+				if(waiting != 0 && (v1 == v2 || Integer.signum(waiting) != direction)){
+					waiting -= Integer.signum(waiting);
+				}else{
+					waiting += direction;
+					intGraph.addEdge(pair.v1, pair.v2, pair.weight, intLabel);
+				}
+				if(waiting == 0)
+					unpaired.remove(pair);
+				else
+					unpaired.put(pair, waiting);
+			}else{
+				intGraph.addEdge(v1, v2, edge.getWeight(), intLabel);
+			}
+		}
+		if(paired && !unpaired.isEmpty()){
+			Pair pair = unpaired.keySet().iterator().next();
+			throw new IllegalArgumentException(String.format("Edge between vertices %d and %d of weight %s has no reverse edge of the same weight and label",
+					pair.v1, pair.v2, pair.weight));
+		}
+		return intGraph;
+	}
+
+	/**
+	 * Build the compressed sparse row of the out edges if the graph changed since the last query
+	 * Synchronized so that concurrent queries build it once
+	 */
+	private synchronized void index(){
+		if(indexed)
+			return;
+		if(offsets.length < vertexCount + 1)
+			offsets = new int[Math.max(vertexCount + 1, offsets.length * 2)];
+		else
+			Arrays.fill(offsets, 0);
+
+		// Count the out edges of each vertex, then turn the counts into offsets
+		for(int e = 0; e < edgeCount; e++){
+			offsets[from[e] + 1]++;
+			if(!directed && from[e] != to[e])
+				offsets[to[e] + 1]++;
+		}
+		for(int i = 0; i < vertexCount; i++)
+			offsets[i + 1] += offsets[i];
+		int size = offsets[vertexCount];
+		if(targets == null || targets.length < size){
+			int length = Math.max(size, targets == null ? 0 : targets.length * 2);
+			targets = new int[length];
+			slotEdges = new int[length];
+			slotWeights = new double[length];
+		}
+
+		// Place the edges in the order they were added
+		int next[] = Arrays.copyOf(offsets, vertexCount);
+		for(int e = 0; e < edgeCount; e++){
+			int slot = next[from[e]]++;
+			targets[slot] = to[e];
+			slotEdges[slot] = e;
+			slotWeights[slot] = weights[e];
+			if(!directed && from[e] != to[e]){
+				slot = next[to[e]]++;
+				targets[slot] = from[e];
+				slotEdges[slot] = e;
+				slotWeights[slot] = weights[e];
+			}
+		}
+		indexed = true;
+	}
+
+	/**
+	 * Join the sets of two vertices in a union-find forest
+	 * @param parent
+	 * @param v1
+	 * @param v2
+	 * @return true if the vertices were in different sets
+	 */
+	private static boolean union(int[] parent, int v1, int v2){
+		int root1 = find(parent, v1), root2 = find(parent, v2);
+		if(root1 == root2)
+			return false;
+		parent[root1] = root2;
+		return true;
+	}
+
+	/**
+	 * Find the root of the set of a vertex, halving the path on the way
+	 * @param parent
+	 * @param v
+	 * @return root
+	 */
+	private static int find(int[] parent, int v){
+		while(parent[v] != v){
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Checks that a vertex index was returned by addVertex or addVertices
+	 * @param v
+	 * @throws IllegalArgumentException if the vertex does not exist
+	 */
+	private void checkVertex(int v){
+		if(v < 0 || v >= vertexCount)
+			throw new IllegalArgumentException("Vertex " + v + " does not exist");
+	}
+
+	/**
+	 * Checks that an edge index was returned by addEdge
+	 * @param e
+	 * @throws IllegalArgumentException if the edge does not exist
+	 */
+	private void checkEdge(int e){
+		if(e < 0 || e >= edgeCount)
+			throw new IllegalArgumentException("Edge " + e + " does not exist");
+	}
+
+	/**
+	 * Vertices, weight and label of an undirected edge, the vertex with the smaller index first
+	 */
+	private static final class Pair {
+		private final int v1, v2, label;
+		private final double weight;
+
+		/**
+		 * Constructor
+		 * @param v1
+		 * @param v2
+		 * @param weight
+		 * @param label
+		 */
+		private Pair(int v1, int v2, double weight, int label) {
+			this.v1 = v1;
+			this.v2 = v2;
+			this.weight = weight;
+			this.label = label;
+		}
+
+		public boolean equals(Object o){
+			if(!(o instanceof Pair))
+				return false;
+			Pair pair = (Pair) o;
+			return v1 == pair.v1 && v2 == pair.v2 && label == pair.label && Double.compare(weight, pair.weight) == 0;
+		}
+
+		public int hashCode(){
+			return 31 * (31 * (31 * v1 + v2) + label) + Double.hashCode(weight);
+		}
+	}
+}
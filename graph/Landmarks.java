@@ -0,0 +1,297 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class Landmarks <E,T> {
+
+	// File format
+	private static final int MAGIC = 0x414C5400; // "ALT\0"
+	private static final int VERSION = 2;
+
+	// Landmark vertices
+	private final Vertex<E,T> landmarks[];
+
+	// distanceFrom[i][id] is the distance from landmark i to vertex id, distanceTo[i][id] from vertex id to landmark i
+	// Both tables are the same in an undirected graph with shared edges. Without shared edges each direction is its own edge,
+	// with its own weight, so the tables can differ
+	private final double distanceFrom[][];
+	private final double distanceTo[][];
+
+	/**
+	 * Constructor
+	 * @param landmarks
+	 * @param distanceFrom
+	 * @param distanceTo
+	 */
+	private Landmarks(Vertex<E,T>[] landmarks, double[][] distanceFrom, double[][] distanceTo) {
+		this.landmarks = landmarks;
+		this.distanceFrom = distanceFrom;
+		this.distanceTo = distanceTo;
+	}
+
+	/**
+	 * Select landmarks far from each other and compute their distance tables in parallel
+	 * The landmarks must be rebuilt after adding edges or lowering weights, otherwise the estimates can be too large
+	 * @param graph
+	 * @param count Number of landmarks
+	 * @param threads Number of threads computing the distance tables
+	 * @return landmarks
+	 */
+	public static <E,T> Landmarks<E,T> build(Graph<E,T> graph, int count, int threads){
+		return build(graph, selectFarthest(graph, count), threads);
+	}
+
+	/**
+	 * Compute the distance tables of landmarks chosen by the caller in parallel
+	 * @param graph
+	 * @param landmarks
+	 * @param threads Number of threads computing the distance tables
+	 * @return landmarks
+	 */
+	public static <E,T> Landmarks<E,T> build(final Graph<E,T> graph, Vertex<E,T>[] landmarks, int threads){
+		final int capacity = graph.vertexCapacity();
+		final Vertex<E,T> vertices[] = graph.vertices_array();
+		final double distanceFrom[][] = new double[landmarks.length][];
+		final boolean backward = hasBackwardTables(graph);
+		final double distanceTo[][] = backward ? new double[landmarks.length][] : distanceFrom;
+
+		// One task per landmark and direction, graph queries can run concurrently
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int i = 0; i < landmarks.length; i++){
+			final int index = i;
+			final Vertex<E,T> landmark = landmarks[i];
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					distanceFrom[index] = table(graph.dijkstra(landmark), vertices, capacity);
+					return null;
+				}
+			});
+			if(backward){
+				tasks.add(new Callable<Void>() {
+					public Void call() {
+						distanceTo[index] = table(graph.dijkstra_backward(landmark), vertices, capacity);
+						return null;
+					}
+				});
+			}
+		}
+
+		// Run the tasks and rethrow the first failure
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		try{
+			for(Future<Void> future : executor.invokeAll(tasks))
+				future.get();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Landmark preprocessing interrupted", e);
+		}catch(ExecutionException e){
+			throw new IllegalStateException("Landmark preprocessing failed", e.getCause());
+		}finally{
+			executor.shutdown();
+		}
+		return new Landmarks<E,T>(landmarks.clone(), distanceFrom, distanceTo);
+	}
+
+	/**
+	 * Checks if the distances to the landmarks must be computed apart from the distances from them
+	 * Only the edges of an undirected graph with shared edges are the same in both directions
+	 * @param graph
+	 * @return boolean
+	 */
+	private static boolean hasBackwardTables(Graph<?,?> graph){
+		return graph.isDirected() || !graph.hasSharedEdges();
+	}
+
+	/**
+	 * Copy the Dijkstra values of a shortest path tree in a table indexed by vertex unique id
+	 * @param tree
+	 * @param vertices
+	 * @param capacity
+	 * @return table
+	 */
+	private static <E,T> double[] table(ShortestPathTree<E,T> tree, Vertex<E,T>[] vertices, int capacity){
+		double table[] = new double[capacity];
+		Arrays.fill(table, Double.MAX_VALUE);
+		for(Vertex<E,T> v : vertices)
+			table[v.getID()] = tree.getDijkstra_value(v);
+		return table;
+	}
+
+	/**
+	 * Farthest landmark selection: each new landmark is the vertex with the most hops to the landmarks already selected
+	 * Hops are counted on the edges in both directions, and a vertex that cannot be reached is the farthest
+	 * @param graph
+	 * @param count
+	 * @return landmarks
+	 */
+	private static <E,T> Vertex<E,T>[] selectFarthest(Graph<E,T> graph, int count){
+		Vertex<E,T> vertices[] = graph.vertices_array();
+		count = Math.min(count, vertices.length);
+		Vertex<E,T> landmarks[] = Vertex.newArray(count);
+		if(count == 0)
+			return landmarks;
+
+		// Hops to the closest landmark, indexed by vertex unique id
+		int hops[] = new int[graph.vertexCapacity()];
+		Arrays.fill(hops, Integer.MAX_VALUE);
+		Vertex<E,T> queue[] = Vertex.newArray(vertices.length);
+		landmarks[0] = vertices[0];
+		for(int i = 0; i < count; i++){
+
+			// Pick the farthest vertex from the selected landmarks
+			if(i > 0){
+				landmarks[i] = vertices[0];
+				for(Vertex<E,T> v : vertices)
+					if(hops[v.getID()] > hops[landmarks[i].getID()])
+						landmarks[i] = v;
+			}
+
+			// BFS from the new landmark, lowering the hops of the vertices closer to it
+			int head = 0, tail = 0;
+			queue[tail++] = landmarks[i];
+			hops[landmarks[i].getID()] = 0;
+			while(head < tail){
+				Vertex<E,T> polled = queue[head++];
+				NodeIterator<Edge<E,T>> inOutEdges = polled.getOutEdges().concatenate(polled.getInEdges());
+				while(inOutEdges.hasNext()){
+					Vertex<E,T> oppositeVertex = inOutEdges.next().getOpposite(polled);
+					if(hops[polled.getID()] + 1 < hops[oppositeVertex.getID()]){
+						hops[oppositeVertex.getID()] = hops[polled.getID()] + 1;
+						queue[tail++] = oppositeVertex;
+					}
+				}
+			}
+		}
+		return landmarks;
+	}
+
+	/**
+	 * Lower bound of the distance between two vertices using the triangle inequality on every landmark
+	 * d(v,t) >= d(L,t) - d(L,v) and d(v,t) >= d(v,L) - d(t,L)
+	 * @param v
+	 * @param target
+	 * @return estimate
+	 */
+	protected double estimate(Vertex<E,T> v, Vertex<E,T> target){
+		int id = v.getID();
+		int targetID = target.getID();
+		double estimate = 0;
+		for(int i = 0; i < landmarks.length; i++){
+			double from[] = distanceFrom[i];
+			double to[] = distanceTo[i];
+
+			// Vertices added after the build are not in the tables
+			if(id >= from.length || targetID >= from.length)
+				return 0;
+			if(from[targetID] != Double.MAX_VALUE && from[id] != Double.MAX_VALUE)
+				estimate = Math.max(estimate, from[targetID] - from[id]);
+			if(to[id] != Double.MAX_VALUE && to[targetID] != Double.MAX_VALUE)
+				estimate = Math.max(estimate, to[id] - to[targetID]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Get the landmark vertices
+	 * @return Array of vertices
+	 */
+	public Vertex<E,T>[] getLandmarks(){
+		return landmarks.clone();
+	}
+
+	/**
+	 * Store the landmarks and their distance tables in a file, to be read back with the same graph
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try{
+			boolean backward = distanceTo != distanceFrom;
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeBoolean(backward);
+			out.writeInt(landmarks.length);
+			out.writeInt(landmarks.length == 0 ? 0 : distanceFrom[0].length);
+			for(int i = 0; i < landmarks.length; i++){
+				out.writeInt(landmarks[i].getID());
+				for(double distance : distanceFrom[i])
+					out.writeDouble(distance);
+				if(backward)
+					for(double distance : distanceTo[i])
+						out.writeDouble(distance);
+			}
+		}finally{
+			out.close();
+		}
+	}
+
+	/**
+	 * Read landmarks stored with write(File)
+	 * @param graph The graph the landmarks were built on
+	 * @param file
+	 * @return landmarks
+	 * @throws IOException if the file is not a landmark file or does not match the graph
+	 */
+	public static <E,T> Landmarks<E,T> read(Graph<E,T> graph, File file) throws IOException{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try{
+			if(in.readInt() != MAGIC)
+				throw new IOException(file + " is not a landmark file");
+			int version = in.readInt();
+			if(version != VERSION)
+				throw new IOException("Unsupported landmark file version " + version);
+			boolean backward = in.readBoolean();
+			if(backward != hasBackwardTables(graph))
+				throw new IOException("Landmarks were built on a graph " + (backward ? "without" : "with") + " the same distances in both directions");
+			int count = in.readInt();
+			int capacity = in.readInt();
+
+			// Index the graph vertices by unique id to find the landmarks
+			Vertex<E,T> byID[] = Vertex.newArray(graph.vertexCapacity());
+			for(Vertex<E,T> v : graph.vertices_array())
+				byID[v.getID()] = v;
+
+			Vertex<E,T> landmarks[] = Vertex.newArray(count);
+			double distanceFrom[][] = new double[count][capacity];
+			double distanceTo[][] = backward ? new double[count][capacity] : distanceFrom;
+			for(int i = 0; i < count; i++){
+				int id = in.readInt();
+				if(id < 0 || id >= byID.length || byID[id] == null)
+					throw new IOException("Landmark vertex " + id + " is not in the graph");
+				landmarks[i] = byID[id];
+				for(int j = 0; j < capacity; j++)
+					distanceFrom[i][j] = in.readDouble();
+				if(backward)
+					for(int j = 0; j < capacity; j++)
+						distanceTo[i][j] = in.readDouble();
+			}
+			return new Landmarks<E,T>(landmarks, distanceFrom, distanceTo);
+		}finally{
+			in.close();
+		}
+	}
+}
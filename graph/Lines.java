@@ -0,0 +1,333 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class Lines {
+
+	// Bytes of a file in a chunk. A chunk holds the lines starting in its bytes
+	protected static final int CHUNK_BYTES = 1 << 22;
+
+	// Bytes read at once when the last line of a chunk goes past its end
+	private static final int BLOCK_BYTES = 1 << 12;
+
+	// Exact powers of ten, a number with at most 15 digits divided by one of them is correctly rounded
+	private static final double POWERS_OF_TEN[] = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	private final byte data[];
+	private int position;
+	private final int limit;
+
+	// Current line is data[start, end) without its line separator, cursor is the next byte to parse
+	private int start, end, cursor;
+
+	// Number of lines read
+	private int line;
+
+	/**
+	 * Constructor
+	 * @param data
+	 * @param position First line
+	 * @param limit End of the last line
+	 */
+	private Lines(byte[] data, int position, int limit) {
+		this.data = data;
+		this.position = position;
+		this.limit = limit;
+	}
+
+	/**
+	 * Number of chunks of a file
+	 * @param size Size of the file
+	 * @return chunks
+	 */
+	protected static int chunks(long size){
+		return (int) Math.max(1, (size + CHUNK_BYTES - 1) / CHUNK_BYTES);
+	}
+
+	/**
+	 * Read the lines starting in a chunk of a file
+	 * Several chunks of the same channel can be read at the same time
+	 * @param channel
+	 * @param size Size of the file
+	 * @param chunk
+	 * @return lines
+	 * @throws IOException
+	 */
+	protected static Lines read(FileChannel channel, long size, int chunk) throws IOException{
+		long start = (long) chunk * CHUNK_BYTES;
+		long end = Math.min(size, start + CHUNK_BYTES);
+
+		// The byte before the chunk tells if its first line started in the previous chunk
+		long offset = start == 0 ? 0 : start - 1;
+		byte data[] = new byte[(int) (end - offset)];
+		int limit = read(channel, data, 0, data.length, offset);
+		int position = 0;
+		if(start > 0){
+			while(position < limit && data[position] != '\n')
+				position++;
+			position = Math.min(position + 1, limit);
+		}
+
+		// Complete the last line
+		if(position < limit && data[limit - 1] != '\n'){
+			while(true){
+				if(limit + BLOCK_BYTES > data.length)
+					data = Arrays.copyOf(data, Math.max(data.length * 2, limit + BLOCK_BYTES));
+				int read = read(channel, data, limit, BLOCK_BYTES, offset + limit);
+				int newLine = limit;
+				while(newLine < limit + read && data[newLine] != '\n')
+					newLine++;
+				if(newLine < limit + read){
+					limit = newLine + 1;
+					break;
+				}
+				limit += read;
+				if(read < BLOCK_BYTES)
+					break;
+			}
+		}
+		return new Lines(data, position, limit);
+	}
+
+	/**
+	 * Read bytes of a file until the buffer is full or the end of the file is reached
+	 * @param channel
+	 * @param data
+	 * @param from
+	 * @param length
+	 * @param offset Position in the file
+	 * @return number of bytes read
+	 * @throws IOException
+	 */
+	private static int read(FileChannel channel, byte data[], int from, int length, long offset) throws IOException{
+		ByteBuffer buffer = ByteBuffer.wrap(data, from, length);
+		while(buffer.hasRemaining()){
+			int read = channel.read(buffer, offset + buffer.position() - from);
+			if(read < 0)
+				break;
+		}
+		return buffer.position() - from;
+	}
+
+	/**
+	 * Move to the next line
+	 * @return false if there are no more lines
+	 */
+	protected boolean next(){
+		if(position >= limit)
+			return false;
+		start = cursor = position;
+		int i = position;
+		while(i < limit && data[i] != '\n')
+			i++;
+		position = i + 1;
+		end = i > start && data[i - 1] == '\r' ? i - 1 : i;
+		line++;
+		return true;
+	}
+
+	/**
+	 * Get the number of lines read
+	 * @return lines
+	 */
+	protected int getLine(){
+		return line;
+	}
+
+	/**
+	 * Count the next lines from 1 again
+	 */
+	protected void resetLine(){
+		line = 0;
+	}
+
+	/**
+	 * Bytes left after the current line
+	 * @return bytes
+	 */
+	protected int remaining(){
+		return limit - position;
+	}
+
+	/**
+	 * Checks if only spaces are left on the line
+	 * @return boolean
+	 */
+	protected boolean atEnd(){
+		skipSpaces();
+		return cursor == end;
+	}
+
+	/**
+	 * Skip a token if it is next on the line, after optional spaces
+	 * @param token ASCII token
+	 * @return true if the token was skipped
+	 */
+	protected boolean accept(String token){
+		skipSpaces();
+		if(end - cursor < token.length())
+			return false;
+		for(int i = 0; i < token.length(); i++)
+			if(data[cursor + i] != token.charAt(i))
+				return false;
+		cursor += token.length();
+		return true;
+	}
+
+	/**
+	 * Skip a character, after optional spaces
+	 * @param c
+	 */
+	protected void expect(char c){
+		skipSpaces();
+		if(cursor == end || data[cursor] != c)
+			throw expected("'" + c + "'");
+		cursor++;
+	}
+
+	/**
+	 * Checks that only spaces are left on the line
+	 */
+	protected void expectEnd(){
+		if(!atEnd())
+			throw expected("the end of the line");
+	}
+
+	/**
+	 * Parse a word up to the next space
+	 * @param what Description used in the error
+	 * @return word
+	 */
+	protected String word(String what){
+		skipSpaces();
+		int first = cursor;
+		while(cursor < end && data[cursor] != ' ' && data[cursor] != '\t')
+			cursor++;
+		if(cursor == first)
+			throw expected(what);
+		return new String(data, first, cursor - first, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parse the rest of the line, after optional spaces
+	 * @return rest of the line
+	 */
+	protected String rest(){
+		skipSpaces();
+		String rest = new String(data, cursor, end - cursor, StandardCharsets.UTF_8);
+		cursor = end;
+		return rest;
+	}
+
+	/**
+	 * Parse a non-negative integer
+	 * @param what Description used in the error
+	 * @return integer
+	 */
+	protected int integer(String what){
+		skipSpaces();
+		int first = cursor;
+		long value = 0;
+		while(cursor < end && data[cursor] >= '0' && data[cursor] <= '9'){
+			value = value * 10 + data[cursor++] - '0';
+			if(value > Integer.MAX_VALUE)
+				throw error("Integer too large", first - start + 1);
+		}
+		if(cursor == first)
+			throw expected(what);
+		return (int) value;
+	}
+
+	/**
+	 * Parse a decimal number
+	 * Short numbers are computed directly, others are given to Double.parseDouble
+	 * @param what Description used in the error
+	 * @return number
+	 */
+	protected double number(String what){
+		skipSpaces();
+		int first = cursor;
+		if(cursor < end && (data[cursor] == '-' || data[cursor] == '+'))
+			cursor++;
+		long mantissa = 0;
+		int digits = 0, decimals = 0;
+		while(cursor < end && data[cursor] >= '0' && data[cursor] <= '9'){
+			mantissa = mantissa * 10 + data[cursor++] - '0';
+			digits++;
+		}
+		if(cursor < end && data[cursor] == '.'){
+			cursor++;
+			while(cursor < end && data[cursor] >= '0' && data[cursor] <= '9'){
+				mantissa = mantissa * 10 + data[cursor++] - '0';
+				digits++;
+				decimals++;
+			}
+		}
+		if(digits == 0){
+			cursor = first;
+			throw expected(what);
+		}
+		boolean exponent = cursor < end && (data[cursor] == 'e' || data[cursor] == 'E');
+		if(exponent){
+			cursor++;
+			if(cursor < end && (data[cursor] == '-' || data[cursor] == '+'))
+				cursor++;
+			int exponentFirst = cursor;
+			while(cursor < end && data[cursor] >= '0' && data[cursor] <= '9')
+				cursor++;
+			if(cursor == exponentFirst)
+				throw expected("the exponent of " + what);
+		}
+		if(exponent || digits > 15)
+			return Double.parseDouble(new String(data, first, cursor - first, StandardCharsets.ISO_8859_1));
+		double value = mantissa / POWERS_OF_TEN[decimals];
+		return data[first] == '-' ? -value : value;
+	}
+
+	/**
+	 * Get the column of the cursor
+	 * @return column, starting from 1
+	 */
+	protected int column(){
+		return cursor - start + 1;
+	}
+
+	/**
+	 * Skip spaces and tabs
+	 */
+	protected void skipSpaces(){
+		while(cursor < end && (data[cursor] == ' ' || data[cursor] == '\t'))
+			cursor++;
+	}
+
+	/**
+	 * Error at the cursor, showing what was found there
+	 * @param what Description of what was expected
+	 * @return exception
+	 */
+	protected GraphFormatException expected(String what){
+		String found = cursor == end ? "end of line" : "\"" + new String(data, cursor, Math.min(end - cursor, 20), StandardCharsets.UTF_8) + "\"";
+		return error("Expected " + what + ", found " + found, column());
+	}
+
+	/**
+	 * Error at a column of the current line
+	 * @param reason
+	 * @param column
+	 * @return exception
+	 */
+	protected GraphFormatException error(String reason, int column){
+		return new GraphFormatException(reason, line, column);
+	}
+}
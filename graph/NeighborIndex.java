@@ -0,0 +1,120 @@
+package graph;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class NeighborIndex <E,T> {
+
+	// Open addressing with linear probing. keys[i] is the unique id of the vertex edges[i] leads to plus one, 0 if the slot is empty
+	// Parallel edges have the same key and are stored in consecutive probes
+	private final Vertex<E,T> owner;
+	private int keys[];
+	private Edge<E,T> edges[];
+	private int size;
+
+	/**
+	 * Constructor
+	 * @param owner Vertex whose out edges are indexed, an edge leads to its opposite of the owner
+	 * @param expected Number of edges expected in the index
+	 */
+	protected NeighborIndex(Vertex<E,T> owner, int expected) {
+		this.owner = owner;
+		int capacity = 16;
+		while(capacity < expected * 2)
+			capacity *= 2;
+		keys = new int[capacity];
+		edges = Edge.newArray(capacity);
+	}
+
+	/**
+	 * First slot to probe for a vertex unique id
+	 * @param id
+	 * @return slot
+	 */
+	private int slot(int id){
+		int hash = id * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (keys.length - 1);
+	}
+
+	/**
+	 * Index an out edge by the vertex it leads to
+	 * @param edge
+	 */
+	protected void add(Edge<E,T> edge){
+		if((size + 1) * 2 > keys.length)
+			resize(keys.length * 2);
+		insert(edge);
+		size++;
+	}
+
+	/**
+	 * Store an edge in the first empty slot of its probe sequence
+	 * @param edge
+	 */
+	private void insert(Edge<E,T> edge){
+		int key = edge.getOpposite(owner).getID() + 1;
+		int mask = keys.length - 1;
+		int i = slot(key - 1);
+		while(keys[i] != 0)
+			i = (i + 1) & mask;
+		keys[i] = key;
+		edges[i] = edge;
+	}
+
+	/**
+	 * Get an out edge leading to a vertex
+	 * @param v
+	 * @return edge | null
+	 */
+	protected Edge<E,T> get(Vertex<E,T> v){
+		int key = v.getID() + 1;
+		int mask = keys.length - 1;
+		for(int i = slot(key - 1); keys[i] != 0; i = (i + 1) & mask)
+			if(keys[i] == key && edges[i].getOpposite(owner) == v)
+				return edges[i];
+		return null;
+	}
+
+	/**
+	 * Remove an edge from the index
+	 * @param edge
+	 */
+	protected void remove(Edge<E,T> edge){
+		int mask = keys.length - 1;
+		int i = slot(edge.getOpposite(owner).getID());
+		while(keys[i] != 0 && edges[i] != edge)
+			i = (i + 1) & mask;
+		if(keys[i] == 0)
+			return;
+		size--;
+
+		// Backward shift: move the following entries of the cluster up if the hole is on their probe sequence
+		int hole = i;
+		for(int j = (hole + 1) & mask; keys[j] != 0; j = (j + 1) & mask){
+			int home = slot(keys[j] - 1);
+			if(((j - home) & mask) >= ((j - hole) & mask)){
+				keys[hole] = keys[j];
+				edges[hole] = edges[j];
+				hole = j;
+			}
+		}
+		keys[hole] = 0;
+		edges[hole] = null;
+	}
+
+	/**
+	 * Rehash all the edges in a larger table
+	 * @param capacity
+	 */
+	private void resize(int capacity){
+		Edge<E,T> old[] = edges;
+		keys = new int[capacity];
+		edges = Edge.newArray(capacity);
+		for(Edge<E,T> edge : old)
+			if(edge != null)
+				insert(edge);
+	}
+}
@@ -0,0 +1,845 @@
+package graph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class OffHeapGraph implements Closeable {
+
+	// File header: magic, version, flags, number of chunks, vertex count, edge count, then the kind of each chunk from byte 64
+	// Chunk i starts after the header and chunks 0 to i-1
+	private static final int MAGIC = 0x47414448;
+	private static final int VERSION = 1;
+	private static final int DIRECTED = 1;
+	private static final int HEADER_BYTES = 1 << 15;
+	private static final int CHUNK_TABLE = 64;
+	private static final int MAX_CHUNKS = HEADER_BYTES - CHUNK_TABLE;
+
+	// Kinds of chunks
+	private static final byte VERTEX_CHUNK = 0;
+	private static final byte EDGE_CHUNK = 1;
+
+	// Records are stored in chunks of 2^20 records, each chunk is a direct or a mapped buffer
+	private static final int CHUNK_SHIFT = 20;
+	private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+	// Vertex record: id, first and last out edge, first and last in edge
+	private static final int VERTEX_BYTES = 40;
+	private static final int ID = 0, OUT_HEAD = 8, OUT_TAIL = 16, IN_HEAD = 24, IN_TAIL = 32;
+
+	// Edge record: from, to, weight, next out edge of 'from', next in edge of 'to'
+	// An undirected edge is an out edge of 'from' and an in edge of 'to', except a self loop which is only an out edge
+	private static final int EDGE_BYTES = 32;
+	private static final int FROM = 0, TO = 4, WEIGHT = 8, NEXT_FROM = 16, NEXT_TO = 24;
+
+	// No edge
+	private static final long NONE = -1;
+
+	private final boolean directed;
+	private int vertexCount;
+	private long edgeCount;
+	private ByteBuffer vertexChunks[], edgeChunks[];
+	private int vertexChunkCount, edgeChunkCount;
+
+	// File mapping, null if the graph is in memory
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private long length;
+	private int chunkCount;
+
+	private boolean closed;
+
+	/**
+	 * Constructor
+	 * @param directed
+	 * @param file Opened file, or null to keep the graph in memory
+	 * @param header Mapped header of the file
+	 */
+	private OffHeapGraph(boolean directed, RandomAccessFile file, MappedByteBuffer header) {
+		this.directed = directed;
+		this.file = file;
+		this.channel = file == null ? null : file.getChannel();
+		this.header = header;
+		length = HEADER_BYTES;
+		vertexChunks = new ByteBuffer[16];
+		edgeChunks = new ByteBuffer[16];
+	}
+
+	/**
+	 * Create an empty graph in direct memory, outside of the heap
+	 * The memory is released when the graph is closed and garbage collected
+	 * @param directed true if the graph is directed, false if undirected
+	 * @return graph
+	 */
+	public static OffHeapGraph allocate(boolean directed){
+		return new OffHeapGraph(directed, null, null);
+	}
+
+	/**
+	 * Create an empty graph mapped to a file, replacing the file if it exists
+	 * The file grows as vertices and edges are added, and the operating system pages it in and out of memory
+	 * @param file
+	 * @param directed true if the graph is directed, false if undirected
+	 * @return graph
+	 * @throws IOException
+	 */
+	public static OffHeapGraph create(File file, boolean directed) throws IOException{
+		RandomAccessFile output = new RandomAccessFile(file, "rw");
+		try{
+			output.setLength(0);
+			MappedByteBuffer header = output.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(0, MAGIC);
+			header.putInt(4, VERSION);
+			header.putInt(8, directed ? DIRECTED : 0);
+			return new OffHeapGraph(directed, output, header);
+		}catch(IOException e){
+			output.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Open a graph mapped to a file by create, more vertices and edges can be added
+	 * @param file
+	 * @return graph
+	 * @throws IOException if the file cannot be read or is not a graph file
+	 */
+	public static OffHeapGraph open(File file) throws IOException{
+		RandomAccessFile input = new RandomAccessFile(file, "rw");
+		try{
+			FileChannel channel = input.getChannel();
+			if(channel.size() < HEADER_BYTES)
+				throw new IOException(file + " is not an off-heap graph");
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			if(header.getInt(0) != MAGIC)
+				throw new IOException(file + " is not an off-heap graph");
+			int version = header.getInt(4);
+			if(version != VERSION)
+				throw new IOException("Unsupported off-heap graph version " + version);
+			OffHeapGraph graph = new OffHeapGraph((header.getInt(8) & DIRECTED) != 0, input, header);
+			int chunks = header.getInt(12);
+			graph.vertexCount = header.getInt(16);
+			graph.edgeCount = header.getLong(24);
+			if(chunks < 0 || chunks > MAX_CHUNKS || graph.vertexCount < 0 || graph.edgeCount < 0)
+				throw new IOException(file + " is corrupted");
+
+			// Map the chunks in the order they were created
+			for(int i = 0; i < chunks; i++){
+				byte kind = header.get(CHUNK_TABLE + i);
+				long bytes = (long) (kind == VERTEX_CHUNK ? VERTEX_BYTES : EDGE_BYTES) << CHUNK_SHIFT;
+				if(graph.length + bytes > channel.size())
+					throw new IOException(file + " is truncated");
+				graph.addChunk(kind, graph.map(graph.length, bytes));
+			}
+			if(graph.vertexCount > (long) graph.vertexChunkCount << CHUNK_SHIFT || graph.edgeCount > (long) graph.edgeChunkCount << CHUNK_SHIFT)
+				throw new IOException(file + " is truncated");
+			return graph;
+		}catch(IOException e){
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Add a vertex
+	 * @param id Id of the vertex, for example its id in the file the graph was read from
+	 * @return Index of the vertex
+	 */
+	public int addVertex(long id){
+		checkOpen();
+		if(vertexCount == Integer.MAX_VALUE)
+			throw new IllegalStateException("Too many vertices");
+		if(vertexCount >>> CHUNK_SHIFT == vertexChunkCount)
+			newChunk(VERTEX_CHUNK);
+		int v = vertexCount;
+		ByteBuffer chunk = vertexChunks[v >>> CHUNK_SHIFT];
+		int offset = (v & CHUNK_MASK) * VERTEX_BYTES;
+		chunk.putLong(offset + ID, id);
+		chunk.putLong(offset + OUT_HEAD, NONE);
+		chunk.putLong(offset + OUT_TAIL, NONE);
+		chunk.putLong(offset + IN_HEAD, NONE);
+		chunk.putLong(offset + IN_TAIL, NONE);
+		vertexCount++;
+		if(header != null)
+			header.putInt(16, vertexCount);
+		return v;
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * @param v1 Index of the 'from' vertex
+	 * @param v2 Index of the 'to' vertex
+	 * @param weight
+	 * @return Index of the edge
+	 */
+	public long addEdge(int v1, int v2, double weight){
+		checkOpen();
+		checkVertex(v1);
+		checkVertex(v2);
+		if(edgeCount >>> CHUNK_SHIFT == edgeChunkCount)
+			newChunk(EDGE_CHUNK);
+		long e = edgeCount;
+		ByteBuffer chunk = edgeChunks[(int) (e >>> CHUNK_SHIFT)];
+		int offset = (int) (e & CHUNK_MASK) * EDGE_BYTES;
+		chunk.putInt(offset + FROM, v1);
+		chunk.putInt(offset + TO, v2);
+		chunk.putDouble(offset + WEIGHT, weight);
+		chunk.putLong(offset + NEXT_FROM, NONE);
+		chunk.putLong(offset + NEXT_TO, NONE);
+
+		// Append to the out edges of v1
+		long tail = vertexLong(v1, OUT_TAIL);
+		if(tail == NONE)
+			setVertexLong(v1, OUT_HEAD, e);
+		else
+			setEdgeLong(tail, NEXT_FROM, e);
+		setVertexLong(v1, OUT_TAIL, e);
+
+		// Append to the in edges of v2
+		if(directed || v1 != v2){
+			tail = vertexLong(v2, IN_TAIL);
+			if(tail == NONE)
+				setVertexLong(v2, IN_HEAD, e);
+			else
+				setEdgeLong(tail, NEXT_TO, e);
+			setVertexLong(v2, IN_TAIL, e);
+		}
+		edgeCount++;
+		if(header != null)
+			header.putLong(24, edgeCount);
+		return e;
+	}
+
+	/**
+	 * Add an edge between two vertices
+	 * @param v1 Index of the 'from' vertex
+	 * @param v2 Index of the 'to' vertex
+	 * @return Index of the edge
+	 */
+	public long addEdge(int v1, int v2){
+		return addEdge(v1, v2, 0.0);
+	}
+
+	/**
+	 * Breadth-First-Search starting from a specific vertex
+	 * @param vertex
+	 * @return Vertices traversed by BFS
+	 */
+	public int[] BFS(int vertex){
+		checkOpen();
+		checkVertex(vertex);
+		int queue[] = new int[vertexCount];
+		int size = BFS(vertex, queue, 0, new boolean[vertexCount]);
+		return Arrays.copyOf(queue, size);
+	}
+
+	/**
+	 * Breadth-First-Search
+	 * @return Vertices traversed by BFS
+	 */
+	public int[] BFS(){
+		checkOpen();
+		int queue[] = new int[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		int size = 0;
+		for(int i = 0; i < vertexCount; i++)
+			if(!visited[i])
+				size = BFS(i, queue, size, visited);
+		return queue;
+	}
+
+	/**
+	 * BFS on the out edges that appends to queue[]
+	 * @param start
+	 * @param queue
+	 * @param tail Number of vertices already in the queue
+	 * @param visited
+	 * @return new tail of the queue
+	 */
+	private int BFS(int start, int[] queue, int tail, boolean[] visited){
+		int head = tail;
+		queue[tail++] = start;
+		visited[start] = true;
+		while(head < tail){
+			int polled = queue[head++];
+			for(long position = firstEdge(polled); position != NONE; position = nextEdge(position, polled)){
+				int opposite = opposite(position);
+				if(!visited[opposite]){
+					visited[opposite] = true;
+					queue[tail++] = opposite;
+				}
+			}
+		}
+		return tail;
+	}
+
+	/**
+	 * Depth-First-Search from a specific vertex
+	 * @param vertex
+	 * @return Vertices traversed by DFS
+	 */
+	public int[] DFS(int vertex){
+		checkOpen();
+		checkVertex(vertex);
+		int order[] = new int[vertexCount];
+		int size = DFS(vertex, order, 0, new boolean[vertexCount], new int[vertexCount], new long[vertexCount]);
+		return Arrays.copyOf(order, size);
+	}
+
+	/**
+	 * Depth-First-Search
+	 * @return Vertices traversed by DFS
+	 */
+	public int[] DFS(){
+		checkOpen();
+		int order[] = new int[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		int stack[] = new int[vertexCount];
+		long cursor[] = new long[vertexCount];
+		int size = 0;
+		for(int i = 0; i < vertexCount; i++)
+			if(!visited[i])
+				size = DFS(i, order, size, visited, stack, cursor);
+		return order;
+	}
+
+	/**
+	 * DFS with an explicit stack that appends the pre-order to order[]
+	 * @param start
+	 * @param order
+	 * @param size Number of vertices already in order[]
+	 * @param visited
+	 * @param stack Vertices on the current path
+	 * @param cursor Position of the next edge to explore for each vertex on the stack
+	 * @return new size of order[]
+	 */
+	private int DFS(int start, int[] order, int size, boolean[] visited, int[] stack, long[] cursor){
+		int top = 0;
+		stack[top] = start;
+		cursor[top++] = firstEdge(start);
+		visited[start] = true;
+		order[size++] = start;
+		while(top > 0){
+			int v = stack[top - 1];
+			long position = cursor[top - 1];
+
+			// Pop the vertex if all its neighbors have been explored
+			if(position == NONE){
+				top--;
+				continue;
+			}
+
+			// Push the next neighbor if not visited
+			cursor[top - 1] = nextEdge(position, v);
+			int opposite = opposite(position);
+			if(!visited[opposite]){
+				visited[opposite] = true;
+				order[size++] = opposite;
+				stack[top] = opposite;
+				cursor[top++] = firstEdge(opposite);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Gives the number of connected components
+	 * Directed graphs are considered undirected
+	 * @return connected components
+	 */
+	public int connectedComponents(){
+		checkOpen();
+		int parent[] = new int[vertexCount];
+		for(int i = 0; i < vertexCount; i++)
+			parent[i] = i;
+		int components = vertexCount;
+		for(long e = 0; e < edgeCount; e++)
+			if(union(parent, edgeInt(e, FROM), edgeInt(e, TO)))
+				components--;
+		return components;
+	}
+
+	/**
+	 * Checks if the graph is connected
+	 * @return boolean
+	 */
+	public boolean isConnected(){
+		return connectedComponents() == 1;
+	}
+
+	/**
+	 * Checks if the graph contains a cycle, a self loop is a cycle only in a directed graph, as in Graph
+	 * A directed graph is cyclic if some vertices are left once the vertices without in edges are removed one by one,
+	 * an undirected graph is cyclic if an edge joins two different vertices that were already connected
+	 * @return boolean
+	 */
+	public boolean isCyclic(){
+		checkOpen();
+		if(!directed){
+			int parent[] = new int[vertexCount];
+			for(int i = 0; i < vertexCount; i++)
+				parent[i] = i;
+			for(long e = 0; e < edgeCount; e++){
+				int from = edgeInt(e, FROM), to = edgeInt(e, TO);
+				if(from != to && !union(parent, from, to))
+					return true;
+			}
+			return false;
+		}
+		int inDegree[] = new int[vertexCount];
+		for(long e = 0; e < edgeCount; e++)
+			inDegree[edgeInt(e, TO)]++;
+		int queue[] = new int[vertexCount];
+		int head = 0, tail = 0;
+		for(int i = 0; i < vertexCount; i++)
+			if(inDegree[i] == 0)
+				queue[tail++] = i;
+		while(head < tail){
+			int polled = queue[head++];
+			for(long e = vertexLong(polled, OUT_HEAD); e != NONE; e = edgeLong(e, NEXT_FROM))
+				if(--inDegree[edgeInt(e, TO)] == 0)
+					queue[tail++] = edgeInt(e, TO);
+		}
+		return tail < vertexCount;
+	}
+
+	/**
+	 * Dijkstra from a vertex to all other vertices
+	 * @param vertex
+	 * @return Dijkstra value of each vertex, Double.MAX_VALUE if it is not reachable
+	 */
+	public double[] dijkstra(int vertex){
+		return dijkstra(vertex, -1, null);
+	}
+
+	/**
+	 * Get the shortest path from one vertex to another, stopping as soon as vTo is reached
+	 * @param vFrom
+	 * @param vTo
+	 * @return Indices of the edges to go from vFrom to vTo, empty if there is no path
+	 */
+	public long[] dijkstra(int vFrom, int vTo){
+		checkOpen();
+		checkVertex(vTo);
+		long parent_edge[] = new long[vertexCount];
+		double dijkstra_value[] = dijkstra(vFrom, vTo, parent_edge);
+		if(dijkstra_value[vTo] == Double.MAX_VALUE)
+			return new long[0];
+
+		// Walk the parent edges back from vTo
+		int length = 0;
+		for(int v = vTo; v != vFrom; v = getOpposite(parent_edge[v], v))
+			length++;
+		long path[] = new long[length];
+		for(int v = vTo; v != vFrom; v = getOpposite(parent_edge[v], v))
+			path[--length] = parent_edge[v];
+		return path;
+	}
+
+	/**
+	 * Dijkstra with the indexed heap, the per query state is on the heap and the graph is read from its chunks
+	 * @param vertex
+	 * @param target Vertex stopping the search once reached, -1 to reach all the vertices
+	 * @param parent_edge Filled with the edge reaching each vertex, or null
+	 * @return Dijkstra value of each vertex, Double.MAX_VALUE if it is not reachable
+	 */
+	private double[] dijkstra(int vertex, int target, long[] parent_edge){
+		checkOpen();
+		checkVertex(vertex);
+		double dijkstra_value[] = new double[vertexCount];
+		boolean visited[] = new boolean[vertexCount];
+		Arrays.fill(dijkstra_value, Double.MAX_VALUE);
+		if(parent_edge != null)
+			Arrays.fill(parent_edge, NONE);
+		dijkstra_value[vertex] = 0;
+		IndexedHeap heap = new IndexedHeap(vertexCount);
+		heap.offer(vertex, 0);
+		while(!heap.isEmpty()){
+			double value = heap.peekKey();
+			int polled = heap.poll();
+			visited[polled] = true;
+			if(polled == target)
+				break;
+			for(long position = firstEdge(polled); position != NONE; position = nextEdge(position, polled)){
+				long edge = edgeAt(position);
+				int opposite = opposite(position);
+				double pathCost = value + edgeDouble(edge, WEIGHT);
+				if(!visited[opposite] && pathCost < dijkstra_value[opposite]){
+					dijkstra_value[opposite] = pathCost;
+					if(parent_edge != null)
+						parent_edge[opposite] = edge;
+					heap.offer(opposite, pathCost);
+				}
+			}
+		}
+		return dijkstra_value;
+	}
+
+	/**
+	 * Number of vertices
+	 * @return size
+	 */
+	public int vertexCount(){
+		checkOpen();
+		return vertexCount;
+	}
+
+	/**
+	 * Number of edges, an undirected edge counts once
+	 * @return size
+	 */
+	public long edgeCount(){
+		checkOpen();
+		return edgeCount;
+	}
+
+	/**
+	 * Checks if the graph is directed or not
+	 * @return boolean
+	 */
+	public boolean isDirected(){
+		return directed;
+	}
+
+	/**
+	 * Get the id given to a vertex
+	 * @param vertex
+	 * @return id
+	 */
+	public long getID(int vertex){
+		checkOpen();
+		checkVertex(vertex);
+		return vertexLong(vertex, ID);
+	}
+
+	/**
+	 * Get the 'from' vertex of an edge
+	 * @param edge
+	 * @return vertex
+	 */
+	public int getFrom(long edge){
+		checkOpen();
+		checkEdge(edge);
+		return edgeInt(edge, FROM);
+	}
+
+	/**
+	 * Get the 'to' vertex of an edge
+	 * @param edge
+	 * @return vertex
+	 */
+	public int getTo(long edge){
+		checkOpen();
+		checkEdge(edge);
+		return edgeInt(edge, TO);
+	}
+
+	/**
+	 * Get the opposite side of a vertex on an edge
+	 * @param edge
+	 * @param vertex
+	 * @return Opposite vertex | -1 if the vertex is not on the edge
+	 */
+	public int getOpposite(long edge, int vertex){
+		int from = getFrom(edge), to = edgeInt(edge, TO);
+		if(vertex != from && vertex != to)
+			return -1;
+		return from == vertex ? to : from;
+	}
+
+	/**
+	 * Get the weight of an edge
+	 * @param edge
+	 * @return weight
+	 */
+	public double getWeight(long edge){
+		checkOpen();
+		checkEdge(edge);
+		return edgeDouble(edge, WEIGHT);
+	}
+
+	/**
+	 * Write the changes of a file mapped graph to the disk, nothing to do in memory
+	 * @throws IOException
+	 */
+	public void flush() throws IOException{
+		checkOpen();
+		if(header == null)
+			return;
+		for(int i = 0; i < vertexChunkCount; i++)
+			((MappedByteBuffer) vertexChunks[i]).force();
+		for(int i = 0; i < edgeChunkCount; i++)
+			((MappedByteBuffer) edgeChunks[i]).force();
+		header.force();
+	}
+
+	/**
+	 * Release the storage of the graph. A file mapped graph is flushed and its file closed
+	 * The buffers are freed by the garbage collector once unreachable, the graph cannot be used afterwards
+	 * Closing a closed graph does nothing
+	 * @throws IOException
+	 */
+	public void close() throws IOException{
+		if(closed)
+			return;
+		try{
+			flush();
+		}finally{
+			closed = true;
+			vertexChunks = edgeChunks = null;
+			if(file != null)
+				file.close();
+		}
+	}
+
+	/**
+	 * Checks if the graph has been closed
+	 * @return boolean
+	 */
+	public boolean isClosed(){
+		return closed;
+	}
+
+	/**
+	 * Position of the first edge of a vertex: its out edges, followed by its in edges if the graph is undirected
+	 * An in edge e is at position -2 - e
+	 * @param v
+	 * @return position | NONE
+	 */
+	private long firstEdge(int v){
+		long e = vertexLong(v, OUT_HEAD);
+		if(e != NONE || directed)
+			return e;
+		return inPosition(vertexLong(v, IN_HEAD));
+	}
+
+	/**
+	 * Position of the edge following a position in the edges of a vertex
+	 * @param position
+	 * @param v
+	 * @return position | NONE
+	 */
+	private long nextEdge(long position, int v){
+		if(position < NONE)
+			return inPosition(edgeLong(-2 - position, NEXT_TO));
+		long e = edgeLong(position, NEXT_FROM);
+		if(e != NONE || directed)
+			return e;
+		return inPosition(vertexLong(v, IN_HEAD));
+	}
+
+	/**
+	 * Position of an in edge
+	 * @param e Edge | NONE
+	 * @return position | NONE
+	 */
+	private static long inPosition(long e){
+		return e == NONE ? NONE : -2 - e;
+	}
+
+	/**
+	 * Edge at a position
+	 * @param position
+	 * @return edge
+	 */
+	private static long edgeAt(long position){
+		return position >= 0 ? position : -2 - position;
+	}
+
+	/**
+	 * Vertex reached by the edge at a position
+	 * @param position
+	 * @return vertex
+	 */
+	private int opposite(long position){
+		return position >= 0 ? edgeInt(position, TO) : edgeInt(-2 - position, FROM);
+	}
+
+	/**
+	 * Read a field of a vertex record
+	 * @param v
+	 * @param field
+	 * @return value
+	 */
+	private long vertexLong(int v, int field){
+		return vertexChunks[v >>> CHUNK_SHIFT].getLong((v & CHUNK_MASK) * VERTEX_BYTES + field);
+	}
+
+	/**
+	 * Write a field of a vertex record
+	 * @param v
+	 * @param field
+	 * @param value
+	 */
+	private void setVertexLong(int v, int field, long value){
+		vertexChunks[v >>> CHUNK_SHIFT].putLong((v & CHUNK_MASK) * VERTEX_BYTES + field, value);
+	}
+
+	/**
+	 * Read an int field of an edge record
+	 * @param e
+	 * @param field
+	 * @return value
+	 */
+	private int edgeInt(long e, int field){
+		return edgeChunks[(int) (e >>> CHUNK_SHIFT)].getInt((int) (e & CHUNK_MASK) * EDGE_BYTES + field);
+	}
+
+	/**
+	 * Read a long field of an edge record
+	 * @param e
+	 * @param field
+	 * @return value
+	 */
+	private long edgeLong(long e, int field){
+		return edgeChunks[(int) (e >>> CHUNK_SHIFT)].getLong((int) (e & CHUNK_MASK) * EDGE_BYTES + field);
+	}
+
+	/**
+	 * Read a double field of an edge record
+	 * @param e
+	 * @param field
+	 * @return value
+	 */
+	private double edgeDouble(long e, int field){
+		return edgeChunks[(int) (e >>> CHUNK_SHIFT)].getDouble((int) (e & CHUNK_MASK) * EDGE_BYTES + field);
+	}
+
+	/**
+	 * Write a long field of an edge record
+	 * @param e
+	 * @param field
+	 * @param value
+	 */
+	private void setEdgeLong(long e, int field, long value){
+		edgeChunks[(int) (e >>> CHUNK_SHIFT)].putLong((int) (e & CHUNK_MASK) * EDGE_BYTES + field, value);
+	}
+
+	/**
+	 * Allocate a chunk, at the end of the file if the graph is file mapped
+	 * @param kind
+	 */
+	private void newChunk(byte kind){
+		long bytes = (long) (kind == VERTEX_CHUNK ? VERTEX_BYTES : EDGE_BYTES) << CHUNK_SHIFT;
+		if(header == null){
+			addChunk(kind, ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN));
+			return;
+		}
+		if(chunkCount == MAX_CHUNKS)
+			throw new IllegalStateException("The graph file has reached " + MAX_CHUNKS + " chunks");
+		try{
+			ByteBuffer chunk = map(length, bytes);
+			header.put(CHUNK_TABLE + chunkCount, kind);
+			header.putInt(12, chunkCount + 1);
+			addChunk(kind, chunk);
+		}catch(IOException e){
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Map a region of the file, growing the file if needed
+	 * @param position
+	 * @param bytes
+	 * @return buffer
+	 * @throws IOException
+	 */
+	private ByteBuffer map(long position, long bytes) throws IOException{
+		return channel.map(FileChannel.MapMode.READ_WRITE, position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Append a chunk to the vertex or edge chunks
+	 * @param kind
+	 * @param chunk
+	 */
+	private void addChunk(byte kind, ByteBuffer chunk){
+		if(kind == VERTEX_CHUNK){
+			if(vertexChunkCount == vertexChunks.length)
+				vertexChunks = Arrays.copyOf(vertexChunks, vertexChunkCount * 2);
+			vertexChunks[vertexChunkCount++] = chunk;
+		}else{
+			if(edgeChunkCount == edgeChunks.length)
+				edgeChunks = Arrays.copyOf(edgeChunks, edgeChunkCount * 2);
+			edgeChunks[edgeChunkCount++] = chunk;
+		}
+		if(header != null){
+			chunkCount++;
+			length += chunk.capacity();
+		}
+	}
+
+	/**
+	 * Join the sets of two vertices in a union-find forest
+	 * @param parent
+	 * @param v1
+	 * @param v2
+	 * @return true if the vertices were in different sets
+	 */
+	private static boolean union(int[] parent, int v1, int v2){
+		int root1 = find(parent, v1), root2 = find(parent, v2);
+		if(root1 == root2)
+			return false;
+		parent[root1] = root2;
+		return true;
+	}
+
+	/**
+	 * Find the root of the set of a vertex, halving the path on the way
+	 * @param parent
+	 * @param v
+	 * @return root
+	 */
+	private static int find(int[] parent, int v){
+		while(parent[v] != v){
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Checks that the graph has not been closed
+	 * @throws IllegalStateException if the graph is closed
+	 */
+	private void checkOpen(){
+		if(closed)
+			throw new IllegalStateException("The graph is closed");
+	}
+
+	/**
+	 * Checks that a vertex index was returned by addVertex
+	 * @param v
+	 * @throws IllegalArgumentException if the vertex does not exist
+	 */
+	private void checkVertex(int v){
+		if(v < 0 || v >= vertexCount)
+			throw new IllegalArgumentException("Vertex " + v + " does not exist");
+	}
+
+	/**
+	 * Checks that an edge index was returned by addEdge
+	 * @param e
+	 * @throws IllegalArgumentException if the edge does not exist
+	 */
+	private void checkEdge(long e){
+		if(e < 0 || e >= edgeCount)
+			throw new IllegalArgumentException("Edge " + e + " does not exist");
+	}
+}
@@ -0,0 +1,245 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class ParallelBFS <E,T> {
+
+	// Direction switch thresholds: go bottom-up when the frontier edges exceed the unexplored edges / ALPHA,
+	// go back top-down when the frontier has less than the vertices / BETA
+	private static final int ALPHA = 14;
+	private static final int BETA = 24;
+
+	// Number of vertices processed by one task
+	private static final int CHUNK = 256;
+
+	private final ForkJoinPool pool;
+
+	// Vertices of the graph, scanned by the bottom-up steps
+	private final Vertex<E,T> vertices[];
+
+	// Level and parent edge of each vertex unique id
+	private final AtomicIntegerArray level;
+	private final Edge<E,T> parent_edge[];
+
+	// Vertices level by level. The current frontier is order[frontierStart, frontierEnd), the next level is appended after it
+	private final Vertex<E,T> order[];
+	private final AtomicInteger orderSize = new AtomicInteger();
+
+	// Out edges of the next frontier and in edges of the vertices not reached yet
+	private final AtomicLong nextFrontierEdges = new AtomicLong();
+	private long unexploredEdges;
+
+	/**
+	 * Constructor
+	 * @param vertices Vertices of the graph
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 * @param pool
+	 */
+	protected ParallelBFS(Vertex<E,T>[] vertices, int vertexCapacity, ForkJoinPool pool) {
+		this.pool = pool;
+		this.vertices = vertices;
+		level = new AtomicIntegerArray(vertexCapacity);
+		for(int i = 0; i < vertexCapacity; i++)
+			level.set(i, -1);
+		parent_edge = Edge.newArray(vertexCapacity);
+		order = Vertex.newArray(vertices.length);
+		for(Vertex<E,T> v : vertices)
+			unexploredEdges += v.getInEdges().size();
+	}
+
+	/**
+	 * BFS from a root until all the reachable vertices have a level
+	 * @param root
+	 */
+	protected void run(Vertex<E,T> root){
+		level.set(root.getID(), 0);
+		unexploredEdges -= root.getInEdges().size();
+		long frontierEdges = root.getOutEdges().size();
+		int frontierStart = orderSize.get();
+		order[orderSize.getAndIncrement()] = root;
+		int frontierEnd = orderSize.get();
+		boolean bottomUp = false;
+		for(int depth = 0; frontierStart < frontierEnd; depth++){
+
+			// Choose the direction of the step
+			int frontierSize = frontierEnd - frontierStart;
+			if(!bottomUp && frontierEdges > unexploredEdges / ALPHA)
+				bottomUp = true;
+			else if(bottomUp && frontierSize < vertices.length / BETA)
+				bottomUp = false;
+
+			nextFrontierEdges.set(0);
+			long explored = bottomUp
+					? pool.invoke(new BottomUp(0, vertices.length, depth))
+					: pool.invoke(new TopDown(frontierStart, frontierEnd, depth));
+			unexploredEdges -= explored;
+			frontierEdges = nextFrontierEdges.get();
+			frontierStart = frontierEnd;
+			frontierEnd = orderSize.get();
+		}
+	}
+
+	/**
+	 * Checks if a vertex has been reached
+	 * @param v
+	 * @return boolean
+	 */
+	protected boolean isReached(Vertex<E,T> v){
+		return level.get(v.getID()) != -1;
+	}
+
+	/**
+	 * Get the result of the runs
+	 * @return BFS tree
+	 */
+	protected BFSTree<E,T> toTree(){
+		int levels[] = new int[level.length()];
+		for(int i = 0; i < levels.length; i++)
+			levels[i] = level.get(i);
+		return new BFSTree<E,T>(Arrays.copyOf(order, orderSize.get()), levels, parent_edge);
+	}
+
+	/**
+	 * Append the vertices discovered by a task to the next level
+	 * @param discovered
+	 * @param size
+	 * @param outEdges Out edges of the discovered vertices
+	 */
+	private void append(Vertex<E,T>[] discovered, int size, long outEdges){
+		if(size == 0) return;
+		int start = orderSize.getAndAdd(size);
+		System.arraycopy(discovered, 0, order, start, size);
+		nextFrontierEdges.addAndGet(outEdges);
+	}
+
+	/**
+	 * Top-down step: the frontier vertices claim their unvisited out neighbors
+	 */
+	private class TopDown extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final int from, to, depth;
+
+		/**
+		 * Constructor
+		 * @param from First frontier position
+		 * @param to Last frontier position, exclusive
+		 * @param depth Level of the frontier
+		 */
+		protected TopDown(int from, int to, int depth) {
+			this.from = from;
+			this.to = to;
+			this.depth = depth;
+		}
+
+		/**
+		 * Process the frontier positions, splitting them between tasks
+		 * @return In edges of the discovered vertices
+		 */
+		protected Long compute(){
+			if(to - from > CHUNK){
+				int middle = (from + to) >>> 1;
+				TopDown left = new TopDown(from, middle, depth);
+				left.fork();
+				long right = new TopDown(middle, to, depth).compute();
+				return right + left.join();
+			}
+			Vertex<E,T> discovered[] = Vertex.newArray(16);
+			int size = 0;
+			long inEdges = 0, outEdges = 0;
+			for(int i = from; i < to; i++){
+				Vertex<E,T> polled = order[i];
+				NodeIterator<Edge<E,T>> iterOutE = polled.getOutEdges();
+				while(iterOutE.hasNext()){
+					Edge<E,T> edge = iterOutE.next();
+					Vertex<E,T> oppositeVertex = edge.getOpposite(polled);
+					int id = oppositeVertex.getID();
+
+					// Only one task wins the vertex
+					if(level.get(id) == -1 && level.compareAndSet(id, -1, depth + 1)){
+						parent_edge[id] = edge;
+						if(size == discovered.length)
+							discovered = Arrays.copyOf(discovered, size * 2);
+						discovered[size++] = oppositeVertex;
+						inEdges += oppositeVertex.getInEdges().size();
+						outEdges += oppositeVertex.getOutEdges().size();
+					}
+				}
+			}
+			append(discovered, size, outEdges);
+			return inEdges;
+		}
+	}
+
+	/**
+	 * Bottom-up step: the unvisited vertices look for a parent in the frontier among their in neighbors
+	 */
+	private class BottomUp extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final int from, to, depth;
+
+		/**
+		 * Constructor
+		 * @param from First vertex index
+		 * @param to Last vertex index, exclusive
+		 * @param depth Level of the frontier
+		 */
+		protected BottomUp(int from, int to, int depth) {
+			this.from = from;
+			this.to = to;
+			this.depth = depth;
+		}
+
+		/**
+		 * Process the vertices, splitting them between tasks
+		 * @return In edges of the discovered vertices
+		 */
+		protected Long compute(){
+			if(to - from > CHUNK){
+				int middle = (from + to) >>> 1;
+				BottomUp left = new BottomUp(from, middle, depth);
+				left.fork();
+				long right = new BottomUp(middle, to, depth).compute();
+				return right + left.join();
+			}
+			Vertex<E,T> discovered[] = Vertex.newArray(16);
+			int size = 0;
+			long inEdges = 0, outEdges = 0;
+			for(int i = from; i < to; i++){
+				Vertex<E,T> current = vertices[i];
+				int id = current.getID();
+				if(level.get(id) != -1) continue;
+
+				// Each vertex is handled by a single task, the first frontier parent found wins
+				NodeIterator<Edge<E,T>> iterInE = current.getInEdges();
+				while(iterInE.hasNext()){
+					Edge<E,T> edge = iterInE.next();
+					if(level.get(edge.getOpposite(current).getID()) == depth){
+						level.set(id, depth + 1);
+						parent_edge[id] = edge;
+						if(size == discovered.length)
+							discovered = Arrays.copyOf(discovered, size * 2);
+						discovered[size++] = current;
+						inEdges += current.getInEdges().size();
+						outEdges += current.getOutEdges().size();
+						break;
+					}
+				}
+			}
+			append(discovered, size, outEdges);
+			return inEdges;
+		}
+	}
+}
@@ -0,0 +1,313 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class Reachability <E,T> {
+
+	// Number of components processed by one task
+	private static final int CHUNK = 64;
+
+	// Vertices of the graph and the map from vertex unique id to index
+	private final Vertex<E,T> vertices[];
+	private final int indexOfID[];
+
+	// Strongly connected component of each vertex index, and the vertices of each component
+	private final int componentOf[];
+	private final int memberOffsets[];
+	private final int members[];
+
+	// reach[c] has the bit of every component reachable from component c by a path of at least one edge
+	private final long reach[][];
+
+	/**
+	 * Constructor
+	 * Condenses the strongly connected components, then computes the rows of the components level by level,
+	 * sinks first. The rows of a level only depend on the rows of the previous levels and are computed in parallel
+	 * @param vertices
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 * @param pool
+	 */
+	protected Reachability(Vertex<E,T>[] vertices, int vertexCapacity, ForkJoinPool pool) {
+		this.vertices = vertices;
+		int n = vertices.length;
+		indexOfID = new int[vertexCapacity];
+		Arrays.fill(indexOfID, -1);
+		for(int i = 0; i < n; i++)
+			indexOfID[vertices[i].getID()] = i;
+
+		// Out neighbors of each vertex index
+		int offsets[] = new int[n + 1];
+		for(int i = 0; i < n; i++)
+			offsets[i + 1] = offsets[i] + vertices[i].getOutEdges().size();
+		int targets[] = new int[offsets[n]];
+		for(int i = 0, slot = 0; i < n; i++){
+			NodeIterator<Edge<E,T>> iterOutE = vertices[i].getOutEdges();
+			while(iterOutE.hasNext())
+				targets[slot++] = indexOfID[iterOutE.next().getOpposite(vertices[i]).getID()];
+		}
+
+		// Condensation. Tarjan numbers the components in reverse topological order
+		componentOf = new int[n];
+		int components = tarjan(offsets, targets, componentOf);
+		memberOffsets = new int[components + 1];
+		for(int i = 0; i < n; i++)
+			memberOffsets[componentOf[i] + 1]++;
+		for(int c = 0; c < components; c++)
+			memberOffsets[c + 1] += memberOffsets[c];
+		members = new int[n];
+		int position[] = Arrays.copyOf(memberOffsets, components);
+		for(int i = 0; i < n; i++)
+			members[position[componentOf[i]]++] = i;
+
+		// Successor components and cycles
+		int successorOffsets[] = new int[components + 1];
+		int successors[] = new int[targets.length];
+		boolean cyclic[] = new boolean[components];
+		int mark[] = new int[components];
+		Arrays.fill(mark, -1);
+		int size = 0;
+		for(int c = 0; c < components; c++){
+			if(memberOffsets[c + 1] - memberOffsets[c] > 1)
+				cyclic[c] = true;
+			for(int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++){
+				int i = members[m];
+				for(int slot = offsets[i]; slot < offsets[i + 1]; slot++){
+					int d = componentOf[targets[slot]];
+					if(d == c){
+						cyclic[c] = true;
+					}else if(mark[d] != c){
+						mark[d] = c;
+						successors[size++] = d;
+					}
+				}
+			}
+			successorOffsets[c + 1] = size;
+		}
+
+		// Level of each component: 0 for the sinks, 1 + the highest level of its successors otherwise
+		// Successors have smaller component numbers, so increasing numbers is a valid order
+		int level[] = new int[components];
+		int levels = 0;
+		for(int c = 0; c < components; c++){
+			for(int s = successorOffsets[c]; s < successorOffsets[c + 1]; s++)
+				level[c] = Math.max(level[c], level[successors[s]] + 1);
+			levels = Math.max(levels, level[c] + 1);
+		}
+		int levelOffsets[] = new int[levels + 1];
+		for(int c = 0; c < components; c++)
+			levelOffsets[level[c] + 1]++;
+		for(int l = 0; l < levels; l++)
+			levelOffsets[l + 1] += levelOffsets[l];
+		int byLevel[] = new int[components];
+		int levelPosition[] = Arrays.copyOf(levelOffsets, levels);
+		for(int c = 0; c < components; c++)
+			byLevel[levelPosition[level[c]]++] = c;
+
+		// Rows, word-parallel OR of the successor rows
+		reach = new long[components][];
+		int words = (components + 63) >>> 6;
+		for(int l = 0; l < levels; l++)
+			pool.invoke(new Rows(byLevel, levelOffsets[l], levelOffsets[l + 1], words, successorOffsets, successors, cyclic));
+	}
+
+	/**
+	 * Compute the rows of a range of components of the same level
+	 */
+	private class Rows extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int components[];
+		private final int from, to, words;
+		private final int successorOffsets[], successors[];
+		private final boolean cyclic[];
+
+		/**
+		 * Constructor
+		 * @param components
+		 * @param from
+		 * @param to Exclusive
+		 * @param words Length of a row
+		 * @param successorOffsets
+		 * @param successors
+		 * @param cyclic
+		 */
+		protected Rows(int[] components, int from, int to, int words, int[] successorOffsets, int[] successors, boolean[] cyclic) {
+			this.components = components;
+			this.from = from;
+			this.to = to;
+			this.words = words;
+			this.successorOffsets = successorOffsets;
+			this.successors = successors;
+			this.cyclic = cyclic;
+		}
+
+		/**
+		 * Process the range, splitting it between tasks
+		 */
+		protected void compute(){
+			if(to - from > CHUNK){
+				int middle = (from + to) >>> 1;
+				invokeAll(new Rows(components, from, middle, words, successorOffsets, successors, cyclic),
+						new Rows(components, middle, to, words, successorOffsets, successors, cyclic));
+				return;
+			}
+			for(int i = from; i < to; i++){
+				int c = components[i];
+				long row[] = new long[words];
+				if(cyclic[c])
+					row[c >>> 6] |= 1L << c;
+				for(int s = successorOffsets[c]; s < successorOffsets[c + 1]; s++){
+					int d = successors[s];
+					long successorRow[] = reach[d];
+					for(int w = 0; w < words; w++)
+						row[w] |= successorRow[w];
+					row[d >>> 6] |= 1L << d;
+				}
+				reach[c] = row;
+			}
+		}
+	}
+
+	/**
+	 * Iterative Tarjan strongly connected components
+	 * @param offsets
+	 * @param targets
+	 * @param componentOf Filled with the component of each vertex index
+	 * @return number of components
+	 */
+	private static int tarjan(int offsets[], int targets[], int componentOf[]){
+		int n = componentOf.length;
+		int index[] = new int[n];
+		int low[] = new int[n];
+		Arrays.fill(index, -1);
+		int stack[] = new int[n];
+		boolean onStack[] = new boolean[n];
+		int callVertex[] = new int[n];
+		int callSlot[] = new int[n];
+		int stackSize = 0, counter = 0, components = 0;
+		for(int root = 0; root < n; root++){
+			if(index[root] != -1) continue;
+			int depth = 0;
+			callVertex[0] = root;
+			callSlot[0] = offsets[root];
+			index[root] = low[root] = counter++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			while(depth >= 0){
+				int v = callVertex[depth];
+				if(callSlot[depth] < offsets[v + 1]){
+					int w = targets[callSlot[depth]++];
+					if(index[w] == -1){
+
+						// Recurse on w
+						index[w] = low[w] = counter++;
+						stack[stackSize++] = w;
+						onStack[w] = true;
+						depth++;
+						callVertex[depth] = w;
+						callSlot[depth] = offsets[w];
+					}else if(onStack[w]){
+						low[v] = Math.min(low[v], index[w]);
+					}
+					continue;
+				}
+
+				// v is finished, pop its component if it is a root
+				if(low[v] == index[v]){
+					int w;
+					do{
+						w = stack[--stackSize];
+						onStack[w] = false;
+						componentOf[w] = components;
+					}while(w != v);
+					components++;
+				}
+				depth--;
+				if(depth >= 0)
+					low[callVertex[depth]] = Math.min(low[callVertex[depth]], low[v]);
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Get the index of a vertex
+	 * @param v
+	 * @return index
+	 * @throws IllegalArgumentException if the vertex was added to the graph after the reachability was computed
+	 */
+	private int indexOf(Vertex<E,T> v){
+		int id = v.getID();
+		if(id >= indexOfID.length || indexOfID[id] == -1 || vertices[indexOfID[id]] != v)
+			throw new IllegalArgumentException("Vertex " + v + " is not part of this reachability matrix");
+		return indexOfID[id];
+	}
+
+	/**
+	 * Checks if there is a path of at least one edge from a vertex to another
+	 * A vertex reaches itself only if it is on a cycle
+	 * @param v1 From
+	 * @param v2 To
+	 * @return boolean
+	 */
+	public boolean isReachable(Vertex<E,T> v1, Vertex<E,T> v2){
+		int c2 = componentOf[indexOf(v2)];
+		return (reach[componentOf[indexOf(v1)]][c2 >>> 6] & (1L << c2)) != 0;
+	}
+
+	/**
+	 * Get the vertices reachable from a vertex by a path of at least one edge
+	 * @param v
+	 * @return Array of vertices
+	 */
+	public Vertex<E,T>[] getReachable(Vertex<E,T> v){
+		long row[] = reach[componentOf[indexOf(v)]];
+		ArrayList<Vertex<E,T>> reachable = new ArrayList<Vertex<E,T>>();
+		for(int w = 0; w < row.length; w++){
+			long word = row[w];
+			while(word != 0){
+				int c = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+				for(int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++)
+					reachable.add(vertices[members[m]]);
+			}
+		}
+		return reachable.toArray(Vertex.<E,T>newArray(reachable.size()));
+	}
+
+	/**
+	 * Get the number of strongly connected components
+	 * @return number of components
+	 */
+	public int componentCount(){
+		return reach.length;
+	}
+
+	/**
+	 * Checks if two vertices are in the same strongly connected component
+	 * @param v1
+	 * @param v2
+	 * @return boolean
+	 */
+	public boolean isStronglyConnected(Vertex<E,T> v1, Vertex<E,T> v2){
+		return componentOf[indexOf(v1)] == componentOf[indexOf(v2)];
+	}
+
+	/**
+	 * Get the vertices of the graph when the reachability was computed
+	 * @return Array of vertices
+	 */
+	protected Vertex<E,T>[] vertices_array(){
+		return vertices;
+	}
+}
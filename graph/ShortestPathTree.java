@@ -0,0 +1,142 @@
+package graph;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+public class ShortestPathTree <E,T> {
+
+	// Starting vertex of the tree
+	private final Vertex<E,T> source;
+
+	// Dijkstra options, indexed by vertex index
+	private final double dijkstra_value[];
+	private final Edge<E,T> dijkstra_edge[];
+
+	// Maps a vertex unique id to its index, null if the unique id is already the index
+	private final int indexOfID[];
+
+	// Dijkstra options kept by the query that created this tree, null if the arrays above are used
+	private final TraversalContext<E,T> context;
+
+	/**
+	 * Constructor
+	 * @param source Starting vertex
+	 * @param dijkstra_value Accumulated edge weight for each vertex index
+	 * @param dijkstra_edge Edge that connects each vertex index to its parent
+	 * @param indexOfID Unique id to index map, or null if ids are used as indices
+	 */
+	protected ShortestPathTree(Vertex<E,T> source, double[] dijkstra_value, Edge<E,T>[] dijkstra_edge, int[] indexOfID) {
+		this.source = source;
+		this.dijkstra_value = dijkstra_value;
+		this.dijkstra_edge = dijkstra_edge;
+		this.indexOfID = indexOfID;
+		this.context = null;
+	}
+
+	/**
+	 * Constructor
+	 * @param source Starting vertex
+	 * @param context Context of the finished query, must not be reused by another query
+	 */
+	protected ShortestPathTree(Vertex<E,T> source, TraversalContext<E,T> context) {
+		this.source = source;
+		this.dijkstra_value = null;
+		this.dijkstra_edge = null;
+		this.indexOfID = null;
+		this.context = context;
+	}
+
+	/**
+	 * Get the starting vertex
+	 * @return source
+	 */
+	public Vertex<E,T> getSource() {
+		return source;
+	}
+
+	/**
+	 * Get the accumulated edge weight when arriving to a vertex
+	 * @param v
+	 * @return accumulated value of the vertex, Double.MAX_VALUE if the vertex is unreachable
+	 */
+	public double getDijkstra_value(Vertex<E,T> v) {
+		if(context != null)
+			return context.getDijkstra_value(v);
+		int index = indexOf(v);
+		return index == -1 ? Double.MAX_VALUE : dijkstra_value[index];
+	}
+
+	/**
+	 * Get the edge that connects a vertex to its parent
+	 * @param v
+	 * @return edge | null
+	 */
+	public Edge<E,T> getDijkstra_edge(Vertex<E,T> v) {
+		if(context != null)
+			return context.getDijkstra_edge(v);
+		int index = indexOf(v);
+		return index == -1 ? null : dijkstra_edge[index];
+	}
+
+	/**
+	 * Get the parent of a vertex
+	 * @param v
+	 * @return parent of the vertex, the source for the source itself, null if the vertex is unreachable
+	 */
+	public Vertex<E,T> getDijkstra_parent(Vertex<E,T> v) {
+		if(v == source)
+			return source;
+		Edge<E,T> edge = getDijkstra_edge(v);
+		return edge == null ? null : edge.getOpposite(v);
+	}
+
+	/**
+	 * Checks if a vertex can be reached from the source
+	 * @param v
+	 * @return boolean
+	 */
+	public boolean hasPathTo(Vertex<E,T> v) {
+		return v == source || getDijkstra_edge(v) != null;
+	}
+
+	/**
+	 * Get the shortest path from the source to a vertex
+	 * @param vTo
+	 * @return Array of shortest edges to go from the source to vTo, empty if vTo is unreachable
+	 */
+	public Edge<E,T>[] getPath(Vertex<E,T> vTo) {
+
+		// Count the edges in backward direction
+		int size = 0;
+		Vertex<E,T> current = vTo;
+		Edge<E,T> edge;
+		while(current != source && (edge = getDijkstra_edge(current)) != null){
+			size++;
+			current = edge.getOpposite(current);
+		}
+
+		// Store path, in the correct direction, in an array
+		Edge<E,T>[] edges = Edge.newArray(size);
+		current = vTo;
+		while(size > 0){
+			edges[--size] = getDijkstra_edge(current);
+			current = edges[size].getOpposite(current);
+		}
+		return edges;
+	}
+
+	/**
+	 * Get the index of a vertex in the Dijkstra arrays
+	 * @param v
+	 * @return index or -1 if the vertex is not covered by this tree
+	 */
+	private int indexOf(Vertex<E,T> v) {
+		int id = v.getID();
+		if(indexOfID == null)
+			return id < dijkstra_value.length ? id : -1;
+		return id < indexOfID.length ? indexOfID[id] : -1;
+	}
+}
@@ -0,0 +1,394 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class SpanningForest <E,T> {
+
+	private final AdjacencySlab<E,T> slab;
+
+	// Component label of each vertex unique id, and number of vertices of each label
+	private int component[] = new int[16];
+	private int size[] = new int[16];
+	private int labels;
+
+	// Labels of the components that were merged or removed, given again to new components
+	private int free[] = new int[16];
+	private int freeCount;
+
+	// Number of components
+	private int count;
+
+	// Edge unique ids of the edges of the spanning forest, the other edges join vertices already joined by the forest
+	private final BitSet tree = new BitSet();
+
+	// Search marks of each vertex unique id. A search from one side of a removed edge marks 2 * search, the other side 2 * search + 1
+	private int mark[] = new int[16];
+	private int search;
+
+	// Vertices reached by each side of the current search
+	private final Side left = new Side(), right = new Side();
+
+	// True if the forest must be built before it is used
+	private boolean stale = true;
+
+	/**
+	 * Constructor
+	 * @param slab Slab storing the vertices and edges of the graph
+	 */
+	protected SpanningForest(AdjacencySlab<E,T> slab) {
+		this.slab = slab;
+	}
+
+	/**
+	 * Give a new vertex a component of its own
+	 * @param vertex
+	 */
+	protected void addVertex(Vertex<E,T> vertex){
+		if(stale)
+			return;
+		ensureVertex(vertex.getID());
+		component[vertex.getID()] = newLabel(1);
+		count++;
+	}
+
+	/**
+	 * Drop the component of a removed vertex, its edges are removed before it
+	 * @param vertex
+	 */
+	protected void removeVertex(Vertex<E,T> vertex){
+		if(stale)
+			return;
+		freeLabel(component[vertex.getID()]);
+		count--;
+	}
+
+	/**
+	 * Add an edge to the forest if it joins two components, the smaller component is relabeled
+	 * O(1) if the vertices are already joined, otherwise O(volume of the smaller component)
+	 * @param edge
+	 */
+	protected void addEdge(Edge<E,T> edge){
+		if(stale)
+			return;
+		Vertex<E,T> v1 = edge.getV1(), v2 = edge.getV2();
+		int label1 = component[v1.getID()], label2 = component[v2.getID()];
+		if(label1 == label2)
+			return;
+		Vertex<E,T> from = size[label1] < size[label2] ? v1 : v2;
+		int label = size[label1] < size[label2] ? label2 : label1;
+		int old = component[from.getID()];
+		size[label] += size[old];
+		freeLabel(old);
+		relabel(from, label);
+		tree.set(edge.getID());
+		count--;
+	}
+
+	/**
+	 * Remove an edge that was removed from the graph
+	 * O(1) if the edge is not in the forest. Otherwise both sides of the edge are searched through the forest one edge at a time, and the search
+	 * stops when the smaller side is done: the component is split unless an edge leaving the smaller side replaces the removed one
+	 * @param edge
+	 */
+	protected void removeEdge(Edge<E,T> edge){
+		if(stale || !tree.get(edge.getID()))
+			return;
+		tree.clear(edge.getID());
+		Vertex<E,T> v1 = edge.getV1(), v2 = edge.getV2();
+		ensureMarks();
+		left.start(v1, 2 * search);
+		right.start(v2, 2 * search + 1);
+		search++;
+
+		// Step both sides in turn until an edge joins them or one side is done
+		Edge<E,T> replacement = null;
+		Side done = null;
+		while(replacement == null && done == null){
+			replacement = left.step(right.stamp);
+			if(left.isDone())
+				done = left;
+			else if(replacement == null){
+				replacement = right.step(left.stamp);
+				if(right.isDone())
+					done = right;
+			}
+		}
+
+		// An edge from the smaller side to a vertex out of it reaches the other side
+		if(replacement == null)
+			replacement = done.findExit();
+		if(replacement != null){
+			tree.set(replacement.getID());
+		}else{
+			int label = newLabel(done.tail);
+			size[component[v1.getID()]] -= done.tail;
+			for(int i = 0; i < done.tail; i++)
+				component[done.queue[i].getID()] = label;
+			count++;
+		}
+		left.clear();
+		right.clear();
+	}
+
+	/**
+	 * Number of components
+	 * @return count
+	 */
+	protected int count(){
+		return count;
+	}
+
+	/**
+	 * Checks if two vertices are in the same component
+	 * @param v1
+	 * @param v2
+	 * @return boolean
+	 */
+	protected boolean sameComponent(Vertex<E,T> v1, Vertex<E,T> v2){
+		return component[v1.getID()] == component[v2.getID()];
+	}
+
+	/**
+	 * Checks if the forest must be built before it is used
+	 * @return boolean
+	 */
+	protected boolean isStale(){
+		return stale;
+	}
+
+	/**
+	 * Build the forest from the BFS trees of the graph, following the edges in both directions
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 */
+	protected void build(int vertexCapacity){
+		component = new int[Math.max(vertexCapacity, 16)];
+		mark = new int[component.length];
+		size = new int[16];
+		labels = 0;
+		freeCount = 0;
+		count = 0;
+		search = 0;
+		tree.clear();
+		stale = false;
+		Side side = left;
+		NodeIterator<Vertex<E,T>> iterV = slab.vertices();
+		while(iterV.hasNext()){
+			Vertex<E,T> vertex = iterV.next();
+			if(mark[vertex.getID()] != 0)
+				continue;
+
+			// Search with stamp 1, so the edges reaching a vertex for the first time become tree edges
+			side.start(vertex, 1);
+			while(!side.isDone())
+				side.step(-1);
+			int label = newLabel(side.tail);
+			for(int i = 0; i < side.tail; i++)
+				component[side.queue[i].getID()] = label;
+			count++;
+		}
+		Arrays.fill(mark, 0);
+		search = 1;
+		side.clear();
+	}
+
+	/**
+	 * Mark the forest to be built before it is used
+	 */
+	protected void setStale(){
+		stale = true;
+	}
+
+	/**
+	 * Give the vertices reached from a vertex through the forest a new label
+	 * @param vertex
+	 * @param label
+	 */
+	private void relabel(Vertex<E,T> vertex, int label){
+		ensureMarks();
+		Side side = left;
+		side.start(vertex, 2 * search);
+		while(!side.isDone())
+			side.step(-1);
+		for(int i = 0; i < side.tail; i++)
+			component[side.queue[i].getID()] = label;
+		side.clear();
+		search++;
+	}
+
+	/**
+	 * Create a component label
+	 * @param vertices Number of vertices of the component
+	 * @return label
+	 */
+	private int newLabel(int vertices){
+		int label;
+		if(freeCount > 0){
+			label = free[--freeCount];
+		}else{
+			if(labels == size.length)
+				size = Arrays.copyOf(size, labels * 2);
+			label = labels++;
+		}
+		size[label] = vertices;
+		return label;
+	}
+
+	/**
+	 * Give back the label of a component that no longer exists
+	 * @param label
+	 */
+	private void freeLabel(int label){
+		size[label] = 0;
+		if(freeCount == free.length)
+			free = Arrays.copyOf(free, freeCount * 2);
+		free[freeCount++] = label;
+	}
+
+	/**
+	 * Make room for a vertex unique id
+	 * @param id
+	 */
+	private void ensureVertex(int id){
+		if(id >= component.length){
+			int capacity = Math.max(id + 1, component.length * 2);
+			component = Arrays.copyOf(component, capacity);
+			mark = Arrays.copyOf(mark, capacity);
+		}
+	}
+
+	/**
+	 * Clear the marks when the search stamps are about to overflow
+	 */
+	private void ensureMarks(){
+		if(search >= Integer.MAX_VALUE / 2 - 1){
+			Arrays.fill(mark, 0);
+			search = 1;
+		}
+	}
+
+	/**
+	 * Vertices reached from one vertex through the forest, searched one edge at a time
+	 */
+	private class Side {
+
+		// Vertices reached, the ones from head on still have edges to scan
+		private Vertex<E,T> queue[] = Vertex.newArray(16);
+		private int head, tail;
+
+		// Vertex whose edges are being scanned, position of its next edge and true once its out edges are over
+		private Vertex<E,T> current;
+		private int position;
+		private boolean in;
+
+		// Mark of the vertices reached
+		private int stamp;
+
+		/**
+		 * Start a search from a vertex
+		 * @param vertex
+		 * @param stamp
+		 */
+		private void start(Vertex<E,T> vertex, int stamp){
+			clear();
+			this.stamp = stamp;
+			mark[vertex.getID()] = stamp;
+			queue[tail++] = vertex;
+		}
+
+		/**
+		 * Drop the vertices reached
+		 */
+		private void clear(){
+			Arrays.fill(queue, 0, tail, null);
+			head = tail = 0;
+			current = null;
+		}
+
+		/**
+		 * Checks if all the vertices reached have been scanned
+		 * @return boolean
+		 */
+		private boolean isDone(){
+			return current == null && head == tail;
+		}
+
+		/**
+		 * Scan one edge. A tree edge reaches a vertex of this side, and an edge to a vertex marked by the other side joins both sides
+		 * With a stamp of 1, used to build the forest, an edge reaching a vertex for the first time becomes a tree edge
+		 * @param other Mark of the other side, -1 if there is none
+		 * @return edge joining both sides | null
+		 */
+		private Edge<E,T> step(int other){
+			Edge<E,T> edge = nextEdge();
+			if(edge == null)
+				return null;
+			Vertex<E,T> opposite = edge.getOpposite(current);
+			int id = opposite.getID();
+			if(stamp == 1 && mark[id] != 1){
+				tree.set(edge.getID());
+			}else if(!tree.get(edge.getID())){
+				return mark[id] == other ? edge : null;
+			}
+			if(mark[id] != stamp){
+				mark[id] = stamp;
+				if(tail == queue.length)
+					queue = Arrays.copyOf(queue, tail * 2);
+				queue[tail++] = opposite;
+			}
+			return null;
+		}
+
+		/**
+		 * Get the next edge to scan, moving to the next vertex when the edges of the current one are over
+		 * @return edge | null if the current vertex is done
+		 */
+		private Edge<E,T> nextEdge(){
+			if(current == null){
+				if(head == tail)
+					return null;
+				current = queue[head++];
+				position = slab.firstOutEdge(current.getSlot());
+				in = false;
+			}
+			while(position == AdjacencySlab.NONE){
+				if(in || slab.isShared()){
+					current = null;
+					return null;
+				}
+				position = slab.firstInEdge(current.getSlot());
+				in = true;
+			}
+			Edge<E,T> edge = slab.getEdge(position);
+			position = in ? slab.nextInEdge(position) : slab.nextOutEdge(position);
+			return edge;
+		}
+
+		/**
+		 * Find an edge from a vertex reached to a vertex that was not reached
+		 * @return edge | null
+		 */
+		private Edge<E,T> findExit(){
+			for(int i = 0; i < tail; i++){
+				Vertex<E,T> vertex = queue[i];
+				int slot = vertex.getSlot();
+				for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e))
+					if(mark[slab.getEdge(e).getOpposite(vertex).getID()] != stamp)
+						return slab.getEdge(e);
+				if(!slab.isShared())
+					for(int e = slab.firstInEdge(slot); e != AdjacencySlab.NONE; e = slab.nextInEdge(e))
+						if(mark[slab.getEdge(e).getOpposite(vertex).getID()] != stamp)
+							return slab.getEdge(e);
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package graph;
+
+import graph.doublyLinkedList.NodeIterator;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class TopologicalOrder <E,T> {
+
+	private final AdjacencySlab<E,T> slab;
+
+	// Position of each vertex unique id in the order, and vertex at each position, null if the vertex was removed
+	private int position[] = new int[16];
+	private Vertex<E,T> order[] = Vertex.newArray(16);
+	private int size, removed;
+
+	// Search marks of each vertex unique id. A search for an edge marks the vertices after its 'to' vertex with 2 * search,
+	// and the vertices before its 'from' vertex with 2 * search + 1
+	private int mark[] = new int[16];
+	private int search = 1;
+
+	// Vertices reached by the forward and backward searches, and positions they are moved to
+	private Vertex<E,T> forward[] = Vertex.newArray(16), backward[] = Vertex.newArray(16);
+	private int forwardSize, backwardSize;
+	private int positions[] = new int[16];
+
+	// True if the order must be built before it is used
+	private boolean stale = true;
+
+	/**
+	 * Constructor
+	 * @param slab Slab storing the vertices and edges of the graph
+	 */
+	protected TopologicalOrder(AdjacencySlab<E,T> slab) {
+		this.slab = slab;
+	}
+
+	/**
+	 * Put a new vertex at the end of the order
+	 * @param vertex
+	 */
+	protected void addVertex(Vertex<E,T> vertex){
+		if(stale)
+			return;
+		int id = vertex.getID();
+		if(id >= position.length){
+			int capacity = Math.max(id + 1, position.length * 2);
+			position = Arrays.copyOf(position, capacity);
+			mark = Arrays.copyOf(mark, capacity);
+		}
+		if(size == order.length)
+			order = Arrays.copyOf(order, size * 2);
+		position[id] = size;
+		order[size++] = vertex;
+	}
+
+	/**
+	 * Remove a vertex from the order, the order is compacted when half of it is removed vertices
+	 * @param vertex
+	 */
+	protected void removeVertex(Vertex<E,T> vertex){
+		if(stale)
+			return;
+		order[position[vertex.getID()]] = null;
+		if(++removed * 2 > size){
+			int next = 0;
+			for(int i = 0; i < size; i++){
+				if(order[i] != null){
+					position[order[i].getID()] = next;
+					order[next++] = order[i];
+				}
+			}
+			Arrays.fill(order, next, size, null);
+			size = next;
+			removed = 0;
+		}
+	}
+
+	/**
+	 * Make room for an edge in the order (Pearce-Kelly)
+	 * Nothing is done if 'from' is already before 'to'. Otherwise the vertices reachable from 'to' that are before 'from' and the vertices reaching 'from'
+	 * that are after 'to' are searched, then moved so the second ones come first, using only the positions they had.
+	 * O(edges of the affected vertices + affected vertices log affected vertices)
+	 * @param from
+	 * @param to
+	 * @return false if the edge would create a cycle, the order is then unchanged
+	 */
+	protected boolean addEdge(Vertex<E,T> from, Vertex<E,T> to){
+		if(from == to)
+			return false;
+		int lower = position[to.getID()], upper = position[from.getID()];
+		if(lower > upper)
+			return true;
+		if(search >= Integer.MAX_VALUE / 2 - 1){
+			Arrays.fill(mark, 0);
+			search = 1;
+		}
+		int forwardMark = 2 * search, backwardMark = 2 * search + 1;
+		search++;
+
+		// Vertices reachable from 'to' before 'from', a cycle if 'from' is one of them
+		forwardSize = 0;
+		forward = push(forward, forwardSize++, to);
+		mark[to.getID()] = forwardMark;
+		for(int i = 0; i < forwardSize; i++){
+			int slot = forward[i].getSlot();
+			for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e)){
+				Vertex<E,T> next = slab.getEdge(e).getV2();
+				if(next == from){
+					Arrays.fill(forward, 0, forwardSize, null);
+					return false;
+				}
+				if(mark[next.getID()] != forwardMark && position[next.getID()] < upper){
+					mark[next.getID()] = forwardMark;
+					forward = push(forward, forwardSize++, next);
+				}
+			}
+		}
+
+		// Vertices reaching 'from' after 'to'
+		backwardSize = 0;
+		backward = push(backward, backwardSize++, from);
+		mark[from.getID()] = backwardMark;
+		for(int i = 0; i < backwardSize; i++){
+			int slot = backward[i].getSlot();
+			for(int e = slab.firstInEdge(slot); e != AdjacencySlab.NONE; e = slab.nextInEdge(e)){
+				Vertex<E,T> previous = slab.getEdge(e).getV1();
+				if(mark[previous.getID()] != backwardMark && position[previous.getID()] > lower){
+					mark[previous.getID()] = backwardMark;
+					backward = push(backward, backwardSize++, previous);
+				}
+			}
+		}
+		reorder();
+		return true;
+	}
+
+	/**
+	 * Give the positions of the vertices found by both searches to the backward ones then to the forward ones, each keeping their relative order
+	 */
+	private void reorder(){
+		int total = forwardSize + backwardSize;
+		if(positions.length < total)
+			positions = new int[Math.max(total, positions.length * 2)];
+		sortByPosition(backward, backwardSize);
+		sortByPosition(forward, forwardSize);
+		for(int i = 0; i < backwardSize; i++)
+			positions[i] = position[backward[i].getID()];
+		for(int i = 0; i < forwardSize; i++)
+			positions[backwardSize + i] = position[forward[i].getID()];
+		Arrays.sort(positions, 0, total);
+		for(int i = 0; i < total; i++){
+			Vertex<E,T> vertex = i < backwardSize ? backward[i] : forward[i - backwardSize];
+			position[vertex.getID()] = positions[i];
+			order[positions[i]] = vertex;
+		}
+		Arrays.fill(forward, 0, forwardSize, null);
+		Arrays.fill(backward, 0, backwardSize, null);
+	}
+
+	/**
+	 * Sort vertices by their position in the order
+	 * The positions are sorted, then each vertex is read back from the order
+	 * @param vertices
+	 * @param length
+	 */
+	private void sortByPosition(Vertex<E,T> vertices[], int length){
+		if(positions.length < length)
+			positions = new int[Math.max(length, positions.length * 2)];
+		for(int i = 0; i < length; i++)
+			positions[i] = position[vertices[i].getID()];
+		Arrays.sort(positions, 0, length);
+		for(int i = 0; i < length; i++)
+			vertices[i] = order[positions[i]];
+	}
+
+	/**
+	 * Get the vertices in topological order
+	 * @return Array of vertices
+	 */
+	protected Vertex<E,T>[] toArray(){
+		Vertex<E,T> vertices[] = Vertex.newArray(size - removed);
+		int index = 0;
+		for(int i = 0; i < size; i++)
+			if(order[i] != null)
+				vertices[index++] = order[i];
+		return vertices;
+	}
+
+	/**
+	 * Checks if the order must be built before it is used
+	 * @return boolean
+	 */
+	protected boolean isStale(){
+		return stale;
+	}
+
+	/**
+	 * Build the order by removing the vertices without in edges one after the other (Kahn)
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 * @throws IllegalStateException if the graph is cyclic, the order stays stale
+	 */
+	protected void build(int vertexCapacity){
+		int capacity = Math.max(vertexCapacity, 16);
+		int inDegree[] = new int[capacity];
+		Vertex<E,T> sorted[] = Vertex.newArray(Math.max(slab.vertexCount(), 16));
+		int sortedSize = 0;
+		NodeIterator<Vertex<E,T>> iterV = slab.vertices();
+		while(iterV.hasNext()){
+			Vertex<E,T> vertex = iterV.next();
+			inDegree[vertex.getID()] = slab.inDegree(vertex.getSlot());
+			if(inDegree[vertex.getID()] == 0)
+				sorted[sortedSize++] = vertex;
+		}
+		for(int i = 0; i < sortedSize; i++){
+			int slot = sorted[i].getSlot();
+			for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e)){
+				Vertex<E,T> next = slab.getEdge(e).getV2();
+				if(--inDegree[next.getID()] == 0)
+					sorted[sortedSize++] = next;
+			}
+		}
+		if(sortedSize < slab.vertexCount())
+			throw new IllegalStateException("Graph is cyclic, it has no topological order");
+		position = new int[capacity];
+		mark = new int[capacity];
+		search = 1;
+		order = sorted;
+		size = sortedSize;
+		removed = 0;
+		for(int i = 0; i < size; i++)
+			position[order[i].getID()] = i;
+		stale = false;
+	}
+
+	/**
+	 * Add a vertex to a search, growing the array if needed
+	 * @param vertices
+	 * @param index
+	 * @param vertex
+	 * @return array holding the vertex
+	 */
+	private Vertex<E,T>[] push(Vertex<E,T> vertices[], int index, Vertex<E,T> vertex){
+		if(index == vertices.length)
+			vertices = Arrays.copyOf(vertices, index * 2);
+		vertices[index] = vertex;
+		return vertices;
+	}
+}
@@ -0,0 +1,307 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class TraversalContext <E,T> {
+
+	// A vertex or edge entry is only valid if its mark equals the current generation
+	private int generation;
+	private int vertexMark[];
+	private int edgeMark[];
+
+	// Per query state, indexed by vertex unique ids
+	private Vertex<E,T> vertex[];
+	private int vertexStatus[];
+	private int vertexColor[];
+	private int vertexPreOrder[];
+	private double dijkstra_value[];
+	private Edge<E,T> dijkstra_edge[];
+
+	// Per query state, indexed by edge unique ids. Allocated by the first query that classifies edges
+	private int edgeStatus[];
+	private int edgeCapacity;
+
+	// Graph options computed by the query
+	protected boolean isCyclic;
+	protected int connectedComponents;
+
+	// Vertices in the order they were discovered and finished by DFS
+	protected Vertex<E,T> preOrder[];
+	protected Vertex<E,T> postOrder[];
+	protected int preOrderSize, postOrderSize;
+
+	// Explicit DFS stack, reused by all the queries using this context
+	protected Vertex<E,T> stackVertex[];
+	protected int stackCursor[];
+	protected boolean stackParentSeen[];
+	protected int stackSize;
+
+	// Priority queues keyed by vertex unique id, reused by all the queries using this context
+	private IndexedHeap heap;
+	private BucketQueue bucketQueue;
+
+	/**
+	 * Constructor
+	 * @param vertexCapacity
+	 */
+	protected TraversalContext(int vertexCapacity) {
+		vertexMark = new int[vertexCapacity];
+		vertex = Vertex.newArray(vertexCapacity);
+		vertexStatus = new int[vertexCapacity];
+		vertexColor = new int[vertexCapacity];
+		vertexPreOrder = new int[vertexCapacity];
+		dijkstra_value = new double[vertexCapacity];
+		dijkstra_edge = Edge.newArray(vertexCapacity);
+		edgeMark = new int[0];
+		edgeStatus = new int[0];
+		preOrder = Vertex.newArray(0);
+		postOrder = Vertex.newArray(0);
+		stackVertex = Vertex.newArray(0);
+		stackCursor = new int[0];
+		stackParentSeen = new boolean[0];
+	}
+
+	/**
+	 * Start a new query. All vertices become unvisited and all edges undiscovered in O(1)
+	 * @param vertexCapacity Number of vertex unique ids in use
+	 * @param edgeCapacity Number of edge unique ids in use
+	 */
+	protected void reset(int vertexCapacity, int edgeCapacity){
+		isCyclic = false;
+		connectedComponents = 0;
+		preOrderSize = postOrderSize = stackSize = 0;
+		this.edgeCapacity = edgeCapacity;
+
+		// Grow the arrays if the graph grew since the last query
+		if(vertexCapacity > vertexMark.length){
+			int capacity = Math.max(vertexCapacity, vertexMark.length * 2);
+			vertexMark = Arrays.copyOf(vertexMark, capacity);
+			vertex = Arrays.copyOf(vertex, capacity);
+			vertexStatus = Arrays.copyOf(vertexStatus, capacity);
+			vertexColor = Arrays.copyOf(vertexColor, capacity);
+			vertexPreOrder = Arrays.copyOf(vertexPreOrder, capacity);
+			dijkstra_value = Arrays.copyOf(dijkstra_value, capacity);
+			dijkstra_edge = Arrays.copyOf(dijkstra_edge, capacity);
+		}
+
+		// Clear the marks once every 2^32 queries, when the generation wraps around
+		if(++generation == 0){
+			Arrays.fill(vertexMark, 0);
+			Arrays.fill(edgeMark, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * Mark a vertex as touched by the current query, resetting its state
+	 * @param v
+	 */
+	private void touch(Vertex<E,T> v){
+		int id = v.getID();
+		if(vertexMark[id] != generation){
+			vertexMark[id] = generation;
+			vertex[id] = v;
+			vertexStatus[id] = Vertex.UNVISITED;
+			vertexColor[id] = Vertex.UNCOLORED;
+			vertexPreOrder[id] = -1;
+			dijkstra_value[id] = Double.MAX_VALUE;
+			dijkstra_edge[id] = null;
+		}
+	}
+
+	/**
+	 * Checks if a vertex has been touched by the current query
+	 * Vertices added to the graph after the query started are never touched
+	 * @param v
+	 * @return boolean
+	 */
+	private boolean isTouched(Vertex<E,T> v){
+		return v.getID() < vertexMark.length && vertexMark[v.getID()] == generation;
+	}
+
+	/**
+	 * Get a vertex touched by the current query by its unique id
+	 * @param id
+	 * @return vertex
+	 */
+	protected Vertex<E,T> getVertex(int id){
+		return vertex[id];
+	}
+
+	/**
+	 * Get the indexed heap of this context, empty and able to hold all vertex unique ids
+	 * @return heap
+	 */
+	protected IndexedHeap getHeap(){
+		if(heap == null)
+			heap = new IndexedHeap(vertex.length);
+		heap.ensureCapacity(vertex.length);
+		heap.clear();
+		return heap;
+	}
+
+	/**
+	 * Get the bucket queue of this context, empty and able to hold all vertex unique ids
+	 * @return bucket queue
+	 */
+	protected BucketQueue getBucketQueue(){
+		if(bucketQueue == null)
+			bucketQueue = new BucketQueue(vertex.length);
+		bucketQueue.ensureCapacity(vertex.length);
+		bucketQueue.clear();
+		return bucketQueue;
+	}
+
+	/**
+	 * Get vertex status
+	 * @param v
+	 * @return status
+	 */
+	protected int getStatus(Vertex<E,T> v){
+		return isTouched(v) ? vertexStatus[v.getID()] : Vertex.UNVISITED;
+	}
+
+	/**
+	 * Set vertex status
+	 * @param v
+	 * @param status
+	 */
+	protected void setStatus(Vertex<E,T> v, int status){
+		touch(v);
+		vertexStatus[v.getID()] = status;
+	}
+
+	/**
+	 * Get vertex color
+	 * @param v
+	 * @return color
+	 */
+	protected int getColor(Vertex<E,T> v){
+		return isTouched(v) ? vertexColor[v.getID()] : Vertex.UNCOLORED;
+	}
+
+	/**
+	 * Set vertex color
+	 * @param v
+	 * @param color
+	 */
+	protected void setColor(Vertex<E,T> v, int color){
+		touch(v);
+		vertexColor[v.getID()] = color;
+	}
+
+	/**
+	 * Get the position of a vertex in the DFS pre-order
+	 * @param v
+	 * @return position or -1 if the vertex has not been discovered
+	 */
+	protected int getPreOrder(Vertex<E,T> v){
+		return isTouched(v) ? vertexPreOrder[v.getID()] : -1;
+	}
+
+	/**
+	 * Get the accumulated edge weight when arriving to a vertex
+	 * @param v
+	 * @return accumulated value of a vertex
+	 */
+	protected double getDijkstra_value(Vertex<E,T> v){
+		return isTouched(v) ? dijkstra_value[v.getID()] : Double.MAX_VALUE;
+	}
+
+	/**
+	 * Set the Dijkstra value of a vertex
+	 * @param v
+	 * @param value
+	 */
+	protected void setDijkstra_value(Vertex<E,T> v, double value){
+		touch(v);
+		dijkstra_value[v.getID()] = value;
+	}
+
+	/**
+	 * Get the edge that connects a vertex to its parent
+	 * @param v
+	 * @return edge
+	 */
+	protected Edge<E,T> getDijkstra_edge(Vertex<E,T> v){
+		return isTouched(v) ? dijkstra_edge[v.getID()] : null;
+	}
+
+	/**
+	 * Set the edge that connects a vertex to its parent
+	 * @param v
+	 * @param edge
+	 */
+	protected void setDijkstra_edge(Vertex<E,T> v, Edge<E,T> edge){
+		touch(v);
+		dijkstra_edge[v.getID()] = edge;
+	}
+
+	/**
+	 * Get edge status
+	 * @param e
+	 * @return status
+	 */
+	protected int getStatus(Edge<E,T> e){
+		int id = e.getID();
+		return id < edgeMark.length && edgeMark[id] == generation ? edgeStatus[id] : Edge.UNDISCOVERED;
+	}
+
+	/**
+	 * Set edge status
+	 * @param e
+	 * @param status
+	 */
+	protected void setStatus(Edge<E,T> e, int status){
+		if(edgeCapacity > edgeMark.length){
+			int capacity = Math.max(edgeCapacity, edgeMark.length * 2);
+			edgeMark = Arrays.copyOf(edgeMark, capacity);
+			edgeStatus = Arrays.copyOf(edgeStatus, capacity);
+		}
+		edgeMark[e.getID()] = generation;
+		edgeStatus[e.getID()] = status;
+	}
+
+	/**
+	 * Mark a vertex as discovered by DFS and push it on the stack
+	 * @param v
+	 * @param color DFS tree of the vertex
+	 */
+	protected void discover(Vertex<E,T> v, int color){
+		setStatus(v, Vertex.VISITING);
+		vertexColor[v.getID()] = color;
+		vertexPreOrder[v.getID()] = preOrderSize;
+		if(preOrderSize == preOrder.length)
+			preOrder = Arrays.copyOf(preOrder, Math.max(16, preOrderSize * 2));
+		preOrder[preOrderSize++] = v;
+
+		// Push
+		if(stackSize == stackVertex.length){
+			int capacity = Math.max(16, stackSize * 2);
+			stackVertex = Arrays.copyOf(stackVertex, capacity);
+			stackCursor = Arrays.copyOf(stackCursor, capacity);
+			stackParentSeen = Arrays.copyOf(stackParentSeen, capacity);
+		}
+		stackVertex[stackSize] = v;
+		stackCursor[stackSize] = v.firstOutEdge();
+		stackParentSeen[stackSize++] = false;
+	}
+
+	/**
+	 * Pop the vertex on top of the stack and mark it as finished by DFS
+	 */
+	protected void finish(){
+		Vertex<E,T> v = stackVertex[--stackSize];
+		stackVertex[stackSize] = null;
+		setStatus(v, Vertex.VISITED);
+		if(postOrderSize == postOrder.length)
+			postOrder = Arrays.copyOf(postOrder, Math.max(16, postOrderSize * 2));
+		postOrder[postOrderSize++] = v;
+	}
+}
@@ -0,0 +1,120 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+* Graph ADT
+* Coded by Amir El Bawab
+* Date: 22 December 2014
+* License: MIT License ~ Please read License.txt for more information about the usage of this software
+* */
+class UnionFind {
+
+	// Parent and rank of each vertex unique id, a root is its own parent
+	private int parent[];
+	private byte rank[];
+
+	// Number of sets, one per connected component
+	private int count;
+
+	// True if an edge or vertex was removed since the sets were built, the sets are rebuilt before the next query
+	private boolean stale;
+
+	/**
+	 * Constructor
+	 * @param capacity Number of vertex unique ids in use
+	 */
+	protected UnionFind(int capacity) {
+		parent = new int[Math.max(capacity, 16)];
+		rank = new byte[parent.length];
+	}
+
+	/**
+	 * Add a vertex in a set of its own
+	 * @param id Vertex unique id
+	 */
+	protected void add(int id){
+		if(id >= parent.length){
+			int capacity = Math.max(id + 1, parent.length * 2);
+			parent = Arrays.copyOf(parent, capacity);
+			rank = Arrays.copyOf(rank, capacity);
+		}
+		parent[id] = id;
+		rank[id] = 0;
+		count++;
+	}
+
+	/**
+	 * Remove a set, when its only vertex is removed
+	 */
+	protected void remove(){
+		count--;
+	}
+
+	/**
+	 * Get the root of the set of a vertex, and make all the vertices on the way point to it
+	 * @param id Vertex unique id
+	 * @return root
+	 */
+	protected int find(int id){
+		int root = id;
+		while(parent[root] != root)
+			root = parent[root];
+		while(parent[id] != root){
+			int next = parent[id];
+			parent[id] = root;
+			id = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Merge the sets of two vertices, the lower rank root goes under the higher one
+	 * @param id1 Vertex unique id
+	 * @param id2 Vertex unique id
+	 */
+	protected void union(int id1, int id2){
+		int root1 = find(id1), root2 = find(id2);
+		if(root1 == root2)
+			return;
+		if(rank[root1] < rank[root2]){
+			parent[root1] = root2;
+		}else{
+			parent[root2] = root1;
+			if(rank[root1] == rank[root2])
+				rank[root1]++;
+		}
+		count--;
+	}
+
+	/**
+	 * Number of sets
+	 * @return count
+	 */
+	protected int count(){
+		return count;
+	}
+
+	/**
+	 * Drop all the sets, used before rebuilding them
+	 */
+	protected void clear(){
+		count = 0;
+		stale = false;
+	}
+
+	/**
+	 * Checks if the sets must be rebuilt
+	 * @return boolean
+	 */
+	protected boolean isStale(){
+		return stale;
+	}
+
+	/**
+	 * Mark the sets to be rebuilt before the next query
+	 */
+	protected void setStale(){
+		stale = true;
+	}
+}
@@ -1,7 +1,5 @@
 package graph;
 
-import graph.doublyLinkedList.DLLNode;
-import graph.doublyLinkedList.DoublyLinkedList;
 import graph.doublyLinkedList.NodeIterator;
 
 /**
@@ -10,20 +8,20 @@ import graph.doublyLinkedList.NodeIterator;
 * Date: 22 December 2014
 * License: MIT License ~ Please read License.txt for more information about the usage of this software
 * */
-public class Vertex <E,T> implements Comparable<Vertex<E,T>>{
+public class Vertex <E,T> {
 	
 	// Vertex attributes
-	private E data;
-	private DoublyLinkedList<Edge<E,T>> inEdges,outEdges;
-	private DLLNode<Vertex<E,T>> position;
-	private int status;
-	private int color;
 	private final int id;
 	
-	// Dijkstra options
-	private Vertex<E,T> dijkstra_parent;
-	private double dijkstra_value;
-	private Edge<E,T> dijkstra_edge;
+	// Storage holding the edges of this vertex and the slot of this vertex in it, null and -1 once removed
+	private AdjacencySlab<E,T> slab;
+	private int slot = AdjacencySlab.NONE;
+	
+	// Data of the vertex while it is not stored in a slab, the data of a stored vertex is only kept by the slab
+	private E data;
+	
+	// Hash index of the out edges by the vertex they lead to, null if the vertex is not indexed
+	private NeighborIndex<E,T> outIndex;
 	
 	// Status
 	public static final int UNVISITED = 0;
@@ -40,11 +38,7 @@ public class Vertex <E,T> implements Comparable<Vertex<E,T>>{
 	 */
 	protected Vertex(E data, int id) {
 		this.data = data;
-		this.status = UNVISITED;
-		this.color = 0;
 		this.id = id;
-		inEdges = new DoublyLinkedList<Edge<E,T>>();
-		outEdges = new DoublyLinkedList<Edge<E,T>>();
 	}
 	
 	/**
@@ -55,19 +49,27 @@ public class Vertex <E,T> implements Comparable<Vertex<E,T>>{
 		this(data,0);
 	}
 	
+	/**
+	 * Create an array of vertices, the only unchecked cast needed to store vertices in an array
+	 * @param length
+	 * @return array of null vertices
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <E,T> Vertex<E,T>[] newArray(int length){
+		return (Vertex<E,T>[]) new Vertex<?,?>[length];
+	}
+	
 	/**
 	 * Get neighbors of a node
 	 * @return array of the neighbor vertices
 	 */
 	public Vertex<E,T>[] getNeighbors(){
-		Vertex<E,T>[] neighbors = new Vertex[outEdges.size()];
-		NodeIterator<Edge<E,T>> iter = outEdges.iterator();
+		Vertex<E,T>[] neighbors = new Vertex[outDegree()];
+		if(slab == null)
+			return neighbors;
 		int index = 0;
-		Edge<E,T> current = null;
-		while(iter.hasNext()){
-			current = iter.next();
-			neighbors[index++] = current.getOpposite(this);
-		}
+		for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e))
+			neighbors[index++] = slab.getVertex(slab.getOpposite(e, slot));
 		return neighbors;
 	}
 	
@@ -76,7 +78,7 @@ public class Vertex <E,T> implements Comparable<Vertex<E,T>>{
 	 * @return iterator on the out edges
 	 */
 	public NodeIterator<Edge<E,T>> getOutEdges(){
-		return outEdges.iterator();
+		return slab == null ? AdjacencySlab.<E,T>noEdges() : slab.outEdges(slot);
 	}
 	
 	/**
@@ -84,153 +86,144 @@ public class Vertex <E,T> implements Comparable<Vertex<E,T>>{
 	 * @return iterator on the in edges
 	 */
 	public NodeIterator<Edge<E,T>> getInEdges(){
-		return inEdges.iterator();
+		return slab == null ? AdjacencySlab.<E,T>noEdges() : slab.inEdges(slot);
 	}
 	
 	/**
-	 * Store all out edges
-	 * @param e
-	 * @return node where the edge has been stored
+	 * Get the slot of the first out edge, used to walk the out edges with the slab without creating an iterator
+	 * @return edge slot | AdjacencySlab.NONE
 	 */
-	protected DLLNode<Edge<E,T>> addOutEdge(Edge<E,T> e){
-		return outEdges.add(e);
+	protected int firstOutEdge(){
+		return slab.firstOutEdge(slot);
 	}
 	
 	/**
-	 * Store all in edges
+	 * Add an out edge to the hash index, the edge itself is stored by the slab
 	 * @param e
-	 * @return node where the edge has been stored
 	 */
-	protected DLLNode<Edge<E,T>> addInEdge(Edge<E,T> e){
-		return inEdges.add(e);
+	protected void addOutEdge(Edge<E,T> e){
+		if(outIndex != null)
+			outIndex.add(e);
 	}
 	
 	/**
-	 * Remove an in edge
-	 * @param node
+	 * Remove an out edge from the hash index, the edge itself is unlinked by the slab
+	 * @param e
 	 */
-	protected void removeInEdge(DLLNode <Edge<E,T>> node){
-		inEdges.remove(node);
+	protected void removeOutEdge(Edge<E,T> e){
+		if(outIndex != null)
+			outIndex.remove(e);
 	}
 	
 	/**
-	 * Remove an out edge
-	 * @param node
-	 */
-	protected void removeOutEdge(DLLNode <Edge<E,T>> node){
-		outEdges.remove(node);
+	 * Get an out edge leading to a vertex
+	 * Uses the hash index if the vertex has one, otherwise scans the out edges of this vertex or the in edges of v, whichever is shorter
+	 * A shared undirected edge is found from both of its vertices
+	 * @param v
+	 * @return edge | null
+	 */
+	protected Edge<E,T> getOutEdge(Vertex<E,T> v){
+		if(outIndex != null)
+			return outIndex.get(v);
+		if(slab == null || v.slab != slab)
+			return null;
+		if(slab.outDegree(slot) <= slab.inDegree(v.slot)){
+			for(int e = slab.firstOutEdge(slot); e != AdjacencySlab.NONE; e = slab.nextOutEdge(e))
+				if(slab.getOpposite(e, slot) == v.slot)
+					return slab.getEdge(e);
+		}else{
+			for(int e = slab.firstInEdge(v.slot); e != AdjacencySlab.NONE; e = slab.nextInEdge(e))
+				if(slab.getOpposite(e, v.slot) == slot)
+					return slab.getEdge(e);
+		}
+		return null;
 	}
 	
 	/**
-	 * Get data stored in the vertex
-	 * @return data
+	 * Build or drop the hash index of the out edges
+	 * @param indexed
 	 */
-	public E getData() {
-		return data;
+	protected void setOutIndex(boolean indexed){
+		if(!indexed){
+			outIndex = null;
+		}else if(outIndex == null){
+			NeighborIndex<E,T> index = new NeighborIndex<E,T>(this, outDegree());
+			NodeIterator<Edge<E,T>> iterOutE = getOutEdges();
+			while(iterOutE.hasNext())
+				index.add(iterOutE.next());
+			outIndex = index;
+		}
 	}
 	
 	/**
-	 * Get the node that stores this vertex
-	 * @return node
+	 * Checks if the out edges have a hash index
+	 * @return boolean
 	 */
-	protected DLLNode<Vertex<E,T>> getPosition() {
-		return position;
+	protected boolean hasOutIndex(){
+		return outIndex != null;
 	}
 	
 	/**
-	 * Set the node that stores this vertex
-	 * @param position
-	 */
-	protected void setPosition(DLLNode<Vertex<E,T>> position) {
-		this.position = position;
-	}
-
-	/**
-	 * Set the data of this vertex
-	 * @param data
+	 * Get the number of out edges
+	 * @return out degree
 	 */
-	public void setData(E data) {
-		this.data = data;
+	protected int outDegree(){
+		return slab == null ? 0 : slab.outDegree(slot);
 	}
 	
 	/**
-	 * Get vertex status
-	 * @return status
-	 */
-	public int getStatus() {
-		return status;
-	}
-
-	/**
-	 * Set vertex status
-	 * @param status
-	 */
-	protected void setStatus(int status) {
-		this.status = status;
-	}
-
-	/**
-	 * Get vertex color
-	 * @return color
-	 */
-	public int getColor() {
-		return color;
-	}
-
-	/**
-	 * Set vertex color
-	 * @param color
+	 * Get data stored in the vertex
+	 * @return data
 	 */
-	protected void setColor(int color) {
-		this.color = color;
+	public E getData() {
+		return slab == null ? data : slab.getData(slot);
 	}
 	
 	/**
-	 * Get vertex parent after calling Dijkstra method
-	 * @return parent of vertex
+	 * Get the slot storing this vertex in the slab
+	 * @return slot
 	 */
-	public Vertex<E,T> getDijkstra_parent() {
-		return dijkstra_parent;
+	protected int getSlot() {
+		return slot;
 	}
-
-	/**
-	 * Set the parent of a vertex when calling the Dijkstra method
-	 * @param dijkstra_parent
-	 */
-	protected void setDijkstra_parent(Vertex<E,T> dijkstra_parent) {
-		this.dijkstra_parent = dijkstra_parent;
-	}
-
+	
 	/**
-	 * Get the accumulated edge weight when arriving to this vertex
-	 * @return accumulated value of a vertex
+	 * Get the slab storing this vertex
+	 * @return slab | null if the vertex has been removed
 	 */
-	public double getDijkstra_value() {
-		return dijkstra_value;
+	protected AdjacencySlab<E,T> getSlab() {
+		return slab;
 	}
-
+	
 	/**
-	 * Set the Dijkstra value of a vertex
-	 * @param dijkstra_value
+	 * Set the slab and the slot storing this vertex, the slab keeps its data from now on
+	 * @param slab
+	 * @param slot
 	 */
-	protected void setDijkstra_value(double dijkstra_value) {
-		this.dijkstra_value = dijkstra_value;
+	protected void attach(AdjacencySlab<E,T> slab, int slot) {
+		this.slab = slab;
+		this.slot = slot;
+		data = null;
 	}
 	
 	/**
-	 * Get the edge that connects this vertex to its parent
-	 * @return edge
+	 * Keep the data of the vertex before the slab frees its slot
 	 */
-	public Edge<E,T> getDijkstra_edge() {
-		return dijkstra_edge;
+	protected void detach() {
+		data = slab.getData(slot);
+		slab = null;
+		slot = AdjacencySlab.NONE;
 	}
 
 	/**
-	 * Set the edge that connects this vertex to its parent
-	 * @param dijkstra_edge
+	 * Set the data of this vertex
+	 * @param data
 	 */
-	protected void setDijkstra_edge(Edge<E,T> dijkstra_edge) {
-		this.dijkstra_edge = dijkstra_edge;
+	public void setData(E data) {
+		if(slab == null)
+			this.data = data;
+		else
+			slab.setData(slot, data);
 	}
 	
 	/**
@@ -241,23 +234,10 @@ public class Vertex <E,T> implements Comparable<Vertex<E,T>>{
 		return id;
 	}
 	
-	/**
-	 * Compare vertices by Dijkstra value
-	 * @param v
-	 */
-	public int compareTo(Vertex<E,T> v) {
-		if(v.getDijkstra_value() == getDijkstra_value())
-			return 0;
-		else if(v.getDijkstra_value() < getDijkstra_value())
-			return 1;
-		else
-			return -1;
-	}	
-	
 	/**
 	 * Gives data as String
 	 */
 	public String toString(){
-		return String.format("<%s>", data.toString());
+		return String.format("<%s>", getData().toString());
 	}
 }
@@ -2,6 +2,8 @@ package graph.doublyLinkedList;
 
 import graph.doublyLinkedList.DLLNode;
 
+import java.util.NoSuchElementException;
+
 /**
 * Graph ADT 
 * Coded by Amir El Bawab
@@ -144,10 +146,18 @@ public class DoublyLinkedList <E> {
 		return new NodeIterator<E>() {
 			private DLLNode<E> position = head;
 			
+			// Iterator to continue with once this list is over, null if none
+			private NodeIterator<E> then;
+			
 			/**
 			 * Get next element in the list
 			 */
 			public E next(){
+				if(position == null){
+					if(then == null)
+						throw new NoSuchElementException();
+					return then.next();
+				}
 				DLLNode<E> node = position;
 				position = position.next;
 				return node.getData();
@@ -157,28 +167,27 @@ public class DoublyLinkedList <E> {
 			 * Checks if there's a next node
 			 */
 			public boolean hasNext(){
-				return position != null;
+				return position != null || (then != null && then.hasNext());
 			}
 			
 			/**
-			 * Concatenate two list
+			 * Continue with the elements of another iterator once this list is over, nothing is copied
 			 * @param secondIter
-			 * @return new list
+			 * @return this iterator
 			 */
 			public NodeIterator<E> concatenate(NodeIterator<E> secondIter){
-				DoublyLinkedList<E> newList = new DoublyLinkedList<E>();
-				while(this.hasNext())
-					newList.add(this.next());
-				while(secondIter.hasNext())
-					newList.add(secondIter.next());
-				return newList.iterator();
+				if(then == null)
+					then = secondIter;
+				else
+					then = then.concatenate(secondIter);
+				return this;
 			}
 			
 			/**
 			 * Get size of iterator
 			 */
 			public int size(){
-				return DoublyLinkedList.this.size();
+				return then == null ? DoublyLinkedList.this.size() : DoublyLinkedList.this.size() + then.size();
 			}
 			
 			/**
@@ -1,14 +1,24 @@
 package graph.doublyLinkedList;
 
+import java.util.Iterator;
+
 /**
 * Graph ADT 
 * Coded by Amir El Bawab
 * Date: 22 December 2014
 * License: MIT License ~ Please read License.txt for more information about the usage of this software
 * */
-public interface NodeIterator <E> {
+public interface NodeIterator <E> extends Iterator<E>, Iterable<E> {
 	public E next();
 	public boolean hasNext();
 	public NodeIterator<E> concatenate(NodeIterator<E> secondIter);
 	public int size();
+	
+	/**
+	 * The iterator itself, so it can be used once in a for-each loop
+	 * @return this iterator
+	 */
+	public default Iterator<E> iterator(){
+		return this;
+	}
 }